@@ -2,6 +2,7 @@ plugins {
     id("org.springframework.boot") version "3.5.0"
     id("io.spring.dependency-management") version "1.1.6"
     id("java")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.mindshift"
@@ -78,6 +79,15 @@ dependencies {
     testImplementation("org.testcontainers:kafka:1.19.3")
 }
 
+// Microbenchmarks: ./gradlew jmh -> build/reports/jmh/results.json
+jmh {
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+}
+
 tasks.withType<Test> {
     useJUnitPlatform()
 }
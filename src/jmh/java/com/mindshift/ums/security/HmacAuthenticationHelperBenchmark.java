@@ -0,0 +1,49 @@
+package com.mindshift.ums.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HMAC-SHA256 request signing and verification for a typical send request body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HmacAuthenticationHelperBenchmark {
+
+    private static final String METHOD = "POST";
+    private static final String URI = "/v1/messages";
+    private static final String API_SECRET = "test-api-secret-0123456789abcdef";
+    private static final String BODY = """
+        {"channel":"SMS","templateCode":"order_shipped","to":{"phone":"+821012345678"},\
+        "variables":{"username":"김철수","orderId":"ORD-20250923-0001"},"locale":"ko-KR"}""";
+
+    private HmacAuthenticationHelper hmacHelper;
+    private long timestamp;
+    private String signature;
+
+    @Setup
+    public void setUp() {
+        hmacHelper = new HmacAuthenticationHelper();
+        timestamp = Instant.now().getEpochSecond();
+        signature = hmacHelper.generateSignature(METHOD, URI, BODY, timestamp, API_SECRET);
+    }
+
+    @Benchmark
+    public String generateSignature() {
+        return hmacHelper.generateSignature(METHOD, URI, BODY, timestamp, API_SECRET);
+    }
+
+    @Benchmark
+    public boolean validateSignature() {
+        return hmacHelper.validateSignature(METHOD, URI, BODY, timestamp, signature, API_SECRET);
+    }
+}
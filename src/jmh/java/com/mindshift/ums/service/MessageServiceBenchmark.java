@@ -0,0 +1,84 @@
+package com.mindshift.ums.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindshift.ums.api.dto.SendMessageDto;
+import com.mindshift.ums.domain.entity.Message;
+import com.mindshift.ums.domain.entity.Template;
+import com.mindshift.ums.domain.entity.TenantConfig;
+import com.mindshift.ums.domain.enums.ChannelType;
+import com.mindshift.ums.domain.enums.MessagePriority;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Message entity construction and the JSON encoding of its jsonb columns,
+ * as done for every accepted message before it is written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageServiceBenchmark {
+
+    private MessageService messageService;
+    private ObjectMapper objectMapper;
+
+    private SendMessageDto.SendMessageRequest request;
+    private TenantConfig tenant;
+    private Template template;
+    private Map<String, String> renderedContent;
+
+    @Setup
+    public void setUp() {
+        messageService = new MessageService(null, null, null, null, null, null, null, null, null, null, null);
+        objectMapper = new ObjectMapper();
+
+        SendMessageDto.RecipientDto recipient = new SendMessageDto.RecipientDto();
+        recipient.setPhone("+821012345678");
+
+        SendMessageDto.RoutingDto routing = new SendMessageDto.RoutingDto();
+        routing.setPriority(MessagePriority.HIGH);
+        routing.setTtlSeconds(3600);
+        routing.setFallback(List.of(ChannelType.KAKAO_ALIMTALK));
+
+        request = new SendMessageDto.SendMessageRequest();
+        request.setChannel(ChannelType.SMS);
+        request.setTemplateCode("order_shipped");
+        request.setLocale("ko-KR");
+        request.setTo(recipient);
+        request.setRouting(routing);
+        request.setMeta(Map.of("campaignId", "cmp_2025_09", "source", "order-service"));
+
+        tenant = new TenantConfig("tenant1", "Test Tenant", "test-api-key", "test-secret");
+
+        template = new Template("order_shipped", ChannelType.SMS, "ko", null, "{{username}}님, 상품이 발송되었습니다");
+        template.setId(1L);
+
+        renderedContent = Map.of("body", "김철수님, 상품이 발송되었습니다");
+    }
+
+    @Benchmark
+    public Message createMessage() {
+        return messageService.createMessage(request, "req_0123456789abcdef", tenant, template,
+            renderedContent, "idem-key-1");
+    }
+
+    @Benchmark
+    public void createMessageWithJsonColumns(Blackhole blackhole) throws Exception {
+        Message message = messageService.createMessage(request, "req_0123456789abcdef", tenant, template,
+            renderedContent, "idem-key-1");
+
+        blackhole.consume(objectMapper.writeValueAsString(message.getToJson()));
+        blackhole.consume(objectMapper.writeValueAsString(message.getRouting()));
+        blackhole.consume(objectMapper.writeValueAsString(message.getMeta()));
+    }
+}
@@ -0,0 +1,57 @@
+package com.mindshift.ums.service;
+
+import com.mindshift.ums.domain.entity.Template;
+import com.mindshift.ums.domain.enums.ChannelType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Template validation and rendering with a warm compiled-template cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TemplateServiceBenchmark {
+
+    private TemplateService templateService;
+    private Template template;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setUp() {
+        templateService = new TemplateService(null, 1000);
+
+        template = new Template("order_shipped", ChannelType.SMS, "ko",
+            "{{username}}님, 주문하신 상품이 발송되었습니다",
+            "{{username}}님, 주문번호 {{orderId}}의 상품이 {{carrier}}을(를) 통해 발송되었습니다. 송장번호: {{trackingNo}}");
+        template.setId(1L);
+        template.setVersion(1);
+        template.setUpdatedAt(LocalDateTime.of(2025, 9, 23, 6, 0));
+
+        variables = Map.of(
+            "username", "김철수",
+            "orderId", "ORD-20250923-0001",
+            "carrier", "CJ대한통운",
+            "trackingNo", "123456789012"
+        );
+    }
+
+    @Benchmark
+    public Map<String, String> renderTemplate() {
+        return templateService.renderTemplate(template, variables);
+    }
+
+    @Benchmark
+    public void validateTemplate() {
+        templateService.validateTemplate(template, variables);
+    }
+}
@@ -0,0 +1,47 @@
+package com.mindshift.ums.service;
+
+import com.mindshift.ums.api.dto.SendMessageDto;
+import com.mindshift.ums.domain.enums.ChannelType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recipient validation for each channel (no Redis or database involved).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidationServiceBenchmark {
+
+    private ValidationService validationService;
+    private SendMessageDto.RecipientDto smsRecipient;
+    private SendMessageDto.RecipientDto emailRecipient;
+
+    @Setup
+    public void setUp() {
+        validationService = new ValidationService(null, null);
+
+        smsRecipient = new SendMessageDto.RecipientDto();
+        smsRecipient.setPhone("+821012345678");
+
+        emailRecipient = new SendMessageDto.RecipientDto();
+        emailRecipient.setEmail("customer@example.com");
+    }
+
+    @Benchmark
+    public void validateSmsRecipient() {
+        validationService.validateRecipient(smsRecipient, ChannelType.SMS);
+    }
+
+    @Benchmark
+    public void validateEmailRecipient() {
+        validationService.validateRecipient(emailRecipient, ChannelType.EMAIL);
+    }
+}
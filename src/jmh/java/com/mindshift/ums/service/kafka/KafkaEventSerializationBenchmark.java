@@ -0,0 +1,107 @@
+package com.mindshift.ums.service.kafka;
+
+import com.mindshift.ums.event.MessageRequestedEvent;
+import com.mindshift.ums.event.UmsEventCodec;
+import com.mindshift.ums.event.UmsEventDeserializer;
+import com.mindshift.ums.event.UmsEventSerializer;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Building and (de)serializing the message requested event per wire format:
+ * {@code legacy} is the Spring JSON serializers on a map, as before typed events;
+ * {@code json} and {@code binary} are the formats of {@link UmsEventSerializer}.
+ * The serialized size of each format is reported as the {@code bytesPerEvent}
+ * secondary result of {@link #buildAndSerialize}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KafkaEventSerializationBenchmark {
+
+    private static final String TOPIC = "ums.message.requested.v1";
+
+    @Param({"legacy", "json", "binary"})
+    private String format;
+
+    private KafkaProducerService kafkaProducerService;
+    private Serializer<?> serializer;
+    private Deserializer<?> deserializer;
+    private Function<MessageRequestedEvent, byte[]> serialize;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() {
+        kafkaProducerService = new KafkaProducerService(null);
+
+        if (format.equals("legacy")) {
+            JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+            jsonSerializer.setAddTypeInfo(false);
+            JsonDeserializer<Map> jsonDeserializer = new JsonDeserializer<>(Map.class);
+            jsonDeserializer.setUseTypeHeaders(false);
+            jsonDeserializer.addTrustedPackages("*");
+
+            serializer = jsonSerializer;
+            deserializer = jsonDeserializer;
+            serialize = event -> jsonSerializer.serialize(TOPIC, UmsEventCodec.toLegacyMap(event));
+        } else {
+            UmsEventSerializer eventSerializer = new UmsEventSerializer();
+            eventSerializer.configure(Map.of(UmsEventSerializer.FORMAT_CONFIG, format), false);
+
+            serializer = eventSerializer;
+            deserializer = new UmsEventDeserializer();
+            serialize = event -> eventSerializer.serialize(TOPIC, event);
+        }
+
+        serialized = serialize.apply(buildEvent());
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] buildAndSerialize(PayloadSize payloadSize) {
+        byte[] bytes = serialize.apply(buildEvent());
+        payloadSize.bytesPerEvent = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize(TOPIC, serialized);
+    }
+
+    /**
+     * Serialized size of the last event built, published by JMH next to the timing.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long bytesPerEvent;
+    }
+
+    private MessageRequestedEvent buildEvent() {
+        return kafkaProducerService.buildMessageRequestedEvent(
+            "req_0123456789abcdef", "tenant1", "SMS", "order_shipped", "NORMAL", LocalDateTime.now());
+    }
+}
@@ -2,6 +2,8 @@ package com.mindshift.ums.api.controller;
 
 import com.mindshift.ums.api.dto.ErrorDto;
 import com.mindshift.ums.api.dto.SendMessageDto;
+import com.mindshift.ums.domain.enums.ChannelType;
+import com.mindshift.ums.service.MessageExportService;
 import com.mindshift.ums.service.MessageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,9 +14,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -26,10 +32,12 @@ import java.util.Map;
 public class MessageController {
 
     private final MessageService messageService;
+    private final MessageExportService messageExportService;
 
     @Autowired
-    public MessageController(MessageService messageService) {
+    public MessageController(MessageService messageService, MessageExportService messageExportService) {
         this.messageService = messageService;
+        this.messageExportService = messageExportService;
     }
 
     @PostMapping
@@ -82,6 +90,45 @@ public class MessageController {
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
     }
 
+    @PostMapping("/batch")
+    @Operation(
+        summary = "Send a batch of messages",
+        description = "Submit up to thousands of recipients sharing one template in a single request. " +
+            "Each recipient is accepted or rejected individually. Returns 202 Accepted immediately."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "202",
+            description = "Batch accepted for processing",
+            content = @Content(schema = @Schema(implementation = SendMessageDto.BatchAcceptResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request",
+            content = @Content(schema = @Schema(implementation = ErrorDto.ErrorResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Authentication failed",
+            content = @Content(schema = @Schema(implementation = ErrorDto.ErrorResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Rate limit exceeded",
+            content = @Content(schema = @Schema(implementation = ErrorDto.ErrorResponse.class))
+        )
+    })
+    public ResponseEntity<SendMessageDto.BatchAcceptResponse> sendBatch(
+            @Valid @RequestBody SendMessageDto.BatchSendRequest request,
+            @Parameter(description = "Idempotency key for duplicate prevention of the whole batch")
+            @RequestHeader("X-Idempotency-Key") String idempotencyKey,
+            @Parameter(description = "Tenant API key")
+            @RequestHeader("Authorization") String authorization) {
+
+        SendMessageDto.BatchAcceptResponse response = messageService.acceptBatch(request, idempotencyKey, authorization);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
     @GetMapping("/{requestId}")
     @Operation(
         summary = "Get message status",
@@ -116,9 +163,61 @@ public class MessageController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) String status,
+            @Parameter(description = "Only list messages created after this time (ISO date-time); " +
+                                     "limits the scan to the partitions after it")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAfter,
+            @RequestHeader("Authorization") String authorization) {
+
+        Map<String, Object> result = messageService.listMessages(authorization, page, size, status, createdAfter);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/scroll")
+    @Operation(
+        summary = "Scroll messages",
+        description = "List messages for the authenticated tenant, newest first, with a keyset cursor. " +
+                      "Pass the previous page's nextCursor as 'after'; each page costs the same however deep it is."
+    )
+    public ResponseEntity<SendMessageDto.MessageScrollResponse> scrollMessages(
+            @Parameter(description = "Cursor from the previous page")
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Include the planner's estimate of the total number of messages")
+            @RequestParam(defaultValue = "false") boolean estimateCount,
             @RequestHeader("Authorization") String authorization) {
 
-        Map<String, Object> result = messageService.listMessages(authorization, page, size, status);
+        SendMessageDto.MessageScrollResponse result =
+            messageService.scrollMessages(authorization, after, size, status, estimateCount);
         return ResponseEntity.ok(result);
     }
+
+    @GetMapping("/export")
+    @Operation(
+        summary = "Export messages",
+        description = "Stream the authenticated tenant's messages, oldest first, as NDJSON (one object per line) " +
+                      "or CSV. Filters by status, channel and a created-at range."
+    )
+    public ResponseEntity<StreamingResponseBody> exportMessages(
+            @Parameter(description = "ndjson (default) or csv")
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) ChannelType channel,
+            @Parameter(description = "Inclusive start of the created-at range (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Exclusive end of the created-at range (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader("Authorization") String authorization) {
+
+        // Authenticate and validate before the response is committed
+        MessageExportService.Export export =
+            messageExportService.prepareExport(authorization, format, status, channel, from, to);
+
+        String filename = "messages-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+            + "." + export.getFormat().getExtension();
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(export.getFormat().getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+            .body(export::writeTo);
+    }
 }
\ No newline at end of file
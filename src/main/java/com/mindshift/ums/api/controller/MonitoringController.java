@@ -1,8 +1,10 @@
 package com.mindshift.ums.api.controller;
 
+import com.mindshift.ums.domain.enums.ChannelType;
+import com.mindshift.ums.domain.enums.MessageStatus;
 import com.mindshift.ums.metrics.UmsMetrics;
-import com.mindshift.ums.repository.MessageRepository;
 import com.mindshift.ums.repository.TenantConfigRepository;
+import com.mindshift.ums.service.stats.MessageStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -24,15 +26,15 @@ import java.util.Map;
 @Tag(name = "Monitoring", description = "시스템 모니터링 및 통계 API")
 public class MonitoringController {
 
-    private final MessageRepository messageRepository;
+    private final MessageStatsService messageStatsService;
     private final TenantConfigRepository tenantConfigRepository;
     private final UmsMetrics umsMetrics;
 
     @Autowired
-    public MonitoringController(MessageRepository messageRepository,
+    public MonitoringController(MessageStatsService messageStatsService,
                                TenantConfigRepository tenantConfigRepository,
                                UmsMetrics umsMetrics) {
-        this.messageRepository = messageRepository;
+        this.messageStatsService = messageStatsService;
         this.tenantConfigRepository = tenantConfigRepository;
         this.umsMetrics = umsMetrics;
     }
@@ -51,30 +53,30 @@ public class MonitoringController {
     })
     public ResponseEntity<SystemStats> getSystemStats() {
         SystemStats stats = new SystemStats();
+        // 사전 집계된 통계 (COUNT(*) 조회 없음)
+        MessageStatsService.Snapshot snapshot = messageStatsService.getSnapshot();
 
         // 메시지 통계
-        stats.setTotalMessages(messageRepository.count());
+        stats.setTotalMessages(snapshot.getTotalAccepted());
         stats.setTotalTenants(tenantConfigRepository.count());
 
-        // 채널별 통계 (최근 24시간)
-        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
-        stats.setMessagesLast24h(messageRepository.countByCreatedAtAfter(yesterday));
+        // 최근 24시간 접수 건수
+        stats.setMessagesLast24h(snapshot.getAcceptedLast24h());
 
         // 상태별 통계
         Map<String, Long> statusStats = new HashMap<>();
-        statusStats.put("PENDING", messageRepository.countByStatus(com.mindshift.ums.domain.enums.MessageStatus.PENDING));
-        statusStats.put("PROCESSING", messageRepository.countByStatus(com.mindshift.ums.domain.enums.MessageStatus.PROCESSING));
-        statusStats.put("SENT", messageRepository.countByStatus(com.mindshift.ums.domain.enums.MessageStatus.SENT));
-        statusStats.put("DELIVERED", messageRepository.countByStatus(com.mindshift.ums.domain.enums.MessageStatus.DELIVERED));
-        statusStats.put("FAILED", messageRepository.countByStatus(com.mindshift.ums.domain.enums.MessageStatus.FAILED));
+        for (MessageStatus status : new MessageStatus[] {MessageStatus.PENDING, MessageStatus.PROCESSING,
+                MessageStatus.SENT, MessageStatus.DELIVERED, MessageStatus.FAILED}) {
+            statusStats.put(status.name(), snapshot.getStatusCount(status));
+        }
         stats.setStatusStats(statusStats);
 
         // 채널별 통계
         Map<String, Long> channelStats = new HashMap<>();
-        channelStats.put("SMS", messageRepository.countByChannel(com.mindshift.ums.domain.enums.ChannelType.SMS));
-        channelStats.put("EMAIL", messageRepository.countByChannel(com.mindshift.ums.domain.enums.ChannelType.EMAIL));
-        channelStats.put("KAKAO_ALIMTALK", messageRepository.countByChannel(com.mindshift.ums.domain.enums.ChannelType.KAKAO_ALIMTALK));
-        channelStats.put("FCM_PUSH", messageRepository.countByChannel(com.mindshift.ums.domain.enums.ChannelType.FCM_PUSH));
+        for (ChannelType channel : new ChannelType[] {ChannelType.SMS, ChannelType.EMAIL,
+                ChannelType.KAKAO_ALIMTALK, ChannelType.FCM_PUSH}) {
+            channelStats.put(channel.name(), snapshot.getAcceptedCount(channel));
+        }
         stats.setChannelStats(channelStats);
 
         stats.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
@@ -94,16 +96,16 @@ public class MonitoringController {
         summary.setStatus("UP");
         summary.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
 
+        MessageStatsService.Snapshot snapshot = messageStatsService.getSnapshot();
+
         // 큐 상태 (간단한 예시)
-        long pendingMessages = messageRepository.countByStatus(com.mindshift.ums.domain.enums.MessageStatus.PENDING);
+        long pendingMessages = snapshot.getStatusCount(MessageStatus.PENDING);
         summary.setPendingMessages(pendingMessages);
         summary.setQueueHealthy(pendingMessages < 1000); // 1000개 미만이면 정상
 
         // 에러율 계산 (최근 1시간)
-        LocalDateTime oneHourAgo = LocalDateTime.now().minusHours(1);
-        long recentTotal = messageRepository.countByCreatedAtAfter(oneHourAgo);
-        long recentFailed = messageRepository.countByStatusAndCreatedAtAfter(
-            com.mindshift.ums.domain.enums.MessageStatus.FAILED, oneHourAgo);
+        long recentTotal = snapshot.getAcceptedLastHour();
+        long recentFailed = snapshot.getFailedLastHour();
 
         double errorRate = recentTotal > 0 ? (double) recentFailed / recentTotal * 100 : 0;
         summary.setErrorRate(errorRate);
@@ -4,6 +4,7 @@ import com.mindshift.ums.domain.enums.ChannelType;
 import com.mindshift.ums.domain.enums.MessagePriority;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
@@ -85,6 +86,110 @@ public class SendMessageDto {
         }
     }
 
+    public static class BatchSendRequest {
+        @NotNull(message = "Channel is required")
+        private ChannelType channel;
+
+        @NotBlank(message = "Template code is required")
+        @Size(max = 100, message = "Template code must be less than 100 characters")
+        private String templateCode;
+
+        @NotEmpty(message = "At least one recipient is required")
+        @Valid
+        private List<BatchRecipientDto> recipients;
+
+        @NotBlank(message = "Locale is required")
+        @Size(max = 10, message = "Locale must be less than 10 characters")
+        private String locale = "ko-KR";
+
+        // Variables shared by every recipient; per-recipient variables override these
+        private Map<String, Object> variables;
+
+        private List<AttachmentDto> attachments;
+
+        @Valid
+        private RoutingDto routing;
+
+        private Map<String, Object> meta;
+
+        // Constructors
+        public BatchSendRequest() {}
+
+        // Getters and Setters
+        public ChannelType getChannel() { return channel; }
+        public void setChannel(ChannelType channel) { this.channel = channel; }
+
+        public String getTemplateCode() { return templateCode; }
+        public void setTemplateCode(String templateCode) { this.templateCode = templateCode; }
+
+        public List<BatchRecipientDto> getRecipients() { return recipients; }
+        public void setRecipients(List<BatchRecipientDto> recipients) { this.recipients = recipients; }
+
+        public String getLocale() { return locale; }
+        public void setLocale(String locale) { this.locale = locale; }
+
+        public Map<String, Object> getVariables() { return variables; }
+        public void setVariables(Map<String, Object> variables) { this.variables = variables; }
+
+        public List<AttachmentDto> getAttachments() { return attachments; }
+        public void setAttachments(List<AttachmentDto> attachments) { this.attachments = attachments; }
+
+        public RoutingDto getRouting() { return routing; }
+        public void setRouting(RoutingDto routing) { this.routing = routing; }
+
+        public Map<String, Object> getMeta() { return meta; }
+        public void setMeta(Map<String, Object> meta) { this.meta = meta; }
+
+        /**
+         * Expand one recipient of the batch into a single message request,
+         * merging shared and per-recipient variables and meta.
+         */
+        public SendMessageRequest toMessageRequest(BatchRecipientDto recipient) {
+            SendMessageRequest request = new SendMessageRequest();
+            request.setChannel(channel);
+            request.setTemplateCode(templateCode);
+            request.setTo(recipient.getTo());
+            request.setLocale(locale);
+            request.setAttachments(attachments);
+            request.setRouting(routing);
+
+            Map<String, Object> mergedVariables = new java.util.HashMap<>();
+            if (variables != null) mergedVariables.putAll(variables);
+            if (recipient.getVariables() != null) mergedVariables.putAll(recipient.getVariables());
+            request.setVariables(mergedVariables);
+
+            if (meta != null || recipient.getMeta() != null) {
+                Map<String, Object> mergedMeta = new java.util.HashMap<>();
+                if (meta != null) mergedMeta.putAll(meta);
+                if (recipient.getMeta() != null) mergedMeta.putAll(recipient.getMeta());
+                request.setMeta(mergedMeta);
+            }
+
+            return request;
+        }
+    }
+
+    public static class BatchRecipientDto {
+        @NotNull(message = "Recipient information is required")
+        @Valid
+        private RecipientDto to;
+
+        private Map<String, Object> variables;
+
+        private Map<String, Object> meta;
+
+        public BatchRecipientDto() {}
+
+        public RecipientDto getTo() { return to; }
+        public void setTo(RecipientDto to) { this.to = to; }
+
+        public Map<String, Object> getVariables() { return variables; }
+        public void setVariables(Map<String, Object> variables) { this.variables = variables; }
+
+        public Map<String, Object> getMeta() { return meta; }
+        public void setMeta(Map<String, Object> meta) { this.meta = meta; }
+    }
+
     public static class RecipientDto {
         private String phone;
         private String email;
@@ -206,6 +311,75 @@ public class SendMessageDto {
         public void setTimestamp(String timestamp) { this.timestamp = timestamp; }
     }
 
+    public static class BatchAcceptResponse {
+        private String batchId;
+        private int accepted;
+        private int rejected;
+        private List<BatchItemResult> results;
+        private String timestamp;
+
+        public BatchAcceptResponse() {}
+
+        public BatchAcceptResponse(String batchId, List<BatchItemResult> results, String timestamp) {
+            this.batchId = batchId;
+            this.results = results;
+            this.timestamp = timestamp;
+            this.accepted = (int) results.stream().filter(r -> r.getRequestId() != null).count();
+            this.rejected = results.size() - accepted;
+        }
+
+        public String getBatchId() { return batchId; }
+        public void setBatchId(String batchId) { this.batchId = batchId; }
+
+        public int getAccepted() { return accepted; }
+        public void setAccepted(int accepted) { this.accepted = accepted; }
+
+        public int getRejected() { return rejected; }
+        public void setRejected(int rejected) { this.rejected = rejected; }
+
+        public List<BatchItemResult> getResults() { return results; }
+        public void setResults(List<BatchItemResult> results) { this.results = results; }
+
+        public String getTimestamp() { return timestamp; }
+        public void setTimestamp(String timestamp) { this.timestamp = timestamp; }
+    }
+
+    public static class BatchItemResult {
+        private int index;
+        private String requestId;
+        private String status;
+        private ErrorDetail error;
+
+        public BatchItemResult() {}
+
+        public BatchItemResult(int index, String requestId, String status, ErrorDetail error) {
+            this.index = index;
+            this.requestId = requestId;
+            this.status = status;
+            this.error = error;
+        }
+
+        public static BatchItemResult accepted(int index, String requestId) {
+            return new BatchItemResult(index, requestId, "ACCEPTED", null);
+        }
+
+        public static BatchItemResult rejected(int index, String code, String message, Map<String, Object> details) {
+            return new BatchItemResult(index, null, "REJECTED", new ErrorDetail(code, message, details));
+        }
+
+        public int getIndex() { return index; }
+        public void setIndex(int index) { this.index = index; }
+
+        public String getRequestId() { return requestId; }
+        public void setRequestId(String requestId) { this.requestId = requestId; }
+
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+
+        public ErrorDetail getError() { return error; }
+        public void setError(ErrorDetail error) { this.error = error; }
+    }
+
     public static class MessageStatusResponse {
         private String requestId;
         private String status;
@@ -244,6 +418,76 @@ public class SendMessageDto {
         public void setMeta(Map<String, Object> meta) { this.meta = meta; }
     }
 
+    public static class MessageSummary {
+        private String requestId;
+        private String status;
+        private ChannelType channel;
+        private String templateCode;
+        private MessagePriority priority;
+        private Integer retries;
+        private String errorCode;
+        private String providerMessageId;
+        private MessageTimestamps timestamps;
+
+        public MessageSummary() {}
+
+        public String getRequestId() { return requestId; }
+        public void setRequestId(String requestId) { this.requestId = requestId; }
+
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+
+        public ChannelType getChannel() { return channel; }
+        public void setChannel(ChannelType channel) { this.channel = channel; }
+
+        public String getTemplateCode() { return templateCode; }
+        public void setTemplateCode(String templateCode) { this.templateCode = templateCode; }
+
+        public MessagePriority getPriority() { return priority; }
+        public void setPriority(MessagePriority priority) { this.priority = priority; }
+
+        public Integer getRetries() { return retries; }
+        public void setRetries(Integer retries) { this.retries = retries; }
+
+        public String getErrorCode() { return errorCode; }
+        public void setErrorCode(String errorCode) { this.errorCode = errorCode; }
+
+        public String getProviderMessageId() { return providerMessageId; }
+        public void setProviderMessageId(String providerMessageId) { this.providerMessageId = providerMessageId; }
+
+        public MessageTimestamps getTimestamps() { return timestamps; }
+        public void setTimestamps(MessageTimestamps timestamps) { this.timestamps = timestamps; }
+    }
+
+    public static class MessageScrollResponse {
+        private List<MessageSummary> messages;
+        private String nextCursor;
+        private boolean hasNext;
+        private Long estimatedTotal;
+
+        public MessageScrollResponse() {}
+
+        public MessageScrollResponse(List<MessageSummary> messages, String nextCursor, boolean hasNext,
+                                     Long estimatedTotal) {
+            this.messages = messages;
+            this.nextCursor = nextCursor;
+            this.hasNext = hasNext;
+            this.estimatedTotal = estimatedTotal;
+        }
+
+        public List<MessageSummary> getMessages() { return messages; }
+        public void setMessages(List<MessageSummary> messages) { this.messages = messages; }
+
+        public String getNextCursor() { return nextCursor; }
+        public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+        public boolean isHasNext() { return hasNext; }
+        public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+
+        public Long getEstimatedTotal() { return estimatedTotal; }
+        public void setEstimatedTotal(Long estimatedTotal) { this.estimatedTotal = estimatedTotal; }
+    }
+
     public static class MessageTimestamps {
         private String accepted;
         private String sent;
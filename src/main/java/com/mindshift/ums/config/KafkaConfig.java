@@ -1,5 +1,8 @@
 package com.mindshift.ums.config;
 
+import com.mindshift.ums.event.UmsEvent;
+import com.mindshift.ums.event.UmsEventDeserializer;
+import com.mindshift.ums.event.UmsEventSerializer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -11,8 +14,7 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -36,15 +38,33 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.enable-auto-commit:false}")
     private boolean enableAutoCommit;
 
+    @Value("${ums.kafka.producer.event-format:binary}")
+    private String eventFormat;
+
+    @Value("${ums.kafka.consumer.batch.max-poll-records:500}")
+    private int batchMaxPollRecords;
+
+    @Value("${ums.kafka.consumer.batch.concurrency:3}")
+    private int batchConcurrency;
+
+    @Value("${ums.kafka.consumer.latency.max-poll-records:50}")
+    private int latencyMaxPollRecords;
+
+    @Value("${ums.kafka.consumer.latency.fetch-max-wait-ms:10}")
+    private int latencyFetchMaxWaitMs;
+
     /**
-     * Producer configuration for sending events.
+     * Producer configuration for sending events. Events are written in the binary layout
+     * of {@link com.mindshift.ums.event.UmsEventCodec}; {@code ums.kafka.producer.event-format: json}
+     * keeps writing the legacy JSON maps until every consumer reads the binary layout.
      */
     @Bean
-    public ProducerFactory<String, Object> producerFactory() {
+    public ProducerFactory<String, UmsEvent> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, UmsEventSerializer.class);
+        configProps.put(UmsEventSerializer.FORMAT_CONFIG, eventFormat);
 
         // Performance and reliability settings
         configProps.put(ProducerConfig.ACKS_CONFIG, "all"); // Wait for all replicas
@@ -64,44 +84,47 @@ public class KafkaConfig {
      * Kafka template for producing messages.
      */
     @Bean
-    public KafkaTemplate<String, Object> kafkaTemplate() {
+    public KafkaTemplate<String, UmsEvent> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
 
     /**
-     * Consumer configuration for receiving events.
+     * Consumer configuration for receiving events in either the binary layout or the
+     * legacy JSON maps.
      */
     @Bean
-    public ConsumerFactory<String, Object> consumerFactory() {
+    public ConsumerFactory<String, UmsEvent> consumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerConfigs());
+    }
+
+    private Map<String, Object> consumerConfigs() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        // A record that cannot be decoded is skipped (batch listeners see a null value)
+        // instead of failing every poll of its partition
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        configProps.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, UmsEventDeserializer.class);
 
         // Consumer behavior settings
         configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
         configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, enableAutoCommit);
 
-        // JSON deserializer settings
-        configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        configProps.put(JsonDeserializer.VALUE_DEFAULT_TYPE, Map.class);
-        configProps.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
-
         // Performance settings
         configProps.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 1);
         configProps.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, 500);
         configProps.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, 1048576);
 
-        return new DefaultKafkaConsumerFactory<>(configProps);
+        return configProps;
     }
 
     /**
      * Listener container factory for Kafka consumers.
      */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+    public ConcurrentKafkaListenerContainerFactory<String, UmsEvent> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, UmsEvent> factory =
             new ConcurrentKafkaListenerContainerFactory<>();
 
         factory.setConsumerFactory(consumerFactory());
@@ -117,4 +140,50 @@ public class KafkaConfig {
 
         return factory;
     }
-}
\ No newline at end of file
+
+    /**
+     * Batch listener container factory: each listener call receives a whole poll.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UmsEvent> batchKafkaListenerContainerFactory() {
+        Map<String, Object> configProps = consumerConfigs();
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxPollRecords);
+        // Wait for a fuller fetch instead of returning a handful of records
+        configProps.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 16384);
+
+        return batchListenerContainerFactory(configProps);
+    }
+
+    /**
+     * Batch listener container factory for the URGENT and HIGH lanes: a fetch returns as
+     * soon as any record is there, and polls stay small so a message is never held
+     * behind a long batch. NORMAL, LOW and the retry tiers keep the throughput settings
+     * of {@link #batchKafkaListenerContainerFactory()}.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UmsEvent> latencyKafkaListenerContainerFactory() {
+        Map<String, Object> configProps = consumerConfigs();
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, latencyMaxPollRecords);
+        configProps.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 1);
+        configProps.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, latencyFetchMaxWaitMs);
+
+        return batchListenerContainerFactory(configProps);
+    }
+
+    private ConcurrentKafkaListenerContainerFactory<String, UmsEvent> batchListenerContainerFactory(
+            Map<String, Object> configProps) {
+        ConcurrentKafkaListenerContainerFactory<String, UmsEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(configProps));
+        factory.setBatchListener(true);
+
+        // The whole batch is acknowledged once results are written back
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+
+        factory.setConcurrency(batchConcurrency);
+        factory.setCommonErrorHandler(new org.springframework.kafka.listener.DefaultErrorHandler());
+
+        return factory;
+    }
+}
@@ -0,0 +1,128 @@
+package com.mindshift.ums.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebClient builders for provider APIs, one connection pool per provider.
+ *
+ * Every provider gets its own named Reactor Netty {@link ConnectionProvider}, so a slow
+ * provider exhausting its connections never starves another, with pool size, pending
+ * acquire queue and idle eviction from {@link ProviderHttpProperties}. Providers that
+ * support it talk HTTP/2 (negotiated over TLS, with HTTP/1.1 fallback). Every request is
+ * timed into {@code ums.provider.http.requests} with a percentile histogram, tagged by
+ * provider, endpoint (the URI template) and status.
+ */
+@Component
+public class ProviderHttpClientFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderHttpClientFactory.class);
+
+    private static final String URI_TEMPLATE_ATTRIBUTE = WebClient.class.getName() + ".uriTemplate";
+
+    private final ProviderHttpProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ConnectionProvider> connectionProviders = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ProviderHttpClientFactory(ProviderHttpProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Get a new WebClient builder backed by the provider's connection pool.
+     * Each call returns a fresh builder, so callers can add their own base URL and headers.
+     *
+     * @param provider Provider name, e.g. "sendgrid"; also the settings key under {@code ums.http.providers}
+     * @return WebClient builder
+     */
+    public WebClient.Builder builder(String provider) {
+        ProviderHttpProperties.Pool settings = properties.resolve(provider);
+        ConnectionProvider connectionProvider = connectionProviders.computeIfAbsent(provider,
+            name -> createConnectionProvider(name, settings));
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, settings.getConnectTimeoutMs())
+            .responseTimeout(Duration.ofMillis(settings.getResponseTimeoutMs()));
+
+        if (Boolean.TRUE.equals(settings.getHttp2())) {
+            httpClient = httpClient
+                .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                .secure();
+        }
+
+        logger.info("HTTP client for {}: max {} connections, HTTP/2 {}", provider,
+            settings.getMaxConnections(), Boolean.TRUE.equals(settings.getHttp2()) ? "on" : "off");
+
+        return WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .filter(timing(provider));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connectionProviders.values().forEach(ConnectionProvider::dispose);
+    }
+
+    private ConnectionProvider createConnectionProvider(String provider, ProviderHttpProperties.Pool settings) {
+        return ConnectionProvider.builder("ums-" + provider)
+            .maxConnections(settings.getMaxConnections())
+            .pendingAcquireMaxCount(settings.getPendingAcquireMaxCount())
+            .pendingAcquireTimeout(Duration.ofMillis(settings.getPendingAcquireTimeoutMs()))
+            .maxIdleTime(Duration.ofMillis(settings.getMaxIdleTimeMs()))
+            .maxLifeTime(Duration.ofMillis(settings.getMaxLifeTimeMs()))
+            .evictInBackground(Duration.ofMillis(settings.getEvictIntervalMs()))
+            // Pool gauges (reactor.netty.connection.provider.*) tagged with the pool name
+            .metrics(true)
+            .build();
+    }
+
+    private ExchangeFilterFunction timing(String provider) {
+        return (request, next) -> {
+            long start = System.nanoTime();
+            String endpoint = endpoint(request);
+            return next.exchange(request)
+                .doOnSuccess(response -> record(provider, request, endpoint,
+                    response != null ? String.valueOf(response.statusCode().value()) : "NONE", start))
+                .doOnError(e -> record(provider, request, endpoint, "IO_ERROR", start));
+        };
+    }
+
+    private String endpoint(ClientRequest request) {
+        // The template keeps ids out of the tag, e.g. /Accounts/{accountSid}/Messages.json
+        return request.attribute(URI_TEMPLATE_ATTRIBUTE)
+            .map(Object::toString)
+            .orElse(request.url().getPath());
+    }
+
+    private void record(String provider, ClientRequest request, String endpoint, String status, long start) {
+        Timer.builder("ums.provider.http.requests")
+            .description("Provider API response time")
+            .tag("provider", provider)
+            .tag("method", request.method().name())
+            .tag("endpoint", endpoint)
+            .tag("status", status)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
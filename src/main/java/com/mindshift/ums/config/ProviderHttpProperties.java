@@ -0,0 +1,110 @@
+package com.mindshift.ums.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HTTP client settings for provider APIs ({@code ums.http}).
+ *
+ * {@code defaults} applies to every provider; a provider entry under
+ * {@code providers.<name>} only needs the settings it changes.
+ */
+@ConfigurationProperties(prefix = "ums.http")
+public class ProviderHttpProperties {
+
+    private Pool defaults = Pool.withDefaults();
+    private Map<String, Pool> providers = new HashMap<>();
+
+    /**
+     * Get the effective settings for a provider.
+     *
+     * @param provider Provider name, e.g. "sendgrid"
+     * @return Provider settings with unset values taken from the defaults
+     */
+    public Pool resolve(String provider) {
+        Pool override = providers.get(provider);
+        if (override == null) {
+            return defaults;
+        }
+
+        Pool resolved = new Pool();
+        resolved.setMaxConnections(pick(override.maxConnections, defaults.maxConnections));
+        resolved.setPendingAcquireMaxCount(pick(override.pendingAcquireMaxCount, defaults.pendingAcquireMaxCount));
+        resolved.setPendingAcquireTimeoutMs(pick(override.pendingAcquireTimeoutMs, defaults.pendingAcquireTimeoutMs));
+        resolved.setMaxIdleTimeMs(pick(override.maxIdleTimeMs, defaults.maxIdleTimeMs));
+        resolved.setMaxLifeTimeMs(pick(override.maxLifeTimeMs, defaults.maxLifeTimeMs));
+        resolved.setEvictIntervalMs(pick(override.evictIntervalMs, defaults.evictIntervalMs));
+        resolved.setConnectTimeoutMs(pick(override.connectTimeoutMs, defaults.connectTimeoutMs));
+        resolved.setResponseTimeoutMs(pick(override.responseTimeoutMs, defaults.responseTimeoutMs));
+        resolved.setHttp2(pick(override.http2, defaults.http2));
+        return resolved;
+    }
+
+    private static <T> T pick(T override, T fallback) {
+        return override != null ? override : fallback;
+    }
+
+    public Pool getDefaults() { return defaults; }
+    public void setDefaults(Pool defaults) { this.defaults = defaults; }
+
+    public Map<String, Pool> getProviders() { return providers; }
+    public void setProviders(Map<String, Pool> providers) { this.providers = providers; }
+
+    /**
+     * Connection pool and timeout settings for one provider.
+     */
+    public static class Pool {
+        private Integer maxConnections;
+        private Integer pendingAcquireMaxCount;
+        private Long pendingAcquireTimeoutMs;
+        private Long maxIdleTimeMs;
+        private Long maxLifeTimeMs;
+        private Long evictIntervalMs;
+        private Integer connectTimeoutMs;
+        private Long responseTimeoutMs;
+        private Boolean http2;
+
+        static Pool withDefaults() {
+            Pool pool = new Pool();
+            pool.maxConnections = 100;
+            pool.pendingAcquireMaxCount = 500;
+            pool.pendingAcquireTimeoutMs = 5_000L;
+            pool.maxIdleTimeMs = 30_000L;
+            pool.maxLifeTimeMs = 300_000L;
+            pool.evictIntervalMs = 30_000L;
+            pool.connectTimeoutMs = 5_000;
+            pool.responseTimeoutMs = 30_000L;
+            pool.http2 = false;
+            return pool;
+        }
+
+        public Integer getMaxConnections() { return maxConnections; }
+        public void setMaxConnections(Integer maxConnections) { this.maxConnections = maxConnections; }
+
+        public Integer getPendingAcquireMaxCount() { return pendingAcquireMaxCount; }
+        public void setPendingAcquireMaxCount(Integer pendingAcquireMaxCount) { this.pendingAcquireMaxCount = pendingAcquireMaxCount; }
+
+        public Long getPendingAcquireTimeoutMs() { return pendingAcquireTimeoutMs; }
+        public void setPendingAcquireTimeoutMs(Long pendingAcquireTimeoutMs) { this.pendingAcquireTimeoutMs = pendingAcquireTimeoutMs; }
+
+        public Long getMaxIdleTimeMs() { return maxIdleTimeMs; }
+        public void setMaxIdleTimeMs(Long maxIdleTimeMs) { this.maxIdleTimeMs = maxIdleTimeMs; }
+
+        public Long getMaxLifeTimeMs() { return maxLifeTimeMs; }
+        public void setMaxLifeTimeMs(Long maxLifeTimeMs) { this.maxLifeTimeMs = maxLifeTimeMs; }
+
+        public Long getEvictIntervalMs() { return evictIntervalMs; }
+        public void setEvictIntervalMs(Long evictIntervalMs) { this.evictIntervalMs = evictIntervalMs; }
+
+        public Integer getConnectTimeoutMs() { return connectTimeoutMs; }
+        public void setConnectTimeoutMs(Integer connectTimeoutMs) { this.connectTimeoutMs = connectTimeoutMs; }
+
+        public Long getResponseTimeoutMs() { return responseTimeoutMs; }
+        public void setResponseTimeoutMs(Long responseTimeoutMs) { this.responseTimeoutMs = responseTimeoutMs; }
+
+        public Boolean getHttp2() { return http2; }
+        public void setHttp2(Boolean http2) { this.http2 = http2; }
+    }
+}
@@ -24,7 +24,7 @@ public class Message {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "request_id", unique = true, nullable = false, length = 50)
+    @Column(name = "request_id", nullable = false, length = 50)
     private String requestId;
 
     @Column(name = "tenant_id", nullable = false, length = 50)
@@ -49,6 +49,10 @@ public class MessageEvent {
     @Column(name = "occurred_at", nullable = false)
     private LocalDateTime occurredAt = LocalDateTime.now();
 
+    // Set by the outbox relay once the event has been published to Kafka
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
     // Constructors
     public MessageEvent() {}
 
@@ -116,4 +120,7 @@ public class MessageEvent {
 
     public LocalDateTime getOccurredAt() { return occurredAt; }
     public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+
+    public LocalDateTime getPublishedAt() { return publishedAt; }
+    public void setPublishedAt(LocalDateTime publishedAt) { this.publishedAt = publishedAt; }
 }
\ No newline at end of file
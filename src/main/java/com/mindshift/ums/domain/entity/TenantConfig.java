@@ -112,6 +112,12 @@ public class TenantConfig {
         return Boolean.TRUE.equals(priorityQueue);
     }
 
+    public Integer getMaxRetryAttempts() {
+        if (features == null) return null;
+        Object maxRetryAttempts = features.get("max_retry_attempts");
+        return maxRetryAttempts instanceof Number number ? number.intValue() : null;
+    }
+
     public boolean consumeCredit() {
         if (creditsRemaining == null) {
             return true; // Unlimited credits
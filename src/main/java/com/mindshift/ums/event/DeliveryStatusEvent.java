@@ -0,0 +1,14 @@
+package com.mindshift.ums.event;
+
+/**
+ * A provider reported the delivery status of a message.
+ *
+ * @param providerMessageId The provider's message ID
+ * @param status            Delivery status (DELIVERED, FAILED or READ)
+ * @param errorCode         Error code if failed, or null
+ * @param errorMessage      Error message if failed, or null
+ * @param timestamp         Epoch milliseconds
+ */
+public record DeliveryStatusEvent(String providerMessageId, String status, String errorCode,
+                                  String errorMessage, long timestamp) implements UmsEvent {
+}
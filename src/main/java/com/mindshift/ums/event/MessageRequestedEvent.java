@@ -0,0 +1,17 @@
+package com.mindshift.ums.event;
+
+/**
+ * A message was accepted and is waiting to be sent.
+ *
+ * @param requestId    Message request ID
+ * @param tenantId     Tenant ID
+ * @param channel      Channel type name
+ * @param templateCode Template code, or null
+ * @param priority     Message priority name
+ * @param createdAt    When the message row was created, in epoch milliseconds; 0 if unknown
+ * @param timestamp    Epoch milliseconds
+ */
+public record MessageRequestedEvent(String requestId, String tenantId, String channel,
+                                    String templateCode, String priority, long createdAt,
+                                    long timestamp) implements UmsEvent {
+}
@@ -0,0 +1,16 @@
+package com.mindshift.ums.event;
+
+/**
+ * A failed send scheduled for another attempt on a retry tier topic.
+ *
+ * @param requestId Message request ID
+ * @param tenantId  Tenant ID
+ * @param channel   Channel type name
+ * @param attempt   Attempt number of the retry
+ * @param dueAt     When the retry falls due, in epoch milliseconds
+ * @param createdAt When the message row was created, in epoch milliseconds; 0 if unknown
+ * @param timestamp Epoch milliseconds
+ */
+public record MessageRetryEvent(String requestId, String tenantId, String channel,
+                                int attempt, long dueAt, long createdAt, long timestamp) implements UmsEvent {
+}
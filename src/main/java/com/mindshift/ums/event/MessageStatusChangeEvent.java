@@ -0,0 +1,14 @@
+package com.mindshift.ums.event;
+
+/**
+ * A message moved from one status to another.
+ *
+ * @param requestId Message request ID
+ * @param oldStatus Previous status name
+ * @param newStatus New status name
+ * @param tenantId  Tenant ID
+ * @param timestamp Epoch milliseconds
+ */
+public record MessageStatusChangeEvent(String requestId, String oldStatus, String newStatus,
+                                       String tenantId, long timestamp) implements UmsEvent {
+}
@@ -0,0 +1,15 @@
+package com.mindshift.ums.event;
+
+import java.util.Map;
+
+/**
+ * Tenant activity for monitoring and analytics.
+ *
+ * @param tenantId     Tenant ID
+ * @param activityType Type of activity
+ * @param details      Activity details, or null
+ * @param timestamp    Epoch milliseconds
+ */
+public record TenantActivityEvent(String tenantId, String activityType, Map<String, Object> details,
+                                  long timestamp) implements UmsEvent {
+}
@@ -0,0 +1,18 @@
+package com.mindshift.ums.event;
+
+/**
+ * Event published to the UMS Kafka topics.
+ *
+ * Events are written by {@link UmsEventSerializer} in the compact binary layout of
+ * {@link UmsEventCodec}. The component names match the keys of the JSON maps published
+ * before, so the JSON fallback reads and writes the same fields.
+ */
+public sealed interface UmsEvent
+    permits MessageRequestedEvent, MessageStatusChangeEvent, MessageRetryEvent,
+            DeliveryStatusEvent, TenantActivityEvent {
+
+    /**
+     * @return When the event was created, in epoch milliseconds
+     */
+    long timestamp();
+}
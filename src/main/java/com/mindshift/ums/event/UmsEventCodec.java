@@ -0,0 +1,446 @@
+package com.mindshift.ums.event;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.kafka.support.JacksonUtils;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Wire formats of {@link UmsEvent}: a compact binary layout, and the JSON maps
+ * published before it.
+ *
+ * Binary layout:
+ * <pre>
+ * magic (1) | version (1) | type (1) | timestamp (8, epoch millis, big-endian) | fields
+ * </pre>
+ * Fields are written in record component order. Strings are a varint of the UTF-8
+ * length plus one (0 for null) followed by the bytes. Channel, priority and status names
+ * take one byte, their index in {@code NAMES} plus one (0 for null); a name not in the
+ * table is written as {@code 0xFF} followed by the string. Ints are varints, longs are
+ * 8 bytes. Tenant activity details are a JSON string.
+ *
+ * Version 2 appended the message creation time to requested and retry events.
+ *
+ * Versioning: a new schema version may append fields to a type, add types and append
+ * names to the table, never reorder or remove them. A reader decodes any version up to
+ * {@link #VERSION}, defaulting fields the record does not carry, and rejects newer
+ * versions, so consumers must be upgraded before producers write a new version.
+ *
+ * Anything not starting with the magic byte is read as a legacy JSON map, so records
+ * published by older producers are still consumed.
+ */
+public final class UmsEventCodec {
+
+    /** First byte of a binary event; never the first byte of a JSON document. */
+    public static final byte MAGIC = (byte) 0xE5;
+
+    /** Schema version written by this codec. */
+    public static final int VERSION = 2;
+
+    private static final int TYPE_MESSAGE_REQUESTED = 1;
+    private static final int TYPE_MESSAGE_STATUS_CHANGE = 2;
+    private static final int TYPE_MESSAGE_RETRY = 3;
+    private static final int TYPE_DELIVERY_STATUS = 4;
+    private static final int TYPE_TENANT_ACTIVITY = 5;
+
+    // Append only: the index is on the wire
+    private static final String[] NAMES = {
+        // Channels
+        "SMS", "EMAIL", "KAKAO_ALIMTALK", "FCM_PUSH",
+        // Priorities
+        "LOW", "NORMAL", "HIGH", "URGENT",
+        // Message and delivery statuses
+        "PENDING", "PROCESSING", "SENT", "DELIVERED", "FAILED", "EXPIRED", "CANCELLED", "READ"
+    };
+
+    private static final Map<String, Integer> NAME_CODES = new HashMap<>();
+
+    static {
+        for (int i = 0; i < NAMES.length; i++) {
+            NAME_CODES.put(NAMES[i], i + 1);
+        }
+    }
+
+    private static final int NAME_LITERAL = 0xFF;
+
+    private static final ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper();
+
+    private UmsEventCodec() {
+    }
+
+    /**
+     * Encode an event in the binary layout.
+     *
+     * @param event Event to encode
+     * @return Encoded event
+     */
+    public static byte[] encode(UmsEvent event) {
+        Output out = new Output();
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+
+        switch (event) {
+            case MessageRequestedEvent e -> {
+                out.writeByte(TYPE_MESSAGE_REQUESTED);
+                out.writeLong(e.timestamp());
+                out.writeString(e.requestId());
+                out.writeString(e.tenantId());
+                out.writeName(e.channel());
+                out.writeString(e.templateCode());
+                out.writeName(e.priority());
+                out.writeLong(e.createdAt());
+            }
+            case MessageStatusChangeEvent e -> {
+                out.writeByte(TYPE_MESSAGE_STATUS_CHANGE);
+                out.writeLong(e.timestamp());
+                out.writeString(e.requestId());
+                out.writeName(e.oldStatus());
+                out.writeName(e.newStatus());
+                out.writeString(e.tenantId());
+            }
+            case MessageRetryEvent e -> {
+                out.writeByte(TYPE_MESSAGE_RETRY);
+                out.writeLong(e.timestamp());
+                out.writeString(e.requestId());
+                out.writeString(e.tenantId());
+                out.writeName(e.channel());
+                out.writeVarint(e.attempt());
+                out.writeLong(e.dueAt());
+                out.writeLong(e.createdAt());
+            }
+            case DeliveryStatusEvent e -> {
+                out.writeByte(TYPE_DELIVERY_STATUS);
+                out.writeLong(e.timestamp());
+                out.writeString(e.providerMessageId());
+                out.writeName(e.status());
+                out.writeString(e.errorCode());
+                out.writeString(e.errorMessage());
+            }
+            case TenantActivityEvent e -> {
+                out.writeByte(TYPE_TENANT_ACTIVITY);
+                out.writeLong(e.timestamp());
+                out.writeString(e.tenantId());
+                out.writeString(e.activityType());
+                out.writeString(e.details() != null ? toJson(e.details()) : null);
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Encode an event as the legacy JSON map, for consumers that predate the binary layout.
+     *
+     * @param event Event to encode
+     * @return JSON bytes
+     */
+    public static byte[] encodeJson(UmsEvent event) {
+        try {
+            return objectMapper.writeValueAsBytes(toLegacyMap(event));
+        } catch (IOException e) {
+            throw new SerializationException("Failed to write event as JSON: " + event.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Decode an event in either the binary layout or the legacy JSON map.
+     *
+     * @param data Encoded event
+     * @return Decoded event
+     * @throws SerializationException if the data is malformed, of an unknown type or of a newer version
+     */
+    public static UmsEvent decode(byte[] data) {
+        if (data.length == 0 || data[0] != MAGIC) {
+            return decodeJson(data);
+        }
+
+        try {
+            ByteBuffer in = ByteBuffer.wrap(data);
+            in.get();
+            int version = in.get() & 0xFF;
+            if (version < 1 || version > VERSION) {
+                throw new SerializationException("Unsupported event schema version " + version);
+            }
+
+            int type = in.get() & 0xFF;
+            long timestamp = in.getLong();
+            return switch (type) {
+                case TYPE_MESSAGE_REQUESTED -> new MessageRequestedEvent(
+                    readString(in), readString(in), readName(in), readString(in), readName(in),
+                    version >= 2 ? in.getLong() : 0L, timestamp);
+                case TYPE_MESSAGE_STATUS_CHANGE -> new MessageStatusChangeEvent(
+                    readString(in), readName(in), readName(in), readString(in), timestamp);
+                case TYPE_MESSAGE_RETRY -> new MessageRetryEvent(
+                    readString(in), readString(in), readName(in), readVarint(in), in.getLong(),
+                    version >= 2 ? in.getLong() : 0L, timestamp);
+                case TYPE_DELIVERY_STATUS -> new DeliveryStatusEvent(
+                    readString(in), readName(in), readString(in), readString(in), timestamp);
+                case TYPE_TENANT_ACTIVITY -> new TenantActivityEvent(
+                    readString(in), readString(in), readDetails(readString(in)), timestamp);
+                default -> throw new SerializationException("Unknown event type " + type);
+            };
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new SerializationException("Malformed event of " + data.length + " bytes", e);
+        }
+    }
+
+    /**
+     * Convert an event to the JSON map published before the binary layout.
+     *
+     * @param event Event to convert
+     * @return Map with the event's fields and its type name
+     */
+    public static Map<String, Object> toLegacyMap(UmsEvent event) {
+        Map<String, Object> map = new HashMap<>();
+        switch (event) {
+            case MessageRequestedEvent e -> {
+                map.put("type", "MESSAGE_REQUESTED");
+                map.put("requestId", e.requestId());
+                map.put("tenantId", e.tenantId());
+                map.put("channel", e.channel());
+                map.put("templateCode", e.templateCode());
+                map.put("priority", e.priority());
+                if (e.createdAt() != 0L) {
+                    map.put("createdAt", legacyTime(e.createdAt()));
+                }
+            }
+            case MessageStatusChangeEvent e -> {
+                map.put("type", "MESSAGE_STATUS_CHANGE");
+                map.put("requestId", e.requestId());
+                map.put("oldStatus", e.oldStatus());
+                map.put("newStatus", e.newStatus());
+                map.put("tenantId", e.tenantId());
+            }
+            case MessageRetryEvent e -> {
+                map.put("type", "MESSAGE_RETRY");
+                map.put("requestId", e.requestId());
+                map.put("tenantId", e.tenantId());
+                map.put("channel", e.channel());
+                map.put("attempt", e.attempt());
+                map.put("dueAt", e.dueAt());
+                if (e.createdAt() != 0L) {
+                    map.put("createdAt", legacyTime(e.createdAt()));
+                }
+            }
+            case DeliveryStatusEvent e -> {
+                map.put("type", "DELIVERY_STATUS");
+                map.put("providerMessageId", e.providerMessageId());
+                map.put("status", e.status());
+                if (e.errorCode() != null) {
+                    map.put("errorCode", e.errorCode());
+                }
+                if (e.errorMessage() != null) {
+                    map.put("errorMessage", e.errorMessage());
+                }
+            }
+            case TenantActivityEvent e -> {
+                map.put("type", "TENANT_ACTIVITY");
+                map.put("tenantId", e.tenantId());
+                map.put("activityType", e.activityType());
+                if (e.details() != null) {
+                    map.put("details", e.details());
+                }
+            }
+        }
+        map.put("timestamp", legacyTime(event.timestamp()));
+        return map;
+    }
+
+    private static String legacyTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()).toString();
+    }
+
+    private static UmsEvent decodeJson(byte[] data) {
+        Map<String, Object> map;
+        try {
+            map = objectMapper.readValue(data, new TypeReference<Map<String, Object>>() {});
+        } catch (IOException e) {
+            throw new SerializationException("Event is neither binary nor JSON", e);
+        }
+        if (map == null) {
+            throw new SerializationException("Event is JSON null");
+        }
+
+        long timestamp = legacyTimestamp(map.get("timestamp"));
+        Object type = map.get("type");
+        if ("MESSAGE_REQUESTED".equals(type)) {
+            return new MessageRequestedEvent(string(map, "requestId"), string(map, "tenantId"),
+                string(map, "channel"), string(map, "templateCode"), string(map, "priority"),
+                legacyTimestamp(map.get("createdAt")), timestamp);
+        } else if ("MESSAGE_STATUS_CHANGE".equals(type)) {
+            return new MessageStatusChangeEvent(string(map, "requestId"), string(map, "oldStatus"),
+                string(map, "newStatus"), string(map, "tenantId"), timestamp);
+        } else if ("MESSAGE_RETRY".equals(type)) {
+            return new MessageRetryEvent(string(map, "requestId"), string(map, "tenantId"),
+                string(map, "channel"), (int) number(map, "attempt"), number(map, "dueAt"),
+                legacyTimestamp(map.get("createdAt")), timestamp);
+        } else if ("DELIVERY_STATUS".equals(type)) {
+            return new DeliveryStatusEvent(string(map, "providerMessageId"), string(map, "status"),
+                string(map, "errorCode"), string(map, "errorMessage"), timestamp);
+        } else if ("TENANT_ACTIVITY".equals(type)) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> details = map.get("details") instanceof Map<?, ?> d ? (Map<String, Object>) d : null;
+            return new TenantActivityEvent(string(map, "tenantId"), string(map, "activityType"), details, timestamp);
+        }
+        throw new SerializationException("Unknown legacy event type " + type);
+    }
+
+    private static String string(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        return value != null ? value.toString() : null;
+    }
+
+    private static long number(Map<String, Object> map, String key) {
+        return map.get(key) instanceof Number number ? number.longValue() : 0L;
+    }
+
+    private static long legacyTimestamp(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value instanceof String text) {
+            try {
+                return LocalDateTime.parse(text).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                return 0L;
+            }
+        }
+        return 0L;
+    }
+
+    private static String toJson(Map<String, Object> details) {
+        try {
+            return objectMapper.writeValueAsString(details);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to write tenant activity details", e);
+        }
+    }
+
+    private static Map<String, Object> readDetails(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+        } catch (IOException e) {
+            throw new SerializationException("Malformed tenant activity details", e);
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        int encoded = readVarint(in);
+        if (encoded == 0) {
+            return null;
+        }
+        int length = encoded - 1;
+        if (length < 0 || length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static String readName(ByteBuffer in) {
+        int code = in.get() & 0xFF;
+        if (code == 0) {
+            return null;
+        }
+        if (code == NAME_LITERAL) {
+            return readString(in);
+        }
+        if (code > NAMES.length) {
+            throw new SerializationException("Unknown name code " + code);
+        }
+        return NAMES[code - 1];
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed varint");
+    }
+
+    /**
+     * Growable output buffer; events are small, so it rarely grows past its first allocation.
+     */
+    private static final class Output {
+        private byte[] buffer = new byte[64];
+        private int size;
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeVarint(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length + 1);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeName(String value) {
+            if (value == null) {
+                writeByte(0);
+                return;
+            }
+            Integer code = NAME_CODES.get(value);
+            if (code != null) {
+                writeByte(code);
+            } else {
+                writeByte(NAME_LITERAL);
+                writeString(value);
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.mindshift.ums.event;
+
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Kafka deserializer for {@link UmsEvent}s in either the binary layout of
+ * {@link UmsEventCodec} or the legacy JSON maps.
+ */
+public class UmsEventDeserializer implements Deserializer<UmsEvent> {
+
+    @Override
+    public UmsEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        return UmsEventCodec.decode(data);
+    }
+}
@@ -0,0 +1,40 @@
+package com.mindshift.ums.event;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Kafka serializer for {@link UmsEvent}s.
+ *
+ * Writes the binary layout of {@link UmsEventCodec} unless {@value #FORMAT_CONFIG} is
+ * {@code json}, which writes the legacy JSON maps for consumers that predate it.
+ */
+public class UmsEventSerializer implements Serializer<UmsEvent> {
+
+    /** Producer property selecting the wire format: {@code binary} (default) or {@code json}. */
+    public static final String FORMAT_CONFIG = "ums.event.format";
+
+    private boolean json;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object format = configs.get(FORMAT_CONFIG);
+        if (format != null) {
+            String name = format.toString().trim().toLowerCase(Locale.ROOT);
+            if (!name.equals("binary") && !name.equals("json")) {
+                throw new IllegalArgumentException("Unknown event format: " + format);
+            }
+            this.json = name.equals("json");
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, UmsEvent event) {
+        if (event == null) {
+            return null;
+        }
+        return json ? UmsEventCodec.encodeJson(event) : UmsEventCodec.encode(event);
+    }
+}
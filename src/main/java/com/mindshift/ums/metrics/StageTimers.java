@@ -0,0 +1,241 @@
+package com.mindshift.ums.metrics;
+
+import com.mindshift.ums.domain.enums.ChannelType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histograms for each stage of the message pipeline, exported as
+ * {@code ums.stage.latency} tagged with stage, channel, tenant and provider.
+ *
+ * Built for the hot path. Timers are looked up by stage and channel in arrays, then by
+ * one label in a map, so recording allocates neither tags nor keys. Only the first
+ * sighting of a tenant or provider registers a meter; with tenant tags off every timer
+ * is registered at startup. At most {@code ums.metrics.stages.max-tenants} tenants get
+ * their own tag and the rest share {@code other}. Tenant tags are off by default, since
+ * with histograms on every tagged tenant adds a full set of bucket series per stage and
+ * channel. With a sample rate below 1 only that fraction of requests is timed, so the
+ * histogram counts are a sample too.
+ *
+ * Stages of one request are timed by chaining marks:
+ * <pre>
+ * long mark = stageTimers.start();
+ * ...
+ * mark = stageTimers.record(Stage.AUTH, tenantId, channel, mark);
+ * </pre>
+ * An unsampled request carries {@link #NOT_SAMPLED} and records nothing.
+ */
+@Component
+public class StageTimers {
+
+    /** Mark of a request that is not being timed. */
+    public static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private static final String ALL = "all";
+    private static final String NONE = "none";
+    private static final String OTHER = "other";
+
+    /**
+     * Pipeline stages.
+     */
+    public enum Stage {
+        AUTH("auth"),
+        IDEMPOTENCY("idempotency"),
+        VALIDATION("validation"),
+        RATE_LIMIT("rate_limit"),
+        TEMPLATE_LOAD("template_load"),
+        TEMPLATE_RENDER("template_render"),
+        POLICY("policy"),
+        DB_SAVE("db_save"),
+        KAFKA_PUBLISH("kafka_publish"),
+        CONSUMER_PICKUP("consumer_pickup"),
+        CHANNEL_SEND("channel_send"),
+        PROVIDER_CALL("provider_call"),
+        STATUS_WRITE("status_write");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+
+        public String getTag() { return tag; }
+    }
+
+    private static final ChannelType[] CHANNELS = ChannelType.values();
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final double sampleRate;
+    private final boolean tenantTags;
+    private final int maxTenants;
+    private final boolean histogram;
+
+    // [stage][channel ordinal, or the last slot for no channel] -> timer by tenant or provider
+    private final Map<String, Timer>[][] timers;
+    private final Set<String> taggedTenants = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    @SuppressWarnings("unchecked")
+    public StageTimers(MeterRegistry meterRegistry,
+                       @Value("${ums.metrics.stages.enabled:true}") boolean enabled,
+                       @Value("${ums.metrics.stages.sample-rate:1.0}") double sampleRate,
+                       @Value("${ums.metrics.stages.tenant-tags:false}") boolean tenantTags,
+                       @Value("${ums.metrics.stages.max-tenants:100}") int maxTenants,
+                       @Value("${ums.metrics.stages.histogram:true}") boolean histogram) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.tenantTags = tenantTags;
+        this.maxTenants = maxTenants;
+        this.histogram = histogram;
+
+        Stage[] stages = Stage.values();
+        this.timers = new Map[stages.length][CHANNELS.length + 1];
+        for (Stage stage : stages) {
+            for (int channel = 0; channel <= CHANNELS.length; channel++) {
+                timers[stage.ordinal()][channel] = new ConcurrentHashMap<>();
+                if (enabled && !tenantTags && stage != Stage.PROVIDER_CALL) {
+                    timers[stage.ordinal()][channel].put(ALL, register(stage, channel, ALL, NONE));
+                }
+            }
+        }
+    }
+
+    /**
+     * Start timing a request, if it is sampled.
+     *
+     * @return Mark for the first stage, or {@link #NOT_SAMPLED}
+     */
+    public long start() {
+        return isSampled() ? System.nanoTime() : NOT_SAMPLED;
+    }
+
+    /**
+     * Record a stage that began at the mark and ended now.
+     *
+     * @param stage    Stage
+     * @param tenantId Tenant ID, or null if not known
+     * @param channel  Channel, or null if not known
+     * @param mark     Mark returned by {@link #start()} or the previous stage
+     * @return Mark for the next stage
+     */
+    public long record(Stage stage, String tenantId, ChannelType channel, long mark) {
+        if (mark == NOT_SAMPLED) {
+            return NOT_SAMPLED;
+        }
+        long now = System.nanoTime();
+        timer(stage, channel, tenantLabel(tenantId), NONE).record(now - mark, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    /**
+     * Record a stage that ran once for a whole batch and ended now. The duration is
+     * split evenly over the batch and recorded once per message, so batch requests
+     * fill the same per-message histograms as single ones.
+     *
+     * @param stage    Stage
+     * @param tenantId Tenant ID, or null if not known
+     * @param channel  Channel, or null if not known
+     * @param mark     Mark returned by {@link #start()} or the previous stage
+     * @param count    Number of messages in the batch
+     * @return Mark for the next stage
+     */
+    public long recordBatch(Stage stage, String tenantId, ChannelType channel, long mark, int count) {
+        if (mark == NOT_SAMPLED) {
+            return NOT_SAMPLED;
+        }
+        long now = System.nanoTime();
+        if (count > 0) {
+            Timer timer = timer(stage, channel, tenantLabel(tenantId), NONE);
+            long share = (now - mark) / count;
+            for (int i = 0; i < count; i++) {
+                timer.record(share, TimeUnit.NANOSECONDS);
+            }
+        }
+        return now;
+    }
+
+    /**
+     * Record a stage measured elsewhere, subject to sampling.
+     *
+     * @param stage    Stage
+     * @param tenantId Tenant ID, or null if not known
+     * @param channel  Channel, or null if not known
+     * @param nanos    Duration
+     */
+    public void recordNanos(Stage stage, String tenantId, ChannelType channel, long nanos) {
+        if (isSampled()) {
+            timer(stage, channel, tenantLabel(tenantId), NONE).record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Record a call to an external provider, subject to sampling.
+     *
+     * @param channel       Channel the provider serves
+     * @param providerName  Provider name
+     * @param durationNanos How long the call took
+     */
+    public void recordProviderCall(ChannelType channel, String providerName, long durationNanos) {
+        if (isSampled()) {
+            timer(Stage.PROVIDER_CALL, channel, ALL, providerName).record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean isSampled() {
+        return enabled && (sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private Timer timer(Stage stage, ChannelType channel, String tenant, String provider) {
+        int channelIndex = channel != null ? channel.ordinal() : CHANNELS.length;
+        Map<String, Timer> byLabel = timers[stage.ordinal()][channelIndex];
+        // Provider calls are not per tenant; every other stage has no provider
+        String label = stage == Stage.PROVIDER_CALL ? provider : tenant;
+
+        Timer timer = byLabel.get(label);
+        if (timer == null) {
+            timer = byLabel.computeIfAbsent(label, key -> register(stage, channelIndex, tenant, provider));
+        }
+        return timer;
+    }
+
+    private String tenantLabel(String tenantId) {
+        if (!tenantTags || tenantId == null) {
+            return ALL;
+        }
+        if (taggedTenants.contains(tenantId)) {
+            return tenantId;
+        }
+        if (taggedTenants.size() < maxTenants) {
+            taggedTenants.add(tenantId);
+            return tenantId;
+        }
+        return OTHER;
+    }
+
+    private Timer register(Stage stage, int channelIndex, String tenant, String provider) {
+        Timer.Builder builder = Timer.builder("ums.stage.latency")
+            .description("Latency of a message pipeline stage")
+            .tag("stage", stage.getTag())
+            .tag("channel", channelIndex < CHANNELS.length ? CHANNELS[channelIndex].name() : NONE)
+            .tag("tenant", tenant)
+            .tag("provider", provider);
+        if (histogram) {
+            builder.publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(60));
+        }
+        return builder.register(meterRegistry);
+    }
+}
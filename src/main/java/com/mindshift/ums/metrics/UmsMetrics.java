@@ -1,11 +1,15 @@
 package com.mindshift.ums.metrics;
 
+import com.google.common.cache.Cache;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Custom metrics for UMS service monitoring.
  */
@@ -161,6 +165,10 @@ public class UmsMetrics {
         sample.stop(messageProcessingTime);
     }
 
+    public void recordMessageProcessingTime(long durationNanos) {
+        messageProcessingTime.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
     public Timer.Sample startChannelAdapterTimer() {
         return Timer.start(meterRegistry);
     }
@@ -169,6 +177,73 @@ public class UmsMetrics {
         sample.stop(channelAdapterTime);
     }
 
+    public void recordChannelAdapterTime(long durationNanos) {
+        channelAdapterTime.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Cache metrics methods
+
+    /**
+     * Export hit/miss, eviction and size metrics of a local cache tier
+     * (cache.gets, cache.evictions, cache.size tagged with tier=local).
+     */
+    public void monitorLocalCache(String cacheName, Cache<?, ?> cache) {
+        GuavaCacheMetrics.monitor(meterRegistry, cache, cacheName, "tier", "local");
+    }
+
+    /**
+     * Counter for lookups that missed the local tier and went to Redis.
+     *
+     * @param cacheName Cache name
+     * @param result    "hit" or "miss"
+     */
+    public Counter cacheRemoteLookupCounter(String cacheName, String result) {
+        return Counter.builder("ums.cache.remote.gets")
+            .description("Near cache lookups served by the Redis tier")
+            .tag("cache", cacheName)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    public void incrementCacheInvalidationsReceived(String cacheName) {
+        meterRegistry.counter("ums.cache.invalidations.received", "cache", cacheName).increment();
+    }
+
+    // Outbox relay metrics
+    public void incrementOutboxRelayed(int count) {
+        meterRegistry.counter("ums.outbox.relayed").increment(count);
+    }
+
+    public void incrementOutboxRelayFailures() {
+        meterRegistry.counter("ums.outbox.relay.failures").increment();
+    }
+
+    // TTL expiry metrics
+    public void incrementMessagesExpired(int count) {
+        meterRegistry.counter("ums.messages.expired").increment(count);
+    }
+
+    public void recordExpirySweep(long durationNanos) {
+        meterRegistry.timer("ums.expiry.sweep.time").record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void incrementExpiredSkipped() {
+        meterRegistry.counter("ums.messages.expired.skipped").increment();
+    }
+
+    public void incrementExpiredInFlight(int count) {
+        meterRegistry.counter("ums.messages.expired.in_flight").increment(count);
+    }
+
+    // Retry metrics
+    public void incrementRetriesScheduled(int count) {
+        meterRegistry.counter("ums.messages.retry.scheduled").increment(count);
+    }
+
+    public void incrementRetriesRecovered(int count) {
+        meterRegistry.counter("ums.messages.retry.recovered").increment(count);
+    }
+
     // Custom gauge for active tenant count
     public void recordActiveTenants(int count) {
         meterRegistry.gauge("ums.tenants.active", count);
@@ -1,5 +1,7 @@
 package com.mindshift.ums.optimization;
 
+import com.mindshift.ums.metrics.UmsMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -7,6 +9,9 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -14,13 +19,57 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 @Configuration
 @EnableCaching
 public class CacheOptimizationConfig {
 
+    @Value("${ums.cache.near.enabled:true}")
+    private boolean nearCacheEnabled;
+
+    @Value("${ums.cache.near.caches:tenants,templates}")
+    private Set<String> nearCacheNames;
+
+    @Value("${ums.cache.near.max-size:1000}")
+    private long nearCacheMaxSize;
+
+    @Value("${ums.cache.near.ttl-seconds:60}")
+    private long nearCacheTtlSeconds;
+
+    @Value("${ums.cache.near.invalidation-channel:ums:cache:invalidation}")
+    private String invalidationChannel;
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     RedisTemplate<String, String> redisTemplate,
+                                     UmsMetrics umsMetrics) {
+        RedisCacheManager redisCacheManager = redisCacheManager(connectionFactory);
+        if (!nearCacheEnabled) {
+            return redisCacheManager;
+        }
+
+        // Local tier in front of Redis for hot, rarely changing lookups (tenants, templates)
+        return new TwoTierCacheManager(redisCacheManager, redisTemplate, umsMetrics, nearCacheNames,
+                nearCacheMaxSize, Duration.ofSeconds(nearCacheTtlSeconds), invalidationChannel);
+    }
+
+    /**
+     * Subscribes the near cache to invalidations broadcast by other nodes.
+     */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            CacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (cacheManager instanceof TwoTierCacheManager twoTierCacheManager) {
+            container.addMessageListener(twoTierCacheManager,
+                    new ChannelTopic(twoTierCacheManager.getInvalidationChannel()));
+        }
+        return container;
+    }
+
+    private RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(30))
                 .serializeKeysWith(RedisSerializationContext.SerializationPair
@@ -51,9 +100,13 @@ public class CacheOptimizationConfig {
         cacheConfigurations.put("providerStatus", defaultConfig
                 .entryTtl(Duration.ofMinutes(5)));
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .build();
+
+        // Not exposed as a bean when wrapped, so initialize the configured caches here
+        redisCacheManager.afterPropertiesSet();
+        return redisCacheManager;
     }
 }
\ No newline at end of file
@@ -9,6 +9,8 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import io.micrometer.core.instrument.MeterRegistry;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
@@ -83,6 +85,13 @@ public class JvmOptimizationConfig {
         return executor;
     }
 
+    @Bean(name = "channelDispatchExecutor")
+    public ExecutorService channelDispatchExecutor() {
+        // One virtual thread per send: blocking provider calls no longer pin platform threads.
+        // Concurrency is bounded by ChannelAdapterService, not by this executor.
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dispatch-", 0).factory());
+    }
+
     @Bean
     public MeterRegistryCustomizer<MeterRegistry> metricsCommonTags() {
         return registry -> registry.config().commonTags("application", "ums-service");
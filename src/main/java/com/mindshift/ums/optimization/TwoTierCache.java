@@ -0,0 +1,160 @@
+package com.mindshift.ums.optimization;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+
+/**
+ * Near cache: a bounded, TTL-expiring in-process tier in front of a shared Redis cache.
+ *
+ * Reads are served locally when possible and fall through to Redis otherwise, populating
+ * the local tier on the way back. Writes and evictions go to both tiers. Evictions, clears
+ * and explicit writes ({@code @CachePut}) are broadcast so that other nodes drop their
+ * local copies; the put that fills a key right after it missed in both tiers
+ * ({@code @Cacheable}) is not, since no other node can hold a fresher copy of a value that
+ * was just loaded. Keys are normalized to strings so that broadcast invalidations match
+ * the keys held locally.
+ */
+public class TwoTierCache implements Cache {
+
+    static final String CLEAR_ALL_KEY = "*";
+
+    private final String name;
+    private final com.google.common.cache.Cache<String, Object> localCache;
+    private final Cache remoteCache;
+    private final BiConsumer<String, String> invalidationPublisher;
+
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+
+    // Key this thread last missed in both tiers; @Cacheable fills it on the same thread
+    private final ThreadLocal<String> pendingFill = new ThreadLocal<>();
+
+    public TwoTierCache(String name,
+                        com.google.common.cache.Cache<String, Object> localCache,
+                        Cache remoteCache,
+                        BiConsumer<String, String> invalidationPublisher,
+                        Counter remoteHits,
+                        Counter remoteMisses) {
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.invalidationPublisher = invalidationPublisher;
+        this.remoteHits = remoteHits;
+        this.remoteMisses = remoteMisses;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remoteCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = toLocalKey(key);
+        pendingFill.remove();
+        Object value = localCache.getIfPresent(localKey);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+
+        ValueWrapper remoteValue = remoteCache.get(key);
+        if (remoteValue != null && remoteValue.get() != null) {
+            remoteHits.increment();
+            localCache.put(localKey, remoteValue.get());
+        } else {
+            remoteMisses.increment();
+            pendingFill.set(localKey);
+        }
+        return remoteValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            return null;
+        }
+        Object value = wrapper.get();
+        if (type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = toLocalKey(key);
+        Object value = localCache.getIfPresent(localKey);
+        if (value != null) {
+            return (T) value;
+        }
+
+        T loaded = remoteCache.get(key, valueLoader);
+        if (loaded != null) {
+            localCache.put(localKey, loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remoteCache.put(key, value);
+        String localKey = toLocalKey(key);
+        if (value != null) {
+            localCache.put(localKey, value);
+        } else {
+            localCache.invalidate(localKey);
+        }
+
+        boolean fillAfterMiss = localKey.equals(pendingFill.get());
+        pendingFill.remove();
+        if (!fillAfterMiss) {
+            invalidationPublisher.accept(name, localKey);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        String localKey = toLocalKey(key);
+        pendingFill.remove();
+        localCache.invalidate(localKey);
+        invalidationPublisher.accept(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        localCache.invalidateAll();
+        invalidationPublisher.accept(name, CLEAR_ALL_KEY);
+    }
+
+    /**
+     * Drop an entry from the local tier only, in response to an invalidation
+     * broadcast by another node.
+     *
+     * @param key Normalized key, or {@link #CLEAR_ALL_KEY} to drop everything
+     */
+    public void evictLocal(String key) {
+        if (CLEAR_ALL_KEY.equals(key)) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(key);
+        }
+    }
+
+    private String toLocalKey(Object key) {
+        return String.valueOf(key);
+    }
+}
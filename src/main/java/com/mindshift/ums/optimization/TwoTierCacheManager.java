@@ -0,0 +1,127 @@
+package com.mindshift.ums.optimization;
+
+import com.google.common.cache.CacheBuilder;
+import com.mindshift.ums.metrics.UmsMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache manager that puts a local near-cache in front of selected Redis caches.
+ *
+ * Invalidations are broadcast on a Redis pub/sub channel as
+ * {@code <nodeId>|<cacheName>|<key>}; every other node drops the key from its local
+ * tier so that all nodes evict together. Caches not configured as near caches are
+ * served straight from Redis.
+ */
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoTierCacheManager.class);
+
+    private static final String SEPARATOR = "|";
+
+    private final CacheManager remoteCacheManager;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final UmsMetrics umsMetrics;
+    private final Set<String> nearCacheNames;
+    private final long localMaxSize;
+    private final Duration localTtl;
+    private final String invalidationChannel;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoTierCache> nearCaches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager remoteCacheManager,
+                               RedisTemplate<String, String> redisTemplate,
+                               UmsMetrics umsMetrics,
+                               Set<String> nearCacheNames,
+                               long localMaxSize,
+                               Duration localTtl,
+                               String invalidationChannel) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.umsMetrics = umsMetrics;
+        this.nearCacheNames = nearCacheNames;
+        this.localMaxSize = localMaxSize;
+        this.localTtl = localTtl;
+        this.invalidationChannel = invalidationChannel;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache remoteCache = remoteCacheManager.getCache(name);
+        if (remoteCache == null || !nearCacheNames.contains(name)) {
+            return remoteCache;
+        }
+        return nearCaches.computeIfAbsent(name, cacheName -> createNearCache(cacheName, remoteCache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    /**
+     * Handle an invalidation broadcast by another node.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\\|", 3);
+        if (parts.length != 3) {
+            logger.warn("Ignoring malformed cache invalidation message: {}", body);
+            return;
+        }
+
+        if (nodeId.equals(parts[0])) {
+            return;
+        }
+
+        TwoTierCache cache = nearCaches.get(parts[1]);
+        if (cache != null) {
+            cache.evictLocal(parts[2]);
+            umsMetrics.incrementCacheInvalidationsReceived(parts[1]);
+            logger.debug("Evicted local cache entry {}::{} on remote invalidation", parts[1], parts[2]);
+        }
+    }
+
+    public String getInvalidationChannel() {
+        return invalidationChannel;
+    }
+
+    private TwoTierCache createNearCache(String name, Cache remoteCache) {
+        com.google.common.cache.Cache<String, Object> localCache = CacheBuilder.newBuilder()
+            .maximumSize(localMaxSize)
+            .expireAfterWrite(localTtl)
+            .recordStats()
+            .build();
+
+        umsMetrics.monitorLocalCache(name, localCache);
+        logger.info("Near cache enabled for '{}' (maxSize={}, ttl={})", name, localMaxSize, localTtl);
+
+        return new TwoTierCache(name, localCache, remoteCache, this::publishInvalidation,
+            umsMetrics.cacheRemoteLookupCounter(name, "hit"),
+            umsMetrics.cacheRemoteLookupCounter(name, "miss"));
+    }
+
+    private void publishInvalidation(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(invalidationChannel, nodeId + SEPARATOR + cacheName + SEPARATOR + key);
+        } catch (Exception e) {
+            // Other nodes fall back to the local TTL
+            logger.error("Failed to publish cache invalidation for {}::{}", cacheName, key, e);
+        }
+    }
+}
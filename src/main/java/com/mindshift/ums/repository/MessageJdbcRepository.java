@@ -0,0 +1,552 @@
+package com.mindshift.ums.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindshift.ums.domain.entity.Message;
+import com.mindshift.ums.domain.entity.MessageEvent;
+import com.mindshift.ums.domain.enums.ChannelType;
+import com.mindshift.ums.domain.enums.MessagePriority;
+import com.mindshift.ums.domain.enums.MessageStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * JDBC-backed repository for set-based message operations.
+ *
+ * Message and MessageEvent use IDENTITY ids, which makes Hibernate fall back to
+ * one INSERT per row. Bulk paths go through this repository instead so that rows
+ * are written with real JDBC batches inside the caller's transaction.
+ */
+@Repository
+public class MessageJdbcRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageJdbcRepository.class);
+
+    private static final String ALLOCATE_MESSAGE_IDS_SQL =
+        "SELECT nextval('messages_id_seq') FROM generate_series(1, ?)";
+
+    private static final String INSERT_MESSAGE_SQL =
+        "INSERT INTO messages (id, request_id, tenant_id, template_id, template_code, channel, locale, " +
+        "to_json, rendered_title, rendered_body, routing, ttl_expires_at, priority, status, retries, " +
+        "attachments, meta, idempotency_key, correlation_id, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?, ?, ?::jsonb, ?, ?, ?, ?, ?::jsonb, ?::jsonb, ?, ?, ?, ?)";
+
+    private static final String INSERT_EVENT_SQL =
+        "INSERT INTO message_events (message_id, request_id, type, channel, provider, payload, " +
+        "error_code, error_message, occurred_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?::jsonb, ?, ?, ?)";
+
+    private static final String CLAIM_FOR_PROCESSING_SQL =
+        "UPDATE messages SET status = 'PROCESSING', updated_at = NOW() " +
+        "WHERE id = ANY(?) AND created_at BETWEEN ? AND ? AND status = 'PENDING' " +
+        "AND (ttl_expires_at IS NULL OR ttl_expires_at > NOW()) RETURNING id";
+
+    // One chunk of expired rows: lock (skipping rows other sweepers or consumers hold),
+    // mark EXPIRED and record the EXPIRED event in a single statement
+    private static final String EXPIRE_CHUNK_SQL =
+        "WITH candidates AS (" +
+        "  SELECT id, created_at, status FROM messages " +
+        "  WHERE status IN ('PENDING', 'PROCESSING') AND ttl_expires_at < ? AND created_at >= ? " +
+        "  ORDER BY ttl_expires_at LIMIT ? FOR UPDATE SKIP LOCKED" +
+        "), expired AS (" +
+        "  UPDATE messages m SET status = 'EXPIRED', updated_at = ? " +
+        "  FROM candidates c WHERE m.id = c.id AND m.created_at = c.created_at " +
+        "  RETURNING m.id, m.request_id, m.tenant_id, m.channel, c.status AS previous_status" +
+        "), events AS (" +
+        "  INSERT INTO message_events (message_id, request_id, type, channel, occurred_at) " +
+        "  SELECT id, request_id, 'EXPIRED'::event_type, channel, ? FROM expired" +
+        ") " +
+        "SELECT request_id, tenant_id, channel, previous_status FROM expired";
+
+    // Retries still PENDING well after their tier delay: lock them (skipping rows other
+    // sweepers or consumers hold) and move last_retry_at forward so they are not picked
+    // again while the new retry record is on its way. One threshold per retry tier.
+    private static final String CLAIM_STALLED_RETRIES_SQL =
+        "WITH stalled AS (" +
+        "  SELECT id, created_at FROM messages " +
+        "  WHERE status = 'PENDING' AND retries > 0 AND created_at >= ? " +
+        "  AND last_retry_at < CASE WHEN retries = 1 THEN ? WHEN retries = 2 THEN ? ELSE ? END " +
+        "  AND (ttl_expires_at IS NULL OR ttl_expires_at > ?) " +
+        "  ORDER BY last_retry_at LIMIT ? FOR UPDATE SKIP LOCKED" +
+        ") " +
+        "UPDATE messages m SET last_retry_at = ?, updated_at = ? " +
+        "FROM stalled s WHERE m.id = s.id AND m.created_at = s.created_at " +
+        "RETURNING m.id, m.request_id, m.tenant_id, m.channel, m.retries, m.created_at";
+
+    private static final String UPDATE_SEND_RESULT_SQL =
+        "UPDATE messages SET status = ?, provider_message_id = ?, error_code = ?, error_message = ?, " +
+        "error_details = ?::jsonb, meta = ?::jsonb, sent_at = ?, failed_at = ?, updated_at = ?, " +
+        "retries = ?, last_retry_at = ? " +
+        "WHERE id = ? AND created_at = ? AND status = ?";
+
+    // Keyset page: only the columns the listing shows, none of the jsonb payloads
+    private static final String SUMMARY_COLUMNS =
+        "SELECT id, request_id, status, channel, template_code, priority, retries, error_code, " +
+        "provider_message_id, created_at, sent_at, delivered_at, failed_at FROM messages ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    @Autowired
+    public MessageJdbcRepository(JdbcTemplate jdbcTemplate,
+                                 ObjectMapper objectMapper,
+                                 @Value("${ums.message.batch.jdbc-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reserve message ids from the messages sequence in a single round trip.
+     *
+     * @param count Number of ids to reserve
+     * @return Reserved ids in ascending order
+     */
+    public List<Long> allocateMessageIds(int count) {
+        if (count <= 0) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(ALLOCATE_MESSAGE_IDS_SQL, Long.class, count);
+    }
+
+    /**
+     * Insert messages using JDBC batching. Ids must already be assigned
+     * (see {@link #allocateMessageIds(int)}).
+     *
+     * @param messages Messages to insert
+     */
+    public void insertMessages(List<Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_MESSAGE_SQL, messages, batchSize, (ps, message) -> {
+            if (message.getCreatedAt() == null) {
+                message.setCreatedAt(now);
+            }
+            if (message.getUpdatedAt() == null) {
+                message.setUpdatedAt(now);
+            }
+
+            ps.setLong(1, message.getId());
+            ps.setString(2, message.getRequestId());
+            ps.setString(3, message.getTenantId());
+            if (message.getTemplate() != null && message.getTemplate().getId() != null) {
+                ps.setLong(4, message.getTemplate().getId());
+            } else {
+                ps.setNull(4, Types.BIGINT);
+            }
+            ps.setString(5, message.getTemplateCode());
+            ps.setObject(6, message.getChannel().name(), Types.OTHER);
+            ps.setString(7, message.getLocale());
+            ps.setString(8, toJson(message.getToJson()));
+            ps.setString(9, message.getRenderedTitle());
+            ps.setString(10, message.getRenderedBody());
+            ps.setString(11, toJson(message.getRouting()));
+            setTimestamp(ps, 12, message.getTtlExpiresAt());
+            ps.setObject(13, message.getPriority().name(), Types.OTHER);
+            ps.setObject(14, message.getStatus().name(), Types.OTHER);
+            ps.setInt(15, message.getRetries() != null ? message.getRetries() : 0);
+            ps.setString(16, toJson(message.getAttachments()));
+            ps.setString(17, toJson(message.getMeta()));
+            ps.setString(18, message.getIdempotencyKey());
+            ps.setString(19, message.getCorrelationId());
+            setTimestamp(ps, 20, message.getCreatedAt());
+            setTimestamp(ps, 21, message.getUpdatedAt());
+        });
+
+        logger.debug("Batch inserted {} messages", messages.size());
+    }
+
+    /**
+     * Insert message events using JDBC batching. The referenced messages must
+     * already have their ids assigned.
+     *
+     * @param events Events to insert
+     */
+    public void insertEvents(List<MessageEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, events, batchSize, (ps, event) -> {
+            ps.setLong(1, event.getMessage().getId());
+            ps.setString(2, event.getRequestId());
+            ps.setObject(3, event.getType().name(), Types.OTHER);
+            if (event.getChannel() != null) {
+                ps.setObject(4, event.getChannel().name(), Types.OTHER);
+            } else {
+                ps.setNull(4, Types.OTHER);
+            }
+            ps.setString(5, event.getProvider());
+            ps.setString(6, toJson(event.getPayload()));
+            ps.setString(7, event.getErrorCode());
+            ps.setString(8, event.getErrorMessage());
+            setTimestamp(ps, 9, event.getOccurredAt());
+        });
+
+        logger.debug("Batch inserted {} message events", events.size());
+    }
+
+    /**
+     * Move PENDING messages to PROCESSING with a single statement.
+     * Messages already claimed by another consumer (or no longer PENDING) are left untouched,
+     * as are messages whose TTL has passed; the expiry sweep marks those EXPIRED.
+     *
+     * The candidates' created_at range limits the update to the partitions holding them.
+     *
+     * @param candidates Candidate messages, as loaded
+     * @return Ids that were moved to PROCESSING by this call
+     */
+    public List<Long> claimForProcessing(List<Message> candidates) {
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        Object[] messageIds = candidates.stream().map(Message::getId).toArray();
+        LocalDateTime oldest = candidates.stream().map(Message::getCreatedAt)
+            .min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime newest = candidates.stream().map(Message::getCreatedAt)
+            .max(Comparator.naturalOrder()).orElseThrow();
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(CLAIM_FOR_PROCESSING_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", messageIds));
+            ps.setTimestamp(2, Timestamp.valueOf(oldest));
+            ps.setTimestamp(3, Timestamp.valueOf(newest));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+
+    /**
+     * Expire up to {@code limit} PENDING/PROCESSING messages whose TTL has passed and
+     * record an EXPIRED event for each. Rows locked by another transaction are skipped
+     * and picked up by a later chunk.
+     *
+     * @param now          Current time; messages with a TTL before it are expired
+     * @param createdAfter Lower bound on created_at, limiting the partitions scanned
+     * @param limit        Maximum number of messages to expire
+     * @return Status changes for the expired messages
+     */
+    public List<StatusChange> expireChunk(LocalDateTime now, LocalDateTime createdAfter, int limit) {
+        Timestamp nowTimestamp = Timestamp.valueOf(now);
+        return jdbcTemplate.query(EXPIRE_CHUNK_SQL,
+            (rs, rowNum) -> new StatusChange(
+                rs.getString("request_id"),
+                rs.getString("tenant_id"),
+                rs.getString("channel"),
+                rs.getString("previous_status"),
+                "EXPIRED"),
+            nowTimestamp, Timestamp.valueOf(createdAfter), limit, nowTimestamp, nowTimestamp);
+    }
+
+    /**
+     * Claim up to {@code limit} retries left PENDING longer than their tier allows, as
+     * happens when the process dies between committing a retry and publishing it.
+     * Returned messages carry only the fields needed to publish the retry again.
+     *
+     * @param stalledBefore Per tier (attempt 1, 2, then 3 and later), the last_retry_at
+     *                      before which a retry counts as stalled
+     * @param now           Current time; becomes the claimed rows' last_retry_at
+     * @param createdAfter  Lower bound on created_at, limiting the partitions scanned
+     * @param limit         Maximum number of retries to claim
+     * @return Claimed messages
+     */
+    public List<Message> claimStalledRetries(List<LocalDateTime> stalledBefore, LocalDateTime now,
+                                             LocalDateTime createdAfter, int limit) {
+        Timestamp nowTimestamp = Timestamp.valueOf(now);
+        return jdbcTemplate.query(CLAIM_STALLED_RETRIES_SQL,
+            (rs, rowNum) -> {
+                Message message = new Message(rs.getString("request_id"), rs.getString("tenant_id"),
+                    ChannelType.valueOf(rs.getString("channel")), null);
+                message.setId(rs.getLong("id"));
+                message.setRetries(rs.getInt("retries"));
+                message.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+                message.setStatus(MessageStatus.PENDING);
+                message.setLastRetryAt(now);
+                return message;
+            },
+            Timestamp.valueOf(createdAfter),
+            Timestamp.valueOf(stalledBefore.get(0)),
+            Timestamp.valueOf(stalledBefore.get(1)),
+            Timestamp.valueOf(stalledBefore.get(2)),
+            nowTimestamp, limit, nowTimestamp, nowTimestamp);
+    }
+
+    /**
+     * Write channel send outcomes (and retry bookkeeping) back using JDBC batching.
+     * Rows are matched on the full (id, created_at) key, so each update touches one partition,
+     * and only while they still have the expected status: a row the expiry sweep (or
+     * anything else) moved on in the meantime is left as it is.
+     *
+     * @param messages       Messages carrying their send status
+     * @param expectedStatus Status the rows must still have
+     * @return Messages whose row no longer had the expected status and was not updated
+     */
+    public List<Message> updateSendResults(List<Message> messages, MessageStatus expectedStatus) {
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SEND_RESULT_SQL, messages, batchSize, (ps, message) -> {
+            message.setUpdatedAt(now);
+
+            ps.setObject(1, message.getStatus().name(), Types.OTHER);
+            ps.setString(2, message.getProviderMessageId());
+            ps.setString(3, message.getErrorCode());
+            ps.setString(4, message.getErrorMessage());
+            ps.setString(5, toJson(message.getErrorDetails()));
+            ps.setString(6, toJson(message.getMeta()));
+            setTimestamp(ps, 7, message.getSentAt());
+            setTimestamp(ps, 8, message.getFailedAt());
+            setTimestamp(ps, 9, message.getUpdatedAt());
+            ps.setInt(10, message.getRetries() != null ? message.getRetries() : 0);
+            setTimestamp(ps, 11, message.getLastRetryAt());
+            ps.setLong(12, message.getId());
+            setTimestamp(ps, 13, message.getCreatedAt());
+            ps.setObject(14, expectedStatus.name(), Types.OTHER);
+        });
+
+        List<Message> skipped = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    skipped.add(messages.get(index));
+                }
+                index++;
+            }
+        }
+
+        logger.debug("Batch updated send results for {} messages ({} no longer {})",
+            messages.size() - skipped.size(), skipped.size(), expectedStatus);
+        return skipped;
+    }
+
+    /**
+     * Read one page of a tenant's messages, newest first, starting after a keyset cursor.
+     * Uses the (tenant_id[, status], created_at, id) index, so the cost does not grow
+     * with the depth of the page.
+     *
+     * @param tenantId        Tenant ID
+     * @param status          Optional status filter
+     * @param createdAfter    Lower bound on created_at, limiting the partitions scanned
+     * @param afterCreatedAt  created_at of the last message of the previous page, or null for the first page
+     * @param afterId         id of the last message of the previous page
+     * @param limit           Maximum number of messages
+     * @return Message summaries in (created_at, id) descending order
+     */
+    public List<MessageSummary> findSummariesPage(String tenantId, MessageStatus status, LocalDateTime createdAfter,
+                                                  LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        return querySummaries(tenantId, status, null, createdAfter, null, afterCreatedAt, afterId, false, limit);
+    }
+
+    /**
+     * Read the next chunk of a tenant's messages in a created_at range, oldest first,
+     * starting after a keyset cursor. Each chunk is a short query of its own, so callers
+     * can walk any number of rows without keeping a connection between chunks.
+     *
+     * @param tenantId       Tenant ID
+     * @param status         Optional status filter
+     * @param channel        Optional channel filter
+     * @param createdFrom    Inclusive lower bound on created_at
+     * @param createdTo      Exclusive upper bound on created_at
+     * @param afterCreatedAt created_at of the last message of the previous chunk, or null for the first chunk
+     * @param afterId        id of the last message of the previous chunk
+     * @param limit          Maximum number of messages
+     * @return Message summaries in (created_at, id) ascending order
+     */
+    public List<MessageSummary> findSummariesChunk(String tenantId, MessageStatus status, ChannelType channel,
+                                                   LocalDateTime createdFrom, LocalDateTime createdTo,
+                                                   LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        return querySummaries(tenantId, status, channel, createdFrom, createdTo, afterCreatedAt, afterId, true, limit);
+    }
+
+    private List<MessageSummary> querySummaries(String tenantId, MessageStatus status, ChannelType channel,
+                                                LocalDateTime createdFrom, LocalDateTime createdTo,
+                                                LocalDateTime afterCreatedAt, Long afterId,
+                                                boolean ascending, int limit) {
+        StringBuilder sql = new StringBuilder(SUMMARY_COLUMNS).append("WHERE tenant_id = ? AND created_at >= ?");
+        List<Object> params = new ArrayList<>();
+        params.add(tenantId);
+        params.add(Timestamp.valueOf(createdFrom));
+        if (createdTo != null) {
+            sql.append(" AND created_at < ?");
+            params.add(Timestamp.valueOf(createdTo));
+        }
+        if (status != null) {
+            sql.append(" AND status = ?");
+            params.add(new SqlParameterValue(Types.OTHER, status.name()));
+        }
+        if (channel != null) {
+            sql.append(" AND channel = ?");
+            params.add(new SqlParameterValue(Types.OTHER, channel.name()));
+        }
+        if (afterCreatedAt != null) {
+            sql.append(ascending ? " AND (created_at, id) > (?, ?)" : " AND (created_at, id) < (?, ?)");
+            params.add(Timestamp.valueOf(afterCreatedAt));
+            params.add(afterId);
+        }
+        sql.append(ascending ? " ORDER BY created_at, id LIMIT ?" : " ORDER BY created_at DESC, id DESC LIMIT ?");
+        params.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new MessageSummary(
+            rs.getLong("id"),
+            rs.getString("request_id"),
+            MessageStatus.valueOf(rs.getString("status")),
+            ChannelType.valueOf(rs.getString("channel")),
+            rs.getString("template_code"),
+            rs.getString("priority") != null ? MessagePriority.valueOf(rs.getString("priority")) : null,
+            rs.getInt("retries"),
+            rs.getString("error_code"),
+            rs.getString("provider_message_id"),
+            toLocalDateTime(rs.getTimestamp("created_at")),
+            toLocalDateTime(rs.getTimestamp("sent_at")),
+            toLocalDateTime(rs.getTimestamp("delivered_at")),
+            toLocalDateTime(rs.getTimestamp("failed_at"))
+        ), params.toArray());
+    }
+
+    /**
+     * Estimate how many messages a listing covers from the planner's row estimate,
+     * instead of counting them.
+     *
+     * @param tenantId     Tenant ID
+     * @param status       Optional status filter
+     * @param createdAfter Lower bound on created_at
+     * @return Estimated row count
+     */
+    public long estimateCount(String tenantId, MessageStatus status, LocalDateTime createdAfter) {
+        StringBuilder sql = new StringBuilder("EXPLAIN (FORMAT JSON) SELECT 1 FROM messages ")
+            .append("WHERE tenant_id = ? AND created_at >= ?");
+        List<Object> params = new ArrayList<>();
+        params.add(tenantId);
+        params.add(Timestamp.valueOf(createdAfter));
+        if (status != null) {
+            sql.append(" AND status = ?");
+            params.add(new SqlParameterValue(Types.OTHER, status.name()));
+        }
+
+        String plan = jdbcTemplate.queryForObject(sql.toString(), String.class, params.toArray());
+        try {
+            return objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows").asLong();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read query plan", e);
+        }
+    }
+
+    private LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private void setTimestamp(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        if (value != null) {
+            ps.setTimestamp(index, Timestamp.valueOf(value));
+        } else {
+            ps.setNull(index, Types.TIMESTAMP);
+        }
+    }
+
+    private String toJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize column value to JSON", e);
+        }
+    }
+
+    /**
+     * Listing columns of a message.
+     */
+    public static class MessageSummary {
+        private final long id;
+        private final String requestId;
+        private final MessageStatus status;
+        private final ChannelType channel;
+        private final String templateCode;
+        private final MessagePriority priority;
+        private final int retries;
+        private final String errorCode;
+        private final String providerMessageId;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime sentAt;
+        private final LocalDateTime deliveredAt;
+        private final LocalDateTime failedAt;
+
+        public MessageSummary(long id, String requestId, MessageStatus status, ChannelType channel,
+                              String templateCode, MessagePriority priority, int retries, String errorCode,
+                              String providerMessageId, LocalDateTime createdAt, LocalDateTime sentAt,
+                              LocalDateTime deliveredAt, LocalDateTime failedAt) {
+            this.id = id;
+            this.requestId = requestId;
+            this.status = status;
+            this.channel = channel;
+            this.templateCode = templateCode;
+            this.priority = priority;
+            this.retries = retries;
+            this.errorCode = errorCode;
+            this.providerMessageId = providerMessageId;
+            this.createdAt = createdAt;
+            this.sentAt = sentAt;
+            this.deliveredAt = deliveredAt;
+            this.failedAt = failedAt;
+        }
+
+        public long getId() { return id; }
+        public String getRequestId() { return requestId; }
+        public MessageStatus getStatus() { return status; }
+        public ChannelType getChannel() { return channel; }
+        public String getTemplateCode() { return templateCode; }
+        public MessagePriority getPriority() { return priority; }
+        public int getRetries() { return retries; }
+        public String getErrorCode() { return errorCode; }
+        public String getProviderMessageId() { return providerMessageId; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public LocalDateTime getSentAt() { return sentAt; }
+        public LocalDateTime getDeliveredAt() { return deliveredAt; }
+        public LocalDateTime getFailedAt() { return failedAt; }
+    }
+
+    /**
+     * A message status transition made by a set-based update.
+     */
+    public static class StatusChange {
+        private final String requestId;
+        private final String tenantId;
+        private final String channel;
+        private final String oldStatus;
+        private final String newStatus;
+
+        public StatusChange(String requestId, String tenantId, String channel, String oldStatus, String newStatus) {
+            this.requestId = requestId;
+            this.tenantId = tenantId;
+            this.channel = channel;
+            this.oldStatus = oldStatus;
+            this.newStatus = newStatus;
+        }
+
+        public String getRequestId() { return requestId; }
+        public String getTenantId() { return tenantId; }
+        public String getChannel() { return channel; }
+        public String getOldStatus() { return oldStatus; }
+        public String getNewStatus() { return newStatus; }
+    }
+}
@@ -11,6 +11,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,14 +20,39 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
 
     Optional<Message> findByRequestId(String requestId);
 
+    // Bounded by the creation time carried on the event, so only the partitions holding it are probed
+    Optional<Message> findByRequestIdAndCreatedAtBetween(String requestId, LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT m FROM Message m LEFT JOIN FETCH m.template WHERE m.requestId IN :requestIds")
+    List<Message> findAllByRequestIdIn(@Param("requestIds") Collection<String> requestIds);
+
+    @Query("SELECT m FROM Message m LEFT JOIN FETCH m.template " +
+           "WHERE m.requestId IN :requestIds " +
+           "AND m.createdAt >= :from " +
+           "AND m.createdAt <= :to")
+    List<Message> findAllByRequestIdInAndCreatedAtBetween(@Param("requestIds") Collection<String> requestIds,
+                                                         @Param("from") LocalDateTime from,
+                                                         @Param("to") LocalDateTime to);
+
     Optional<Message> findByIdempotencyKey(String idempotencyKey);
 
+    Optional<Message> findFirstByTenantIdAndIdempotencyKey(String tenantId, String idempotencyKey);
+
+    List<Message> findAllByTenantIdAndIdempotencyKeyIn(String tenantId, Collection<String> idempotencyKeys);
+
     Optional<Message> findByProviderMessageId(String providerMessageId);
 
     Page<Message> findAllByTenantId(String tenantId, Pageable pageable);
 
     Page<Message> findAllByTenantIdAndStatus(String tenantId, MessageStatus status, Pageable pageable);
 
+    // Listing with an explicit window only scans the partitions inside it
+    Page<Message> findAllByTenantIdAndCreatedAtAfter(String tenantId, LocalDateTime createdAfter,
+                                                    Pageable pageable);
+
+    Page<Message> findAllByTenantIdAndStatusAndCreatedAtAfter(String tenantId, MessageStatus status,
+                                                             LocalDateTime createdAfter, Pageable pageable);
+
     @Query("SELECT m FROM Message m " +
            "WHERE m.status = :status " +
            "AND m.createdAt >= :startDate " +
@@ -40,23 +67,29 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
            "WHERE m.status = 'FAILED' " +
            "AND m.retries < 3 " +
            "AND m.lastRetryAt < :retryThreshold " +
+           "AND m.createdAt >= :createdAfter " +
            "ORDER BY m.retries ASC, m.lastRetryAt ASC")
     Page<Message> findRetryableMessages(@Param("retryThreshold") LocalDateTime retryThreshold,
+                                       @Param("createdAfter") LocalDateTime createdAfter,
                                        Pageable pageable);
 
     @Query("SELECT m FROM Message m " +
            "WHERE m.status IN ('PENDING', 'PROCESSING') " +
            "AND m.ttlExpiresAt IS NOT NULL " +
-           "AND m.ttlExpiresAt < :now")
-    Page<Message> findExpiredMessages(@Param("now") LocalDateTime now, Pageable pageable);
+           "AND m.ttlExpiresAt < :now " +
+           "AND m.createdAt >= :createdAfter")
+    Page<Message> findExpiredMessages(@Param("now") LocalDateTime now,
+                                      @Param("createdAfter") LocalDateTime createdAfter,
+                                      Pageable pageable);
 
     @Modifying
     @Query("UPDATE Message m " +
            "SET m.status = 'EXPIRED', m.updatedAt = :now " +
            "WHERE m.status IN ('PENDING', 'PROCESSING') " +
            "AND m.ttlExpiresAt IS NOT NULL " +
-           "AND m.ttlExpiresAt < :now")
-    int expireMessages(@Param("now") LocalDateTime now);
+           "AND m.ttlExpiresAt < :now " +
+           "AND m.createdAt >= :createdAfter")
+    int expireMessages(@Param("now") LocalDateTime now, @Param("createdAfter") LocalDateTime createdAfter);
 
     @Query("SELECT COUNT(m) FROM Message m " +
            "WHERE m.tenantId = :tenantId " +
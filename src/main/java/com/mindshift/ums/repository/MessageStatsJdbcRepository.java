@@ -0,0 +1,183 @@
+package com.mindshift.ums.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * JDBC-backed repository for the pre-aggregated message counts behind the
+ * monitoring endpoints: per-minute status entries and running totals.
+ */
+@Repository
+public class MessageStatsJdbcRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageStatsJdbcRepository.class);
+
+    private static final String ADD_MINUTE_COUNT_SQL =
+        "INSERT INTO message_stats_minute (bucket_start, tenant_id, channel, status, count) VALUES (?, ?, ?, ?, ?) " +
+        "ON CONFLICT (bucket_start, tenant_id, channel, status) " +
+        "DO UPDATE SET count = message_stats_minute.count + EXCLUDED.count";
+
+    private static final String ADD_TOTAL_SQL =
+        "INSERT INTO message_stats_totals (tenant_id, channel, status, count) VALUES (?, ?, ?, ?) " +
+        "ON CONFLICT (tenant_id, channel, status) " +
+        "DO UPDATE SET count = message_stats_totals.count + EXCLUDED.count";
+
+    private static final String FIND_TOTALS_SQL =
+        "SELECT tenant_id, channel, status, count FROM message_stats_totals";
+
+    private static final String SUM_MINUTES_SINCE_SQL =
+        "SELECT bucket_start, status, SUM(count) FROM message_stats_minute " +
+        "WHERE bucket_start >= ? AND status IN ('ACCEPTED', 'FAILED') " +
+        "GROUP BY bucket_start, status";
+
+    private static final String DELETE_MINUTES_BEFORE_SQL =
+        "DELETE FROM message_stats_minute WHERE bucket_start < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public MessageStatsJdbcRepository(JdbcTemplate jdbcTemplate,
+                                      @Value("${ums.message.batch.jdbc-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Add status entry counts to a minute bucket using JDBC batching.
+     *
+     * @param bucketStart Start of the minute
+     * @param counts      Count by key
+     */
+    public void addMinuteCounts(LocalDateTime bucketStart, Map<StatsKey, Long> counts) {
+        if (counts.isEmpty()) {
+            return;
+        }
+
+        Timestamp bucket = Timestamp.valueOf(bucketStart);
+        // Every node upserts in the same order, so concurrent flushes cannot deadlock
+        List<Map.Entry<StatsKey, Long>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.comparingByKey(StatsKey.ORDER));
+        jdbcTemplate.batchUpdate(ADD_MINUTE_COUNT_SQL, entries, batchSize, (ps, entry) -> {
+            ps.setTimestamp(1, bucket);
+            ps.setString(2, entry.getKey().getTenantId());
+            ps.setString(3, entry.getKey().getChannel());
+            ps.setString(4, entry.getKey().getStatus());
+            ps.setLong(5, entry.getValue());
+        });
+
+        logger.debug("Added {} stats counts to minute {}", entries.size(), bucketStart);
+    }
+
+    /**
+     * Add deltas to the running totals using JDBC batching.
+     *
+     * @param deltas Change by key; negative when messages left a status
+     */
+    public void addTotals(Map<StatsKey, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<StatsKey, Long>> entries = new ArrayList<>(deltas.entrySet());
+        entries.sort(Map.Entry.comparingByKey(StatsKey.ORDER));
+        jdbcTemplate.batchUpdate(ADD_TOTAL_SQL, entries, batchSize, (ps, entry) -> {
+            ps.setString(1, entry.getKey().getTenantId());
+            ps.setString(2, entry.getKey().getChannel());
+            ps.setString(3, entry.getKey().getStatus());
+            ps.setLong(4, entry.getValue());
+        });
+
+        logger.debug("Added {} stats total deltas", entries.size());
+    }
+
+    /**
+     * Load every running total.
+     *
+     * @return Count by key
+     */
+    public Map<StatsKey, Long> findTotals() {
+        Map<StatsKey, Long> totals = new HashMap<>();
+        jdbcTemplate.query(FIND_TOTALS_SQL, (RowCallbackHandler) rs -> totals.put(
+            new StatsKey(rs.getString("tenant_id"), rs.getString("channel"), rs.getString("status")),
+            rs.getLong("count")));
+        return totals;
+    }
+
+    /**
+     * Sum accepted and failed counts per minute across tenants and channels.
+     *
+     * @param since Inclusive first minute bucket
+     * @return Count by minute bucket, then by status
+     */
+    public Map<LocalDateTime, Map<String, Long>> sumMinutesSince(LocalDateTime since) {
+        Map<LocalDateTime, Map<String, Long>> sums = new HashMap<>();
+        jdbcTemplate.query(SUM_MINUTES_SINCE_SQL, (RowCallbackHandler) rs ->
+            sums.computeIfAbsent(rs.getTimestamp(1).toLocalDateTime(), bucket -> new HashMap<>())
+                .put(rs.getString(2), rs.getLong(3)),
+            Timestamp.valueOf(since));
+        return sums;
+    }
+
+    /**
+     * Delete minute buckets older than the retention window.
+     *
+     * @param before Exclusive upper bound on bucket_start
+     * @return Number of rows deleted
+     */
+    public int deleteMinutesBefore(LocalDateTime before) {
+        return jdbcTemplate.update(DELETE_MINUTES_BEFORE_SQL, Timestamp.valueOf(before));
+    }
+
+    /**
+     * Tenant, channel and status a count belongs to.
+     */
+    public static class StatsKey {
+        static final Comparator<StatsKey> ORDER = Comparator.comparing(StatsKey::getTenantId)
+            .thenComparing(StatsKey::getChannel)
+            .thenComparing(StatsKey::getStatus);
+
+        private final String tenantId;
+        private final String channel;
+        private final String status;
+
+        public StatsKey(String tenantId, String channel, String status) {
+            this.tenantId = tenantId;
+            this.channel = channel;
+            this.status = status;
+        }
+
+        public String getTenantId() { return tenantId; }
+        public String getChannel() { return channel; }
+        public String getStatus() { return status; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            StatsKey that = (StatsKey) o;
+            return Objects.equals(tenantId, that.tenantId) &&
+                   Objects.equals(channel, that.channel) &&
+                   Objects.equals(status, that.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenantId, channel, status);
+        }
+    }
+}
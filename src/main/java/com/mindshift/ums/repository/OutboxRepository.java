@@ -0,0 +1,126 @@
+package com.mindshift.ums.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * JDBC access to the message_events outbox used by the outbox relay.
+ * Must be called inside a transaction: claimed rows stay locked until it ends.
+ */
+@Repository
+public class OutboxRepository {
+
+    private static final String CLAIM_UNPUBLISHED_SQL =
+        "SELECT e.id, e.request_id, m.tenant_id, m.channel, m.template_code, m.priority, e.occurred_at, " +
+        "m.created_at " +
+        "FROM message_events e " +
+        "JOIN messages m ON m.id = e.message_id AND m.created_at >= ? " +
+        "WHERE e.published_at IS NULL AND e.type = 'REQUESTED' AND e.occurred_at >= ? " +
+        "ORDER BY m.priority DESC, e.id " +
+        "LIMIT ? " +
+        "FOR UPDATE OF e SKIP LOCKED";
+
+    private static final String MARK_PUBLISHED_SQL =
+        "UPDATE message_events SET published_at = NOW() WHERE id = ANY(?) AND occurred_at >= ?";
+
+    // A message row is written just before its REQUESTED event, never after it
+    private static final long CREATED_BEFORE_EVENT_MARGIN_MINUTES = 60;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public OutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Lock and return unpublished REQUESTED events that occurred since the given time, most
+     * urgent message priority first and oldest first within a priority, so a backlog of bulk
+     * sends never holds up URGENT messages. Rows locked by other relay workers are skipped,
+     * so workers never block each other.
+     * The time bound keeps the claim and its join on the recent partitions of both tables.
+     *
+     * @param since Earliest event time to claim
+     * @param limit Maximum number of events to claim
+     * @return Claimed events in priority, then id order
+     */
+    public List<OutboxEvent> claimUnpublished(LocalDateTime since, int limit) {
+        return jdbcTemplate.query(CLAIM_UNPUBLISHED_SQL, (rs, rowNum) -> new OutboxEvent(
+            rs.getLong("id"),
+            rs.getString("request_id"),
+            rs.getString("tenant_id"),
+            rs.getString("channel"),
+            rs.getString("template_code"),
+            rs.getString("priority"),
+            rs.getTimestamp("occurred_at").toLocalDateTime(),
+            rs.getTimestamp("created_at").toLocalDateTime()
+        ),
+            Timestamp.valueOf(since.minusMinutes(CREATED_BEFORE_EVENT_MARGIN_MINUTES)),
+            Timestamp.valueOf(since),
+            limit);
+    }
+
+    /**
+     * Mark claimed events as published.
+     *
+     * @param events Events returned by {@link #claimUnpublished}
+     * @return Number of rows updated
+     */
+    public int markPublished(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        Object[] eventIds = events.stream().map(OutboxEvent::getId).toArray();
+        LocalDateTime oldest = events.stream().map(OutboxEvent::getOccurredAt)
+            .min(Comparator.naturalOrder()).orElseThrow();
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(MARK_PUBLISHED_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", eventIds));
+            ps.setTimestamp(2, Timestamp.valueOf(oldest));
+            return ps;
+        });
+    }
+
+    /**
+     * Unpublished outbox row joined with the message fields needed for the Kafka event.
+     */
+    public static class OutboxEvent {
+        private final long id;
+        private final String requestId;
+        private final String tenantId;
+        private final String channel;
+        private final String templateCode;
+        private final String priority;
+        private final LocalDateTime occurredAt;
+        private final LocalDateTime createdAt;
+
+        public OutboxEvent(long id, String requestId, String tenantId, String channel,
+                           String templateCode, String priority, LocalDateTime occurredAt,
+                           LocalDateTime createdAt) {
+            this.id = id;
+            this.requestId = requestId;
+            this.tenantId = tenantId;
+            this.channel = channel;
+            this.templateCode = templateCode;
+            this.priority = priority;
+            this.occurredAt = occurredAt;
+            this.createdAt = createdAt;
+        }
+
+        public long getId() { return id; }
+        public String getRequestId() { return requestId; }
+        public String getTenantId() { return tenantId; }
+        public String getChannel() { return channel; }
+        public String getTemplateCode() { return templateCode; }
+        public String getPriority() { return priority; }
+        public LocalDateTime getOccurredAt() { return occurredAt; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+    }
+}
@@ -0,0 +1,147 @@
+package com.mindshift.ums.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * JDBC-backed repository for set-based recipient preference operations:
+ * scanning every preference key for the policy screen, polling recent changes,
+ * and batched write-behind of last-message times.
+ */
+@Repository
+public class RecipientPrefJdbcRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipientPrefJdbcRepository.class);
+
+    private static final String COUNT_BY_TENANT_SQL =
+        "SELECT tenant_id, COUNT(*) FROM recipient_prefs GROUP BY tenant_id";
+
+    private static final String SCAN_KEYS_SQL =
+        "SELECT tenant_id, recipient_key FROM recipient_prefs";
+
+    private static final String KEYS_UPDATED_SINCE_SQL =
+        "SELECT tenant_id, recipient_key FROM recipient_prefs WHERE updated_at > ?";
+
+    // GREATEST ignores NULL, and an older queued time never moves the column back
+    private static final String UPDATE_LAST_MESSAGE_AT_SQL =
+        "UPDATE recipient_prefs SET last_message_at = GREATEST(last_message_at, ?) " +
+        "WHERE tenant_id = ? AND recipient_key = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+    private final int batchSize;
+
+    @Autowired
+    public RecipientPrefJdbcRepository(JdbcTemplate jdbcTemplate,
+                                       @Value("${ums.recipient-policy.scan-fetch-size:5000}") int fetchSize,
+                                       @Value("${ums.message.batch.jdbc-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Count preference rows per tenant.
+     *
+     * @return Row count by tenant ID
+     */
+    public Map<String, Long> countByTenant() {
+        Map<String, Long> counts = new HashMap<>();
+        jdbcTemplate.query(COUNT_BY_TENANT_SQL, (RowCallbackHandler) rs -> counts.put(rs.getString(1), rs.getLong(2)));
+        return counts;
+    }
+
+    /**
+     * Stream every preference key. Runs in a read-only transaction so the
+     * PostgreSQL driver honours the fetch size instead of loading the whole table.
+     *
+     * @param consumer Receives tenant ID and recipient key for each row
+     */
+    @Transactional(readOnly = true)
+    public void forEachKey(BiConsumer<String, String> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SCAN_KEYS_SQL);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getString(1), rs.getString(2)));
+    }
+
+    /**
+     * Find preferences created or changed after a point in time.
+     *
+     * @param since Exclusive lower bound on updated_at
+     * @return Keys of the changed preferences
+     */
+    public List<PrefKey> findKeysUpdatedSince(LocalDateTime since) {
+        return jdbcTemplate.query(KEYS_UPDATED_SINCE_SQL,
+            (rs, rowNum) -> new PrefKey(rs.getString(1), rs.getString(2)),
+            Timestamp.valueOf(since));
+    }
+
+    /**
+     * Advance last_message_at for existing preferences using JDBC batching.
+     * Recipients without a preference row are skipped.
+     *
+     * @param lastMessageAt Latest send time by preference key
+     */
+    public void updateLastMessageAt(Map<PrefKey, LocalDateTime> lastMessageAt) {
+        if (lastMessageAt.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<PrefKey, LocalDateTime>> entries = new ArrayList<>(lastMessageAt.entrySet());
+        jdbcTemplate.batchUpdate(UPDATE_LAST_MESSAGE_AT_SQL, entries, batchSize, (ps, entry) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(entry.getValue()));
+            ps.setString(2, entry.getKey().getTenantId());
+            ps.setString(3, entry.getKey().getRecipientKey());
+        });
+
+        logger.debug("Batch updated last message time for {} recipients", entries.size());
+    }
+
+    /**
+     * Primary key of a recipient preference.
+     */
+    public static class PrefKey {
+        private final String tenantId;
+        private final String recipientKey;
+
+        public PrefKey(String tenantId, String recipientKey) {
+            this.tenantId = tenantId;
+            this.recipientKey = recipientKey;
+        }
+
+        public String getTenantId() { return tenantId; }
+        public String getRecipientKey() { return recipientKey; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            PrefKey that = (PrefKey) o;
+            return Objects.equals(tenantId, that.tenantId) &&
+                   Objects.equals(recipientKey, that.recipientKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenantId, recipientKey);
+        }
+    }
+}
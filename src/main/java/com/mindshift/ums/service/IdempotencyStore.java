@@ -0,0 +1,188 @@
+package com.mindshift.ums.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collections;
+
+/**
+ * Redis-backed idempotency store.
+ *
+ * A request claims its key with an atomic {@code SET NX PX}; once the request's
+ * transaction commits, the claim is replaced by the result (the request id) so that
+ * repeated requests are answered from Redis without touching the database. Keys are
+ * scoped by tenant. If the transaction rolls back the claim is released so the
+ * client can retry.
+ */
+@Service
+public class IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final String PROCESSING = "processing";
+    private static final String RESULT_PREFIX = "done:";
+
+    // Delete the key only while it still holds the processing marker
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of("""
+        if redis.call('GET', KEYS[1]) == ARGV[1] then
+            return redis.call('DEL', KEYS[1])
+        end
+        return 0
+        """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Duration lockTtl;
+    private final Duration resultTtl;
+
+    @Autowired
+    public IdempotencyStore(RedisTemplate<String, String> redisTemplate,
+                            @Value("${ums.security.idempotency.lock-ttl-ms:300000}") long lockTtlMs,
+                            @Value("${ums.security.idempotency.cache-ttl:86400}") long resultTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.lockTtl = Duration.ofMillis(lockTtlMs);
+        this.resultTtl = Duration.ofSeconds(resultTtlSeconds);
+    }
+
+    /**
+     * Claim an idempotency key, or report what already holds it.
+     *
+     * @param tenantId       Tenant ID
+     * @param idempotencyKey Idempotency key
+     * @return The outcome of the claim
+     */
+    public Claim claim(String tenantId, String idempotencyKey) {
+        String key = buildKey(tenantId, idempotencyKey);
+
+        try {
+            for (int attempt = 0; attempt < 2; attempt++) {
+                if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, PROCESSING, lockTtl))) {
+                    logger.debug("Idempotency key claimed: {}", key);
+                    return Claim.acquired();
+                }
+
+                String value = redisTemplate.opsForValue().get(key);
+                if (value == null) {
+                    // Expired between SET NX and GET; try to claim once more
+                    continue;
+                }
+                if (value.startsWith(RESULT_PREFIX)) {
+                    return Claim.completed(value.substring(RESULT_PREFIX.length()));
+                }
+                return Claim.inProgress();
+            }
+            return Claim.inProgress();
+
+        } catch (Exception e) {
+            logger.error("Idempotency store unavailable for key: {}", key, e);
+            return Claim.unavailable();
+        }
+    }
+
+    /**
+     * Store the result for a claimed key once the current transaction commits,
+     * or release the claim if it rolls back. Without an active transaction the
+     * result is stored immediately.
+     *
+     * @param tenantId       Tenant ID
+     * @param idempotencyKey Idempotency key
+     * @param result         Result to return for repeated requests
+     */
+    public void complete(String tenantId, String idempotencyKey, String result) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            storeResult(tenantId, idempotencyKey, result);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    storeResult(tenantId, idempotencyKey, result);
+                } else {
+                    release(tenantId, idempotencyKey);
+                }
+            }
+        });
+    }
+
+    /**
+     * Release a claim that did not complete. A stored result is never removed.
+     *
+     * @param tenantId       Tenant ID
+     * @param idempotencyKey Idempotency key
+     */
+    public void release(String tenantId, String idempotencyKey) {
+        String key = buildKey(tenantId, idempotencyKey);
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(key), PROCESSING);
+            logger.debug("Released idempotency claim for: {}", key);
+        } catch (Exception e) {
+            // The claim expires on its own after the lock TTL
+            logger.error("Failed to release idempotency claim for key: {}", key, e);
+        }
+    }
+
+    private void storeResult(String tenantId, String idempotencyKey, String result) {
+        String key = buildKey(tenantId, idempotencyKey);
+        try {
+            redisTemplate.opsForValue().set(key, RESULT_PREFIX + result, resultTtl);
+            logger.debug("Stored idempotency result for: {}", key);
+        } catch (Exception e) {
+            // Repeated requests fall back to the database lookup
+            logger.error("Failed to store idempotency result for key: {}", key, e);
+        }
+    }
+
+    private String buildKey(String tenantId, String idempotencyKey) {
+        return KEY_PREFIX + tenantId + ":" + idempotencyKey;
+    }
+
+    /**
+     * Outcome of an idempotency claim.
+     */
+    public static class Claim {
+
+        public enum Status {
+            ACQUIRED,
+            IN_PROGRESS,
+            COMPLETED,
+            UNAVAILABLE
+        }
+
+        private final Status status;
+        private final String result;
+
+        private Claim(Status status, String result) {
+            this.status = status;
+            this.result = result;
+        }
+
+        public static Claim acquired() {
+            return new Claim(Status.ACQUIRED, null);
+        }
+
+        public static Claim inProgress() {
+            return new Claim(Status.IN_PROGRESS, null);
+        }
+
+        public static Claim completed(String result) {
+            return new Claim(Status.COMPLETED, result);
+        }
+
+        public static Claim unavailable() {
+            return new Claim(Status.UNAVAILABLE, null);
+        }
+
+        public Status getStatus() { return status; }
+        public String getResult() { return result; }
+    }
+}
@@ -0,0 +1,286 @@
+package com.mindshift.ums.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindshift.ums.api.exception.ValidationException;
+import com.mindshift.ums.domain.entity.TenantConfig;
+import com.mindshift.ums.domain.enums.ChannelType;
+import com.mindshift.ums.domain.enums.MessageStatus;
+import com.mindshift.ums.repository.MessageJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Streams a tenant's message history as NDJSON or CSV.
+ *
+ * Rows are read in keyset chunks of {@code ums.message.export.chunk-size}, oldest first,
+ * and written to the response as they arrive, so memory stays constant however many
+ * messages the export covers. Each chunk is a short query of its own: no connection is
+ * held while the client reads, and a slow download never pins a pool connection.
+ */
+@Service
+public class MessageExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageExportService.class);
+
+    private static final String[] COLUMNS = {
+        "requestId", "status", "channel", "templateCode", "priority", "retries", "errorCode",
+        "providerMessageId", "createdAt", "sentAt", "deliveredAt", "failedAt"
+    };
+
+    private final AuthenticationService authenticationService;
+    private final MessageJdbcRepository messageJdbcRepository;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxRangeDays;
+    private final int defaultRangeDays;
+
+    @Autowired
+    public MessageExportService(AuthenticationService authenticationService,
+                                MessageJdbcRepository messageJdbcRepository,
+                                ObjectMapper objectMapper,
+                                @Value("${ums.message.export.chunk-size:1000}") int chunkSize,
+                                @Value("${ums.message.export.max-range-days:92}") int maxRangeDays,
+                                @Value("${ums.message.list.max-age-days:30}") int defaultRangeDays) {
+        this.authenticationService = authenticationService;
+        this.messageJdbcRepository = messageJdbcRepository;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxRangeDays = maxRangeDays;
+        this.defaultRangeDays = defaultRangeDays;
+    }
+
+    /**
+     * Authenticate and validate an export request. Nothing is read until the
+     * returned export is written, so errors surface before the response starts.
+     *
+     * @param authorization Authorization header to identify tenant
+     * @param format        "ndjson" or "csv"
+     * @param status        Optional status filter
+     * @param channel       Optional channel filter
+     * @param from          Inclusive start of the created_at range; defaults to the list window
+     * @param to            Exclusive end of the created_at range; defaults to now
+     * @return Export ready to be written
+     */
+    public Export prepareExport(String authorization, String format, String status, ChannelType channel,
+                                LocalDateTime from, LocalDateTime to) {
+        TenantConfig tenant = authenticationService.authenticateTenant(authorization);
+
+        Format exportFormat = parseFormat(format);
+        MessageStatus messageStatus = parseStatus(status);
+        LocalDateTime createdTo = to != null ? to : LocalDateTime.now();
+        LocalDateTime createdFrom = from != null ? from : createdTo.minusDays(defaultRangeDays);
+
+        if (!createdFrom.isBefore(createdTo)) {
+            throw new ValidationException("Export range start must be before its end");
+        }
+        if (Duration.between(createdFrom, createdTo).toDays() > maxRangeDays) {
+            throw new ValidationException("Export range must not exceed " + maxRangeDays + " days");
+        }
+
+        return new Export(tenant.getTenantId(), exportFormat, messageStatus, channel, createdFrom, createdTo);
+    }
+
+    private Format parseFormat(String format) {
+        if (format == null || format.isBlank()) {
+            return Format.NDJSON;
+        }
+        try {
+            return Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unsupported export format: " + format);
+        }
+    }
+
+    private MessageStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return MessageStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unsupported message status: " + status);
+        }
+    }
+
+    private long write(Export export, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        JsonGenerator json = null;
+        if (export.format == Format.NDJSON) {
+            json = objectMapper.getFactory().createGenerator(writer);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // One object per line: newlines are written explicitly instead of the default space separator
+            json.setRootValueSeparator(null);
+        } else {
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+        }
+
+        long rows = 0;
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        while (true) {
+            List<MessageJdbcRepository.MessageSummary> chunk = messageJdbcRepository.findSummariesChunk(
+                export.tenantId, export.status, export.channel, export.from, export.to,
+                afterCreatedAt, afterId, chunkSize);
+
+            for (MessageJdbcRepository.MessageSummary row : chunk) {
+                if (json != null) {
+                    writeJson(json, row);
+                } else {
+                    writeCsv(writer, row);
+                }
+            }
+            if (json != null) {
+                json.flush();
+            }
+            writer.flush();
+
+            rows += chunk.size();
+            if (chunk.size() < chunkSize) {
+                return rows;
+            }
+            MessageJdbcRepository.MessageSummary last = chunk.get(chunk.size() - 1);
+            afterCreatedAt = last.getCreatedAt();
+            afterId = last.getId();
+        }
+    }
+
+    private void writeJson(JsonGenerator json, MessageJdbcRepository.MessageSummary row) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("requestId", row.getRequestId());
+        json.writeStringField("status", row.getStatus().name());
+        json.writeStringField("channel", row.getChannel().name());
+        json.writeStringField("templateCode", row.getTemplateCode());
+        json.writeStringField("priority", row.getPriority() != null ? row.getPriority().name() : null);
+        json.writeNumberField("retries", row.getRetries());
+        json.writeStringField("errorCode", row.getErrorCode());
+        json.writeStringField("providerMessageId", row.getProviderMessageId());
+        json.writeStringField("createdAt", format(row.getCreatedAt()));
+        json.writeStringField("sentAt", format(row.getSentAt()));
+        json.writeStringField("deliveredAt", format(row.getDeliveredAt()));
+        json.writeStringField("failedAt", format(row.getFailedAt()));
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private void writeCsv(Writer writer, MessageJdbcRepository.MessageSummary row) throws IOException {
+        writer.write(csv(row.getRequestId()));
+        writer.write(',');
+        writer.write(row.getStatus().name());
+        writer.write(',');
+        writer.write(row.getChannel().name());
+        writer.write(',');
+        writer.write(csv(row.getTemplateCode()));
+        writer.write(',');
+        writer.write(row.getPriority() != null ? row.getPriority().name() : "");
+        writer.write(',');
+        writer.write(String.valueOf(row.getRetries()));
+        writer.write(',');
+        writer.write(csv(row.getErrorCode()));
+        writer.write(',');
+        writer.write(csv(row.getProviderMessageId()));
+        writer.write(',');
+        writer.write(nullToEmpty(format(row.getCreatedAt())));
+        writer.write(',');
+        writer.write(nullToEmpty(format(row.getSentAt())));
+        writer.write(',');
+        writer.write(nullToEmpty(format(row.getDeliveredAt())));
+        writer.write(',');
+        writer.write(nullToEmpty(format(row.getFailedAt())));
+        writer.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String format(LocalDateTime value) {
+        return value != null ? value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    /**
+     * Export output format.
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+    }
+
+    /**
+     * A validated export for one tenant.
+     */
+    public class Export {
+        private final String tenantId;
+        private final Format format;
+        private final MessageStatus status;
+        private final ChannelType channel;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+
+        private Export(String tenantId, Format format, MessageStatus status, ChannelType channel,
+                       LocalDateTime from, LocalDateTime to) {
+            this.tenantId = tenantId;
+            this.format = format;
+            this.status = status;
+            this.channel = channel;
+            this.from = from;
+            this.to = to;
+        }
+
+        public Format getFormat() { return format; }
+
+        /**
+         * Stream the export.
+         *
+         * @param out Response body
+         * @throws IOException if the client goes away
+         */
+        public void writeTo(OutputStream out) throws IOException {
+            long started = System.currentTimeMillis();
+            try {
+                long rows = write(this, out);
+                logger.info("Exported {} messages for tenant {} in {} ms", rows, tenantId,
+                    System.currentTimeMillis() - started);
+            } catch (IOException e) {
+                logger.warn("Message export for tenant {} aborted: {}", tenantId, e.getMessage());
+                throw e;
+            }
+        }
+    }
+}
@@ -3,33 +3,49 @@ package com.mindshift.ums.service;
 import com.mindshift.ums.api.dto.SendMessageDto;
 import com.mindshift.ums.api.exception.MessageNotFoundException;
 import com.mindshift.ums.api.exception.RateLimitExceededException;
+import com.mindshift.ums.api.exception.UmsException;
+import com.mindshift.ums.api.exception.ValidationException;
 import com.mindshift.ums.domain.entity.Message;
 import com.mindshift.ums.domain.entity.MessageEvent;
 import com.mindshift.ums.domain.entity.Template;
 import com.mindshift.ums.domain.entity.TenantConfig;
+import com.mindshift.ums.domain.enums.ChannelType;
 import com.mindshift.ums.domain.enums.MessageStatus;
+import com.mindshift.ums.metrics.StageTimers;
+import com.mindshift.ums.metrics.StageTimers.Stage;
 import com.mindshift.ums.repository.MessageEventRepository;
+import com.mindshift.ums.repository.MessageJdbcRepository;
 import com.mindshift.ums.repository.MessageRepository;
 import com.mindshift.ums.repository.TenantConfigRepository;
-import com.mindshift.ums.service.kafka.KafkaProducerService;
 import com.mindshift.ums.service.security.RateLimitService;
 import com.mindshift.ums.service.security.RecipientPolicyService;
+import com.mindshift.ums.service.stats.MessageStatsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Main service for message operations using layered architecture.
@@ -50,7 +66,18 @@ public class MessageService {
     private final TemplateService templateService;
     private final RateLimitService rateLimitService;
     private final RecipientPolicyService recipientPolicyService;
-    private final KafkaProducerService kafkaProducerService;
+    private final MessageJdbcRepository messageJdbcRepository;
+    private final MessageStatsService messageStatsService;
+    private final StageTimers stageTimers;
+
+    @Value("${ums.message.batch.max-size:10000}")
+    private int maxBatchSize = 10000;
+
+    @Value("${ums.message.list.max-age-days:30}")
+    private int listMaxAgeDays = 30;
+
+    @Value("${ums.message.list.max-page-size:200}")
+    private int listMaxPageSize = 200;
 
     @Autowired
     public MessageService(MessageRepository messageRepository,
@@ -61,7 +88,9 @@ public class MessageService {
                          TemplateService templateService,
                          RateLimitService rateLimitService,
                          RecipientPolicyService recipientPolicyService,
-                         KafkaProducerService kafkaProducerService) {
+                         MessageJdbcRepository messageJdbcRepository,
+                         MessageStatsService messageStatsService,
+                         StageTimers stageTimers) {
         this.messageRepository = messageRepository;
         this.messageEventRepository = messageEventRepository;
         this.tenantConfigRepository = tenantConfigRepository;
@@ -70,7 +99,9 @@ public class MessageService {
         this.templateService = templateService;
         this.rateLimitService = rateLimitService;
         this.recipientPolicyService = recipientPolicyService;
-        this.kafkaProducerService = kafkaProducerService;
+        this.messageJdbcRepository = messageJdbcRepository;
+        this.messageStatsService = messageStatsService;
+        this.stageTimers = stageTimers;
     }
 
     /**
@@ -88,66 +119,231 @@ public class MessageService {
 
         logger.info("Processing message request with idempotency key: {}", idempotencyKey);
 
+        String claimedTenantId = null;
+        ChannelType channel = request.getChannel();
+        long mark = stageTimers.start();
         try {
             // Step 1: Authentication
             TenantConfig tenant = authenticationService.authenticateTenant(authorization);
             logger.debug("Tenant authenticated: {}", tenant.getTenantId());
+            String tenantId = tenant.getTenantId();
+            mark = stageTimers.record(Stage.AUTH, tenantId, channel, mark);
 
-            // Step 2: Idempotency check
-            var existingMessage = validationService.checkIdempotency(idempotencyKey, tenant.getTenantId());
-            if (existingMessage.isPresent()) {
+            // Step 2: Idempotency check (claims the key for this request)
+            var existingRequestId = validationService.checkIdempotency(idempotencyKey, tenant.getTenantId());
+            mark = stageTimers.record(Stage.IDEMPOTENCY, tenantId, channel, mark);
+            if (existingRequestId.isPresent()) {
                 logger.info("Returning existing message for idempotency key: {}", idempotencyKey);
-                return existingMessage.get().getRequestId();
+                return existingRequestId.get();
             }
+            claimedTenantId = tenant.getTenantId();
 
             // Step 3: Basic validation
             validationService.validateMessageRequest(request);
             validationService.validateRecipient(request.getTo(), request.getChannel());
+            mark = stageTimers.record(Stage.VALIDATION, tenantId, channel, mark);
 
             // Step 4: Rate limiting
             checkRateLimits(tenant, request);
+            mark = stageTimers.record(Stage.RATE_LIMIT, tenantId, channel, mark);
 
             // Step 5: Template processing
             Template template = templateService.loadTemplate(tenant, request.getTemplateCode(),
                 request.getChannel(), request.getLocale());
+            mark = stageTimers.record(Stage.TEMPLATE_LOAD, tenantId, channel, mark);
             templateService.validateTemplate(template, request.getTemplateData());
             Map<String, String> renderedContent = templateService.renderTemplate(template, request.getTemplateData());
+            mark = stageTimers.record(Stage.TEMPLATE_RENDER, tenantId, channel, mark);
 
             // Step 6: Recipient policy check
             recipientPolicyService.checkRecipientPolicy(tenant.getTenantId(),
                 request.getTo(), request.getChannel());
+            mark = stageTimers.record(Stage.POLICY, tenantId, channel, mark);
 
             // Step 7: Create message
             String requestId = generateRequestId();
             Message message = createMessage(request, requestId, tenant, template, renderedContent, idempotencyKey);
 
-            // Step 8: Persist with Outbox pattern
+            // Step 8: Persist with Outbox pattern (published to Kafka by OutboxRelay after commit)
             Message savedMessage = messageRepository.save(message);
             MessageEvent requestEvent = MessageEvent.createRequestedEvent(savedMessage);
             messageEventRepository.save(requestEvent);
+            stageTimers.record(Stage.DB_SAVE, tenantId, channel, mark);
 
-            // Step 9: Publish event
-            kafkaProducerService.publishMessageRequested(
-                savedMessage.getRequestId(),
-                savedMessage.getTenantId(),
-                savedMessage.getChannel().name(),
-                savedMessage.getTemplateCode(),
-                savedMessage.getPriority().name()
-            );
-
-            // Step 10: Record message sent for policy tracking
+            // Step 9: Record message sent for policy tracking
             recipientPolicyService.recordMessageSent(tenant.getTenantId(),
                 request.getTo(), request.getChannel());
 
-            // Release idempotency lock
-            validationService.releaseIdempotencyLock(idempotencyKey);
+            // Count the message and store the idempotency result once the transaction commits
+            messageStatsService.recordAccepted(savedMessage);
+            validationService.completeIdempotency(idempotencyKey, tenant.getTenantId(), requestId);
 
             logger.info("Message processing completed successfully. RequestId: {}", requestId);
             return requestId;
 
         } catch (Exception e) {
             logger.error("Failed to process message with idempotency key: {}", idempotencyKey, e);
-            validationService.releaseIdempotencyLock(idempotencyKey);
+            if (claimedTenantId != null) {
+                validationService.releaseIdempotencyLock(idempotencyKey, claimedTenantId);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Accept a batch of messages that share one template.
+     * Runs the acceptance pipeline once per batch instead of once per message:
+     * one authentication, one idempotency lookup, one rate limit pass and one
+     * template resolution, followed by JDBC-batched inserts into the outbox.
+     * Recipients failing validation, rendering or policy checks are rejected
+     * individually without failing the rest of the batch. Stage latencies are
+     * recorded per message, each stage's time split evenly over the batch.
+     *
+     * @param request        The batch request
+     * @param idempotencyKey Idempotency key for the whole batch
+     * @param authorization  Authorization header
+     * @return Per-recipient acceptance results
+     */
+    @Transactional
+    public SendMessageDto.BatchAcceptResponse acceptBatch(SendMessageDto.BatchSendRequest request,
+                                                         String idempotencyKey,
+                                                         String authorization) {
+
+        int batchSize = request.getRecipients().size();
+        logger.info("Processing batch request with idempotency key: {} ({} recipients)", idempotencyKey, batchSize);
+
+        validateBatchRequest(request, idempotencyKey);
+        ChannelType channel = request.getChannel();
+        long mark = stageTimers.start();
+
+        // Step 1: Authentication (once per batch)
+        TenantConfig tenant = authenticationService.authenticateTenant(authorization);
+        String tenantId = tenant.getTenantId();
+        mark = stageTimers.recordBatch(Stage.AUTH, tenantId, channel, mark, batchSize);
+
+        // Step 2: Idempotency check (claims the batch key; items are only looked up on replay)
+        List<String> itemKeys = buildBatchItemKeys(idempotencyKey, batchSize);
+        Optional<ValidationService.BatchReplay> replay = validationService.checkBatchIdempotency(
+            idempotencyKey, itemKeys, tenant.getTenantId());
+        mark = stageTimers.recordBatch(Stage.IDEMPOTENCY, tenantId, channel, mark, batchSize);
+        if (replay.isPresent()) {
+            logger.info("Returning existing batch result for idempotency key: {}", idempotencyKey);
+            return buildBatchReplayResponse(itemKeys, replay.get());
+        }
+
+        try {
+            String batchId = generateBatchId();
+            SendMessageDto.SendMessageRequest[] itemRequests = new SendMessageDto.SendMessageRequest[batchSize];
+            SendMessageDto.BatchItemResult[] results = new SendMessageDto.BatchItemResult[batchSize];
+
+            // Step 3: Per-recipient validation
+            for (int i = 0; i < batchSize; i++) {
+                SendMessageDto.SendMessageRequest itemRequest = request.toMessageRequest(request.getRecipients().get(i));
+                try {
+                    validationService.validateMessageRequest(itemRequest);
+                    validationService.validateRecipient(itemRequest.getTo(), itemRequest.getChannel());
+                    itemRequests[i] = itemRequest;
+                } catch (ValidationException e) {
+                    results[i] = SendMessageDto.BatchItemResult.rejected(i, "VALIDATION_ERROR",
+                        e.getMessage(), e.getValidationErrors());
+                }
+            }
+            mark = stageTimers.recordBatch(Stage.VALIDATION, tenantId, channel, mark, batchSize);
+
+            // Step 4: Template processing with the template resolved once
+            Template template = templateService.loadTemplate(tenant, request.getTemplateCode(),
+                request.getChannel(), request.getLocale());
+            mark = stageTimers.recordBatch(Stage.TEMPLATE_LOAD, tenantId, channel, mark, batchSize);
+
+            Map<Integer, Map<String, String>> renderedByIndex = new LinkedHashMap<>();
+            for (int i = 0; i < batchSize; i++) {
+                if (results[i] != null) {
+                    continue;
+                }
+                try {
+                    templateService.validateTemplate(template, itemRequests[i].getTemplateData());
+                    renderedByIndex.put(i, templateService.renderTemplate(template, itemRequests[i].getTemplateData()));
+                } catch (ValidationException e) {
+                    results[i] = SendMessageDto.BatchItemResult.rejected(i, "VALIDATION_ERROR",
+                        e.getMessage(), e.getValidationErrors());
+                } catch (UmsException e) {
+                    results[i] = SendMessageDto.BatchItemResult.rejected(i, e.getErrorCode(),
+                        e.getMessage(), e.getDetails());
+                }
+            }
+            mark = stageTimers.recordBatch(Stage.TEMPLATE_RENDER, tenantId, channel, mark, batchSize);
+
+            Map<Integer, Message> messagesByIndex = new LinkedHashMap<>();
+            for (Map.Entry<Integer, Map<String, String>> rendered : renderedByIndex.entrySet()) {
+                int i = rendered.getKey();
+                SendMessageDto.SendMessageRequest itemRequest = itemRequests[i];
+                try {
+                    // Step 5: Recipient policy check
+                    RecipientPolicyService.PolicyCheckResult policy = recipientPolicyService.checkRecipientPolicy(
+                        tenant.getTenantId(), itemRequest.getTo(), itemRequest.getChannel());
+                    if (!policy.isAllowed()) {
+                        results[i] = SendMessageDto.BatchItemResult.rejected(i, policy.getErrorCode(),
+                            policy.getErrorMessage(), null);
+                        continue;
+                    }
+
+                    if (itemRequest.getMeta() == null) {
+                        itemRequest.setMeta(new HashMap<>());
+                    }
+                    itemRequest.getMeta().put("batchId", batchId);
+                    Message message = createMessage(itemRequest, generateRequestId(), tenant, template,
+                        rendered.getValue(), itemKeys.get(i));
+                    messagesByIndex.put(i, message);
+
+                } catch (ValidationException e) {
+                    results[i] = SendMessageDto.BatchItemResult.rejected(i, "VALIDATION_ERROR",
+                        e.getMessage(), e.getValidationErrors());
+                } catch (UmsException e) {
+                    results[i] = SendMessageDto.BatchItemResult.rejected(i, e.getErrorCode(),
+                        e.getMessage(), e.getDetails());
+                }
+            }
+
+            mark = stageTimers.recordBatch(Stage.POLICY, tenantId, channel, mark, batchSize);
+
+            // Step 6: Rate limiting in one pass over the remaining recipients
+            checkBatchRateLimits(tenant, request.getChannel(), messagesByIndex, itemRequests, results);
+            mark = stageTimers.recordBatch(Stage.RATE_LIMIT, tenantId, channel, mark, batchSize);
+
+            List<Message> messages = new ArrayList<>(messagesByIndex.values());
+            if (!messages.isEmpty()) {
+                // Step 7: Persist with JDBC batching (Outbox pattern, relayed to Kafka after commit)
+                List<Long> ids = messageJdbcRepository.allocateMessageIds(messages.size());
+                for (int i = 0; i < messages.size(); i++) {
+                    messages.get(i).setId(ids.get(i));
+                }
+                messageJdbcRepository.insertMessages(messages);
+                messageJdbcRepository.insertEvents(messages.stream()
+                    .map(MessageEvent::createRequestedEvent)
+                    .toList());
+            }
+            stageTimers.recordBatch(Stage.DB_SAVE, tenantId, channel, mark, batchSize);
+
+            // Step 8: Record results and policy tracking
+            for (Map.Entry<Integer, Message> entry : messagesByIndex.entrySet()) {
+                int index = entry.getKey();
+                results[index] = SendMessageDto.BatchItemResult.accepted(index, entry.getValue().getRequestId());
+                recipientPolicyService.recordMessageSent(tenant.getTenantId(),
+                    itemRequests[index].getTo(), itemRequests[index].getChannel());
+            }
+
+            // Count the accepted messages and store the idempotency result once the transaction commits
+            messageStatsService.recordAccepted(messages);
+            validationService.completeIdempotency(idempotencyKey, tenant.getTenantId(), batchId);
+
+            logger.info("Batch processing completed. BatchId: {}, accepted: {}, rejected: {}",
+                batchId, messages.size(), batchSize - messages.size());
+            return new SendMessageDto.BatchAcceptResponse(batchId, Arrays.asList(results),
+                LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+
+        } catch (Exception e) {
+            logger.error("Failed to process batch with idempotency key: {}", idempotencyKey, e);
+            validationService.releaseIdempotencyLock(idempotencyKey, tenant.getTenantId());
             throw e;
         }
     }
@@ -169,28 +365,38 @@ public class MessageService {
     }
 
     /**
-     * List messages for a tenant with pagination.
+     * List a tenant's messages (newest first) with pagination. Without {@code createdAfter}
+     * every message is listed; with it, only messages created after that time, so older
+     * partitions are not scanned.
      *
      * @param authorization Authorization header to identify tenant
      * @param page         Page number (0-based)
      * @param size         Page size
      * @param status       Optional status filter
+     * @param createdAfter Optional lower bound on the creation time
      * @return Paginated list of messages
      */
     @Transactional(readOnly = true)
-    public Map<String, Object> listMessages(String authorization, int page, int size, String status) {
-        logger.debug("Listing messages for page: {}, size: {}, status: {}", page, size, status);
+    public Map<String, Object> listMessages(String authorization, int page, int size, String status,
+                                            LocalDateTime createdAfter) {
+        logger.debug("Listing messages for page: {}, size: {}, status: {}, createdAfter: {}",
+            page, size, status, createdAfter);
 
         TenantConfig tenant = authenticateTenant(authorization);
 
-        Pageable pageable = PageRequest.of(page, size);
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        MessageStatus messageStatus = status != null ? MessageStatus.valueOf(status.toUpperCase()) : null;
         Page<Message> messagePage;
 
-        if (status != null) {
-            MessageStatus messageStatus = MessageStatus.valueOf(status.toUpperCase());
-            messagePage = messageRepository.findAllByTenantIdAndStatus(tenant.getTenantId(), messageStatus, pageable);
+        if (createdAfter == null) {
+            messagePage = messageStatus != null
+                ? messageRepository.findAllByTenantIdAndStatus(tenant.getTenantId(), messageStatus, pageable)
+                : messageRepository.findAllByTenantId(tenant.getTenantId(), pageable);
         } else {
-            messagePage = messageRepository.findAllByTenantId(tenant.getTenantId(), pageable);
+            messagePage = messageStatus != null
+                ? messageRepository.findAllByTenantIdAndStatusAndCreatedAtAfter(
+                    tenant.getTenantId(), messageStatus, createdAfter, pageable)
+                : messageRepository.findAllByTenantIdAndCreatedAtAfter(tenant.getTenantId(), createdAfter, pageable);
         }
 
         List<SendMessageDto.MessageStatusResponse> messages = messagePage.getContent().stream()
@@ -213,6 +419,100 @@ public class MessageService {
         return result;
     }
 
+    /**
+     * Scroll through a tenant's recent messages (newest first) with a keyset cursor.
+     * Each page is a single index range scan over a lightweight projection, with no
+     * COUNT(*), so it takes the same time however deep the cursor is.
+     *
+     * @param authorization Authorization header to identify tenant
+     * @param after         Cursor from the previous page's {@code nextCursor}, or null for the first page
+     * @param size          Page size
+     * @param status        Optional status filter
+     * @param estimateCount Whether to include the planner's estimate of the total
+     * @return Page of message summaries with the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    public SendMessageDto.MessageScrollResponse scrollMessages(String authorization, String after, int size,
+                                                               String status, boolean estimateCount) {
+        logger.debug("Scrolling messages after: {}, size: {}, status: {}", after, size, status);
+
+        TenantConfig tenant = authenticateTenant(authorization);
+
+        int pageSize = Math.max(1, Math.min(size, listMaxPageSize));
+        MessageStatus messageStatus = status != null ? MessageStatus.valueOf(status.toUpperCase()) : null;
+        LocalDateTime createdAfter = LocalDateTime.now().minusDays(listMaxAgeDays);
+
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        if (after != null && !after.isBlank()) {
+            String[] cursor = decodeCursor(after);
+            afterCreatedAt = LocalDateTime.parse(cursor[0]);
+            afterId = Long.parseLong(cursor[1]);
+        }
+
+        // One extra row tells whether there is a next page
+        List<MessageJdbcRepository.MessageSummary> rows = messageJdbcRepository.findSummariesPage(
+            tenant.getTenantId(), messageStatus, createdAfter, afterCreatedAt, afterId, pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            MessageJdbcRepository.MessageSummary last = rows.get(rows.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+
+        Long estimatedTotal = estimateCount
+            ? messageJdbcRepository.estimateCount(tenant.getTenantId(), messageStatus, createdAfter)
+            : null;
+
+        List<SendMessageDto.MessageSummary> messages = rows.stream()
+            .map(this::buildMessageSummary)
+            .toList();
+        return new SendMessageDto.MessageScrollResponse(messages, nextCursor, hasNext, estimatedTotal);
+    }
+
+    private String encodeCursor(LocalDateTime createdAt, long id) {
+        String cursor = createdAt.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            // Validate both parts before the cursor reaches the query
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            throw new ValidationException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private SendMessageDto.MessageSummary buildMessageSummary(MessageJdbcRepository.MessageSummary row) {
+        SendMessageDto.MessageSummary summary = new SendMessageDto.MessageSummary();
+        summary.setRequestId(row.getRequestId());
+        summary.setStatus(row.getStatus().name());
+        summary.setChannel(row.getChannel());
+        summary.setTemplateCode(row.getTemplateCode());
+        summary.setPriority(row.getPriority());
+        summary.setRetries(row.getRetries());
+        summary.setErrorCode(row.getErrorCode());
+        summary.setProviderMessageId(row.getProviderMessageId());
+        summary.setTimestamps(new SendMessageDto.MessageTimestamps(
+            row.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+            row.getSentAt() != null ? row.getSentAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null,
+            row.getDeliveredAt() != null ? row.getDeliveredAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null,
+            row.getFailedAt() != null ? row.getFailedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null
+        ));
+        return summary;
+    }
+
     /**
      * Build a message status response from a Message entity.
      */
@@ -247,38 +547,171 @@ public class MessageService {
     }
 
     /**
-     * Check rate limits for tenant and recipient.
+     * Check rate limits for tenant, recipient and (if configured) channel in one call.
      */
     private void checkRateLimits(TenantConfig tenant, SendMessageDto.SendMessageRequest request) {
-        // Check tenant rate limit
-        Integer tenantLimit = tenant.getRateLimit("per_hour");
-        int limit = tenantLimit != null ? tenantLimit : 1000;
+        List<RateLimitService.RateLimitCheck> checks = new ArrayList<>(3);
+        checks.add(tenantRateLimitCheck(tenant, 1));
+        checks.add(new RateLimitService.RateLimitCheck(getRecipientKey(request.getTo()), "recipient_messages", 10, 1));
+        RateLimitService.RateLimitCheck channelCheck = channelRateLimitCheck(tenant, request.getChannel(), 1);
+        if (channelCheck != null) {
+            checks.add(channelCheck);
+        }
 
-        var result = rateLimitService.checkRateLimit(tenant.getTenantId(), "messages", limit, 1);
+        var result = rateLimitService.checkRateLimits(checks);
         if (!result.isAllowed()) {
             throw new RateLimitExceededException(
-                "Rate limit exceeded for tenant: " + tenant.getTenantId(),
-                result.getRemainingTokens(),
-                result.getResetTimeSeconds()
+                "Rate limit exceeded for " + describeRateLimit(result.getDeniedCheck()),
+                result.getDenied().getRemainingTokens(),
+                result.getDenied().getResetTimeSeconds()
             );
         }
+    }
+
+    /**
+     * Check rate limits for a batch in one pass: every distinct recipient is charged for
+     * all of its messages in a single pipelined round trip, then the tenant and channel
+     * buckets are charged once for the messages still accepted. Recipients over their
+     * limit are rejected; the tenant or channel limit fails the batch.
+     */
+    private void checkBatchRateLimits(TenantConfig tenant, ChannelType channel, Map<Integer, Message> messagesByIndex,
+                                      SendMessageDto.SendMessageRequest[] itemRequests,
+                                      SendMessageDto.BatchItemResult[] results) {
+        if (messagesByIndex.isEmpty()) {
+            return;
+        }
+
+        // Check recipient rate limits first, one pipelined check per distinct recipient
+        Map<String, List<Integer>> indexesByRecipient = messagesByIndex.keySet().stream()
+            .collect(Collectors.groupingBy(index -> getRecipientKey(itemRequests[index].getTo()),
+                LinkedHashMap::new, Collectors.toList()));
+
+        List<List<RateLimitService.RateLimitCheck>> recipientChecks = indexesByRecipient.entrySet().stream()
+            .map(entry -> List.of(new RateLimitService.RateLimitCheck(
+                entry.getKey(), "recipient_messages", 10, entry.getValue().size())))
+            .toList();
+        List<RateLimitService.MultiRateLimitResult> recipientResults = rateLimitService.checkRateLimitsPipelined(recipientChecks);
+
+        int r = 0;
+        for (List<Integer> indexes : indexesByRecipient.values()) {
+            if (!recipientResults.get(r++).isAllowed()) {
+                for (Integer index : indexes) {
+                    messagesByIndex.remove(index);
+                    results[index] = SendMessageDto.BatchItemResult.rejected(index, "RATE_LIMIT_EXCEEDED",
+                        "Rate limit exceeded for recipient", null);
+                }
+            }
+        }
+        if (messagesByIndex.isEmpty()) {
+            return;
+        }
 
-        // Check recipient rate limit
-        String recipientKey = getRecipientKey(request.getTo());
-        var recipientResult = rateLimitService.checkRateLimit(recipientKey, "recipient_messages", 10, 1);
-        if (!recipientResult.isAllowed()) {
+        // Charge tenant and channel limits only for the recipients that passed
+        List<RateLimitService.RateLimitCheck> checks = new ArrayList<>(2);
+        checks.add(tenantRateLimitCheck(tenant, messagesByIndex.size()));
+        RateLimitService.RateLimitCheck channelCheck = channelRateLimitCheck(tenant, channel, messagesByIndex.size());
+        if (channelCheck != null) {
+            checks.add(channelCheck);
+        }
+
+        var result = rateLimitService.checkRateLimits(checks);
+        if (!result.isAllowed()) {
             throw new RateLimitExceededException(
-                "Rate limit exceeded for recipient: " + recipientKey,
-                recipientResult.getRemainingTokens(),
-                recipientResult.getResetTimeSeconds()
+                "Rate limit exceeded for " + describeRateLimit(result.getDeniedCheck()),
+                result.getDenied().getRemainingTokens(),
+                result.getDenied().getResetTimeSeconds()
             );
         }
     }
 
+    private RateLimitService.RateLimitCheck tenantRateLimitCheck(TenantConfig tenant, int tokens) {
+        Integer tenantLimit = tenant.getRateLimit("per_hour");
+        int limit = tenantLimit != null ? tenantLimit : 1000;
+        return new RateLimitService.RateLimitCheck(tenant.getTenantId(), "messages", limit, tokens);
+    }
+
+    /**
+     * Per-channel limit, configured on the tenant as e.g. {@code "sms_per_hour": 500}.
+     *
+     * @return The check, or null when the tenant has no limit for the channel
+     */
+    private RateLimitService.RateLimitCheck channelRateLimitCheck(TenantConfig tenant, ChannelType channel, int tokens) {
+        Integer channelLimit = tenant.getRateLimit(channel.name().toLowerCase() + "_per_hour");
+        if (channelLimit == null) {
+            return null;
+        }
+        return new RateLimitService.RateLimitCheck(tenant.getTenantId(), "messages_" + channel.name(), channelLimit, tokens);
+    }
+
+    private String describeRateLimit(RateLimitService.RateLimitCheck check) {
+        return switch (check.getLimitType()) {
+            case "messages" -> "tenant: " + check.getSubjectId();
+            case "recipient_messages" -> "recipient: " + check.getSubjectId();
+            default -> check.getLimitType() + ": " + check.getSubjectId();
+        };
+    }
+
+    private void validateBatchRequest(SendMessageDto.BatchSendRequest request, String idempotencyKey) {
+        Map<String, Object> errors = new HashMap<>();
+
+        if (request.getRecipients().size() > maxBatchSize) {
+            errors.put("recipients", "Batch size must not exceed " + maxBatchSize);
+        }
+
+        // Item keys are derived as "<key>:<index>" and must fit the idempotency_key column
+        String lastItemKey = idempotencyKey + ":" + (request.getRecipients().size() - 1);
+        if (lastItemKey.length() > 100) {
+            errors.put("idempotencyKey", "Idempotency key is too long for a batch request");
+        }
+
+        if (!errors.isEmpty()) {
+            throw new ValidationException("Batch request validation failed", Map.of("validationErrors", errors));
+        }
+    }
+
+    private List<String> buildBatchItemKeys(String idempotencyKey, int batchSize) {
+        List<String> itemKeys = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            itemKeys.add(idempotencyKey + ":" + i);
+        }
+        return itemKeys;
+    }
+
+    /**
+     * Rebuild the response of a batch that was already accepted.
+     */
+    private SendMessageDto.BatchAcceptResponse buildBatchReplayResponse(List<String> itemKeys,
+                                                                        ValidationService.BatchReplay replay) {
+        List<Message> existingMessages = replay.getMessages();
+        Map<String, Message> messagesByKey = existingMessages.stream()
+            .collect(Collectors.toMap(Message::getIdempotencyKey, Function.identity(), (a, b) -> a));
+
+        List<SendMessageDto.BatchItemResult> results = new ArrayList<>(itemKeys.size());
+        for (int i = 0; i < itemKeys.size(); i++) {
+            Message message = messagesByKey.get(itemKeys.get(i));
+            if (message != null) {
+                results.add(SendMessageDto.BatchItemResult.accepted(i, message.getRequestId()));
+            } else {
+                results.add(SendMessageDto.BatchItemResult.rejected(i, "NOT_ACCEPTED",
+                    "Recipient was not accepted by the original batch request", null));
+            }
+        }
+
+        String batchId = replay.getBatchId();
+        if (batchId == null && !existingMessages.isEmpty()) {
+            Map<String, Object> meta = existingMessages.get(0).getMeta();
+            batchId = meta != null ? (String) meta.get("batchId") : null;
+        }
+
+        return new SendMessageDto.BatchAcceptResponse(batchId, results,
+            LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+    }
+
     /**
      * Create message entity from request data.
+     * Package-private for the acceptance path benchmarks.
      */
-    private Message createMessage(SendMessageDto.SendMessageRequest request, String requestId,
+    Message createMessage(SendMessageDto.SendMessageRequest request, String requestId,
                                 TenantConfig tenant, Template template, Map<String, String> renderedContent,
                                 String idempotencyKey) {
 
@@ -385,6 +818,10 @@ public class MessageService {
         return "req_" + UUID.randomUUID().toString().replace("-", "").substring(0, 16);
     }
 
+    private String generateBatchId() {
+        return "batch_" + UUID.randomUUID().toString().replace("-", "").substring(0, 16);
+    }
+
     /**
      * Authenticate tenant from authorization header.
      */
@@ -11,18 +11,26 @@ import com.mindshift.ums.repository.TemplateRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
 import com.github.mustachejava.MustacheFactory;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -37,13 +45,22 @@ public class TemplateService {
     private final TemplateRepository templateRepository;
     private final MustacheFactory mustacheFactory;
 
+    // Compiled Mustache and variable sets, keyed by template identity and revision. An edit
+    // changes the key (version, update time, content hash), so entries never need evicting;
+    // stale revisions age out of the size-bounded cache.
+    private final Cache<CompiledTemplateKey, CompiledTemplate> compiledTemplates;
+
     // Pattern to find Mustache variables: {{variable}}
     private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\{\\{\\s*(\\w+)\\s*\\}\\}");
 
     @Autowired
-    public TemplateService(TemplateRepository templateRepository) {
+    public TemplateService(TemplateRepository templateRepository,
+                          @Value("${ums.template.compiled-cache.max-size:1000}") long compiledCacheMaxSize) {
         this.templateRepository = templateRepository;
         this.mustacheFactory = new DefaultMustacheFactory();
+        this.compiledTemplates = CacheBuilder.newBuilder()
+            .maximumSize(compiledCacheMaxSize)
+            .build();
     }
 
     /**
@@ -93,8 +110,7 @@ public class TemplateService {
     public void validateTemplate(Template template, Map<String, Object> templateData) {
         logger.debug("Validating template: {}", template.getCode());
 
-        Set<String> requiredVariables = extractVariables(template.getTitleTemplate());
-        requiredVariables.addAll(extractVariables(template.getBodyTemplate()));
+        Set<String> requiredVariables = getCompiledTemplate(template).getVariables();
 
         if (templateData == null) {
             templateData = new HashMap<>();
@@ -128,16 +144,17 @@ public class TemplateService {
         logger.debug("Rendering template: {}", template.getCode());
 
         try {
+            CompiledTemplate compiled = getCompiledTemplate(template);
             Map<String, String> rendered = new HashMap<>();
 
             // Render title if present
-            if (template.getTitleTemplate() != null && !template.getTitleTemplate().trim().isEmpty()) {
-                String renderedTitle = renderMustacheTemplate(template.getTitleTemplate(), templateData);
+            if (compiled.getTitle() != null) {
+                String renderedTitle = renderMustacheTemplate(compiled.getTitle(), templateData);
                 rendered.put("title", renderedTitle);
             }
 
             // Render body
-            String renderedBody = renderMustacheTemplate(template.getBodyTemplate(), templateData);
+            String renderedBody = renderMustacheTemplate(compiled.getBody(), templateData);
             rendered.put("body", renderedBody);
 
             logger.debug("Template rendered successfully: {}", template.getCode());
@@ -169,20 +186,81 @@ public class TemplateService {
     }
 
     /**
-     * Render Mustache template with data.
+     * Get the compiled form of a template, compiling it on first use.
+     * Templates without an id (not persisted) are compiled without caching.
      *
-     * @param templateContent Template content
+     * @param template Template to compile
+     * @return Compiled title/body and the variables they reference
+     */
+    private CompiledTemplate getCompiledTemplate(Template template) {
+        if (template.getId() == null) {
+            return compile(template);
+        }
+
+        CompiledTemplateKey key = new CompiledTemplateKey(template.getId(), template.getVersion(),
+            template.getUpdatedAt(), Objects.hash(template.getTitleTemplate(), template.getBodyTemplate()));
+        try {
+            return compiledTemplates.get(key, () -> compile(template));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw new InvalidTemplateException("Failed to compile template: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private CompiledTemplate compile(Template template) {
+        logger.debug("Compiling template: {} (version {})", template.getCode(), template.getVersion());
+
+        String title = template.getTitleTemplate();
+        String body = template.getBodyTemplate();
+
+        Mustache compiledTitle = title != null && !title.trim().isEmpty()
+            ? mustacheFactory.compile(new StringReader(title), template.getCode() + ":title")
+            : null;
+        Mustache compiledBody = mustacheFactory.compile(new StringReader(body), template.getCode() + ":body");
+
+        Set<String> variables = extractVariables(title);
+        variables.addAll(extractVariables(body));
+
+        return new CompiledTemplate(compiledTitle, compiledBody, Collections.unmodifiableSet(variables));
+    }
+
+    /**
+     * Render a compiled Mustache template with data.
+     *
+     * @param mustache Compiled template
      * @param data Template data
      * @return Rendered content
      */
-    private String renderMustacheTemplate(String templateContent, Map<String, Object> data) {
+    private String renderMustacheTemplate(Mustache mustache, Map<String, Object> data) {
         if (data == null) {
             data = new HashMap<>();
         }
 
-        Mustache mustache = mustacheFactory.compile(new StringReader(templateContent), "template");
         StringWriter writer = new StringWriter();
         mustache.execute(writer, data);
         return writer.toString();
     }
+
+    /**
+     * Cache key identifying one revision of a template.
+     */
+    private record CompiledTemplateKey(Long templateId, Integer version, LocalDateTime updatedAt, int contentHash) {}
+
+    /**
+     * Compiled template with its pre-extracted variable names.
+     */
+    private static class CompiledTemplate {
+        private final Mustache title;
+        private final Mustache body;
+        private final Set<String> variables;
+
+        CompiledTemplate(Mustache title, Mustache body, Set<String> variables) {
+            this.title = title;
+            this.body = body;
+            this.variables = variables;
+        }
+
+        Mustache getTitle() { return title; }
+        Mustache getBody() { return body; }
+        Set<String> getVariables() { return variables; }
+    }
 }
\ No newline at end of file
@@ -9,11 +9,11 @@ import com.mindshift.ums.repository.MessageRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.regex.Pattern;
@@ -27,65 +27,129 @@ public class ValidationService {
     private static final Logger logger = LoggerFactory.getLogger(ValidationService.class);
 
     private final MessageRepository messageRepository;
-    private final RedisTemplate<String, String> redisTemplate;
+    private final IdempotencyStore idempotencyStore;
 
     // Validation patterns
     private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
     private static final Pattern PHONE_PATTERN = Pattern.compile("^\\+?[1-9]\\d{7,14}$");
 
+    @Value("${ums.message.max-ttl:86400}")
+    private long maxTtlSeconds = 86400;
+
     @Autowired
     public ValidationService(MessageRepository messageRepository,
-                           RedisTemplate<String, String> redisTemplate) {
+                           IdempotencyStore idempotencyStore) {
         this.messageRepository = messageRepository;
-        this.redisTemplate = redisTemplate;
+        this.idempotencyStore = idempotencyStore;
     }
 
     /**
      * Check idempotency for message request.
+     * Claims the key in the idempotency store; the database is only consulted
+     * when the store is unavailable.
      *
      * @param idempotencyKey Idempotency key
      * @param tenantId Tenant ID
-     * @return Optional message if already processed
+     * @return Request ID of the earlier request if already processed
      * @throws IdempotencyException if key is being processed
      */
-    public Optional<Message> checkIdempotency(String idempotencyKey, String tenantId) {
+    public Optional<String> checkIdempotency(String idempotencyKey, String tenantId) {
         logger.debug("Checking idempotency for key: {} and tenant: {}", idempotencyKey, tenantId);
 
-        // Check if message already exists
-        Optional<Message> existingMessage = messageRepository.findByIdempotencyKey(idempotencyKey);
-        if (existingMessage.isPresent()) {
-            Message message = existingMessage.get();
-            if (!message.getTenantId().equals(tenantId)) {
-                throw new IdempotencyException("Idempotency key belongs to different tenant");
-            }
-            logger.info("Found existing message for idempotency key: {}", idempotencyKey);
-            return existingMessage;
-        }
+        IdempotencyStore.Claim claim = idempotencyStore.claim(tenantId, idempotencyKey);
+        switch (claim.getStatus()) {
+            case ACQUIRED:
+                logger.debug("Idempotency check passed, processing claim set for: {}", idempotencyKey);
+                return Optional.empty();
+
+            case COMPLETED:
+                logger.info("Found existing request for idempotency key: {}", idempotencyKey);
+                return Optional.of(claim.getResult());
 
-        // Check if key is currently being processed (distributed lock)
-        String lockKey = "idempotency_lock:" + idempotencyKey;
-        String lockValue = redisTemplate.opsForValue().get(lockKey);
+            case IN_PROGRESS:
+                logger.warn("Idempotency key is currently being processed: {}", idempotencyKey);
+                throw new IdempotencyException("Request is currently being processed");
 
-        if (lockValue != null) {
-            logger.warn("Idempotency key is currently being processed: {}", idempotencyKey);
-            throw new IdempotencyException("Request is currently being processed");
+            default:
+                // Store unavailable: fall back to the database
+                Optional<String> existingRequestId = messageRepository
+                    .findFirstByTenantIdAndIdempotencyKey(tenantId, idempotencyKey)
+                    .map(Message::getRequestId);
+                existingRequestId.ifPresent(requestId ->
+                    logger.info("Found existing message for idempotency key: {}", idempotencyKey));
+                return existingRequestId;
         }
+    }
 
-        // Set processing lock (5 minutes TTL)
-        redisTemplate.opsForValue().set(lockKey, tenantId, Duration.ofMinutes(5));
-        logger.debug("Idempotency check passed, processing lock set for: {}", idempotencyKey);
+    /**
+     * Check idempotency for a batch request.
+     * The batch claims its own key. A completed batch is replayed with the batch ID
+     * stored for it, and its messages are loaded by their derived item keys in one
+     * query to rebuild the per-recipient results. Only when the store is unavailable
+     * is the batch looked up by its item keys alone.
+     *
+     * @param idempotencyKey Idempotency key of the batch
+     * @param itemKeys Derived idempotency keys of the batch items
+     * @param tenantId Tenant ID
+     * @return The earlier batch to replay, empty if the batch is new
+     * @throws IdempotencyException if the batch is being processed
+     */
+    public Optional<BatchReplay> checkBatchIdempotency(String idempotencyKey, List<String> itemKeys,
+                                                       String tenantId) {
+        logger.debug("Checking batch idempotency for key: {} ({} items) and tenant: {}",
+            idempotencyKey, itemKeys.size(), tenantId);
+
+        IdempotencyStore.Claim claim = idempotencyStore.claim(tenantId, idempotencyKey);
+        switch (claim.getStatus()) {
+            case ACQUIRED:
+                return Optional.empty();
+
+            case COMPLETED:
+                // Replayed even if no item was accepted, so the batch is never processed twice
+                logger.info("Found existing batch {} for idempotency key: {}", claim.getResult(), idempotencyKey);
+                return Optional.of(new BatchReplay(claim.getResult(),
+                    messageRepository.findAllByTenantIdAndIdempotencyKeyIn(tenantId, itemKeys)));
+
+            case IN_PROGRESS:
+                logger.warn("Idempotency key is currently being processed: {}", idempotencyKey);
+                throw new IdempotencyException("Request is currently being processed");
+
+            case UNAVAILABLE:
+            default:
+                // Store unavailable: fall back to the database, as for single messages
+                List<Message> existingMessages =
+                    messageRepository.findAllByTenantIdAndIdempotencyKeyIn(tenantId, itemKeys);
+                if (existingMessages.isEmpty()) {
+                    logger.warn("Idempotency store unavailable, processing batch {} without a claim",
+                        idempotencyKey);
+                    return Optional.empty();
+                }
+                logger.info("Found {} existing messages for batch idempotency key: {}",
+                    existingMessages.size(), idempotencyKey);
+                return Optional.of(new BatchReplay(null, existingMessages));
+        }
+    }
 
-        return Optional.empty();
+    /**
+     * Record the result for a claimed idempotency key. The result is stored once
+     * the current transaction commits, and the claim is released if it rolls back.
+     *
+     * @param idempotencyKey Idempotency key
+     * @param tenantId Tenant ID
+     * @param result Result to return for repeated requests
+     */
+    public void completeIdempotency(String idempotencyKey, String tenantId, String result) {
+        idempotencyStore.complete(tenantId, idempotencyKey, result);
     }
 
     /**
-     * Release idempotency lock after processing.
+     * Release idempotency lock after a failed request.
      *
      * @param idempotencyKey Idempotency key
+     * @param tenantId Tenant ID
      */
-    public void releaseIdempotencyLock(String idempotencyKey) {
-        String lockKey = "idempotency_lock:" + idempotencyKey;
-        redisTemplate.delete(lockKey);
+    public void releaseIdempotencyLock(String idempotencyKey, String tenantId) {
+        idempotencyStore.release(tenantId, idempotencyKey);
         logger.debug("Released idempotency lock for: {}", idempotencyKey);
     }
 
@@ -216,6 +280,9 @@ public class ValidationService {
     private void validateRouting(SendMessageDto.RoutingDto routing, Map<String, String> errors) {
         if (routing.getTtlSeconds() != null && routing.getTtlSeconds() <= 0) {
             errors.put("routing.ttlSeconds", "TTL seconds must be positive");
+        } else if (routing.getTtlSeconds() != null && routing.getTtlSeconds() > maxTtlSeconds) {
+            // The expiry sweep only scans messages created within max-ttl
+            errors.put("routing.ttlSeconds", "TTL seconds must not exceed " + maxTtlSeconds);
         }
 
         if (routing.getPriority() == null) {
@@ -242,4 +309,21 @@ public class ValidationService {
         // Simple locale validation (e.g., "en", "ko", "en_US", "ko_KR")
         return locale.matches("^[a-z]{2}(_[A-Z]{2})?$");
     }
-}
\ No newline at end of file
+
+    /**
+     * An earlier batch request to replay.
+     */
+    public static class BatchReplay {
+        private final String batchId;
+        private final List<Message> messages;
+
+        public BatchReplay(String batchId, List<Message> messages) {
+            this.batchId = batchId;
+            this.messages = messages;
+        }
+
+        /** Batch ID stored with the idempotency key, or null if only the messages were found. */
+        public String getBatchId() { return batchId; }
+        public List<Message> getMessages() { return messages; }
+    }
+}
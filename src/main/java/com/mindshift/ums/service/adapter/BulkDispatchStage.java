@@ -0,0 +1,158 @@
+package com.mindshift.ums.service.adapter;
+
+import com.mindshift.ums.domain.enums.MessagePriority;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects provider sends into batches so adapters can use provider bulk APIs.
+ *
+ * Requests submitted under the same group key (channel and template) are held for up
+ * to {@code ums.dispatch.batch.linger-ms} and then handed to the group's sender in one
+ * call; a group that reaches {@code ums.dispatch.batch.max-size} is sent right away.
+ * The sender returns one result per request, which completes that request's future.
+ * URGENT and HIGH messages are not held for the linger; adapters send them directly.
+ */
+@Component
+public class BulkDispatchStage {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkDispatchStage.class);
+
+    private final Executor dispatchExecutor;
+    private final boolean enabled;
+    private final long lingerMs;
+    private final int maxBatchSize;
+
+    private final ConcurrentHashMap<String, PendingBatch> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService lingerTimer;
+
+    @Autowired
+    public BulkDispatchStage(@Qualifier("channelDispatchExecutor") Executor dispatchExecutor,
+                             @Value("${ums.dispatch.batch.enabled:true}") boolean enabled,
+                             @Value("${ums.dispatch.batch.linger-ms:20}") long lingerMs,
+                             @Value("${ums.dispatch.batch.max-size:100}") int maxBatchSize) {
+        this.dispatchExecutor = dispatchExecutor;
+        this.enabled = enabled && maxBatchSize > 1;
+        this.lingerMs = lingerMs;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ums-bulk-linger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Whether adapters should route sends of the given priority through this stage.
+     *
+     * @param priority Priority of the message to send
+     * @return false when batching is turned off, or for URGENT and HIGH messages
+     */
+    public boolean isEnabledFor(MessagePriority priority) {
+        return enabled && priority != MessagePriority.URGENT && priority != MessagePriority.HIGH;
+    }
+
+    /**
+     * Add a request to its group's batch.
+     *
+     * @param groupKey Requests with the same key are sent together
+     * @param request  The request
+     * @param sender   Sends a batch and returns one result per request, in order; the
+     *                 sender of the request that opened the batch is used
+     * @return Future completing with this request's result
+     */
+    @SuppressWarnings("unchecked")
+    public <Q, R> CompletableFuture<R> submit(String groupKey, Q request, Function<List<Q>, List<R>> sender) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        PendingBatch[] full = new PendingBatch[1];
+
+        pending.compute(groupKey, (key, batch) -> {
+            if (batch == null) {
+                batch = openBatch(key, (Function<List<Object>, List<Object>>) (Function<?, ?>) sender);
+            }
+            batch.requests.add(request);
+            batch.futures.add(future);
+            if (batch.requests.size() >= maxBatchSize) {
+                full[0] = batch;
+                return null;
+            }
+            return batch;
+        });
+
+        if (full[0] != null) {
+            dispatch(groupKey, full[0]);
+        }
+        return (CompletableFuture<R>) (CompletableFuture<?>) future;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lingerTimer.shutdown();
+        pending.forEach((key, batch) -> {
+            if (pending.remove(key, batch)) {
+                dispatch(key, batch);
+            }
+        });
+    }
+
+    private PendingBatch openBatch(String key, Function<List<Object>, List<Object>> sender) {
+        PendingBatch batch = new PendingBatch(sender);
+        lingerTimer.schedule(() -> {
+            // Only if the batch has not been sent for being full in the meantime
+            if (pending.remove(key, batch)) {
+                dispatch(key, batch);
+            }
+        }, lingerMs, TimeUnit.MILLISECONDS);
+        return batch;
+    }
+
+    private void dispatch(String key, PendingBatch batch) {
+        try {
+            dispatchExecutor.execute(() -> send(key, batch));
+        } catch (Exception e) {
+            logger.error("Failed to dispatch batch of {} for {}", batch.requests.size(), key, e);
+            batch.futures.forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private void send(String key, PendingBatch batch) {
+        try {
+            List<Object> results = batch.sender.apply(batch.requests);
+            if (results.size() != batch.requests.size()) {
+                throw new IllegalStateException("Expected " + batch.requests.size() + " results, got " + results.size());
+            }
+            logger.debug("Sent batch of {} for {}", batch.requests.size(), key);
+            for (int i = 0; i < results.size(); i++) {
+                batch.futures.get(i).complete(results.get(i));
+            }
+        } catch (Exception e) {
+            logger.error("Batch send of {} for {} failed", batch.requests.size(), key, e);
+            batch.futures.forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private static final class PendingBatch {
+        private final Function<List<Object>, List<Object>> sender;
+        private final List<Object> requests = new ArrayList<>();
+        private final List<CompletableFuture<Object>> futures = new ArrayList<>();
+
+        private PendingBatch(Function<List<Object>, List<Object>> sender) {
+            this.sender = sender;
+        }
+    }
+}
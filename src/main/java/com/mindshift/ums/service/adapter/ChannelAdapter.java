@@ -3,6 +3,8 @@ package com.mindshift.ums.service.adapter;
 import com.mindshift.ums.domain.entity.Message;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Base interface for channel adapters.
@@ -18,6 +20,21 @@ public interface ChannelAdapter {
      */
     SendResult send(Message message);
 
+    /**
+     * Send a message without blocking the caller.
+     * The default runs {@link #send(Message)} on the given executor, which is meant to
+     * be backed by virtual threads so blocking provider calls stay cheap. Adapters with
+     * a non-blocking client should override this and complete the future directly.
+     *
+     * @param message  The message to send
+     * @param executor Executor for adapters that need a thread to block on
+     * @return Future completing with the send result; never completes exceptionally
+     */
+    default CompletableFuture<SendResult> sendAsync(Message message, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> send(message), executor)
+            .exceptionally(e -> SendResult.failure("SEND_FAILED", e.getMessage()));
+    }
+
     /**
      * Get the channel type this adapter handles.
      *
@@ -1,13 +1,22 @@
 package com.mindshift.ums.service.adapter;
 
 import com.mindshift.ums.domain.entity.Message;
+import com.mindshift.ums.domain.enums.MessagePriority;
+import com.mindshift.ums.metrics.StageTimers;
+import com.mindshift.ums.metrics.UmsMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Service that manages and routes messages to appropriate channel adapters.
@@ -18,11 +27,33 @@ public class ChannelAdapterService {
     private static final Logger logger = LoggerFactory.getLogger(ChannelAdapterService.class);
 
     private final List<ChannelAdapter> channelAdapters;
+    private final Executor dispatchExecutor;
+    private final PriorityDispatchLimiter inFlightLimiter;
+    private final UmsMetrics umsMetrics;
+    private final StageTimers stageTimers;
 
     @Autowired
-    public ChannelAdapterService(List<ChannelAdapter> channelAdapters) {
+    public ChannelAdapterService(List<ChannelAdapter> channelAdapters,
+                                 @Qualifier("channelDispatchExecutor") Executor dispatchExecutor,
+                                 UmsMetrics umsMetrics,
+                                 StageTimers stageTimers,
+                                 @Value("${ums.dispatch.max-in-flight:256}") int maxInFlight,
+                                 @Value("${ums.dispatch.share.low:50}") int lowSharePercent,
+                                 @Value("${ums.dispatch.share.normal:75}") int normalSharePercent,
+                                 @Value("${ums.dispatch.share.high:90}") int highSharePercent) {
         this.channelAdapters = channelAdapters;
-        logger.info("Initialized with {} channel adapters", channelAdapters.size());
+        this.dispatchExecutor = dispatchExecutor;
+        this.umsMetrics = umsMetrics;
+        this.stageTimers = stageTimers;
+
+        Map<MessagePriority, Integer> sharePercents = new EnumMap<>(MessagePriority.class);
+        sharePercents.put(MessagePriority.LOW, lowSharePercent);
+        sharePercents.put(MessagePriority.NORMAL, normalSharePercent);
+        sharePercents.put(MessagePriority.HIGH, highSharePercent);
+        sharePercents.put(MessagePriority.URGENT, 100);
+        this.inFlightLimiter = new PriorityDispatchLimiter(maxInFlight, sharePercents);
+        logger.info("Initialized with {} channel adapters (max in-flight sends: {})",
+            channelAdapters.size(), maxInFlight);
         channelAdapters.forEach(adapter ->
             logger.info("Registered channel adapter: {}", adapter.getChannelType()));
     }
@@ -48,6 +79,7 @@ public class ChannelAdapterService {
             );
         }
 
+        long start = System.nanoTime();
         try {
             ChannelAdapter channelAdapter = adapter.get();
             logger.debug("Using adapter {} for message: {}",
@@ -58,7 +90,80 @@ public class ChannelAdapterService {
         } catch (Exception e) {
             logger.error("Adapter failed to send message: {}", message.getRequestId(), e);
             return ChannelAdapter.SendResult.failure("ADAPTER_ERROR", e.getMessage());
+        } finally {
+            recordSendTime(message, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Send a message asynchronously using the appropriate channel adapter.
+     *
+     * At most {@code ums.dispatch.max-in-flight} sends are outstanding at once, and lower
+     * priorities may only hold part of that (see {@link PriorityDispatchLimiter}); when
+     * the limit is reached this call blocks until a send completes, which pushes back on
+     * the caller (the Kafka listener) instead of queueing without bound.
+     *
+     * @param message The message to send
+     * @return Future completing with the result of the send operation
+     */
+    public CompletableFuture<ChannelAdapter.SendResult> sendMessageAsync(Message message) {
+        Optional<ChannelAdapter> adapter = findAdapter(message);
+
+        if (adapter.isEmpty()) {
+            logger.error("No suitable adapter found for message: {} with channel: {}",
+                message.getRequestId(), message.getChannel());
+            return CompletableFuture.completedFuture(ChannelAdapter.SendResult.failure(
+                "NO_ADAPTER",
+                "No suitable channel adapter found for channel: " + message.getChannel()
+            ));
+        }
+
+        MessagePriority priority = message.getPriority();
+        try {
+            inFlightLimiter.acquire(priority);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(
+                ChannelAdapter.SendResult.failure("ADAPTER_ERROR", "Interrupted while waiting for a send slot"));
         }
+
+        long start = System.nanoTime();
+        CompletableFuture<ChannelAdapter.SendResult> future;
+        try {
+            future = adapter.get().sendAsync(message, dispatchExecutor);
+        } catch (Exception e) {
+            inFlightLimiter.release(priority);
+            logger.error("Adapter failed to send message: {}", message.getRequestId(), e);
+            return CompletableFuture.completedFuture(ChannelAdapter.SendResult.failure("ADAPTER_ERROR", e.getMessage()));
+        }
+
+        return future
+            .exceptionally(e -> {
+                logger.error("Adapter failed to send message: {}", message.getRequestId(), e);
+                return ChannelAdapter.SendResult.failure("ADAPTER_ERROR", e.getMessage());
+            })
+            .whenComplete((result, e) -> {
+                inFlightLimiter.release(priority);
+                recordSendTime(message, System.nanoTime() - start);
+            });
+    }
+
+    /**
+     * Record how long an adapter took to send, from the moment it got a send slot.
+     */
+    private void recordSendTime(Message message, long durationNanos) {
+        umsMetrics.recordChannelAdapterTime(durationNanos);
+        stageTimers.recordNanos(StageTimers.Stage.CHANNEL_SEND, message.getTenantId(), message.getChannel(),
+            durationNanos);
+    }
+
+    /**
+     * Get the number of sends currently in flight.
+     *
+     * @return In-flight send count
+     */
+    public int getInFlightSends() {
+        return inFlightLimiter.getInFlight();
     }
 
     /**
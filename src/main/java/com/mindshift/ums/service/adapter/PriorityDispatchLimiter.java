@@ -0,0 +1,82 @@
+package com.mindshift.ums.service.adapter;
+
+import com.mindshift.ums.domain.enums.MessagePriority;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits outstanding provider sends, with a share of the limit per priority.
+ *
+ * Every send takes a permit from its priority's share and one from the shared pool.
+ * A lower priority can only hold its share of the pool (LOW 50% by default), so a
+ * LOW priority flood always leaves permits free for URGENT sends. The shared pool is
+ * fair: waiting sends are served in arrival order whatever their priority, so a
+ * lower priority is slowed down by higher ones but never starved.
+ */
+public class PriorityDispatchLimiter {
+
+    private final int maxInFlight;
+    private final Semaphore pool;
+    private final Map<MessagePriority, Semaphore> shares = new EnumMap<>(MessagePriority.class);
+
+    /**
+     * @param maxInFlight   Total outstanding sends
+     * @param sharePercents Percentage of {@code maxInFlight} each priority may hold;
+     *                      priorities not listed may use the whole pool
+     */
+    public PriorityDispatchLimiter(int maxInFlight, Map<MessagePriority, Integer> sharePercents) {
+        this.maxInFlight = maxInFlight;
+        this.pool = new Semaphore(maxInFlight, true);
+        for (MessagePriority priority : MessagePriority.values()) {
+            int percent = sharePercents.getOrDefault(priority, 100);
+            int permits = Math.max(1, Math.min(maxInFlight, maxInFlight * percent / 100));
+            shares.put(priority, new Semaphore(permits));
+        }
+    }
+
+    /**
+     * Wait for a send slot.
+     *
+     * @param priority Message priority; null counts as NORMAL
+     * @throws InterruptedException if interrupted while waiting; no permit is held then
+     */
+    public void acquire(MessagePriority priority) throws InterruptedException {
+        Semaphore share = share(priority);
+        share.acquire();
+        try {
+            pool.acquire();
+        } catch (InterruptedException e) {
+            share.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Give back a slot taken with {@link #acquire(MessagePriority)}.
+     *
+     * @param priority The priority the slot was acquired for
+     */
+    public void release(MessagePriority priority) {
+        pool.release();
+        share(priority).release();
+    }
+
+    /**
+     * Get the number of sends currently holding a slot.
+     *
+     * @return In-flight send count
+     */
+    public int getInFlight() {
+        return maxInFlight - pool.availablePermits();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    private Semaphore share(MessagePriority priority) {
+        return shares.get(priority != null ? priority : MessagePriority.NORMAL);
+    }
+}
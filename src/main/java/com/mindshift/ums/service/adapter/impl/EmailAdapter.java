@@ -2,6 +2,7 @@ package com.mindshift.ums.service.adapter.impl;
 
 import com.mindshift.ums.domain.entity.Message;
 import com.mindshift.ums.domain.enums.ChannelType;
+import com.mindshift.ums.service.adapter.BulkDispatchStage;
 import com.mindshift.ums.service.adapter.ChannelAdapter;
 import com.mindshift.ums.service.adapter.provider.EmailProvider;
 import com.mindshift.ums.service.adapter.provider.ProviderManager;
@@ -16,10 +17,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.regex.Pattern;
 
 /**
  * Email channel adapter using Spring Mail.
+ * Asynchronous sends without attachments go through the {@link BulkDispatchStage} so
+ * messages of the same template use the provider's batch API.
  */
 @Component
 public class EmailAdapter implements ChannelAdapter {
@@ -28,16 +33,19 @@ public class EmailAdapter implements ChannelAdapter {
     private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
 
     private final ProviderManager providerManager;
+    private final BulkDispatchStage bulkDispatchStage;
     private final String preferredProvider;
     private final boolean enableFallback;
 
     @Autowired
     public EmailAdapter(
             ProviderManager providerManager,
+            BulkDispatchStage bulkDispatchStage,
             @Value("${ums.email.preferred-provider:}") String preferredProvider,
             @Value("${ums.email.enable-fallback:true}") boolean enableFallback) {
 
         this.providerManager = providerManager;
+        this.bulkDispatchStage = bulkDispatchStage;
         this.preferredProvider = preferredProvider;
         this.enableFallback = enableFallback;
 
@@ -54,26 +62,18 @@ public class EmailAdapter implements ChannelAdapter {
             Map<String, Object> recipient = message.getToJson();
             String emailAddress = (String) recipient.get("email");
 
-            if (emailAddress == null || emailAddress.trim().isEmpty()) {
-                return SendResult.failure("INVALID_EMAIL", "Email address not found in recipient data");
-            }
-
-            if (!isValidEmail(emailAddress)) {
-                return SendResult.failure("INVALID_EMAIL_FORMAT", "Invalid email format: " + emailAddress);
+            SendResult invalid = validateEmail(emailAddress);
+            if (invalid != null) {
+                return invalid;
             }
 
             // Prepare email content
-            String subject = message.getRenderedTitle() != null ? message.getRenderedTitle() : "Message from UMS";
+            String subject = subject(message);
             String body = message.getRenderedBody();
             boolean isHtml = isHtmlContent(body);
 
             // Prepare metadata
-            Map<String, Object> providerMetadata = new HashMap<>();
-            providerMetadata.put("requestId", message.getRequestId());
-            providerMetadata.put("templateCode", message.getTemplateCode());
-            if (message.getMeta() != null) {
-                providerMetadata.putAll(message.getMeta());
-            }
+            Map<String, Object> providerMetadata = providerMetadata(message);
 
             // Handle attachments if present
             List<EmailProvider.Attachment> attachments = null;
@@ -82,25 +82,86 @@ public class EmailAdapter implements ChannelAdapter {
             }
 
             EmailProvider.EmailResult result = sendWithProvider(emailAddress, subject, body, isHtml, attachments, providerMetadata);
+            return toSendResult(message, emailAddress, result);
 
-            if (result.isSuccess()) {
-                logger.info("Email sent successfully: {} -> {}", message.getRequestId(), result.getMessageId());
+        } catch (Exception e) {
+            logger.error("Failed to send email message: {}", message.getRequestId(), e);
+            return SendResult.failure("SEND_FAILED", e.getMessage());
+        }
+    }
 
-                Map<String, Object> metadata = new HashMap<>();
-                metadata.put("channel", "EMAIL");
-                metadata.put("emailAddress", emailAddress);
-                if (result.getMetadata() != null) {
-                    metadata.putAll(result.getMetadata());
-                }
+    /**
+     * Queue the message for a batch send with other messages of its template.
+     * URGENT and HIGH messages and messages with attachments are sent on their own.
+     */
+    @Override
+    public CompletableFuture<SendResult> sendAsync(Message message, Executor executor) {
+        if (!bulkDispatchStage.isEnabledFor(message.getPriority())
+                || (message.getAttachments() != null && !message.getAttachments().isEmpty())) {
+            return ChannelAdapter.super.sendAsync(message, executor);
+        }
 
-                return SendResult.success(result.getMessageId(), metadata);
-            } else {
-                return SendResult.failure(result.getErrorCode(), result.getErrorMessage());
+        try {
+            String emailAddress = (String) message.getToJson().get("email");
+            SendResult invalid = validateEmail(emailAddress);
+            if (invalid != null) {
+                return CompletableFuture.completedFuture(invalid);
             }
 
+            String body = message.getRenderedBody();
+            EmailProvider.EmailRequest request = new EmailProvider.EmailRequest(
+                emailAddress, subject(message), body, isHtmlContent(body), providerMetadata(message));
+
+            return bulkDispatchStage.submit("EMAIL:" + message.getTemplateCode(), request,
+                    batch -> providerManager.sendEmailBatch(batch, preferredProvider, enableFallback))
+                .thenApply(result -> toSendResult(message, emailAddress, result))
+                .exceptionally(e -> SendResult.failure("SEND_FAILED", e.getMessage()));
+
         } catch (Exception e) {
-            logger.error("Failed to send email message: {}", message.getRequestId(), e);
-            return SendResult.failure("SEND_FAILED", e.getMessage());
+            logger.error("Failed to queue email message: {}", message.getRequestId(), e);
+            return CompletableFuture.completedFuture(SendResult.failure("SEND_FAILED", e.getMessage()));
+        }
+    }
+
+    private SendResult validateEmail(String emailAddress) {
+        if (emailAddress == null || emailAddress.trim().isEmpty()) {
+            return SendResult.failure("INVALID_EMAIL", "Email address not found in recipient data");
+        }
+
+        if (!isValidEmail(emailAddress)) {
+            return SendResult.failure("INVALID_EMAIL_FORMAT", "Invalid email format: " + emailAddress);
+        }
+        return null;
+    }
+
+    private String subject(Message message) {
+        return message.getRenderedTitle() != null ? message.getRenderedTitle() : "Message from UMS";
+    }
+
+    private Map<String, Object> providerMetadata(Message message) {
+        Map<String, Object> providerMetadata = new HashMap<>();
+        providerMetadata.put("requestId", message.getRequestId());
+        providerMetadata.put("templateCode", message.getTemplateCode());
+        if (message.getMeta() != null) {
+            providerMetadata.putAll(message.getMeta());
+        }
+        return providerMetadata;
+    }
+
+    private SendResult toSendResult(Message message, String emailAddress, EmailProvider.EmailResult result) {
+        if (result.isSuccess()) {
+            logger.info("Email sent successfully: {} -> {}", message.getRequestId(), result.getMessageId());
+
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("channel", "EMAIL");
+            metadata.put("emailAddress", emailAddress);
+            if (result.getMetadata() != null) {
+                metadata.putAll(result.getMetadata());
+            }
+
+            return SendResult.success(result.getMessageId(), metadata);
+        } else {
+            return SendResult.failure(result.getErrorCode(), result.getErrorMessage());
         }
     }
 
@@ -112,7 +173,8 @@ public class EmailAdapter implements ChannelAdapter {
             Optional<EmailProvider> provider = providerManager.getEmailProvider(preferredProvider);
             if (provider.isPresent()) {
                 logger.info("Using preferred Email provider: {}", preferredProvider);
-                EmailProvider.EmailResult result = provider.get().sendEmail(toEmail, subject, body, isHtml, attachments, metadata);
+                EmailProvider.EmailResult result = providerManager.sendEmail(
+                    provider.get(), toEmail, subject, body, isHtml, attachments, metadata);
 
                 if (!result.isSuccess() && enableFallback) {
                     logger.warn("Preferred provider failed, trying fallback providers");
@@ -130,7 +192,8 @@ public class EmailAdapter implements ChannelAdapter {
         } else {
             Optional<EmailProvider> provider = providerManager.getBestEmailProvider();
             if (provider.isPresent()) {
-                return provider.get().sendEmail(toEmail, subject, body, isHtml, attachments, metadata);
+                return providerManager.sendEmail(
+                    provider.get(), toEmail, subject, body, isHtml, attachments, metadata);
             } else {
                 return EmailProvider.EmailResult.failure("NO_PROVIDER", "No Email provider is available");
             }
@@ -1,10 +1,15 @@
 package com.mindshift.ums.service.adapter.impl;
 
+import com.mindshift.ums.config.ProviderHttpClientFactory;
 import com.mindshift.ums.domain.entity.Message;
 import com.mindshift.ums.domain.enums.ChannelType;
+import com.mindshift.ums.domain.enums.MessagePriority;
+import com.mindshift.ums.service.adapter.BulkDispatchStage;
 import com.mindshift.ums.service.adapter.ChannelAdapter;
+import com.mindshift.ums.service.security.RecipientPolicyService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -15,10 +20,17 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Firebase Cloud Messaging (FCM) channel adapter for push notifications.
+ * When the Admin SDK is configured, asynchronous sends are collected by the
+ * {@link BulkDispatchStage} and sent in batches by {@link FcmMulticastSender};
+ * otherwise each push goes to the legacy HTTP API on its own. Tokens FCM reports
+ * as unregistered are opted out and skipped from then on.
  */
 @Component
 public class FcmAdapter implements ChannelAdapter {
@@ -26,39 +38,147 @@ public class FcmAdapter implements ChannelAdapter {
     private static final Logger logger = LoggerFactory.getLogger(FcmAdapter.class);
 
     private final WebClient webClient;
+    private final FcmMulticastSender multicastSender;
+    private final BulkDispatchStage bulkDispatchStage;
+    private final RecipientPolicyService recipientPolicyService;
     private final String serverKey;
     private final String projectId;
 
+    @Autowired
     public FcmAdapter(
-            WebClient.Builder webClientBuilder,
+            ProviderHttpClientFactory httpClients,
+            FcmMulticastSender multicastSender,
+            BulkDispatchStage bulkDispatchStage,
+            RecipientPolicyService recipientPolicyService,
             @Value("${ums.fcm.server-key}") String serverKey,
             @Value("${ums.fcm.project-id}") String projectId) {
 
-        this.webClient = webClientBuilder
+        this.webClient = httpClients.builder("fcm")
             .baseUrl("https://fcm.googleapis.com")
             .defaultHeader("Authorization", "key=" + serverKey)
             .defaultHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
             .build();
 
+        this.multicastSender = multicastSender;
+        this.bulkDispatchStage = bulkDispatchStage;
+        this.recipientPolicyService = recipientPolicyService;
         this.serverKey = serverKey;
         this.projectId = projectId;
     }
 
     @Override
     public SendResult send(Message message) {
-        logger.info("Sending FCM push notification: {}", message.getRequestId());
+        if (!multicastSender.isEnabled()) {
+            return sendReactive(message).block();
+        }
+
+        String pushToken = (String) message.getToJson().get("pushToken");
+        SendResult rejected = checkPushToken(message, pushToken);
+        if (rejected != null) {
+            return rejected;
+        }
 
         try {
+            FcmMulticastSender.PushResult result = multicastSender.send(List.of(buildPush(message, pushToken))).get(0);
+            return toSendResult(message, pushToken, result);
+        } catch (Exception e) {
+            logger.error("Failed to send FCM push notification: {}", message.getRequestId(), e);
+            return SendResult.failure("SEND_FAILED", e.getMessage());
+        }
+    }
+
+    /**
+     * With the Admin SDK, queue the push for a batch send with other pushes of its template;
+     * URGENT and HIGH pushes are sent on their own.
+     * Otherwise send through the legacy API without holding a thread while FCM responds;
+     * the executor is not needed since the WebClient chain is already non-blocking.
+     */
+    @Override
+    public CompletableFuture<SendResult> sendAsync(Message message, Executor executor) {
+        if (!multicastSender.isEnabled()) {
+            return sendReactive(message).toFuture();
+        }
+        if (!bulkDispatchStage.isEnabledFor(message.getPriority())) {
+            return ChannelAdapter.super.sendAsync(message, executor);
+        }
+
+        try {
+            String pushToken = (String) message.getToJson().get("pushToken");
+            SendResult rejected = checkPushToken(message, pushToken);
+            if (rejected != null) {
+                return CompletableFuture.completedFuture(rejected);
+            }
+
+            FcmMulticastSender.Push push = buildPush(message, pushToken);
+            return bulkDispatchStage.submit("FCM:" + message.getTemplateCode(), push, multicastSender::send)
+                .thenApply(result -> toSendResult(message, pushToken, result))
+                .exceptionally(e -> SendResult.failure("SEND_FAILED", e.getMessage()));
+
+        } catch (Exception e) {
+            logger.error("Failed to queue FCM push notification: {}", message.getRequestId(), e);
+            return CompletableFuture.completedFuture(SendResult.failure("SEND_FAILED", e.getMessage()));
+        }
+    }
+
+    private SendResult checkPushToken(Message message, String pushToken) {
+        if (pushToken == null || pushToken.trim().isEmpty()) {
+            return SendResult.failure("INVALID_PUSH_TOKEN", "Push token not found in recipient data");
+        }
+        if (recipientPolicyService.isPushTokenUnregistered(message.getTenantId(), pushToken)) {
+            logger.info("Skipping FCM push to unregistered token: {}", message.getRequestId());
+            return SendResult.failure("UNREGISTERED_TOKEN", "Push token is no longer registered");
+        }
+        return null;
+    }
+
+    private SendResult toSendResult(Message message, String pushToken, FcmMulticastSender.PushResult result) {
+        if (result.isSuccess()) {
+            logger.info("FCM push notification sent successfully: {} -> {}", message.getRequestId(), result.getMessageId());
+
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("channel", "FCM_PUSH");
+            metadata.put("pushToken", pushToken);
+            metadata.put("projectId", projectId);
+
+            return SendResult.success(result.getMessageId(), metadata);
+        }
+
+        if (result.isTokenUnregistered()) {
+            recipientPolicyService.markPushTokenUnregistered(message.getTenantId(), pushToken);
+        }
+        logger.warn("FCM push notification failed: {} ({})", message.getRequestId(), result.getErrorCode());
+        return SendResult.failure(result.getErrorCode(), result.getErrorMessage());
+    }
+
+    private FcmMulticastSender.Push buildPush(Message message, String pushToken) {
+        Map<String, Object> meta = message.getMeta();
+        return new FcmMulticastSender.Push(
+            pushToken,
+            message.getRenderedTitle() != null ? message.getRenderedTitle() : "Notification",
+            message.getRenderedBody(),
+            buildData(message),
+            meta != null && meta.get("icon") != null ? meta.get("icon").toString() : null,
+            meta != null && meta.get("sound") != null ? meta.get("sound").toString() : null,
+            meta != null && meta.get("click_action") != null ? meta.get("click_action").toString() : null,
+            message.getPriority() == MessagePriority.HIGH || message.getPriority() == MessagePriority.URGENT,
+            ttlSeconds(message));
+    }
+
+    private Mono<SendResult> sendReactive(Message message) {
+        return Mono.defer(() -> {
+            logger.info("Sending FCM push notification: {}", message.getRequestId());
+
             Map<String, Object> recipient = message.getToJson();
             String pushToken = (String) recipient.get("pushToken");
 
-            if (pushToken == null || pushToken.trim().isEmpty()) {
-                return SendResult.failure("INVALID_PUSH_TOKEN", "Push token not found in recipient data");
+            SendResult rejected = checkPushToken(message, pushToken);
+            if (rejected != null) {
+                return Mono.just(rejected);
             }
 
             Map<String, Object> requestBody = buildRequestBody(message, pushToken);
 
-            String providerMessageId = webClient.post()
+            return webClient.post()
                 .uri("/fcm/send")
                 .bodyValue(requestBody)
                 .retrieve()
@@ -71,27 +191,24 @@ public class FcmAdapter implements ChannelAdapter {
                 .bodyToMono(FcmResponse.class)
                 .timeout(Duration.ofSeconds(30))
                 .map(response -> {
-                    if (response.success == 1) {
-                        return String.valueOf(response.multicastId);
-                    } else {
+                    if (response.success != 1) {
                         throw new RuntimeException("FCM send failed: " + response.results);
                     }
-                })
-                .block();
 
-            logger.info("FCM push notification sent successfully: {} -> {}", message.getRequestId(), providerMessageId);
+                    String providerMessageId = String.valueOf(response.multicastId);
+                    logger.info("FCM push notification sent successfully: {} -> {}", message.getRequestId(), providerMessageId);
 
-            Map<String, Object> metadata = new HashMap<>();
-            metadata.put("channel", "FCM_PUSH");
-            metadata.put("pushToken", pushToken);
-            metadata.put("projectId", projectId);
-
-            return SendResult.success(providerMessageId, metadata);
+                    Map<String, Object> metadata = new HashMap<>();
+                    metadata.put("channel", "FCM_PUSH");
+                    metadata.put("pushToken", pushToken);
+                    metadata.put("projectId", projectId);
 
-        } catch (Exception e) {
+                    return SendResult.success(providerMessageId, metadata);
+                });
+        }).onErrorResume(e -> {
             logger.error("Failed to send FCM push notification: {}", message.getRequestId(), e);
-            return SendResult.failure("SEND_FAILED", e.getMessage());
-        }
+            return Mono.just(SendResult.failure("SEND_FAILED", e.getMessage()));
+        });
     }
 
     private Map<String, Object> buildRequestBody(Message message, String pushToken) {
@@ -119,22 +236,7 @@ public class FcmAdapter implements ChannelAdapter {
 
         requestBody.put("notification", notification);
 
-        // Build data payload for custom handling
-        Map<String, Object> data = new HashMap<>();
-        data.put("ums_request_id", message.getRequestId());
-        data.put("ums_template_code", message.getTemplateCode());
-        data.put("ums_channel", "FCM_PUSH");
-
-        // Add custom data from meta
-        if (message.getMeta() != null) {
-            message.getMeta().forEach((key, value) -> {
-                if (!key.equals("icon") && !key.equals("sound") && !key.equals("click_action")) {
-                    data.put("custom_" + key, value.toString());
-                }
-            });
-        }
-
-        requestBody.put("data", data);
+        requestBody.put("data", buildData(message));
 
         // Set priority based on message priority
         switch (message.getPriority()) {
@@ -150,16 +252,40 @@ public class FcmAdapter implements ChannelAdapter {
         }
 
         // Set TTL if specified
-        if (message.getTtlExpiresAt() != null) {
-            long ttlSeconds = Duration.between(message.getCreatedAt(), message.getTtlExpiresAt()).getSeconds();
-            if (ttlSeconds > 0) {
-                requestBody.put("time_to_live", (int) ttlSeconds);
-            }
+        Long ttlSeconds = ttlSeconds(message);
+        if (ttlSeconds != null) {
+            requestBody.put("time_to_live", ttlSeconds.intValue());
         }
 
         return requestBody;
     }
 
+    private Map<String, String> buildData(Message message) {
+        // Build data payload for custom handling
+        Map<String, String> data = new HashMap<>();
+        data.put("ums_request_id", message.getRequestId());
+        data.put("ums_template_code", message.getTemplateCode());
+        data.put("ums_channel", "FCM_PUSH");
+
+        // Add custom data from meta
+        if (message.getMeta() != null) {
+            message.getMeta().forEach((key, value) -> {
+                if (!key.equals("icon") && !key.equals("sound") && !key.equals("click_action")) {
+                    data.put("custom_" + key, value.toString());
+                }
+            });
+        }
+        return data;
+    }
+
+    private Long ttlSeconds(Message message) {
+        if (message.getTtlExpiresAt() == null) {
+            return null;
+        }
+        long ttlSeconds = Duration.between(message.getCreatedAt(), message.getTtlExpiresAt()).getSeconds();
+        return ttlSeconds > 0 ? ttlSeconds : null;
+    }
+
     @Override
     public String getChannelType() {
         return ChannelType.FCM_PUSH.name();
@@ -0,0 +1,286 @@
+package com.mindshift.ums.service.adapter.impl;
+
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.FirebaseOptions;
+import com.google.firebase.messaging.AndroidConfig;
+import com.google.firebase.messaging.AndroidNotification;
+import com.google.firebase.messaging.ApnsConfig;
+import com.google.firebase.messaging.Aps;
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.Notification;
+import com.google.firebase.messaging.SendResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends push notifications through the Firebase Admin SDK (FCM HTTP v1).
+ *
+ * A batch of pushes goes out with {@link FirebaseMessaging#sendEach(List)}, up to
+ * {@value #MAX_BATCH_SIZE} per call, which the SDK multiplexes over one HTTP/2
+ * connection. Each push keeps its own data payload (the UMS request id in particular),
+ * so pushes are not merged into a single multicast payload. Every token gets its own
+ * result; tokens FCM reports as no longer registered are flagged so the caller can
+ * stop sending to them.
+ *
+ * The sender is only enabled when {@code ums.fcm.credentials-file} points to a service
+ * account key; otherwise {@link FcmAdapter} keeps using the legacy API.
+ */
+@Component
+public class FcmMulticastSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(FcmMulticastSender.class);
+
+    /** FCM limit on messages per batch call */
+    public static final int MAX_BATCH_SIZE = 500;
+
+    private static final String APP_NAME = "ums-fcm";
+
+    private final FirebaseApp firebaseApp;
+    private final FirebaseMessaging messaging;
+    private final int batchSize;
+
+    @Autowired
+    public FcmMulticastSender(
+            @Value("${ums.fcm.credentials-file:}") String credentialsFile,
+            @Value("${ums.fcm.project-id:}") String projectId,
+            @Value("${ums.fcm.batch-size:500}") int batchSize) {
+
+        this.firebaseApp = initializeApp(credentialsFile, projectId);
+        this.messaging = firebaseApp != null ? FirebaseMessaging.getInstance(firebaseApp) : null;
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+
+        logger.info("FCM Admin SDK sender {}", messaging != null
+            ? "enabled (batch size " + this.batchSize + ")"
+            : "disabled, no credentials file configured");
+    }
+
+    /**
+     * Create a sender around an existing client.
+     *
+     * @param messaging FirebaseMessaging client
+     * @param batchSize Messages per batch call, at most {@value #MAX_BATCH_SIZE}
+     */
+    public FcmMulticastSender(FirebaseMessaging messaging, int batchSize) {
+        this.firebaseApp = null;
+        this.messaging = messaging;
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+    }
+
+    /**
+     * Whether the Admin SDK client is configured.
+     *
+     * @return false when pushes must go through the legacy API
+     */
+    public boolean isEnabled() {
+        return messaging != null;
+    }
+
+    /**
+     * Send pushes in batches of up to the configured batch size.
+     *
+     * @param pushes Pushes to send
+     * @return One result per push, in order
+     */
+    public List<PushResult> send(List<Push> pushes) {
+        List<PushResult> results = new ArrayList<>(pushes.size());
+        for (int start = 0; start < pushes.size(); start += batchSize) {
+            results.addAll(sendChunk(pushes.subList(start, Math.min(start + batchSize, pushes.size()))));
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (firebaseApp != null) {
+            firebaseApp.delete();
+        }
+    }
+
+    private List<PushResult> sendChunk(List<Push> chunk) {
+        List<com.google.firebase.messaging.Message> messages = chunk.stream()
+            .map(this::toFirebaseMessage)
+            .toList();
+
+        BatchResponse response;
+        try {
+            response = messaging.sendEach(messages);
+        } catch (FirebaseMessagingException e) {
+            logger.error("FCM batch send of {} failed: {}", chunk.size(), e.getMessagingErrorCode(), e);
+            return chunk.stream()
+                .map(push -> PushResult.failure("SEND_FAILED", e.getMessage(), false))
+                .toList();
+        }
+
+        logger.debug("FCM batch of {} sent: {} succeeded, {} failed",
+            chunk.size(), response.getSuccessCount(), response.getFailureCount());
+
+        List<SendResponse> responses = response.getResponses();
+        List<PushResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            results.add(toResult(responses.get(i)));
+        }
+        return results;
+    }
+
+    private PushResult toResult(SendResponse response) {
+        if (response.isSuccessful()) {
+            return PushResult.success(response.getMessageId());
+        }
+
+        FirebaseMessagingException e = response.getException();
+        MessagingErrorCode errorCode = e != null ? e.getMessagingErrorCode() : null;
+        String errorMessage = e != null ? e.getMessage() : "Unknown FCM error";
+
+        if (errorCode == MessagingErrorCode.UNREGISTERED || errorCode == MessagingErrorCode.SENDER_ID_MISMATCH) {
+            // The token will never work again
+            return PushResult.failure("UNREGISTERED_TOKEN", errorMessage, true);
+        }
+        if (errorCode == MessagingErrorCode.INVALID_ARGUMENT) {
+            return PushResult.failure("INVALID_PUSH_TOKEN", errorMessage, false);
+        }
+        // QUOTA_EXCEEDED, UNAVAILABLE, INTERNAL and the like may succeed on a retry
+        return PushResult.failure("SEND_FAILED", errorMessage, false);
+    }
+
+    private com.google.firebase.messaging.Message toFirebaseMessage(Push push) {
+        AndroidNotification.Builder androidNotification = AndroidNotification.builder();
+        if (push.getIcon() != null) {
+            androidNotification.setIcon(push.getIcon());
+        }
+        if (push.getSound() != null) {
+            androidNotification.setSound(push.getSound());
+        }
+        if (push.getClickAction() != null) {
+            androidNotification.setClickAction(push.getClickAction());
+        }
+
+        AndroidConfig.Builder android = AndroidConfig.builder()
+            .setPriority(push.isHighPriority() ? AndroidConfig.Priority.HIGH : AndroidConfig.Priority.NORMAL)
+            .setNotification(androidNotification.build());
+        if (push.getTtlSeconds() != null) {
+            android.setTtl(TimeUnit.SECONDS.toMillis(push.getTtlSeconds()));
+        }
+
+        com.google.firebase.messaging.Message.Builder builder = com.google.firebase.messaging.Message.builder()
+            .setToken(push.getToken())
+            .setNotification(Notification.builder()
+                .setTitle(push.getTitle())
+                .setBody(push.getBody())
+                .build())
+            .setAndroidConfig(android.build())
+            .putAllData(push.getData());
+
+        if (push.getSound() != null) {
+            builder.setApnsConfig(ApnsConfig.builder()
+                .setAps(Aps.builder().setSound(push.getSound()).build())
+                .build());
+        }
+
+        return builder.build();
+    }
+
+    private static FirebaseApp initializeApp(String credentialsFile, String projectId) {
+        if (credentialsFile == null || credentialsFile.isBlank()) {
+            return null;
+        }
+
+        try (InputStream credentials = new FileInputStream(credentialsFile)) {
+            FirebaseOptions.Builder options = FirebaseOptions.builder()
+                .setCredentials(GoogleCredentials.fromStream(credentials));
+            if (projectId != null && !projectId.isBlank()) {
+                options.setProjectId(projectId);
+            }
+            return FirebaseApp.initializeApp(options.build(), APP_NAME);
+        } catch (Exception e) {
+            logger.error("Failed to initialize Firebase from {}, falling back to the legacy FCM API", credentialsFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * One push notification to one device token.
+     */
+    public static class Push {
+        private final String token;
+        private final String title;
+        private final String body;
+        private final Map<String, String> data;
+        private final String icon;
+        private final String sound;
+        private final String clickAction;
+        private final boolean highPriority;
+        private final Long ttlSeconds;
+
+        public Push(String token, String title, String body, Map<String, String> data,
+                    String icon, String sound, String clickAction, boolean highPriority, Long ttlSeconds) {
+            this.token = token;
+            this.title = title;
+            this.body = body;
+            this.data = data;
+            this.icon = icon;
+            this.sound = sound;
+            this.clickAction = clickAction;
+            this.highPriority = highPriority;
+            this.ttlSeconds = ttlSeconds;
+        }
+
+        public String getToken() { return token; }
+        public String getTitle() { return title; }
+        public String getBody() { return body; }
+        public Map<String, String> getData() { return data; }
+        public String getIcon() { return icon; }
+        public String getSound() { return sound; }
+        public String getClickAction() { return clickAction; }
+        public boolean isHighPriority() { return highPriority; }
+        public Long getTtlSeconds() { return ttlSeconds; }
+    }
+
+    /**
+     * Outcome of one push.
+     */
+    public static class PushResult {
+        private final boolean success;
+        private final String messageId;
+        private final String errorCode;
+        private final String errorMessage;
+        private final boolean tokenUnregistered;
+
+        private PushResult(boolean success, String messageId, String errorCode, String errorMessage,
+                           boolean tokenUnregistered) {
+            this.success = success;
+            this.messageId = messageId;
+            this.errorCode = errorCode;
+            this.errorMessage = errorMessage;
+            this.tokenUnregistered = tokenUnregistered;
+        }
+
+        public static PushResult success(String messageId) {
+            return new PushResult(true, messageId, null, null, false);
+        }
+
+        public static PushResult failure(String errorCode, String errorMessage, boolean tokenUnregistered) {
+            return new PushResult(false, null, errorCode, errorMessage, tokenUnregistered);
+        }
+
+        public boolean isSuccess() { return success; }
+        public String getMessageId() { return messageId; }
+        public String getErrorCode() { return errorCode; }
+        public String getErrorMessage() { return errorMessage; }
+        public boolean isTokenUnregistered() { return tokenUnregistered; }
+    }
+}
@@ -1,5 +1,6 @@
 package com.mindshift.ums.service.adapter.impl;
 
+import com.mindshift.ums.config.ProviderHttpClientFactory;
 import com.mindshift.ums.domain.entity.Message;
 import com.mindshift.ums.domain.enums.ChannelType;
 import com.mindshift.ums.service.adapter.ChannelAdapter;
@@ -16,6 +17,8 @@ import reactor.core.publisher.Mono;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Kakao Alimtalk channel adapter for sending business messages.
@@ -31,12 +34,12 @@ public class KakaoAlimtalkAdapter implements ChannelAdapter {
     private final String apiUrl;
 
     public KakaoAlimtalkAdapter(
-            WebClient.Builder webClientBuilder,
+            ProviderHttpClientFactory httpClients,
             @Value("${ums.kakao.api-key}") String apiKey,
             @Value("${ums.kakao.sender-key}") String senderKey,
             @Value("${ums.kakao.api-url:https://api.kakaowork.com}") String apiUrl) {
 
-        this.webClient = webClientBuilder
+        this.webClient = httpClients.builder("kakao")
             .baseUrl(apiUrl)
             .defaultHeader("Authorization", "Bearer " + apiKey)
             .defaultHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
@@ -49,12 +52,25 @@ public class KakaoAlimtalkAdapter implements ChannelAdapter {
 
     @Override
     public SendResult send(Message message) {
-        logger.info("Sending Kakao Alimtalk message: {}", message.getRequestId());
+        return sendReactive(message).block();
+    }
+
+    /**
+     * Send without holding a thread while the Kakao API responds.
+     * The executor is not needed since the WebClient chain is already non-blocking.
+     */
+    @Override
+    public CompletableFuture<SendResult> sendAsync(Message message, Executor executor) {
+        return sendReactive(message).toFuture();
+    }
+
+    private Mono<SendResult> sendReactive(Message message) {
+        return Mono.defer(() -> {
+            logger.info("Sending Kakao Alimtalk message: {}", message.getRequestId());
 
-        try {
             Map<String, Object> recipient = message.getToJson();
             if (!recipient.containsKey("kakao")) {
-                return SendResult.failure("INVALID_RECIPIENT", "Kakao user ID not found in recipient data");
+                return Mono.just(SendResult.failure("INVALID_RECIPIENT", "Kakao user ID not found in recipient data"));
             }
 
             @SuppressWarnings("unchecked")
@@ -62,12 +78,12 @@ public class KakaoAlimtalkAdapter implements ChannelAdapter {
             String userId = kakaoInfo.get("userId");
 
             if (userId == null || userId.trim().isEmpty()) {
-                return SendResult.failure("INVALID_USER_ID", "Kakao user ID is empty");
+                return Mono.just(SendResult.failure("INVALID_USER_ID", "Kakao user ID is empty"));
             }
 
             Map<String, Object> requestBody = buildRequestBody(message, userId);
 
-            String providerMessageId = webClient.post()
+            return webClient.post()
                 .uri("/v1/message/send")
                 .bodyValue(requestBody)
                 .retrieve()
@@ -79,22 +95,21 @@ public class KakaoAlimtalkAdapter implements ChannelAdapter {
                 })
                 .bodyToMono(KakaoResponse.class)
                 .timeout(Duration.ofSeconds(30))
-                .map(response -> response.messageId)
-                .block();
-
-            logger.info("Kakao Alimtalk sent successfully: {} -> {}", message.getRequestId(), providerMessageId);
-
-            Map<String, Object> metadata = new HashMap<>();
-            metadata.put("channel", "KAKAO_ALIMTALK");
-            metadata.put("userId", userId);
-            metadata.put("senderKey", senderKey);
-
-            return SendResult.success(providerMessageId, metadata);
-
-        } catch (Exception e) {
+                .map(response -> {
+                    String providerMessageId = response.messageId;
+                    logger.info("Kakao Alimtalk sent successfully: {} -> {}", message.getRequestId(), providerMessageId);
+
+                    Map<String, Object> metadata = new HashMap<>();
+                    metadata.put("channel", "KAKAO_ALIMTALK");
+                    metadata.put("userId", userId);
+                    metadata.put("senderKey", senderKey);
+
+                    return SendResult.success(providerMessageId, metadata);
+                });
+        }).onErrorResume(e -> {
             logger.error("Failed to send Kakao Alimtalk message: {}", message.getRequestId(), e);
-            return SendResult.failure("SEND_FAILED", e.getMessage());
-        }
+            return Mono.just(SendResult.failure("SEND_FAILED", e.getMessage()));
+        });
     }
 
     private Map<String, Object> buildRequestBody(Message message, String userId) {
@@ -2,6 +2,7 @@ package com.mindshift.ums.service.adapter.impl;
 
 import com.mindshift.ums.domain.entity.Message;
 import com.mindshift.ums.domain.enums.ChannelType;
+import com.mindshift.ums.service.adapter.BulkDispatchStage;
 import com.mindshift.ums.service.adapter.ChannelAdapter;
 import com.mindshift.ums.service.adapter.provider.ProviderManager;
 import com.mindshift.ums.service.adapter.provider.SmsProvider;
@@ -14,9 +15,13 @@ import org.springframework.stereotype.Component;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * SMS channel adapter using a generic SMS provider.
+ * Asynchronous sends go through the {@link BulkDispatchStage} so messages of the same
+ * template use the provider's group send API.
  */
 @Component
 public class SmsAdapter implements ChannelAdapter {
@@ -24,16 +29,19 @@ public class SmsAdapter implements ChannelAdapter {
     private static final Logger logger = LoggerFactory.getLogger(SmsAdapter.class);
 
     private final ProviderManager providerManager;
+    private final BulkDispatchStage bulkDispatchStage;
     private final String preferredProvider;
     private final boolean enableFallback;
 
     @Autowired
     public SmsAdapter(
             ProviderManager providerManager,
+            BulkDispatchStage bulkDispatchStage,
             @Value("${ums.sms.preferred-provider:}") String preferredProvider,
             @Value("${ums.sms.enable-fallback:true}") boolean enableFallback) {
 
         this.providerManager = providerManager;
+        this.bulkDispatchStage = bulkDispatchStage;
         this.preferredProvider = preferredProvider;
         this.enableFallback = enableFallback;
 
@@ -62,12 +70,7 @@ public class SmsAdapter implements ChannelAdapter {
             }
 
             // Prepare metadata for the provider
-            Map<String, Object> providerMetadata = new HashMap<>();
-            providerMetadata.put("requestId", message.getRequestId());
-            providerMetadata.put("templateCode", message.getTemplateCode());
-            if (message.getMeta() != null) {
-                providerMetadata.putAll(message.getMeta());
-            }
+            Map<String, Object> providerMetadata = providerMetadata(message);
 
             // Get SMS content
             String smsContent = message.getRenderedBody();
@@ -80,7 +83,7 @@ public class SmsAdapter implements ChannelAdapter {
                 Optional<SmsProvider> provider = providerManager.getSmsProvider(preferredProvider);
                 if (provider.isPresent()) {
                     logger.info("Using preferred SMS provider: {}", preferredProvider);
-                    result = provider.get().sendSms(phoneNumber, smsTitle, smsContent, providerMetadata);
+                    result = providerManager.sendSms(provider.get(), phoneNumber, smsTitle, smsContent, providerMetadata);
 
                     if (!result.isSuccess() && enableFallback) {
                         logger.warn("Preferred provider failed, trying fallback providers");
@@ -95,24 +98,75 @@ public class SmsAdapter implements ChannelAdapter {
                 result = sendWithBestProvider(phoneNumber, smsTitle, smsContent, providerMetadata);
             }
 
-            if (result.isSuccess()) {
-                logger.info("SMS sent successfully: {} -> {}", message.getRequestId(), result.getMessageId());
+            return toSendResult(message, phoneNumber, result);
 
-                Map<String, Object> metadata = new HashMap<>();
-                metadata.put("channel", "SMS");
-                metadata.put("phoneNumber", phoneNumber);
-                if (result.getMetadata() != null) {
-                    metadata.putAll(result.getMetadata());
-                }
+        } catch (Exception e) {
+            logger.error("Failed to send SMS message: {}", message.getRequestId(), e);
+            return SendResult.failure("SEND_FAILED", e.getMessage());
+        }
+    }
 
-                return SendResult.success(result.getMessageId(), metadata);
-            } else {
-                return SendResult.failure(result.getErrorCode(), result.getErrorMessage());
+    /**
+     * Queue the message for a group send with other messages of its template.
+     * URGENT and HIGH messages are sent on their own.
+     */
+    @Override
+    public CompletableFuture<SendResult> sendAsync(Message message, Executor executor) {
+        if (!bulkDispatchStage.isEnabledFor(message.getPriority())) {
+            return ChannelAdapter.super.sendAsync(message, executor);
+        }
+
+        try {
+            String phoneNumber = (String) message.getToJson().get("phone");
+            if (phoneNumber == null || phoneNumber.trim().isEmpty()) {
+                return CompletableFuture.completedFuture(
+                    SendResult.failure("INVALID_PHONE", "Phone number not found in recipient data"));
+            }
+
+            String normalized = normalizePhoneNumber(phoneNumber);
+            if (!isValidPhoneNumber(normalized)) {
+                return CompletableFuture.completedFuture(
+                    SendResult.failure("INVALID_PHONE_FORMAT", "Invalid phone number format: " + normalized));
             }
 
+            SmsProvider.SmsRequest request = new SmsProvider.SmsRequest(
+                normalized, message.getRenderedTitle(), message.getRenderedBody(), providerMetadata(message));
+
+            return bulkDispatchStage.submit("SMS:" + message.getTemplateCode(), request,
+                    batch -> providerManager.sendSmsBatch(batch, preferredProvider, enableFallback))
+                .thenApply(result -> toSendResult(message, normalized, result))
+                .exceptionally(e -> SendResult.failure("SEND_FAILED", e.getMessage()));
+
         } catch (Exception e) {
-            logger.error("Failed to send SMS message: {}", message.getRequestId(), e);
-            return SendResult.failure("SEND_FAILED", e.getMessage());
+            logger.error("Failed to queue SMS message: {}", message.getRequestId(), e);
+            return CompletableFuture.completedFuture(SendResult.failure("SEND_FAILED", e.getMessage()));
+        }
+    }
+
+    private Map<String, Object> providerMetadata(Message message) {
+        Map<String, Object> providerMetadata = new HashMap<>();
+        providerMetadata.put("requestId", message.getRequestId());
+        providerMetadata.put("templateCode", message.getTemplateCode());
+        if (message.getMeta() != null) {
+            providerMetadata.putAll(message.getMeta());
+        }
+        return providerMetadata;
+    }
+
+    private SendResult toSendResult(Message message, String phoneNumber, SmsProvider.SmsResult result) {
+        if (result.isSuccess()) {
+            logger.info("SMS sent successfully: {} -> {}", message.getRequestId(), result.getMessageId());
+
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("channel", "SMS");
+            metadata.put("phoneNumber", phoneNumber);
+            if (result.getMetadata() != null) {
+                metadata.putAll(result.getMetadata());
+            }
+
+            return SendResult.success(result.getMessageId(), metadata);
+        } else {
+            return SendResult.failure(result.getErrorCode(), result.getErrorMessage());
         }
     }
 
@@ -125,7 +179,7 @@ public class SmsAdapter implements ChannelAdapter {
             // Use only the best provider without fallback
             Optional<SmsProvider> provider = providerManager.getBestSmsProvider();
             if (provider.isPresent()) {
-                return provider.get().sendSms(phoneNumber, title, content, metadata);
+                return providerManager.sendSms(provider.get(), phoneNumber, title, content, metadata);
             } else {
                 return SmsProvider.SmsResult.failure("NO_PROVIDER", "No SMS provider is available");
             }
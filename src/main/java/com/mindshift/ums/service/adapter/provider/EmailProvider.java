@@ -1,5 +1,6 @@
 package com.mindshift.ums.service.adapter.provider;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -69,6 +70,22 @@ public interface EmailProvider {
         return EmailResult.failure("NO_RECIPIENTS", "No recipients provided");
     }
 
+    /**
+     * Send several separate emails in one call; each recipient gets their own message.
+     * The default sends them one by one; providers with a batch API override this.
+     *
+     * @param requests Emails to send
+     * @return One result per request, in request order
+     */
+    default List<EmailResult> sendEmailBatch(List<EmailRequest> requests) {
+        List<EmailResult> results = new ArrayList<>(requests.size());
+        for (EmailRequest request : requests) {
+            results.add(sendEmail(request.getTo(), request.getSubject(), request.getBody(), request.isHtml(),
+                request.getMetadata()));
+        }
+        return results;
+    }
+
     /**
      * Get the priority of this provider (higher number = higher priority).
      * @return Priority value (default 0)
@@ -96,6 +113,31 @@ public interface EmailProvider {
         public String getContentType() { return contentType; }
     }
 
+    /**
+     * A single email in a batch send.
+     */
+    class EmailRequest {
+        private final String to;
+        private final String subject;
+        private final String body;
+        private final boolean html;
+        private final Map<String, Object> metadata;
+
+        public EmailRequest(String to, String subject, String body, boolean html, Map<String, Object> metadata) {
+            this.to = to;
+            this.subject = subject;
+            this.body = body;
+            this.html = html;
+            this.metadata = metadata;
+        }
+
+        public String getTo() { return to; }
+        public String getSubject() { return subject; }
+        public String getBody() { return body; }
+        public boolean isHtml() { return html; }
+        public Map<String, Object> getMetadata() { return metadata; }
+    }
+
     /**
      * Result of email sending operation.
      */
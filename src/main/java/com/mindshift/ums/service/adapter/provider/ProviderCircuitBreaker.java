@@ -0,0 +1,218 @@
+package com.mindshift.ums.service.adapter.provider;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker for a single provider.
+ *
+ * The breaker keeps the outcome of the last {@code windowSize} calls. Once at least
+ * {@code minimumCalls} are recorded and either the failure rate or the slow-call rate
+ * reaches its threshold, the breaker opens and rejects calls for {@code openDurationMs}.
+ * It then lets {@code halfOpenProbes} calls through: if all of them succeed in time it
+ * closes again, otherwise it re-opens. The breaker also tracks an exponentially
+ * weighted moving average of call latency for routing.
+ */
+public class ProviderCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final double LATENCY_EWMA_ALPHA = 0.2;
+
+    private final String providerName;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallThresholdNanos;
+    private final long openDurationMs;
+    private final int halfOpenProbes;
+    private final LongSupplier clock;
+
+    // Ring buffer of recent outcomes
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next = 0;
+    private int recorded = 0;
+    private int failedCount = 0;
+    private int slowCount = 0;
+
+    private State state = State.CLOSED;
+    private long openUntil = 0;
+    private int probesIssued = 0;
+    private int probesSucceeded = 0;
+
+    private volatile double latencyEwmaMs = -1;
+
+    public ProviderCircuitBreaker(String providerName, int windowSize, int minimumCalls,
+                                  double failureRateThreshold, double slowCallRateThreshold,
+                                  long slowCallThresholdMs, long openDurationMs, int halfOpenProbes,
+                                  LongSupplier clock) {
+        this.providerName = providerName;
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallThresholdNanos = slowCallThresholdMs * 1_000_000L;
+        this.openDurationMs = openDurationMs;
+        this.halfOpenProbes = halfOpenProbes;
+        this.clock = clock;
+        this.failed = new boolean[windowSize];
+        this.slow = new boolean[windowSize];
+    }
+
+    /**
+     * Ask to make a call. While open, calls are rejected; once the open period is over
+     * a limited number of probe calls are let through.
+     *
+     * @return true if the call may go ahead; its outcome must then be recorded
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() < openUntil) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesIssued = 0;
+            probesSucceeded = 0;
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (probesIssued >= halfOpenProbes) {
+                return false;
+            }
+            probesIssued++;
+        }
+        return true;
+    }
+
+    /**
+     * Whether calls would currently be let through, without taking a probe slot.
+     *
+     * @return false while open
+     */
+    public synchronized boolean isCallPermitted() {
+        return state != State.OPEN || clock.getAsLong() >= openUntil;
+    }
+
+    /**
+     * Record the outcome of a call made after {@link #tryAcquire()}.
+     *
+     * @param success       Whether the provider accepted the message
+     * @param durationNanos How long the call took
+     * @return true if the state changed
+     */
+    public synchronized boolean onResult(boolean success, long durationNanos) {
+        double latencyMs = durationNanos / 1_000_000.0;
+        latencyEwmaMs = latencyEwmaMs < 0
+            ? latencyMs
+            : LATENCY_EWMA_ALPHA * latencyMs + (1 - LATENCY_EWMA_ALPHA) * latencyEwmaMs;
+
+        boolean callSlow = durationNanos >= slowCallThresholdNanos;
+
+        switch (state) {
+            case HALF_OPEN -> {
+                if (!success || callSlow) {
+                    open(clock.getAsLong() + openDurationMs);
+                    return true;
+                }
+                if (++probesSucceeded >= halfOpenProbes) {
+                    close();
+                    return true;
+                }
+                return false;
+            }
+            case OPEN -> {
+                // A call that started before the breaker opened
+                return false;
+            }
+            default -> {
+                record(!success, callSlow);
+                if (recorded >= minimumCalls
+                        && (rate(failedCount) >= failureRateThreshold || rate(slowCount) >= slowCallRateThreshold)) {
+                    open(clock.getAsLong() + openDurationMs);
+                    return true;
+                }
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Open the breaker until the given time because another node saw the provider fail.
+     *
+     * @param until Epoch millis until which calls are rejected
+     * @return true if the state changed
+     */
+    public synchronized boolean openUntil(long until) {
+        if (until <= clock.getAsLong() || (state == State.OPEN && until <= openUntil)) {
+            return false;
+        }
+        boolean changed = state != State.OPEN;
+        open(until);
+        return changed;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized long getOpenUntil() {
+        return openUntil;
+    }
+
+    public String getProviderName() {
+        return providerName;
+    }
+
+    /**
+     * @return Moving average call latency in milliseconds, or -1 before the first call
+     */
+    public double getLatencyEwmaMs() {
+        return latencyEwmaMs;
+    }
+
+    private void record(boolean callFailed, boolean callSlow) {
+        if (recorded == windowSize) {
+            if (failed[next]) failedCount--;
+            if (slow[next]) slowCount--;
+        } else {
+            recorded++;
+        }
+
+        failed[next] = callFailed;
+        slow[next] = callSlow;
+        if (callFailed) failedCount++;
+        if (callSlow) slowCount++;
+        next = (next + 1) % windowSize;
+    }
+
+    private double rate(int count) {
+        return count * 100.0 / recorded;
+    }
+
+    private void open(long until) {
+        state = State.OPEN;
+        openUntil = until;
+        resetWindow();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        openUntil = 0;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        next = 0;
+        recorded = 0;
+        failedCount = 0;
+        slowCount = 0;
+        Arrays.fill(failed, false);
+        Arrays.fill(slow, false);
+    }
+}
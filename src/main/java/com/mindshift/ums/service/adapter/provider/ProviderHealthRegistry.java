@@ -0,0 +1,238 @@
+package com.mindshift.ums.service.adapter.provider;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Circuit breakers and latency statistics for every message provider.
+ *
+ * When a breaker opens on one node, its open-until time is written to the shared
+ * {@code providerStatus} cache; every node reads that cache periodically and opens its
+ * own breaker for the same provider, so an outage detected anywhere stops traffic
+ * everywhere. Breaker state (0 = closed, 1 = open, 2 = half-open) and latency are
+ * exported as gauges tagged by provider.
+ */
+@Component
+public class ProviderHealthRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderHealthRegistry.class);
+
+    private static final String STATUS_CACHE = "providerStatus";
+
+    private final Cache statusCache;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ProviderCircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallThresholdMs;
+    private final long openDurationMs;
+    private final int halfOpenProbes;
+    private final boolean weightedRouting;
+    private final double defaultLatencyMs;
+
+    @Autowired
+    public ProviderHealthRegistry(CacheManager cacheManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${ums.provider.circuit-breaker.window-size:50}") int windowSize,
+                                  @Value("${ums.provider.circuit-breaker.minimum-calls:20}") int minimumCalls,
+                                  @Value("${ums.provider.circuit-breaker.failure-rate-threshold:50}") double failureRateThreshold,
+                                  @Value("${ums.provider.circuit-breaker.slow-call-rate-threshold:80}") double slowCallRateThreshold,
+                                  @Value("${ums.provider.circuit-breaker.slow-call-ms:3000}") long slowCallThresholdMs,
+                                  @Value("${ums.provider.circuit-breaker.open-duration-ms:30000}") long openDurationMs,
+                                  @Value("${ums.provider.circuit-breaker.half-open-probes:3}") int halfOpenProbes,
+                                  @Value("${ums.provider.routing.weighted:true}") boolean weightedRouting,
+                                  @Value("${ums.provider.routing.default-latency-ms:200}") double defaultLatencyMs) {
+        this.statusCache = cacheManager != null ? cacheManager.getCache(STATUS_CACHE) : null;
+        this.meterRegistry = meterRegistry;
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallThresholdMs = slowCallThresholdMs;
+        this.openDurationMs = openDurationMs;
+        this.halfOpenProbes = halfOpenProbes;
+        this.weightedRouting = weightedRouting;
+        this.defaultLatencyMs = defaultLatencyMs;
+    }
+
+    /**
+     * Ask whether a call to the provider may go ahead. A permitted call must be
+     * reported with {@link #record(String, boolean, long)}.
+     *
+     * @param providerName Provider name
+     * @return false while the provider's breaker is open
+     */
+    public boolean tryAcquire(String providerName) {
+        boolean permitted = breaker(providerName).tryAcquire();
+        if (!permitted) {
+            meterRegistry.counter("ums.provider.calls", "provider", providerName, "outcome", "rejected").increment();
+        }
+        return permitted;
+    }
+
+    /**
+     * Record the outcome of a provider call.
+     *
+     * @param providerName  Provider name
+     * @param success       Whether the provider accepted the message
+     * @param durationNanos How long the call took
+     */
+    public void record(String providerName, boolean success, long durationNanos) {
+        ProviderCircuitBreaker breaker = breaker(providerName);
+        meterRegistry.counter("ums.provider.calls", "provider", providerName,
+            "outcome", success ? "success" : "failure").increment();
+
+        if (breaker.onResult(success, durationNanos)) {
+            ProviderCircuitBreaker.State state = breaker.getState();
+            if (state == ProviderCircuitBreaker.State.OPEN) {
+                logger.warn("Circuit breaker for {} opened until {}", providerName, breaker.getOpenUntil());
+            } else {
+                logger.info("Circuit breaker for {} is {}", providerName, state);
+            }
+            publishState(breaker);
+        }
+    }
+
+    /**
+     * Order providers for a send: providers with an open breaker are left out, the first
+     * one is picked at random weighted by priority over average latency, and the rest
+     * follow in priority order as fallbacks. Without weighted routing the order is
+     * plain priority.
+     *
+     * @param providers Enabled providers in priority order
+     * @param name      Provider name accessor
+     * @param priority  Provider priority accessor
+     * @return Providers in the order to try them
+     */
+    public <P> List<P> selectionOrder(List<P> providers, Function<P, String> name, ToIntFunction<P> priority) {
+        List<P> available = new ArrayList<>(providers.size());
+        for (P provider : providers) {
+            if (breaker(name.apply(provider)).isCallPermitted()) {
+                available.add(provider);
+            }
+        }
+        if (!weightedRouting || available.size() < 2) {
+            return available;
+        }
+
+        double[] weights = new double[available.size()];
+        double total = 0;
+        for (int i = 0; i < available.size(); i++) {
+            double latency = breaker(name.apply(available.get(i))).getLatencyEwmaMs();
+            weights[i] = Math.max(priority.applyAsInt(available.get(i)), 1)
+                / Math.max(latency < 0 ? defaultLatencyMs : latency, 1.0);
+            total += weights[i];
+        }
+
+        double pick = ThreadLocalRandom.current().nextDouble(total);
+        int chosen = 0;
+        while (chosen < weights.length - 1 && pick >= weights[chosen]) {
+            pick -= weights[chosen];
+            chosen++;
+        }
+
+        List<P> ordered = new ArrayList<>(available.size());
+        ordered.add(available.get(chosen));
+        for (int i = 0; i < available.size(); i++) {
+            if (i != chosen) {
+                ordered.add(available.get(i));
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Whether the provider's breaker currently lets calls through.
+     *
+     * @param providerName Provider name
+     * @return false while open
+     */
+    public boolean isAvailable(String providerName) {
+        return breaker(providerName).isCallPermitted();
+    }
+
+    /**
+     * Pick up breakers opened by other nodes.
+     */
+    @Scheduled(fixedDelayString = "${ums.provider.circuit-breaker.sync-interval-ms:2000}")
+    public void syncSharedState() {
+        if (statusCache == null) {
+            return;
+        }
+
+        for (ProviderCircuitBreaker breaker : breakers.values()) {
+            try {
+                Map<?, ?> status = statusCache.get(breaker.getProviderName(), Map.class);
+                if (status != null && status.get("openUntil") instanceof Number openUntil
+                        && breaker.openUntil(openUntil.longValue())) {
+                    logger.warn("Circuit breaker for {} opened by another node until {}",
+                        breaker.getProviderName(), openUntil);
+                }
+            } catch (Exception e) {
+                logger.debug("Failed to read shared status for provider {}", breaker.getProviderName(), e);
+            }
+        }
+    }
+
+    private void publishState(ProviderCircuitBreaker breaker) {
+        if (statusCache == null) {
+            return;
+        }
+
+        try {
+            if (breaker.getState() == ProviderCircuitBreaker.State.OPEN) {
+                // Plain HashMap so the JSON cache serializer can read it back on any node
+                Map<String, Object> status = new HashMap<>();
+                status.put("state", "OPEN");
+                status.put("openUntil", breaker.getOpenUntil());
+                statusCache.put(breaker.getProviderName(), status);
+            } else {
+                statusCache.evict(breaker.getProviderName());
+            }
+        } catch (Exception e) {
+            // Other nodes will detect the outage on their own
+            logger.error("Failed to share circuit breaker state for {}", breaker.getProviderName(), e);
+        }
+    }
+
+    private ProviderCircuitBreaker breaker(String providerName) {
+        return breakers.computeIfAbsent(providerName, this::createBreaker);
+    }
+
+    private ProviderCircuitBreaker createBreaker(String providerName) {
+        ProviderCircuitBreaker breaker = new ProviderCircuitBreaker(providerName, windowSize, minimumCalls,
+            failureRateThreshold, slowCallRateThreshold, slowCallThresholdMs, openDurationMs, halfOpenProbes,
+            System::currentTimeMillis);
+
+        Gauge.builder("ums.provider.circuit.state", breaker, b -> b.getState().ordinal())
+            .description("Circuit breaker state (0 = closed, 1 = open, 2 = half-open)")
+            .tag("provider", providerName)
+            .register(meterRegistry);
+        Gauge.builder("ums.provider.latency", breaker, b -> Math.max(b.getLatencyEwmaMs(), 0))
+            .description("Moving average provider call latency in milliseconds")
+            .tag("provider", providerName)
+            .register(meterRegistry);
+
+        return breaker;
+    }
+}
@@ -1,17 +1,28 @@
 package com.mindshift.ums.service.adapter.provider;
 
+import com.mindshift.ums.domain.enums.ChannelType;
+import com.mindshift.ums.metrics.StageTimers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Manager for selecting and managing message providers.
  * Handles provider selection based on availability, configuration, and priority.
+ * Providers whose circuit breaker is open are skipped, and the first provider tried
+ * is weighted by observed latency (see {@link ProviderHealthRegistry}).
  */
 @Component
 public class ProviderManager {
@@ -20,24 +31,30 @@ public class ProviderManager {
 
     private final List<SmsProvider> smsProviders;
     private final List<EmailProvider> emailProviders;
+    private final ProviderHealthRegistry providerHealth;
+    private final StageTimers stageTimers;
 
     @Autowired
-    public ProviderManager(List<SmsProvider> smsProviders, List<EmailProvider> emailProviders) {
+    public ProviderManager(List<SmsProvider> smsProviders, List<EmailProvider> emailProviders,
+                           ProviderHealthRegistry providerHealth, StageTimers stageTimers) {
         this.smsProviders = smsProviders;
         this.emailProviders = emailProviders;
+        this.providerHealth = providerHealth;
+        this.stageTimers = stageTimers;
 
         logProviderStatus();
     }
 
     /**
      * Get the best available SMS provider.
-     * Selects based on enabled status and priority.
+     * Selects based on enabled status, circuit breaker state and priority.
      *
      * @return The best available SMS provider, or empty if none available
      */
     public Optional<SmsProvider> getBestSmsProvider() {
         return smsProviders.stream()
             .filter(SmsProvider::isEnabled)
+            .filter(provider -> providerHealth.isAvailable(provider.getProviderName()))
             .max(Comparator.comparingInt(SmsProvider::getPriority));
     }
 
@@ -68,13 +85,14 @@ public class ProviderManager {
 
     /**
      * Get the best available Email provider.
-     * Selects based on enabled status and priority.
+     * Selects based on enabled status, circuit breaker state and priority.
      *
      * @return The best available Email provider, or empty if none available
      */
     public Optional<EmailProvider> getBestEmailProvider() {
         return emailProviders.stream()
             .filter(EmailProvider::isEnabled)
+            .filter(provider -> providerHealth.isAvailable(provider.getProviderName()))
             .max(Comparator.comparingInt(EmailProvider::getPriority));
     }
 
@@ -103,9 +121,225 @@ public class ProviderManager {
             .toList();
     }
 
+    /**
+     * Send an SMS through one provider, without fallback. The call goes through the
+     * provider's circuit breaker: while it is open the provider is not called and the
+     * result is a NO_PROVIDER failure.
+     *
+     * @param provider Provider to send through
+     * @param phoneNumber Recipient phone number
+     * @param title Message title, or null
+     * @param message Message content
+     * @param metadata Message metadata
+     * @return Result from the provider
+     */
+    public SmsProvider.SmsResult sendSms(SmsProvider provider, String phoneNumber, String title, String message,
+                                         java.util.Map<String, Object> metadata) {
+        if (!providerHealth.tryAcquire(provider.getProviderName())) {
+            logger.warn("SMS provider {} not called: circuit open", provider.getProviderName());
+            return SmsProvider.SmsResult.failure("NO_PROVIDER", "Circuit open for SMS provider " + provider.getProviderName());
+        }
+
+        long start = System.nanoTime();
+        try {
+            SmsProvider.SmsResult result = provider.sendSms(phoneNumber, title, message, metadata);
+            recordCall(ChannelType.SMS, provider.getProviderName(),
+                providerAnswered(result.isSuccess(), result.getErrorCode()), start);
+            return result;
+        } catch (Exception e) {
+            String errorCode = ProviderStatusException.errorCodeOf(e);
+            recordCall(ChannelType.SMS, provider.getProviderName(), providerAnswered(false, errorCode), start);
+            logger.error("Error sending SMS via {}", provider.getProviderName(), e);
+            return SmsProvider.SmsResult.failure(errorCode, e.getMessage());
+        }
+    }
+
+    /**
+     * Send a batch of SMS messages through one provider, without fallback. The call goes
+     * through the provider's circuit breaker like {@link #sendSms(SmsProvider, String, String, String, java.util.Map)}.
+     *
+     * @param provider Provider to send through
+     * @param requests Messages to send
+     * @return One result per request, in request order
+     */
+    public List<SmsProvider.SmsResult> sendSmsBatch(SmsProvider provider, List<SmsProvider.SmsRequest> requests) {
+        if (!providerHealth.tryAcquire(provider.getProviderName())) {
+            logger.warn("SMS provider {} not called: circuit open", provider.getProviderName());
+            return Collections.nCopies(requests.size(), SmsProvider.SmsResult.failure("NO_PROVIDER",
+                "Circuit open for SMS provider " + provider.getProviderName()));
+        }
+
+        long start = System.nanoTime();
+        try {
+            List<SmsProvider.SmsResult> results = provider.sendSmsBatch(requests);
+            recordCall(ChannelType.SMS, provider.getProviderName(),
+                results.stream().anyMatch(result -> providerAnswered(result.isSuccess(), result.getErrorCode())), start);
+            return results;
+        } catch (Exception e) {
+            String errorCode = ProviderStatusException.errorCodeOf(e);
+            recordCall(ChannelType.SMS, provider.getProviderName(), providerAnswered(false, errorCode), start);
+            logger.error("Error sending SMS batch via {}", provider.getProviderName(), e);
+            return Collections.nCopies(requests.size(), SmsProvider.SmsResult.failure(errorCode, e.getMessage()));
+        }
+    }
+
+    /**
+     * Send an Email through one provider, without fallback. The call goes through the
+     * provider's circuit breaker: while it is open the provider is not called and the
+     * result is a NO_PROVIDER failure.
+     *
+     * @param provider Provider to send through
+     * @param to Recipient email
+     * @param subject Email subject
+     * @param body Email body
+     * @param isHtml Whether the body is HTML
+     * @param attachments Attachments, or null
+     * @param metadata Message metadata
+     * @return Result from the provider
+     */
+    public EmailProvider.EmailResult sendEmail(EmailProvider provider, String to, String subject, String body,
+                                               boolean isHtml, List<EmailProvider.Attachment> attachments,
+                                               java.util.Map<String, Object> metadata) {
+        if (!providerHealth.tryAcquire(provider.getProviderName())) {
+            logger.warn("Email provider {} not called: circuit open", provider.getProviderName());
+            return EmailProvider.EmailResult.failure("NO_PROVIDER",
+                "Circuit open for Email provider " + provider.getProviderName());
+        }
+
+        long start = System.nanoTime();
+        try {
+            EmailProvider.EmailResult result = provider.sendEmail(to, subject, body, isHtml, attachments, metadata);
+            recordCall(ChannelType.EMAIL, provider.getProviderName(),
+                providerAnswered(result.isSuccess(), result.getErrorCode()), start);
+            return result;
+        } catch (Exception e) {
+            String errorCode = ProviderStatusException.errorCodeOf(e);
+            recordCall(ChannelType.EMAIL, provider.getProviderName(), providerAnswered(false, errorCode), start);
+            logger.error("Error sending Email via {}", provider.getProviderName(), e);
+            return EmailProvider.EmailResult.failure(errorCode, e.getMessage());
+        }
+    }
+
+    /**
+     * Send a batch of emails through one provider, without fallback. The call goes
+     * through the provider's circuit breaker like {@link #sendEmail}.
+     *
+     * @param provider Provider to send through
+     * @param requests Emails to send
+     * @return One result per request, in request order
+     */
+    public List<EmailProvider.EmailResult> sendEmailBatch(EmailProvider provider,
+                                                          List<EmailProvider.EmailRequest> requests) {
+        if (!providerHealth.tryAcquire(provider.getProviderName())) {
+            logger.warn("Email provider {} not called: circuit open", provider.getProviderName());
+            return Collections.nCopies(requests.size(), EmailProvider.EmailResult.failure("NO_PROVIDER",
+                "Circuit open for Email provider " + provider.getProviderName()));
+        }
+
+        long start = System.nanoTime();
+        try {
+            List<EmailProvider.EmailResult> results = provider.sendEmailBatch(requests);
+            recordCall(ChannelType.EMAIL, provider.getProviderName(),
+                results.stream().anyMatch(result -> providerAnswered(result.isSuccess(), result.getErrorCode())), start);
+            return results;
+        } catch (Exception e) {
+            String errorCode = ProviderStatusException.errorCodeOf(e);
+            recordCall(ChannelType.EMAIL, provider.getProviderName(), providerAnswered(false, errorCode), start);
+            logger.error("Error sending Email batch via {}", provider.getProviderName(), e);
+            return Collections.nCopies(requests.size(), EmailProvider.EmailResult.failure(errorCode, e.getMessage()));
+        }
+    }
+
+    /**
+     * Send a batch of SMS messages the way the SMS adapter is configured: through the
+     * preferred provider if one is set and enabled, otherwise the best available one.
+     * With fallback enabled, messages the first provider fails are sent again through
+     * the other providers.
+     *
+     * @param requests Messages to send
+     * @param preferredProvider Preferred provider name, or empty for automatic selection
+     * @param enableFallback Whether failed messages may go to other providers
+     * @return One result per request, in request order
+     */
+    public List<SmsProvider.SmsResult> sendSmsBatch(List<SmsProvider.SmsRequest> requests,
+                                                    String preferredProvider, boolean enableFallback) {
+        return sendBatch("SMS", requests, preferredProvider, enableFallback,
+            this::getSmsProvider, this::getBestSmsProvider, this::sendSmsBatch, this::sendSmsBatchWithFallback,
+            SmsProvider.SmsResult::isSuccess,
+            SmsProvider.SmsResult.failure("NO_PROVIDER", "No SMS provider is available"));
+    }
+
+    /**
+     * Send a batch of emails the way the Email adapter is configured. See
+     * {@link #sendSmsBatch(List, String, boolean)}.
+     *
+     * @param requests Emails to send
+     * @param preferredProvider Preferred provider name, or empty for automatic selection
+     * @param enableFallback Whether failed emails may go to other providers
+     * @return One result per request, in request order
+     */
+    public List<EmailProvider.EmailResult> sendEmailBatch(List<EmailProvider.EmailRequest> requests,
+                                                          String preferredProvider, boolean enableFallback) {
+        return sendBatch("Email", requests, preferredProvider, enableFallback,
+            this::getEmailProvider, this::getBestEmailProvider, this::sendEmailBatch, this::sendEmailBatchWithFallback,
+            EmailProvider.EmailResult::isSuccess,
+            EmailProvider.EmailResult.failure("NO_PROVIDER", "No Email provider is available"));
+    }
+
+    private <P, Q, R> List<R> sendBatch(String channel, List<Q> requests, String preferredProvider,
+                                        boolean enableFallback, Function<String, Optional<P>> lookup,
+                                        Supplier<Optional<P>> best, BiFunction<P, List<Q>, List<R>> sendVia,
+                                        Function<List<Q>, List<R>> sendWithFallback, Predicate<R> succeeded,
+                                        R noProvider) {
+        // Try preferred provider first if specified
+        if (!preferredProvider.isEmpty()) {
+            Optional<P> provider = lookup.apply(preferredProvider);
+            if (provider.isPresent()) {
+                List<R> results = new ArrayList<>(sendVia.apply(provider.get(), requests));
+                if (enableFallback) {
+                    retryFailedWithFallback(channel, requests, results, sendWithFallback, succeeded);
+                }
+                return results;
+            } else {
+                logger.warn("Preferred {} provider {} not available, using best available", channel, preferredProvider);
+            }
+        }
+
+        // Use best available provider or fallback
+        if (enableFallback) {
+            return sendWithFallback.apply(requests);
+        }
+        Optional<P> provider = best.get();
+        if (provider.isPresent()) {
+            return sendVia.apply(provider.get(), requests);
+        }
+        return Collections.nCopies(requests.size(), noProvider);
+    }
+
+    private <Q, R> void retryFailedWithFallback(String channel, List<Q> requests, List<R> results,
+                                                Function<List<Q>, List<R>> sendWithFallback, Predicate<R> succeeded) {
+        List<Integer> failed = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            if (!succeeded.test(results.get(i))) {
+                failed.add(i);
+            }
+        }
+        if (failed.isEmpty()) {
+            return;
+        }
+
+        logger.warn("Preferred {} provider failed {} of {} messages, trying fallback providers",
+            channel, failed.size(), requests.size());
+        List<R> retried = sendWithFallback.apply(failed.stream().map(requests::get).toList());
+        for (int i = 0; i < failed.size(); i++) {
+            results.set(failed.get(i), retried.get(i));
+        }
+    }
+
     /**
      * Try to send SMS with fallback providers.
-     * If the primary provider fails, tries the next available provider.
+     * If the primary provider fails, tries the next available provider. Providers with
+     * an open circuit breaker are not called.
      *
      * @param phoneNumber Recipient phone number
      * @param message Message content
@@ -121,10 +355,19 @@ public class ProviderManager {
             return SmsProvider.SmsResult.failure("NO_PROVIDER", "No SMS provider is configured and enabled");
         }
 
-        for (SmsProvider provider : providers) {
+        for (SmsProvider provider : providerHealth.selectionOrder(providers,
+                SmsProvider::getProviderName, SmsProvider::getPriority)) {
+            if (!providerHealth.tryAcquire(provider.getProviderName())) {
+                logger.debug("Skipping SMS provider {}: circuit open", provider.getProviderName());
+                continue;
+            }
+
+            long start = System.nanoTime();
             try {
                 logger.info("Attempting to send SMS via {}", provider.getProviderName());
                 SmsProvider.SmsResult result = provider.sendSms(phoneNumber, message, metadata);
+                recordCall(ChannelType.SMS, provider.getProviderName(),
+                    providerAnswered(result.isSuccess(), result.getErrorCode()), start);
 
                 if (result.isSuccess()) {
                     logger.info("SMS sent successfully via {}", provider.getProviderName());
@@ -134,6 +377,7 @@ public class ProviderManager {
                         provider.getProviderName(), result.getErrorCode(), result.getErrorMessage());
                 }
             } catch (Exception e) {
+                recordCall(ChannelType.SMS, provider.getProviderName(), false, start);
                 logger.error("Error sending SMS via {}", provider.getProviderName(), e);
             }
         }
@@ -143,7 +387,8 @@ public class ProviderManager {
     }
 
     /**
-     * Try to send Email with fallback providers.
+     * Try to send Email with fallback providers. Providers with an open circuit
+     * breaker are not called.
      *
      * @param to Recipient email
      * @param subject Email subject
@@ -162,10 +407,19 @@ public class ProviderManager {
                 "No Email provider is configured and enabled");
         }
 
-        for (EmailProvider provider : providers) {
+        for (EmailProvider provider : providerHealth.selectionOrder(providers,
+                EmailProvider::getProviderName, EmailProvider::getPriority)) {
+            if (!providerHealth.tryAcquire(provider.getProviderName())) {
+                logger.debug("Skipping Email provider {}: circuit open", provider.getProviderName());
+                continue;
+            }
+
+            long start = System.nanoTime();
             try {
                 logger.info("Attempting to send Email via {}", provider.getProviderName());
                 EmailProvider.EmailResult result = provider.sendEmail(to, subject, body, isHtml, metadata);
+                recordCall(ChannelType.EMAIL, provider.getProviderName(),
+                    providerAnswered(result.isSuccess(), result.getErrorCode()), start);
 
                 if (result.isSuccess()) {
                     logger.info("Email sent successfully via {}", provider.getProviderName());
@@ -175,6 +429,7 @@ public class ProviderManager {
                         provider.getProviderName(), result.getErrorCode(), result.getErrorMessage());
                 }
             } catch (Exception e) {
+                recordCall(ChannelType.EMAIL, provider.getProviderName(), false, start);
                 logger.error("Error sending Email via {}", provider.getProviderName(), e);
             }
         }
@@ -183,6 +438,168 @@ public class ProviderManager {
             "Failed to send Email through all available providers");
     }
 
+    /**
+     * Send a batch of SMS messages through provider group sends, with fallback.
+     * The batch goes to the first available provider; messages it fails are sent
+     * again through the next provider, and so on.
+     *
+     * @param requests Messages to send
+     * @return One result per request, in request order
+     */
+    public List<SmsProvider.SmsResult> sendSmsBatchWithFallback(List<SmsProvider.SmsRequest> requests) {
+        SmsProvider.SmsResult[] results = new SmsProvider.SmsResult[requests.size()];
+        List<SmsProvider> providers = getEnabledSmsProviders();
+
+        if (providers.isEmpty()) {
+            logger.error("No SMS providers available");
+            Arrays.fill(results, SmsProvider.SmsResult.failure("NO_PROVIDER", "No SMS provider is configured and enabled"));
+            return Arrays.asList(results);
+        }
+
+        List<Integer> remaining = allIndexes(requests.size());
+        for (SmsProvider provider : providerHealth.selectionOrder(providers,
+                SmsProvider::getProviderName, SmsProvider::getPriority)) {
+            if (remaining.isEmpty()) {
+                break;
+            }
+            if (!providerHealth.tryAcquire(provider.getProviderName())) {
+                logger.debug("Skipping SMS provider {}: circuit open", provider.getProviderName());
+                continue;
+            }
+
+            List<SmsProvider.SmsRequest> batch = remaining.stream().map(requests::get).toList();
+            long start = System.nanoTime();
+            try {
+                logger.info("Attempting to send {} SMS via {}", batch.size(), provider.getProviderName());
+                List<SmsProvider.SmsResult> batchResults = provider.sendSmsBatch(batch);
+
+                List<Integer> failed = new ArrayList<>();
+                boolean answered = false;
+                for (int i = 0; i < remaining.size(); i++) {
+                    SmsProvider.SmsResult result = batchResults.get(i);
+                    answered |= providerAnswered(result.isSuccess(), result.getErrorCode());
+                    if (result.isSuccess()) {
+                        results[remaining.get(i)] = result;
+                    } else {
+                        failed.add(remaining.get(i));
+                    }
+                }
+                recordCall(ChannelType.SMS, provider.getProviderName(), answered, start);
+
+                if (!failed.isEmpty()) {
+                    logger.warn("Failed to send {} of {} SMS via {}", failed.size(), remaining.size(),
+                        provider.getProviderName());
+                }
+                remaining = failed;
+            } catch (Exception e) {
+                recordCall(ChannelType.SMS, provider.getProviderName(), false, start);
+                logger.error("Error sending SMS batch via {}", provider.getProviderName(), e);
+            }
+        }
+
+        for (Integer index : remaining) {
+            results[index] = SmsProvider.SmsResult.failure("ALL_PROVIDERS_FAILED",
+                "Failed to send SMS through all available providers");
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Send a batch of emails through provider batch sends, with fallback.
+     * The batch goes to the first available provider; emails it fails are sent
+     * again through the next provider, and so on.
+     *
+     * @param requests Emails to send
+     * @return One result per request, in request order
+     */
+    public List<EmailProvider.EmailResult> sendEmailBatchWithFallback(List<EmailProvider.EmailRequest> requests) {
+        EmailProvider.EmailResult[] results = new EmailProvider.EmailResult[requests.size()];
+        List<EmailProvider> providers = getEnabledEmailProviders();
+
+        if (providers.isEmpty()) {
+            logger.error("No Email providers available");
+            Arrays.fill(results, EmailProvider.EmailResult.failure("NO_PROVIDER",
+                "No Email provider is configured and enabled"));
+            return Arrays.asList(results);
+        }
+
+        List<Integer> remaining = allIndexes(requests.size());
+        for (EmailProvider provider : providerHealth.selectionOrder(providers,
+                EmailProvider::getProviderName, EmailProvider::getPriority)) {
+            if (remaining.isEmpty()) {
+                break;
+            }
+            if (!providerHealth.tryAcquire(provider.getProviderName())) {
+                logger.debug("Skipping Email provider {}: circuit open", provider.getProviderName());
+                continue;
+            }
+
+            List<EmailProvider.EmailRequest> batch = remaining.stream().map(requests::get).toList();
+            long start = System.nanoTime();
+            try {
+                logger.info("Attempting to send {} Emails via {}", batch.size(), provider.getProviderName());
+                List<EmailProvider.EmailResult> batchResults = provider.sendEmailBatch(batch);
+
+                List<Integer> failed = new ArrayList<>();
+                boolean answered = false;
+                for (int i = 0; i < remaining.size(); i++) {
+                    EmailProvider.EmailResult result = batchResults.get(i);
+                    answered |= providerAnswered(result.isSuccess(), result.getErrorCode());
+                    if (result.isSuccess()) {
+                        results[remaining.get(i)] = result;
+                    } else {
+                        failed.add(remaining.get(i));
+                    }
+                }
+                recordCall(ChannelType.EMAIL, provider.getProviderName(), answered, start);
+
+                if (!failed.isEmpty()) {
+                    logger.warn("Failed to send {} of {} Emails via {}", failed.size(), remaining.size(),
+                        provider.getProviderName());
+                }
+                remaining = failed;
+            } catch (Exception e) {
+                recordCall(ChannelType.EMAIL, provider.getProviderName(), false, start);
+                logger.error("Error sending Email batch via {}", provider.getProviderName(), e);
+            }
+        }
+
+        for (Integer index : remaining) {
+            results[index] = EmailProvider.EmailResult.failure("ALL_PROVIDERS_FAILED",
+                "Failed to send Email through all available providers");
+        }
+        return Arrays.asList(results);
+    }
+
+    private List<Integer> allIndexes(int size) {
+        List<Integer> indexes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            indexes.add(i);
+        }
+        return indexes;
+    }
+
+    /**
+     * Whether a result shows the provider itself working. A message the provider
+     * rejected (bad number, unknown mailbox) failed, but says nothing about the
+     * provider's health and must not open its circuit breaker.
+     */
+    private static boolean providerAnswered(boolean success, String errorCode) {
+        return success || ProviderStatusException.REJECTED.equals(errorCode);
+    }
+
+    /**
+     * Record a provider call for health tracking and timing.
+     *
+     * @param success Whether the call counts as a success for the circuit breaker:
+     *                transport errors, timeouts, 5xx and 429 are failures, rejections are not
+     */
+    private void recordCall(ChannelType channel, String providerName, boolean success, long start) {
+        long durationNanos = System.nanoTime() - start;
+        providerHealth.record(providerName, success, durationNanos);
+        stageTimers.recordProviderCall(channel, providerName, durationNanos);
+    }
+
     private void logProviderStatus() {
         logger.info("=== Provider Status ===");
 
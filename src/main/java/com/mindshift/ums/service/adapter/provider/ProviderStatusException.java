@@ -0,0 +1,42 @@
+package com.mindshift.ums.service.adapter.provider;
+
+/**
+ * Error response from a provider API. Keeps the HTTP status so a request the provider
+ * turned down (4xx other than 429) can be told apart from a provider fault (5xx, 429).
+ */
+public class ProviderStatusException extends RuntimeException {
+
+    /** Error code of a request the provider answered and refused; not held against the provider. */
+    public static final String REJECTED = "PROVIDER_REJECTED";
+
+    private static final String SEND_FAILED = "SEND_FAILED";
+
+    private final int statusCode;
+
+    public ProviderStatusException(int statusCode, String message) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() { return statusCode; }
+
+    /**
+     * Whether the provider refused the request itself, rather than failing to handle it.
+     *
+     * @return true for 4xx statuses other than 429 Too Many Requests
+     */
+    public boolean isRejection() {
+        return statusCode >= 400 && statusCode < 500 && statusCode != 429;
+    }
+
+    /**
+     * Error code for a failed provider call: {@link #REJECTED} when the provider refused
+     * the request, SEND_FAILED for transport errors, timeouts, 5xx and 429.
+     *
+     * @param e Failure of the provider call
+     * @return Error code for the send result
+     */
+    public static String errorCodeOf(Throwable e) {
+        return e instanceof ProviderStatusException status && status.isRejection() ? REJECTED : SEND_FAILED;
+    }
+}
@@ -1,5 +1,7 @@
 package com.mindshift.ums.service.adapter.provider;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -41,6 +43,21 @@ public interface SmsProvider {
      */
     SmsResult sendSms(String phoneNumber, String title, String message, Map<String, Object> metadata);
 
+    /**
+     * Send several SMS messages in one call.
+     * The default sends them one by one; providers with a group send API override this.
+     *
+     * @param requests Messages to send
+     * @return One result per request, in request order
+     */
+    default List<SmsResult> sendSmsBatch(List<SmsRequest> requests) {
+        List<SmsResult> results = new ArrayList<>(requests.size());
+        for (SmsRequest request : requests) {
+            results.add(sendSms(request.getPhoneNumber(), request.getTitle(), request.getMessage(), request.getMetadata()));
+        }
+        return results;
+    }
+
     /**
      * Get the delivery status of a sent message.
      *
@@ -61,6 +78,28 @@ public interface SmsProvider {
         return 0;
     }
 
+    /**
+     * A single message in a batch send.
+     */
+    class SmsRequest {
+        private final String phoneNumber;
+        private final String title;
+        private final String message;
+        private final Map<String, Object> metadata;
+
+        public SmsRequest(String phoneNumber, String title, String message, Map<String, Object> metadata) {
+            this.phoneNumber = phoneNumber;
+            this.title = title;
+            this.message = message;
+            this.metadata = metadata;
+        }
+
+        public String getPhoneNumber() { return phoneNumber; }
+        public String getTitle() { return title; }
+        public String getMessage() { return message; }
+        public Map<String, Object> getMetadata() { return metadata; }
+    }
+
     /**
      * Result of SMS sending operation.
      */
@@ -1,11 +1,14 @@
 package com.mindshift.ums.service.adapter.provider.impl;
 
+import com.mindshift.ums.config.ProviderHttpClientFactory;
 import com.mindshift.ums.service.adapter.provider.EmailProvider;
+import com.mindshift.ums.service.adapter.provider.ProviderStatusException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
@@ -23,6 +26,9 @@ public class SendGridEmailProvider implements EmailProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(SendGridEmailProvider.class);
 
+    // SendGrid accepts at most 1000 personalizations per request
+    private static final int MAX_PERSONALIZATIONS = 1000;
+
     private final WebClient webClient;
     private final String apiKey;
     private final String fromEmail;
@@ -30,6 +36,7 @@ public class SendGridEmailProvider implements EmailProvider {
     private final boolean enabled;
 
     public SendGridEmailProvider(
+            ProviderHttpClientFactory httpClients,
             @Value("${ums.email.sendgrid.api-key:}") String apiKey,
             @Value("${ums.email.sendgrid.from-email:${ums.email.from-email:}}") String fromEmail,
             @Value("${ums.email.sendgrid.from-name:${ums.email.from-name:}}") String fromName,
@@ -41,7 +48,7 @@ public class SendGridEmailProvider implements EmailProvider {
         this.fromName = fromName;
         this.enabled = enabled && !apiKey.isEmpty();
 
-        this.webClient = WebClient.builder()
+        this.webClient = httpClients.builder("sendgrid")
             .baseUrl(apiUrl)
             .defaultHeader("Authorization", "Bearer " + apiKey)
             .defaultHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
@@ -94,7 +101,8 @@ public class SendGridEmailProvider implements EmailProvider {
                     clientResponse.bodyToMono(String.class)
                         .flatMap(errorBody -> {
                             logger.error("SendGrid API error: {} - {}", clientResponse.statusCode(), errorBody);
-                            return Mono.error(new RuntimeException("SendGrid API error: " + errorBody));
+                            return Mono.error(new ProviderStatusException(
+                                clientResponse.statusCode().value(), "SendGrid API error: " + errorBody));
                         })
                 )
                 .bodyToMono(SendGridResponse.class)
@@ -113,7 +121,7 @@ public class SendGridEmailProvider implements EmailProvider {
 
         } catch (Exception e) {
             logger.error("Failed to send email via SendGrid", e);
-            return EmailResult.failure("SEND_FAILED", e.getMessage());
+            return EmailResult.failure(ProviderStatusException.errorCodeOf(e), e.getMessage());
         }
     }
 
@@ -136,7 +144,8 @@ public class SendGridEmailProvider implements EmailProvider {
                     clientResponse.bodyToMono(String.class)
                         .flatMap(errorBody -> {
                             logger.error("SendGrid API error: {} - {}", clientResponse.statusCode(), errorBody);
-                            return Mono.error(new RuntimeException("SendGrid API error: " + errorBody));
+                            return Mono.error(new ProviderStatusException(
+                                clientResponse.statusCode().value(), "SendGrid API error: " + errorBody));
                         })
                 )
                 .toBodilessEntity()
@@ -155,7 +164,85 @@ public class SendGridEmailProvider implements EmailProvider {
 
         } catch (Exception e) {
             logger.error("Failed to send bulk email via SendGrid", e);
-            return EmailResult.failure("SEND_FAILED", e.getMessage());
+            return EmailResult.failure(ProviderStatusException.errorCodeOf(e), e.getMessage());
+        }
+    }
+
+    /**
+     * Send emails with one API call per distinct body, one personalization per recipient.
+     * Each recipient gets their own message id, passed to SendGrid as a custom arg so
+     * event webhooks can be mapped back.
+     */
+    @Override
+    public List<EmailResult> sendEmailBatch(List<EmailRequest> requests) {
+        EmailResult[] results = new EmailResult[requests.size()];
+        if (!enabled) {
+            Arrays.fill(results, EmailResult.failure("PROVIDER_DISABLED", "SendGrid provider is not enabled"));
+            return Arrays.asList(results);
+        }
+
+        // Personalizations share the content, so only identical bodies go out together
+        Map<List<Object>, List<Integer>> indexesByContent = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            EmailRequest request = requests.get(i);
+            indexesByContent.computeIfAbsent(Arrays.asList(request.getBody(), request.isHtml()), k -> new ArrayList<>())
+                .add(i);
+        }
+
+        for (List<Integer> indexes : indexesByContent.values()) {
+            for (int start = 0; start < indexes.size(); start += MAX_PERSONALIZATIONS) {
+                List<Integer> chunk = indexes.subList(start, Math.min(start + MAX_PERSONALIZATIONS, indexes.size()));
+                sendPersonalizations(requests, chunk, results);
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private void sendPersonalizations(List<EmailRequest> requests, List<Integer> indexes, EmailResult[] results) {
+        List<String> messageIds = new ArrayList<>(indexes.size());
+        for (int i = 0; i < indexes.size(); i++) {
+            messageIds.add(UUID.randomUUID().toString());
+        }
+
+        try {
+            Map<String, Object> requestBody = buildBatchRequestBody(requests, indexes, messageIds);
+
+            ResponseEntity<Void> response = webClient.post()
+                .uri("/v3/mail/send")
+                .bodyValue(requestBody)
+                .retrieve()
+                .onStatus(status -> status.value() >= 400, clientResponse ->
+                    clientResponse.bodyToMono(String.class)
+                        .flatMap(errorBody -> {
+                            logger.error("SendGrid API error: {} - {}", clientResponse.statusCode(), errorBody);
+                            return Mono.error(new ProviderStatusException(
+                                clientResponse.statusCode().value(), "SendGrid API error: " + errorBody));
+                        })
+                )
+                .toBodilessEntity()
+                .timeout(Duration.ofSeconds(30))
+                .block();
+
+            String batchMessageId = response != null ? response.getHeaders().getFirst("X-Message-Id") : null;
+            logger.info("Batch of {} emails sent successfully via SendGrid. Batch message ID: {}",
+                indexes.size(), batchMessageId);
+
+            for (int i = 0; i < indexes.size(); i++) {
+                Map<String, Object> resultMetadata = new HashMap<>();
+                resultMetadata.put("provider", "SENDGRID");
+                resultMetadata.put("messageId", messageIds.get(i));
+                if (batchMessageId != null) {
+                    resultMetadata.put("batchMessageId", batchMessageId);
+                }
+                results[indexes.get(i)] = EmailResult.success(messageIds.get(i), resultMetadata);
+            }
+
+        } catch (Exception e) {
+            logger.error("Failed to send batch of {} emails via SendGrid", indexes.size(), e);
+            for (Integer index : indexes) {
+                results[index] = EmailResult.failure(ProviderStatusException.errorCodeOf(e), e.getMessage());
+            }
         }
     }
 
@@ -288,6 +375,57 @@ public class SendGridEmailProvider implements EmailProvider {
         return requestBody;
     }
 
+    private Map<String, Object> buildBatchRequestBody(List<EmailRequest> requests, List<Integer> indexes,
+                                                      List<String> messageIds) {
+        Map<String, Object> requestBody = new HashMap<>();
+
+        // From
+        Map<String, String> from = new HashMap<>();
+        from.put("email", fromEmail);
+        from.put("name", fromName);
+        requestBody.put("from", from);
+
+        // One personalization per recipient, so recipients never see each other
+        List<Map<String, Object>> personalizations = new ArrayList<>();
+        for (int i = 0; i < indexes.size(); i++) {
+            EmailRequest request = requests.get(indexes.get(i));
+            Map<String, Object> personalization = new HashMap<>();
+
+            Map<String, String> recipient = new HashMap<>();
+            recipient.put("email", request.getTo());
+            personalization.put("to", List.of(recipient));
+            personalization.put("subject", request.getSubject());
+
+            Map<String, String> customArgs = new HashMap<>();
+            customArgs.put("umsMessageId", messageIds.get(i));
+            if (request.getMetadata() != null && request.getMetadata().get("requestId") != null) {
+                customArgs.put("requestId", request.getMetadata().get("requestId").toString());
+            }
+            personalization.put("custom_args", customArgs);
+
+            personalizations.add(personalization);
+        }
+        requestBody.put("personalizations", personalizations);
+
+        // Content
+        EmailRequest first = requests.get(indexes.get(0));
+        List<Map<String, String>> content = new ArrayList<>();
+        Map<String, String> contentItem = new HashMap<>();
+        contentItem.put("type", first.isHtml() ? "text/html" : "text/plain");
+        contentItem.put("value", first.getBody());
+        content.add(contentItem);
+        requestBody.put("content", content);
+
+        // Tracking settings
+        Map<String, Object> trackingSettings = new HashMap<>();
+        Map<String, Boolean> clickTracking = new HashMap<>();
+        clickTracking.put("enable", true);
+        trackingSettings.put("click_tracking", clickTracking);
+        requestBody.put("tracking_settings", trackingSettings);
+
+        return requestBody;
+    }
+
     /**
      * SendGrid API response structure
      */
@@ -1,14 +1,23 @@
 package com.mindshift.ums.service.adapter.provider.impl;
 
 import com.mindshift.ums.service.adapter.provider.EmailProvider;
+import com.mindshift.ums.service.adapter.provider.ProviderStatusException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
 import jakarta.mail.internet.MimeMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.io.UnsupportedEncodingException;
@@ -17,6 +26,12 @@ import java.util.*;
 /**
  * SMTP email provider implementation using Spring Mail.
  * This is the default email provider.
+ *
+ * Messages are sent over pooled, keep-alive SMTP connections (see
+ * {@link SmtpTransportPool}) instead of connecting and authenticating for every
+ * message; a batch goes out over one connection. The pool needs the
+ * {@link JavaMailSenderImpl} session and is skipped for any other sender or when
+ * {@code ums.email.smtp.pool.enabled} is false.
  */
 @Component
 @ConditionalOnProperty(name = "ums.email.provider", havingValue = "SMTP", matchIfMissing = true)
@@ -28,20 +43,39 @@ public class SmtpEmailProvider implements EmailProvider {
     private final String fromEmail;
     private final String fromName;
     private final boolean enabled;
+    private final SmtpTransportPool transportPool;
 
     public SmtpEmailProvider(
             JavaMailSender mailSender,
+            MeterRegistry meterRegistry,
             @Value("${ums.email.smtp.from-email:${ums.email.from-email:noreply@example.com}}") String fromEmail,
             @Value("${ums.email.smtp.from-name:${ums.email.from-name:UMS Service}}") String fromName,
-            @Value("${ums.email.smtp.enabled:true}") boolean enabled) {
+            @Value("${ums.email.smtp.enabled:true}") boolean enabled,
+            @Value("${ums.email.smtp.pool.enabled:true}") boolean poolEnabled,
+            @Value("${ums.email.smtp.pool.max-size:8}") int poolMaxSize,
+            @Value("${ums.email.smtp.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+            @Value("${ums.email.smtp.pool.max-age-ms:300000}") long maxAgeMs,
+            @Value("${ums.email.smtp.pool.validate-after-idle-ms:10000}") long validateAfterIdleMs,
+            @Value("${ums.email.smtp.pool.idle-timeout-ms:60000}") long idleTimeoutMs,
+            @Value("${ums.email.smtp.pool.borrow-timeout-ms:10000}") long borrowTimeoutMs) {
 
         this.mailSender = mailSender;
         this.fromEmail = fromEmail;
         this.fromName = fromName;
         this.enabled = enabled;
 
+        if (poolEnabled && mailSender instanceof JavaMailSenderImpl senderImpl) {
+            this.transportPool = new SmtpTransportPool(() -> connect(senderImpl), poolMaxSize,
+                maxMessagesPerConnection, maxAgeMs, validateAfterIdleMs, idleTimeoutMs, borrowTimeoutMs,
+                System::currentTimeMillis);
+            registerPoolMetrics(meterRegistry, transportPool);
+        } else {
+            this.transportPool = null;
+        }
+
         if (this.enabled) {
-            logger.info("SMTP email provider initialized with from: {} <{}>", fromName, fromEmail);
+            logger.info("SMTP email provider initialized with from: {} <{}> (connection pool: {})",
+                fromName, fromEmail, transportPool != null ? "max " + poolMaxSize : "disabled");
         } else {
             logger.warn("SMTP email provider is disabled");
         }
@@ -77,69 +111,72 @@ public class SmtpEmailProvider implements EmailProvider {
         logger.info("Sending email via SMTP to: {}", to);
 
         try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-
             // Generate unique message ID
             String messageId = "smtp-" + UUID.randomUUID().toString();
+            MimeMessage mimeMessage = buildMessage(messageId, to, subject, body, isHtml, attachments, metadata);
 
-            // Set basic properties
-            helper.setFrom(fromEmail, fromName);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(body, isHtml);
+            // Send email
+            deliver(mimeMessage);
 
-            // Add custom headers
-            mimeMessage.setHeader("Message-ID", messageId + "@" + fromEmail.split("@")[1]);
+            logger.info("Email sent successfully via SMTP. Message ID: {}", messageId);
+            return successResult(messageId, to);
 
-            if (metadata != null) {
-                // Add custom headers from metadata
-                if (metadata.containsKey("headers")) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, String> headers = (Map<String, String>) metadata.get("headers");
-                    headers.forEach((key, value) -> {
-                        try {
-                            mimeMessage.setHeader(key, value);
-                        } catch (MessagingException e) {
-                            logger.warn("Failed to set header {}: {}", key, value);
-                        }
-                    });
-                }
+        } catch (SendFailedException e) {
+            // Recipient rejected: the server is healthy, the address is not
+            logger.warn("SMTP server rejected email to {}: {}", to, e.getMessage());
+            return EmailResult.failure(ProviderStatusException.REJECTED, e.getMessage());
+        } catch (MessagingException | UnsupportedEncodingException e) {
+            logger.error("Failed to send email via SMTP", e);
+            return EmailResult.failure("SEND_FAILED", e.getMessage());
+        }
+    }
 
-                // Add reply-to if specified
-                if (metadata.containsKey("replyTo")) {
-                    helper.setReplyTo((String) metadata.get("replyTo"));
+    /**
+     * Send the emails over pooled connections, as many per connection as it allows.
+     */
+    @Override
+    public List<EmailResult> sendEmailBatch(List<EmailRequest> requests) {
+        if (!enabled) {
+            return Collections.nCopies(requests.size(),
+                EmailResult.failure("PROVIDER_DISABLED", "SMTP provider is not enabled"));
+        }
+        if (transportPool == null) {
+            return EmailProvider.super.sendEmailBatch(requests);
+        }
+
+        logger.info("Sending {} emails via SMTP", requests.size());
+
+        EmailResult[] results = new EmailResult[requests.size()];
+        int next = 0;
+        while (next < requests.size()) {
+            SmtpTransportPool.PooledTransport transport;
+            try {
+                transport = transportPool.borrow();
+            } catch (MessagingException e) {
+                logger.error("Failed to get SMTP connection", e);
+                for (int i = next; i < results.length; i++) {
+                    results[i] = EmailResult.failure("SEND_FAILED", e.getMessage());
                 }
+                break;
             }
 
-            // Add attachments
-            if (attachments != null && !attachments.isEmpty()) {
-                for (Attachment attachment : attachments) {
-                    helper.addAttachment(
-                        attachment.getFilename(),
-                        () -> new java.io.ByteArrayInputStream(attachment.getContent()),
-                        attachment.getContentType()
-                    );
+            boolean broken = false;
+            try {
+                while (next < requests.size() && transport.hasCapacity() && !broken) {
+                    EmailRequest request = requests.get(next);
+                    results[next] = sendOver(transport, request);
+                    broken = results[next] == null;
+                    if (broken) {
+                        results[next] = EmailResult.failure("SEND_FAILED", "SMTP connection failed");
+                    }
+                    next++;
                 }
+            } finally {
+                transportPool.release(transport, broken);
             }
-
-            // Send email
-            mailSender.send(mimeMessage);
-
-            logger.info("Email sent successfully via SMTP. Message ID: {}", messageId);
-
-            Map<String, Object> resultMetadata = new HashMap<>();
-            resultMetadata.put("provider", "SMTP");
-            resultMetadata.put("messageId", messageId);
-            resultMetadata.put("from", fromEmail);
-            resultMetadata.put("to", to);
-
-            return EmailResult.success(messageId, resultMetadata);
-
-        } catch (MessagingException | UnsupportedEncodingException e) {
-            logger.error("Failed to send email via SMTP", e);
-            return EmailResult.failure("SEND_FAILED", e.getMessage());
         }
+
+        return Arrays.asList(results);
     }
 
     @Override
@@ -180,7 +217,7 @@ public class SmtpEmailProvider implements EmailProvider {
             mimeMessage.setHeader("Message-ID", messageId + "@" + fromEmail.split("@")[1]);
 
             // Send email
-            mailSender.send(mimeMessage);
+            deliver(mimeMessage);
 
             logger.info("Bulk email sent successfully via SMTP. Message ID: {}", messageId);
 
@@ -194,9 +231,180 @@ public class SmtpEmailProvider implements EmailProvider {
 
             return EmailResult.success(messageId, resultMetadata);
 
+        } catch (SendFailedException e) {
+            logger.warn("SMTP server rejected bulk email: {}", e.getMessage());
+            return EmailResult.failure(ProviderStatusException.REJECTED, e.getMessage());
         } catch (MessagingException | UnsupportedEncodingException e) {
             logger.error("Failed to send bulk email via SMTP", e);
             return EmailResult.failure("SEND_FAILED", e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Close connections idle longer than {@code ums.email.smtp.pool.idle-timeout-ms}.
+     */
+    @Scheduled(fixedDelayString = "${ums.email.smtp.pool.evict-interval-ms:30000}")
+    public void evictIdleConnections() {
+        if (transportPool != null) {
+            transportPool.evictIdle();
+        }
+    }
+
+    @PreDestroy
+    public void closeConnections() {
+        if (transportPool != null) {
+            transportPool.shutdown();
+        }
+    }
+
+    private MimeMessage buildMessage(String messageId, String to, String subject, String body, boolean isHtml,
+                                     List<Attachment> attachments, Map<String, Object> metadata)
+            throws MessagingException, UnsupportedEncodingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+
+        // Set basic properties
+        helper.setFrom(fromEmail, fromName);
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(body, isHtml);
+
+        // Add custom headers
+        mimeMessage.setHeader("Message-ID", messageId + "@" + fromEmail.split("@")[1]);
+
+        if (metadata != null) {
+            // Add custom headers from metadata
+            if (metadata.containsKey("headers")) {
+                @SuppressWarnings("unchecked")
+                Map<String, String> headers = (Map<String, String>) metadata.get("headers");
+                headers.forEach((key, value) -> {
+                    try {
+                        mimeMessage.setHeader(key, value);
+                    } catch (MessagingException e) {
+                        logger.warn("Failed to set header {}: {}", key, value);
+                    }
+                });
+            }
+
+            // Add reply-to if specified
+            if (metadata.containsKey("replyTo")) {
+                helper.setReplyTo((String) metadata.get("replyTo"));
+            }
+        }
+
+        // Add attachments
+        if (attachments != null && !attachments.isEmpty()) {
+            for (Attachment attachment : attachments) {
+                helper.addAttachment(
+                    attachment.getFilename(),
+                    () -> new java.io.ByteArrayInputStream(attachment.getContent()),
+                    attachment.getContentType()
+                );
+            }
+        }
+
+        return mimeMessage;
+    }
+
+    /**
+     * Send one batch entry over a borrowed connection.
+     *
+     * @return The result, or null if the connection failed and must be discarded
+     */
+    private EmailResult sendOver(SmtpTransportPool.PooledTransport transport, EmailRequest request) {
+        String messageId = "smtp-" + UUID.randomUUID().toString();
+        MimeMessage mimeMessage;
+        try {
+            mimeMessage = buildMessage(messageId, request.getTo(), request.getSubject(),
+                request.getBody(), request.isHtml(), null, request.getMetadata());
+        } catch (MessagingException | UnsupportedEncodingException e) {
+            logger.error("Failed to build email to {}", request.getTo(), e);
+            return EmailResult.failure("SEND_FAILED", e.getMessage());
+        }
+
+        try {
+            transport.send(mimeMessage);
+            return successResult(messageId, request.getTo());
+        } catch (SendFailedException e) {
+            // Recipient rejected; the connection is still good
+            logger.warn("SMTP server rejected email to {}: {}", request.getTo(), e.getMessage());
+            return EmailResult.failure(ProviderStatusException.REJECTED, e.getMessage());
+        } catch (MessagingException e) {
+            logger.error("Failed to send email via SMTP", e);
+            return null;
+        }
+    }
+
+    private EmailResult successResult(String messageId, String to) {
+        Map<String, Object> resultMetadata = new HashMap<>();
+        resultMetadata.put("provider", "SMTP");
+        resultMetadata.put("messageId", messageId);
+        resultMetadata.put("from", fromEmail);
+        resultMetadata.put("to", to);
+
+        return EmailResult.success(messageId, resultMetadata);
+    }
+
+    /**
+     * Send one message over a pooled connection, or through the mail sender when
+     * pooling is off.
+     */
+    private void deliver(MimeMessage mimeMessage) throws MessagingException {
+        if (transportPool == null) {
+            mailSender.send(mimeMessage);
+            return;
+        }
+
+        SmtpTransportPool.PooledTransport transport = transportPool.borrow();
+        boolean broken = false;
+        try {
+            transport.send(mimeMessage);
+        } catch (SendFailedException e) {
+            throw e;
+        } catch (MessagingException e) {
+            broken = true;
+            throw e;
+        } finally {
+            transportPool.release(transport, broken);
+        }
+    }
+
+    private Transport connect(JavaMailSenderImpl senderImpl) throws MessagingException {
+        Transport transport = senderImpl.getSession().getTransport(
+            senderImpl.getProtocol() != null ? senderImpl.getProtocol() : "smtp");
+
+        // Same as JavaMailSenderImpl: no credentials means no AUTH
+        String username = senderImpl.getUsername();
+        String password = senderImpl.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            if ("".equals(password)) {
+                password = null;
+            }
+        }
+
+        transport.connect(senderImpl.getHost(), senderImpl.getPort(), username, password);
+        return transport;
+    }
+
+    private static void registerPoolMetrics(MeterRegistry meterRegistry, SmtpTransportPool pool) {
+        Gauge.builder("ums.smtp.pool.active", pool, SmtpTransportPool::getActive)
+            .description("SMTP connections in use")
+            .register(meterRegistry);
+        Gauge.builder("ums.smtp.pool.idle", pool, SmtpTransportPool::getIdle)
+            .description("Open SMTP connections waiting to be reused")
+            .register(meterRegistry);
+        Gauge.builder("ums.smtp.pool.max", pool, SmtpTransportPool::getMaxSize)
+            .description("Maximum SMTP connections")
+            .register(meterRegistry);
+        FunctionCounter.builder("ums.smtp.pool.connections.created", pool, SmtpTransportPool::getCreated)
+            .description("SMTP connections opened")
+            .register(meterRegistry);
+        FunctionCounter.builder("ums.smtp.pool.connections.closed", pool, SmtpTransportPool::getClosed)
+            .description("SMTP connections closed")
+            .register(meterRegistry);
+        FunctionCounter.builder("ums.smtp.pool.messages", pool, SmtpTransportPool::getMessagesSent)
+            .description("Messages sent over pooled SMTP connections")
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,252 @@
+package com.mindshift.ums.service.adapter.provider.impl;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded pool of connected, authenticated SMTP transports.
+ *
+ * Connecting to an SMTP server costs a TCP handshake, STARTTLS and AUTH, so idle
+ * connections are kept open and reused, most recently used first. A connection idle
+ * for longer than {@code validateAfterIdleMs} is checked with NOOP before it is handed
+ * out. A connection is closed instead of being returned once it has sent
+ * {@code maxMessagesPerConnection} messages or is older than {@code maxAgeMs}, since
+ * many servers cap both, and idle connections are closed by {@link #evictIdle()}.
+ */
+public class SmtpTransportPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    /**
+     * Opens a new connected transport.
+     */
+    @FunctionalInterface
+    public interface TransportConnector {
+        Transport connect() throws MessagingException;
+    }
+
+    private final TransportConnector connector;
+    private final int maxSize;
+    private final int maxMessagesPerConnection;
+    private final long maxAgeMs;
+    private final long validateAfterIdleMs;
+    private final long idleTimeoutMs;
+    private final long borrowTimeoutMs;
+    private final LongSupplier clock;
+
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong closed = new AtomicLong();
+    private final AtomicLong messagesSent = new AtomicLong();
+
+    public SmtpTransportPool(TransportConnector connector, int maxSize, int maxMessagesPerConnection,
+                             long maxAgeMs, long validateAfterIdleMs, long idleTimeoutMs, long borrowTimeoutMs,
+                             LongSupplier clock) {
+        this.connector = connector;
+        this.maxSize = maxSize;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.maxAgeMs = maxAgeMs;
+        this.validateAfterIdleMs = validateAfterIdleMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.clock = clock;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Take a connected transport, opening one if none is idle.
+     * The transport must be given back with {@link #release(PooledTransport, boolean)}.
+     *
+     * @return A connected transport
+     * @throws MessagingException if no transport is free in time or connecting fails
+     */
+    public PooledTransport borrow() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("No SMTP connection free within " + borrowTimeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+
+        try {
+            PooledTransport pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    return pooled;
+                }
+                close(pooled);
+            }
+            return open();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Give a transport back to the pool.
+     *
+     * @param pooled The transport from {@link #borrow()}
+     * @param broken Whether the connection failed and must not be reused
+     */
+    public void release(PooledTransport pooled, boolean broken) {
+        try {
+            if (broken || pooled.messagesSent >= maxMessagesPerConnection || isTooOld(pooled)) {
+                close(pooled);
+            } else {
+                pooled.lastUsedAt = clock.getAsLong();
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Close connections that have been idle longer than the idle timeout.
+     * Idle connections are kept most recently used first, so the stale ones are at the tail.
+     */
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        Iterator<PooledTransport> iterator = idle.descendingIterator();
+        while (iterator.hasNext()) {
+            PooledTransport pooled = iterator.next();
+            if (now - pooled.lastUsedAt < idleTimeoutMs) {
+                break;
+            }
+            if (idle.removeLastOccurrence(pooled)) {
+                close(pooled);
+            }
+        }
+    }
+
+    /**
+     * Close every idle connection.
+     */
+    public void shutdown() {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            close(pooled);
+        }
+    }
+
+    public int getActive() {
+        return maxSize - permits.availablePermits();
+    }
+
+    public int getIdle() {
+        return idle.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getCreated() {
+        return created.get();
+    }
+
+    public long getClosed() {
+        return closed.get();
+    }
+
+    public long getMessagesSent() {
+        return messagesSent.get();
+    }
+
+    private PooledTransport open() throws MessagingException {
+        Transport transport = connector.connect();
+        created.incrementAndGet();
+        logger.debug("Opened SMTP connection ({} open)", created.get() - closed.get());
+        long now = clock.getAsLong();
+        return new PooledTransport(transport, now);
+    }
+
+    private boolean isUsable(PooledTransport pooled) {
+        if (isTooOld(pooled)) {
+            return false;
+        }
+        if (clock.getAsLong() - pooled.lastUsedAt < validateAfterIdleMs) {
+            return true;
+        }
+        try {
+            // SMTPTransport answers this with a NOOP round trip
+            return pooled.transport.isConnected();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private boolean isTooOld(PooledTransport pooled) {
+        return clock.getAsLong() - pooled.createdAt >= maxAgeMs;
+    }
+
+    private void close(PooledTransport pooled) {
+        closed.incrementAndGet();
+        try {
+            pooled.transport.close();
+        } catch (Exception e) {
+            logger.debug("Failed to close SMTP connection cleanly", e);
+        }
+    }
+
+    /**
+     * A pooled connection and its usage.
+     */
+    public final class PooledTransport {
+        private final Transport transport;
+        private final long createdAt;
+        private long lastUsedAt;
+        private int messagesSent;
+
+        private PooledTransport(Transport transport, long createdAt) {
+            this.transport = transport;
+            this.createdAt = createdAt;
+            this.lastUsedAt = createdAt;
+        }
+
+        /**
+         * Send a message over this connection. The Message-ID header set by the caller
+         * is kept, as {@code JavaMailSenderImpl} does.
+         *
+         * @param message The message
+         * @throws MessagingException if sending fails
+         */
+        public void send(MimeMessage message) throws MessagingException {
+            if (message.getSentDate() == null) {
+                message.setSentDate(new Date());
+            }
+            String messageId = message.getMessageID();
+            message.saveChanges();
+            if (messageId != null) {
+                message.setHeader("Message-ID", messageId);
+            }
+
+            messagesSent++;
+            transport.sendMessage(message, message.getAllRecipients());
+            SmtpTransportPool.this.messagesSent.incrementAndGet();
+        }
+
+        /**
+         * @return Whether this connection may send another message before it is rotated
+         */
+        public boolean hasCapacity() {
+            return messagesSent < maxMessagesPerConnection;
+        }
+    }
+}
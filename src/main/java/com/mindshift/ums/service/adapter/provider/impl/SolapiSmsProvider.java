@@ -1,5 +1,7 @@
 package com.mindshift.ums.service.adapter.provider.impl;
 
+import com.mindshift.ums.config.ProviderHttpClientFactory;
+import com.mindshift.ums.service.adapter.provider.ProviderStatusException;
 import com.mindshift.ums.service.adapter.provider.SmsProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +38,7 @@ public class SolapiSmsProvider implements SmsProvider {
     private final boolean enabled;
 
     public SolapiSmsProvider(
+            ProviderHttpClientFactory httpClients,
             @Value("${ums.sms.solapi.api-key:${ums.sms.api-key:}}") String apiKey,
             @Value("${ums.sms.solapi.api-secret:${ums.sms.api-secret:}}") String apiSecret,
             @Value("${ums.sms.solapi.from-number:${ums.sms.from-number:}}") String fromNumber,
@@ -47,7 +50,7 @@ public class SolapiSmsProvider implements SmsProvider {
         this.fromNumber = fromNumber;
         this.enabled = enabled && !apiKey.isEmpty() && !apiSecret.isEmpty();
 
-        this.webClient = WebClient.builder()
+        this.webClient = httpClients.builder("solapi")
             .baseUrl(apiUrl)
             .defaultHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
             .build();
@@ -101,7 +104,8 @@ public class SolapiSmsProvider implements SmsProvider {
                     clientResponse.bodyToMono(String.class)
                         .flatMap(body -> {
                             logger.error("Solapi API error: {} - {}", clientResponse.statusCode(), body);
-                            return Mono.error(new RuntimeException("Solapi API error: " + body));
+                            return Mono.error(new ProviderStatusException(
+                                clientResponse.statusCode().value(), "Solapi API error: " + body));
                         })
                 )
                 .bodyToMono(SolapiResponse.class)
@@ -124,13 +128,135 @@ public class SolapiSmsProvider implements SmsProvider {
 
         } catch (Exception e) {
             logger.error("Failed to send SMS via Solapi", e);
-            return SmsResult.failure("SEND_FAILED", e.getMessage());
+            return SmsResult.failure(ProviderStatusException.errorCodeOf(e), e.getMessage());
         }
     }
 
+    @Override
+    public List<SmsResult> sendSmsBatch(List<SmsRequest> requests) {
+        if (!enabled) {
+            return failAll(requests.size(), "PROVIDER_DISABLED", "Solapi provider is not enabled");
+        }
+        if (requests.size() == 1) {
+            SmsRequest request = requests.get(0);
+            return List.of(sendSms(request.getPhoneNumber(), request.getTitle(), request.getMessage(), request.getMetadata()));
+        }
+
+        logger.info("Sending {} SMS messages via Solapi group send", requests.size());
+
+        try {
+            List<Map<String, Object>> messages = new ArrayList<>(requests.size());
+            // Result entries carry the recipient, not the request index; several requests may share one
+            Map<String, Deque<Integer>> indexesByRecipient = new HashMap<>();
+            for (int i = 0; i < requests.size(); i++) {
+                SmsRequest request = requests.get(i);
+                Map<String, Object> messageInfo = buildMessageInfo(request.getPhoneNumber(), request.getTitle(), request.getMessage());
+                messages.add(messageInfo);
+                indexesByRecipient.computeIfAbsent(recipientKey((String) messageInfo.get("to")), to -> new ArrayDeque<>())
+                    .add(i);
+            }
+
+            Map<String, Object> requestBody = new HashMap<>();
+            requestBody.put("messages", messages);
+
+            String timestamp = String.valueOf(Instant.now().toEpochMilli());
+            String signature = generateSignature(timestamp);
+
+            SolapiGroupResponse response = webClient.post()
+                .uri("/messages/v4/send-many/detail")
+                .header("Authorization", "HMAC-SHA256 apiKey=" + apiKey + ", date=" + timestamp + ", signature=" + signature)
+                .bodyValue(requestBody)
+                .retrieve()
+                .onStatus(status -> status.value() >= 400, clientResponse ->
+                    clientResponse.bodyToMono(String.class)
+                        .flatMap(body -> {
+                            logger.error("Solapi API error: {} - {}", clientResponse.statusCode(), body);
+                            return Mono.error(new ProviderStatusException(
+                                clientResponse.statusCode().value(), "Solapi API error: " + body));
+                        })
+                )
+                .bodyToMono(SolapiGroupResponse.class)
+                .timeout(Duration.ofSeconds(30))
+                .block();
+
+            if (response == null || response.groupInfo == null) {
+                return failAll(requests.size(), "SEND_FAILED", "Invalid response from Solapi");
+            }
+
+            String groupId = response.groupInfo.groupId;
+            SmsResult[] results = new SmsResult[requests.size()];
+
+            if (response.messageList != null) {
+                for (SolapiMessageResult accepted : response.messageList) {
+                    Integer index = nextIndex(indexesByRecipient, accepted.to);
+                    if (index != null) {
+                        Map<String, Object> resultMetadata = new HashMap<>();
+                        resultMetadata.put("provider", "SOLAPI");
+                        resultMetadata.put("groupId", groupId);
+                        resultMetadata.put("messageId", accepted.messageId);
+                        resultMetadata.put("statusCode", accepted.statusCode);
+                        results[index] = SmsResult.success(
+                            accepted.messageId != null ? accepted.messageId : groupId, resultMetadata);
+                    }
+                }
+            }
+            if (response.failedMessageList != null) {
+                for (SolapiMessageResult rejected : response.failedMessageList) {
+                    Integer index = nextIndex(indexesByRecipient, rejected.to);
+                    if (index != null) {
+                        results[index] = SmsResult.failure("PROVIDER_REJECTED",
+                            rejected.statusCode + ": " + rejected.statusMessage);
+                    }
+                }
+            }
+
+            int missing = 0;
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null) {
+                    results[i] = SmsResult.failure("SEND_FAILED", "No result from Solapi for this recipient");
+                    missing++;
+                }
+            }
+            if (missing > 0) {
+                logger.warn("Solapi group {} returned no result for {} of {} messages", groupId, missing, requests.size());
+            }
+
+            logger.info("Solapi group send completed. Group ID: {}", groupId);
+            return Arrays.asList(results);
+
+        } catch (Exception e) {
+            logger.error("Failed to send SMS batch via Solapi", e);
+            return failAll(requests.size(), ProviderStatusException.errorCodeOf(e), e.getMessage());
+        }
+    }
+
+    private Integer nextIndex(Map<String, Deque<Integer>> indexesByRecipient, String to) {
+        Deque<Integer> indexes = to != null ? indexesByRecipient.get(recipientKey(to)) : null;
+        return indexes != null ? indexes.poll() : null;
+    }
+
+    private String recipientKey(String to) {
+        // Solapi may echo the number with or without the leading 0
+        return to.replaceAll("\\D", "").replaceFirst("^0+", "");
+    }
+
+    private List<SmsResult> failAll(int count, String errorCode, String errorMessage) {
+        return Collections.nCopies(count, SmsResult.failure(errorCode, errorMessage));
+    }
+
     private Map<String, Object> buildRequestBody(String phoneNumber, String title, String message) {
         Map<String, Object> requestBody = new HashMap<>();
 
+        // Add message to array
+        List<Map<String, Object>> messages = new ArrayList<>();
+        messages.add(buildMessageInfo(phoneNumber, title, message));
+
+        requestBody.put("messages", messages);
+
+        return requestBody;
+    }
+
+    private Map<String, Object> buildMessageInfo(String phoneNumber, String title, String message) {
         // Message info
         Map<String, Object> messageInfo = new HashMap<>();
         messageInfo.put("to", normalizePhoneNumber(phoneNumber));
@@ -146,13 +272,7 @@ public class SolapiSmsProvider implements SmsProvider {
             messageInfo.put("subject", title);
         }
 
-        // Add message to array
-        List<Map<String, Object>> messages = new ArrayList<>();
-        messages.add(messageInfo);
-
-        requestBody.put("messages", messages);
-
-        return requestBody;
+        return messageInfo;
     }
 
     private String determineMessageType(String message) {
@@ -207,4 +327,25 @@ public class SolapiSmsProvider implements SmsProvider {
         public String type;
         public Map<String, Object> results;
     }
+
+    /**
+     * Solapi group send response structure
+     */
+    private static class SolapiGroupResponse {
+        public GroupInfo groupInfo;
+        public List<SolapiMessageResult> messageList;
+        public List<SolapiMessageResult> failedMessageList;
+
+        public static class GroupInfo {
+            public String groupId;
+            public String status;
+        }
+    }
+
+    private static class SolapiMessageResult {
+        public String messageId;
+        public String to;
+        public String statusCode;
+        public String statusMessage;
+    }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.mindshift.ums.service.adapter.provider.impl;
 
+import com.mindshift.ums.config.ProviderHttpClientFactory;
+import com.mindshift.ums.service.adapter.provider.ProviderStatusException;
 import com.mindshift.ums.service.adapter.provider.SmsProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +36,7 @@ public class TwilioSmsProvider implements SmsProvider {
     private final boolean enabled;
 
     public TwilioSmsProvider(
+            ProviderHttpClientFactory httpClients,
             @Value("${ums.sms.twilio.account-sid:}") String accountSid,
             @Value("${ums.sms.twilio.auth-token:}") String authToken,
             @Value("${ums.sms.twilio.from-number:}") String fromNumber,
@@ -49,7 +52,7 @@ public class TwilioSmsProvider implements SmsProvider {
         String base64Credentials = Base64.getEncoder()
             .encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
 
-        this.webClient = WebClient.builder()
+        this.webClient = httpClients.builder("twilio")
             .baseUrl(apiUrl)
             .defaultHeader("Authorization", "Basic " + base64Credentials)
             .defaultHeader("Content-Type", MediaType.APPLICATION_FORM_URLENCODED_VALUE)
@@ -95,14 +98,15 @@ public class TwilioSmsProvider implements SmsProvider {
             String formData = buildFormData(phoneNumber, message, metadata);
 
             TwilioResponse response = webClient.post()
-                .uri("/2010-04-01/Accounts/" + accountSid + "/Messages.json")
+                .uri("/2010-04-01/Accounts/{accountSid}/Messages.json", accountSid)
                 .bodyValue(formData)
                 .retrieve()
                 .onStatus(status -> status.value() >= 400, clientResponse ->
                     clientResponse.bodyToMono(String.class)
                         .flatMap(body -> {
                             logger.error("Twilio API error: {} - {}", clientResponse.statusCode(), body);
-                            return Mono.error(new RuntimeException("Twilio API error: " + body));
+                            return Mono.error(new ProviderStatusException(
+                                clientResponse.statusCode().value(), "Twilio API error: " + body));
                         })
                 )
                 .bodyToMono(TwilioResponse.class)
@@ -126,7 +130,7 @@ public class TwilioSmsProvider implements SmsProvider {
 
         } catch (Exception e) {
             logger.error("Failed to send SMS via Twilio", e);
-            return SmsResult.failure("SEND_FAILED", e.getMessage());
+            return SmsResult.failure(ProviderStatusException.errorCodeOf(e), e.getMessage());
         }
     }
 
@@ -138,7 +142,7 @@ public class TwilioSmsProvider implements SmsProvider {
 
         try {
             TwilioResponse response = webClient.get()
-                .uri("/2010-04-01/Accounts/" + accountSid + "/Messages/" + messageId + ".json")
+                .uri("/2010-04-01/Accounts/{accountSid}/Messages/{messageSid}.json", accountSid, messageId)
                 .retrieve()
                 .bodyToMono(TwilioResponse.class)
                 .timeout(Duration.ofSeconds(10))
@@ -1,5 +1,14 @@
 package com.mindshift.ums.service.kafka;
 
+import com.mindshift.ums.event.DeliveryStatusEvent;
+import com.mindshift.ums.event.MessageRequestedEvent;
+import com.mindshift.ums.event.MessageRetryEvent;
+import com.mindshift.ums.event.MessageStatusChangeEvent;
+import com.mindshift.ums.event.TenantActivityEvent;
+import com.mindshift.ums.event.UmsEvent;
+import com.mindshift.ums.repository.MessageJdbcRepository;
+import com.mindshift.ums.repository.OutboxRepository;
+import com.mindshift.ums.service.retry.RetryScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,52 +17,72 @@ import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 /**
  * Service for producing Kafka events related to UMS operations.
+ *
+ * Events are typed records from {@code com.mindshift.ums.event}, written by the
+ * configured {@link com.mindshift.ums.event.UmsEventSerializer}.
  */
 @Service
 public class KafkaProducerService {
 
     private static final Logger logger = LoggerFactory.getLogger(KafkaProducerService.class);
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaTemplate<String, UmsEvent> kafkaTemplate;
 
-    // Topic names
-    private static final String TOPIC_MESSAGE_REQUESTED = "ums.message.requested.v1";
+    // Topic names; requested events go to the lane for their priority (see PriorityLanes)
     private static final String TOPIC_MESSAGE_DELIVERY = "ums.message.delivery.v1";
     private static final String TOPIC_MESSAGE_STATUS = "ums.message.status.v1";
     private static final String TOPIC_TENANT_ACTIVITY = "ums.tenant.activity.v1";
 
     @Autowired
-    public KafkaProducerService(KafkaTemplate<String, Object> kafkaTemplate) {
+    public KafkaProducerService(KafkaTemplate<String, UmsEvent> kafkaTemplate) {
         this.kafkaTemplate = kafkaTemplate;
     }
 
     /**
-     * Publish a message requested event.
+     * Publish message requested events relayed from the outbox, each to the lane for
+     * its priority. Records are handed to the producer back to back so they share
+     * producer batches, and the outcome is reported once for the whole batch.
      *
-     * @param requestId    The message request ID
-     * @param tenantId     The tenant ID
-     * @param channel      The channel type
-     * @param templateCode The template code
-     * @param priority     The message priority
+     * @param events Outbox events to publish
+     * @return Future completing when every record has been acknowledged
      */
-    public void publishMessageRequested(String requestId, String tenantId, String channel,
-                                      String templateCode, String priority) {
-        Map<String, Object> event = new HashMap<>();
-        event.put("type", "MESSAGE_REQUESTED");
-        event.put("requestId", requestId);
-        event.put("tenantId", tenantId);
-        event.put("channel", channel);
-        event.put("templateCode", templateCode);
-        event.put("priority", priority);
-        event.put("timestamp", LocalDateTime.now().toString());
-
-        publishEvent(TOPIC_MESSAGE_REQUESTED, requestId, event);
+    public CompletableFuture<Void> publishMessageRequestedBatch(List<OutboxRepository.OutboxEvent> events) {
+        List<CompletableFuture<SendResult<String, UmsEvent>>> futures = new ArrayList<>(events.size());
+
+        for (OutboxRepository.OutboxEvent outboxEvent : events) {
+            MessageRequestedEvent event = buildMessageRequestedEvent(
+                outboxEvent.getRequestId(),
+                outboxEvent.getTenantId(),
+                outboxEvent.getChannel(),
+                outboxEvent.getTemplateCode(),
+                outboxEvent.getPriority(),
+                outboxEvent.getCreatedAt()
+            );
+            futures.add(sendRecord(PriorityLanes.topicFor(outboxEvent.getPriority()), outboxEvent.getRequestId(), event));
+        }
+
+        return allPublished("requested lanes", futures);
+    }
+
+    // Package-private for the serialization benchmarks
+    MessageRequestedEvent buildMessageRequestedEvent(String requestId, String tenantId, String channel,
+                                                     String templateCode, String priority,
+                                                     LocalDateTime createdAt) {
+        return new MessageRequestedEvent(requestId, tenantId, channel, templateCode, priority,
+            epochMillis(createdAt), System.currentTimeMillis());
+    }
+
+    // Creation times let consumers bound lookups to the partitions holding the message
+    private static long epochMillis(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
     }
 
     /**
@@ -66,19 +95,8 @@ public class KafkaProducerService {
      */
     public void publishDeliveryStatus(String providerMessageId, String status,
                                     String errorCode, String errorMessage) {
-        Map<String, Object> event = new HashMap<>();
-        event.put("type", "DELIVERY_STATUS");
-        event.put("providerMessageId", providerMessageId);
-        event.put("status", status);
-        event.put("timestamp", LocalDateTime.now().toString());
-
-        if (errorCode != null) {
-            event.put("errorCode", errorCode);
-        }
-        if (errorMessage != null) {
-            event.put("errorMessage", errorMessage);
-        }
-
+        DeliveryStatusEvent event = new DeliveryStatusEvent(providerMessageId, status, errorCode, errorMessage,
+            System.currentTimeMillis());
         publishEvent(TOPIC_MESSAGE_DELIVERY, providerMessageId, event);
     }
 
@@ -91,17 +109,50 @@ public class KafkaProducerService {
      * @param tenantId    The tenant ID
      */
     public void publishMessageStatusChange(String requestId, String oldStatus, String newStatus, String tenantId) {
-        Map<String, Object> event = new HashMap<>();
-        event.put("type", "MESSAGE_STATUS_CHANGE");
-        event.put("requestId", requestId);
-        event.put("oldStatus", oldStatus);
-        event.put("newStatus", newStatus);
-        event.put("tenantId", tenantId);
-        event.put("timestamp", LocalDateTime.now().toString());
-
+        MessageStatusChangeEvent event = new MessageStatusChangeEvent(requestId, oldStatus, newStatus, tenantId,
+            System.currentTimeMillis());
         publishEvent(TOPIC_MESSAGE_STATUS, requestId, event);
     }
 
+    /**
+     * Publish status change events for a set of messages updated together.
+     * Records are handed to the producer back to back so they share producer batches.
+     *
+     * @param changes Status changes to publish
+     * @return Future completing when every record has been acknowledged
+     */
+    public CompletableFuture<Void> publishMessageStatusChangeBatch(List<MessageJdbcRepository.StatusChange> changes) {
+        List<CompletableFuture<SendResult<String, UmsEvent>>> futures = new ArrayList<>(changes.size());
+
+        long timestamp = System.currentTimeMillis();
+        for (MessageJdbcRepository.StatusChange change : changes) {
+            MessageStatusChangeEvent event = new MessageStatusChangeEvent(change.getRequestId(),
+                change.getOldStatus(), change.getNewStatus(), change.getTenantId(), timestamp);
+            futures.add(sendRecord(TOPIC_MESSAGE_STATUS, change.getRequestId(), event));
+        }
+
+        return allPublished(TOPIC_MESSAGE_STATUS, futures);
+    }
+
+    /**
+     * Publish scheduled retries to their tier topics.
+     *
+     * @param retries Retries to publish
+     * @return Future completing when every record has been acknowledged
+     */
+    public CompletableFuture<Void> publishMessageRetryBatch(List<RetryScheduler.ScheduledRetry> retries) {
+        List<CompletableFuture<SendResult<String, UmsEvent>>> futures = new ArrayList<>(retries.size());
+
+        long timestamp = System.currentTimeMillis();
+        for (RetryScheduler.ScheduledRetry retry : retries) {
+            MessageRetryEvent event = new MessageRetryEvent(retry.getRequestId(), retry.getTenantId(),
+                retry.getChannel(), retry.getAttempt(), retry.getDueAtMillis(), epochMillis(retry.getCreatedAt()), timestamp);
+            futures.add(sendRecord(retry.getTopic(), retry.getRequestId(), event));
+        }
+
+        return allPublished("retry tiers", futures);
+    }
+
     /**
      * Publish tenant activity event for monitoring and analytics.
      *
@@ -110,16 +161,8 @@ public class KafkaProducerService {
      * @param details      Activity details
      */
     public void publishTenantActivity(String tenantId, String activityType, Map<String, Object> details) {
-        Map<String, Object> event = new HashMap<>();
-        event.put("type", "TENANT_ACTIVITY");
-        event.put("tenantId", tenantId);
-        event.put("activityType", activityType);
-        event.put("timestamp", LocalDateTime.now().toString());
-
-        if (details != null) {
-            event.put("details", details);
-        }
-
+        TenantActivityEvent event = new TenantActivityEvent(tenantId, activityType, details,
+            System.currentTimeMillis());
         publishEvent(TOPIC_TENANT_ACTIVITY, tenantId, event);
     }
 
@@ -130,9 +173,9 @@ public class KafkaProducerService {
      * @param key   The message key
      * @param event The event data
      */
-    private void publishEvent(String topic, String key, Map<String, Object> event) {
+    private void publishEvent(String topic, String key, UmsEvent event) {
         try {
-            CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(topic, key, event);
+            CompletableFuture<SendResult<String, UmsEvent>> future = kafkaTemplate.send(topic, key, event);
 
             future.whenComplete((result, exception) -> {
                 if (exception != null) {
@@ -149,6 +192,30 @@ public class KafkaProducerService {
         }
     }
 
+    private CompletableFuture<SendResult<String, UmsEvent>> sendRecord(String topic, String key,
+                                                                       UmsEvent event) {
+        try {
+            return kafkaTemplate.send(topic, key, event);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletableFuture<Void> allPublished(String topic,
+                                                 List<CompletableFuture<SendResult<String, UmsEvent>>> futures) {
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+        all.whenComplete((result, exception) -> {
+            if (exception != null) {
+                long failed = futures.stream().filter(CompletableFuture::isCompletedExceptionally).count();
+                logger.error("Failed to publish {} of {} events to topic {}",
+                    failed, futures.size(), topic, exception);
+            } else {
+                logger.debug("Published {} events to topic {}", futures.size(), topic);
+            }
+        });
+        return all;
+    }
+
     /**
      * Publish events synchronously (for critical events where we need to ensure delivery).
      *
@@ -157,9 +224,9 @@ public class KafkaProducerService {
      * @param event The event data
      * @throws Exception if publishing fails
      */
-    public void publishEventSync(String topic, String key, Map<String, Object> event) throws Exception {
+    public void publishEventSync(String topic, String key, UmsEvent event) throws Exception {
         try {
-            SendResult<String, Object> result = kafkaTemplate.send(topic, key, event).get();
+            SendResult<String, UmsEvent> result = kafkaTemplate.send(topic, key, event).get();
             logger.debug("Event published synchronously to topic {} with key {}: partition={}, offset={}",
                 topic, key, result.getRecordMetadata().partition(), result.getRecordMetadata().offset());
 
@@ -2,12 +2,24 @@ package com.mindshift.ums.service.kafka;
 
 import com.mindshift.ums.domain.entity.Message;
 import com.mindshift.ums.domain.enums.MessageStatus;
+import com.mindshift.ums.event.DeliveryStatusEvent;
+import com.mindshift.ums.event.MessageRequestedEvent;
+import com.mindshift.ums.event.MessageRetryEvent;
+import com.mindshift.ums.event.UmsEvent;
+import com.mindshift.ums.metrics.StageTimers;
+import com.mindshift.ums.metrics.UmsMetrics;
+import com.mindshift.ums.repository.MessageJdbcRepository;
 import com.mindshift.ums.repository.MessageRepository;
 import com.mindshift.ums.service.adapter.ChannelAdapter;
 import com.mindshift.ums.service.adapter.ChannelAdapterService;
+import com.mindshift.ums.service.retry.RetryScheduler;
+import com.mindshift.ums.service.stats.MessageStatsService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
@@ -16,11 +28,34 @@ import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Kafka consumer for processing message events asynchronously.
+ *
+ * Requested events are consumed by the batch listeners by default
+ * ({@code ums.kafka.consumer.batch.enabled}); the per-record listener is kept for
+ * deployments that turn batching off. Only one of the two is started. Each priority
+ * lane (see {@link PriorityLanes}) has its own batch listener, consumer group and
+ * concurrency, so higher lanes get more consumers and never queue behind lower ones,
+ * while lower lanes always keep consumers of their own. Sends that fail
+ * with a transient error are retried through the retry tier topics (see
+ * {@link RetryScheduler}).
  */
 @Service
 public class MessageEventConsumer {
@@ -28,30 +63,58 @@ public class MessageEventConsumer {
     private static final Logger logger = LoggerFactory.getLogger(MessageEventConsumer.class);
 
     private final MessageRepository messageRepository;
+    private final MessageJdbcRepository messageJdbcRepository;
     private final ChannelAdapterService channelAdapterService;
+    private final Executor dispatchExecutor;
+    private final UmsMetrics umsMetrics;
+    private final RetryScheduler retryScheduler;
+    private final MessageStatsService messageStatsService;
+    private final StageTimers stageTimers;
+    private final long retryMaxPauseMs;
+    private final long redeliveryBackoffMs;
 
     @Autowired
     public MessageEventConsumer(MessageRepository messageRepository,
-                               ChannelAdapterService channelAdapterService) {
+                               MessageJdbcRepository messageJdbcRepository,
+                               ChannelAdapterService channelAdapterService,
+                               @Qualifier("channelDispatchExecutor") Executor dispatchExecutor,
+                               UmsMetrics umsMetrics,
+                               RetryScheduler retryScheduler,
+                               MessageStatsService messageStatsService,
+                               StageTimers stageTimers,
+                               @Value("${ums.retry.max-pause-ms:60000}") long retryMaxPauseMs,
+                               @Value("${ums.kafka.consumer.batch.redelivery-backoff-ms:1000}") long redeliveryBackoffMs) {
         this.messageRepository = messageRepository;
+        this.messageJdbcRepository = messageJdbcRepository;
         this.channelAdapterService = channelAdapterService;
+        this.dispatchExecutor = dispatchExecutor;
+        this.umsMetrics = umsMetrics;
+        this.retryScheduler = retryScheduler;
+        this.messageStatsService = messageStatsService;
+        this.stageTimers = stageTimers;
+        this.retryMaxPauseMs = retryMaxPauseMs;
+        this.redeliveryBackoffMs = redeliveryBackoffMs;
     }
 
     /**
      * Process message requested events to send messages through appropriate channels.
      */
-    @KafkaListener(topics = "ums.message.requested.v1", groupId = "ums-message-processor")
+    @KafkaListener(topics = {PriorityLanes.TOPIC_URGENT, PriorityLanes.TOPIC_HIGH,
+                             PriorityLanes.TOPIC_NORMAL, PriorityLanes.TOPIC_LOW},
+                   groupId = "ums-message-processor",
+                   autoStartup = "#{'${ums.kafka.consumer.batch.enabled:true}' != 'true'}")
     @Transactional
-    public void handleMessageRequested(@Payload Map<String, Object> event,
+    public void handleMessageRequested(@Payload MessageRequestedEvent event,
                                      @Header(KafkaHeaders.RECEIVED_KEY) String key,
                                      Acknowledgment acknowledgment) {
 
-        String requestId = (String) event.get("requestId");
+        String requestId = event.requestId();
         logger.info("Processing message requested event: {}", requestId);
+        long started = System.nanoTime();
 
         try {
             // Find the message in database
-            Message message = messageRepository.findByRequestId(requestId)
+            Message message = findMessage(requestId, event.createdAt())
                 .orElseThrow(() -> new RuntimeException("Message not found: " + requestId));
 
             // Skip if message is not in PENDING status
@@ -62,9 +125,19 @@ public class MessageEventConsumer {
                 return;
             }
 
+            // Don't pay for a send nobody wants any more; the expiry sweep marks it EXPIRED
+            if (message.isExpired()) {
+                logger.warn("Message {} expired at {}, skipping", requestId, message.getTtlExpiresAt());
+                umsMetrics.incrementExpiredSkipped();
+                acknowledgment.acknowledge();
+                return;
+            }
+
             // Update status to PROCESSING
             message.setStatus(MessageStatus.PROCESSING);
             messageRepository.save(message);
+            messageStatsService.recordTransition(message, MessageStatus.PENDING);
+            recordPickupDelay(message, LocalDateTime.now());
 
             // Send the message through channel adapter
             ChannelAdapter.SendResult result = channelAdapterService.sendMessage(message);
@@ -72,6 +145,7 @@ public class MessageEventConsumer {
             // Update message based on result
             updateMessageWithResult(message, result);
 
+            umsMetrics.recordMessageProcessingTime(System.nanoTime() - started);
             logger.info("Message processing completed: {} -> {}", requestId, message.getStatus());
             acknowledgment.acknowledge();
 
@@ -80,13 +154,15 @@ public class MessageEventConsumer {
 
             try {
                 // Try to update message status to FAILED
-                Message message = messageRepository.findByRequestId(requestId).orElse(null);
+                Message message = findMessage(requestId, event.createdAt()).orElse(null);
                 if (message != null) {
+                    MessageStatus previous = message.getStatus();
                     message.setStatus(MessageStatus.FAILED);
                     message.setErrorCode("PROCESSING_ERROR");
                     message.setErrorMessage(e.getMessage());
                     message.setFailedAt(LocalDateTime.now());
                     messageRepository.save(message);
+                    messageStatsService.recordTransition(message, previous);
                 }
             } catch (Exception updateError) {
                 logger.error("Failed to update message status to FAILED: {}", requestId, updateError);
@@ -97,7 +173,388 @@ public class MessageEventConsumer {
         }
     }
 
+    /**
+     * Process a poll's worth of message requested events.
+     *
+     * Messages are loaded with one query and claimed with one bulk update, so a
+     * redelivered record whose message is no longer PENDING is skipped, and so is a
+     * message whose TTL has passed. Claimed messages are sent asynchronously with many
+     * in flight at once; records sharing a Kafka key are sent sequentially in offset
+     * order. Results are written back with JDBC batching before the batch is acknowledged.
+     * This is the NORMAL lane; the other lanes below share the same processing.
+     */
+    @KafkaListener(id = "ums-message-lane-normal", topics = PriorityLanes.TOPIC_NORMAL,
+                   groupId = "ums-message-processor",
+                   containerFactory = "batchKafkaListenerContainerFactory",
+                   concurrency = "${ums.kafka.lanes.normal.concurrency:3}",
+                   autoStartup = "${ums.kafka.consumer.batch.enabled:true}")
+    public void handleMessageRequestedBatch(List<ConsumerRecord<String, UmsEvent>> records,
+                                            Acknowledgment acknowledgment) {
+        handleLaneBatch("NORMAL", records, acknowledgment);
+    }
+
+    @KafkaListener(id = "ums-message-lane-urgent", topics = PriorityLanes.TOPIC_URGENT,
+                   groupId = "ums-message-processor-urgent",
+                   containerFactory = "latencyKafkaListenerContainerFactory",
+                   concurrency = "${ums.kafka.lanes.urgent.concurrency:4}",
+                   autoStartup = "${ums.kafka.consumer.batch.enabled:true}")
+    public void handleUrgentBatch(List<ConsumerRecord<String, UmsEvent>> records,
+                                  Acknowledgment acknowledgment) {
+        handleLaneBatch("URGENT", records, acknowledgment);
+    }
+
+    @KafkaListener(id = "ums-message-lane-high", topics = PriorityLanes.TOPIC_HIGH,
+                   groupId = "ums-message-processor-high",
+                   containerFactory = "latencyKafkaListenerContainerFactory",
+                   concurrency = "${ums.kafka.lanes.high.concurrency:3}",
+                   autoStartup = "${ums.kafka.consumer.batch.enabled:true}")
+    public void handleHighBatch(List<ConsumerRecord<String, UmsEvent>> records,
+                                Acknowledgment acknowledgment) {
+        handleLaneBatch("HIGH", records, acknowledgment);
+    }
+
+    @KafkaListener(id = "ums-message-lane-low", topics = PriorityLanes.TOPIC_LOW,
+                   groupId = "ums-message-processor-low",
+                   containerFactory = "batchKafkaListenerContainerFactory",
+                   concurrency = "${ums.kafka.lanes.low.concurrency:1}",
+                   autoStartup = "${ums.kafka.consumer.batch.enabled:true}")
+    public void handleLowBatch(List<ConsumerRecord<String, UmsEvent>> records,
+                               Acknowledgment acknowledgment) {
+        handleLaneBatch("LOW", records, acknowledgment);
+    }
+
+    private void handleLaneBatch(String lane, List<ConsumerRecord<String, UmsEvent>> records,
+                                 Acknowledgment acknowledgment) {
+        logger.info("Processing batch of {} message requested events ({} lane)", records.size(), lane);
+
+        if (!processRequests(collectRequestIds(records), createdRange(records), records.size())) {
+            // Nothing was claimed, so the messages are still PENDING: have the batch delivered again
+            acknowledgment.nack(0, Duration.ofMillis(redeliveryBackoffMs));
+            return;
+        }
+
+        // Acknowledge to prevent infinite retries
+        acknowledgment.acknowledge();
+    }
+
+    /**
+     * Retry tier listeners. Each tier topic has its own container so a tier waiting for
+     * its next record to fall due never holds up another tier or the requested topic.
+     */
+    @KafkaListener(id = "ums-message-retry-1m", topics = RetryScheduler.TOPIC_RETRY_1M,
+                   groupId = "ums-message-retry", containerFactory = "batchKafkaListenerContainerFactory")
+    public void handleRetry1m(List<ConsumerRecord<String, UmsEvent>> records,
+                              Acknowledgment acknowledgment) {
+        handleRetryBatch(records, acknowledgment);
+    }
+
+    @KafkaListener(id = "ums-message-retry-5m", topics = RetryScheduler.TOPIC_RETRY_5M,
+                   groupId = "ums-message-retry", containerFactory = "batchKafkaListenerContainerFactory")
+    public void handleRetry5m(List<ConsumerRecord<String, UmsEvent>> records,
+                              Acknowledgment acknowledgment) {
+        handleRetryBatch(records, acknowledgment);
+    }
+
+    @KafkaListener(id = "ums-message-retry-30m", topics = RetryScheduler.TOPIC_RETRY_30M,
+                   groupId = "ums-message-retry", containerFactory = "batchKafkaListenerContainerFactory")
+    public void handleRetry30m(List<ConsumerRecord<String, UmsEvent>> records,
+                               Acknowledgment acknowledgment) {
+        handleRetryBatch(records, acknowledgment);
+    }
+
+    /**
+     * Process the records of a retry tier that are due. Every record in a tier has the
+     * same delay, so records become due in offset order; at the first record that is not
+     * due yet the rest of the batch is nacked and the container pauses until it is.
+     */
+    private void handleRetryBatch(List<ConsumerRecord<String, UmsEvent>> records,
+                                  Acknowledgment acknowledgment) {
+        long now = System.currentTimeMillis();
+
+        int due = 0;
+        while (due < records.size() && dueAt(records.get(due)) <= now) {
+            due++;
+        }
+
+        if (due > 0) {
+            logger.info("Processing {} due message retries", due);
+            List<ConsumerRecord<String, UmsEvent>> dueRecords = records.subList(0, due);
+            if (!processRequests(collectRequestIds(dueRecords), createdRange(dueRecords), due)) {
+                acknowledgment.nack(0, Duration.ofMillis(redeliveryBackoffMs));
+                return;
+            }
+        }
+
+        if (due < records.size()) {
+            long waitMs = Math.min(dueAt(records.get(due)) - now, retryMaxPauseMs);
+            acknowledgment.nack(due, Duration.ofMillis(Math.max(waitMs, 0)));
+        } else {
+            acknowledgment.acknowledge();
+        }
+    }
+
+    private long dueAt(ConsumerRecord<String, UmsEvent> record) {
+        return record.value() instanceof MessageRetryEvent retry ? retry.dueAt() : 0L;
+    }
+
+    /**
+     * Map request ids to their Kafka keys, keeping the first record per request id in
+     * offset order.
+     */
+    private Map<String, String> collectRequestIds(List<ConsumerRecord<String, UmsEvent>> records) {
+        Map<String, String> keysByRequestId = new LinkedHashMap<>();
+        for (ConsumerRecord<String, UmsEvent> record : records) {
+            String requestId = requestIdOf(record.value());
+            if (requestId == null) {
+                logger.warn("Skipping message event without requestId at {}-{}@{}",
+                    record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            keysByRequestId.putIfAbsent(requestId, record.key() != null ? record.key() : requestId);
+        }
+        return keysByRequestId;
+    }
+
+    private static List<Message> without(List<Message> messages, List<Message> removed) {
+        if (removed.isEmpty()) {
+            return messages;
+        }
+        Set<Long> removedIds = removed.stream().map(Message::getId).collect(Collectors.toSet());
+        return messages.stream().filter(message -> !removedIds.contains(message.getId())).toList();
+    }
+
+    private static String requestIdOf(UmsEvent event) {
+        return switch (event) {
+            case MessageRequestedEvent requested -> requested.requestId();
+            case MessageRetryEvent retry -> retry.requestId();
+            case null, default -> null;
+        };
+    }
+
+    private static long createdAtOf(UmsEvent event) {
+        return switch (event) {
+            case MessageRequestedEvent requested -> requested.createdAt();
+            case MessageRetryEvent retry -> retry.createdAt();
+            case null, default -> 0L;
+        };
+    }
+
+    /**
+     * Creation time range of the messages behind a batch of events, or null if any
+     * event does not carry it (published before events did).
+     */
+    private static CreatedRange createdRange(List<ConsumerRecord<String, UmsEvent>> records) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (ConsumerRecord<String, UmsEvent> record : records) {
+            long createdAt = createdAtOf(record.value());
+            if (createdAt == 0L) {
+                return null;
+            }
+            min = Math.min(min, createdAt);
+            max = Math.max(max, createdAt);
+        }
+        return records.isEmpty() ? null : CreatedRange.of(min, max);
+    }
+
+    /**
+     * Load the messages for a set of request ids, bounded to the partitions of their
+     * creation time when it is known. Messages the bounded query misses (a clock or zone
+     * difference between producer and consumer) are looked up again without the bound.
+     */
+    private Map<String, Message> loadMessages(Set<String> requestIds, CreatedRange range) {
+        List<Message> messages = range != null
+            ? messageRepository.findAllByRequestIdInAndCreatedAtBetween(requestIds, range.from(), range.to())
+            : messageRepository.findAllByRequestIdIn(requestIds);
+        Map<String, Message> messagesByRequestId = messages.stream()
+            .collect(Collectors.toMap(Message::getRequestId, Function.identity()));
+
+        if (range != null && messagesByRequestId.size() < requestIds.size()) {
+            Set<String> missing = new HashSet<>(requestIds);
+            missing.removeAll(messagesByRequestId.keySet());
+            messageRepository.findAllByRequestIdIn(missing)
+                .forEach(message -> messagesByRequestId.putIfAbsent(message.getRequestId(), message));
+        }
+        return messagesByRequestId;
+    }
+
+    private Optional<Message> findMessage(String requestId, long createdAtMillis) {
+        if (createdAtMillis != 0L) {
+            CreatedRange range = CreatedRange.of(createdAtMillis, createdAtMillis);
+            Optional<Message> message =
+                messageRepository.findByRequestIdAndCreatedAtBetween(requestId, range.from(), range.to());
+            if (message.isPresent()) {
+                return message;
+            }
+        }
+        return messageRepository.findByRequestId(requestId);
+    }
+
+    /**
+     * Load, claim, dispatch and write back the messages for a set of request ids.
+     * Failures that qualify for a retry are handed to the retry tiers.
+     *
+     * @return false if processing failed before the messages were claimed; they are
+     *         still PENDING and nothing else picks them up, so the records must be
+     *         delivered again
+     */
+    private boolean processRequests(Map<String, String> keysByRequestId, CreatedRange createdRange, int recordCount) {
+        if (keysByRequestId.isEmpty()) {
+            return true;
+        }
+
+        long started = System.nanoTime();
+        List<Message> claimed = List.of();
+        boolean claimRecorded = false;
+        boolean resultsRecorded = false;
+        try {
+            // Load all messages with one IN query
+            Map<String, Message> messagesByRequestId = loadMessages(keysByRequestId.keySet(), createdRange);
+
+            List<Message> pending = new ArrayList<>();
+            for (String requestId : keysByRequestId.keySet()) {
+                Message message = messagesByRequestId.get(requestId);
+                if (message == null) {
+                    logger.error("Message not found: {}", requestId);
+                } else if (message.getStatus() != MessageStatus.PENDING) {
+                    logger.warn("Message {} is not in PENDING status, skipping. Current status: {}",
+                        requestId, message.getStatus());
+                } else if (message.isExpired()) {
+                    // Left PENDING for the expiry sweep, which marks it EXPIRED
+                    logger.warn("Message {} expired at {}, skipping", requestId, message.getTtlExpiresAt());
+                    umsMetrics.incrementExpiredSkipped();
+                } else {
+                    pending.add(message);
+                }
+            }
+
+            // Move to PROCESSING with one bulk update; anything claimed elsewhere drops out
+            Set<Long> claimedIds = new HashSet<>(messageJdbcRepository.claimForProcessing(pending));
+            claimRecorded = true;
+            claimed = keysByRequestId.keySet().stream()
+                .map(messagesByRequestId::get)
+                .filter(Objects::nonNull)
+                .filter(message -> claimedIds.contains(message.getId()))
+                .toList();
+            claimed.forEach(message -> message.setStatus(MessageStatus.PROCESSING));
+            messageStatsService.recordTransitions(claimed, MessageStatus.PENDING);
+            LocalDateTime pickedUpAt = LocalDateTime.now();
+            claimed.forEach(message -> recordPickupDelay(message, pickedUpAt));
+
+            dispatchBatch(claimed, keysByRequestId, started);
+
+            // Write results back with JDBC batching; retryable failures go back to PENDING
+            List<Message> retrying = retryScheduler.prepareRetries(claimed);
+            long mark = stageTimers.start();
+            List<Message> expiredInFlight = messageJdbcRepository.updateSendResults(claimed, MessageStatus.PROCESSING);
+            stageTimers.record(StageTimers.Stage.STATUS_WRITE, null, null, mark);
+            if (!expiredInFlight.isEmpty()) {
+                // The expiry sweep took these mid-send and recorded the transition; their results are dropped
+                logger.warn("{} messages expired while being sent, results not written", expiredInFlight.size());
+                umsMetrics.incrementExpiredInFlight(expiredInFlight.size());
+                claimed = without(claimed, expiredInFlight);
+                retrying = without(retrying, expiredInFlight);
+                expiredInFlight.forEach(message -> message.setStatus(MessageStatus.EXPIRED));
+            }
+            messageStatsService.recordTransitions(claimed, MessageStatus.PROCESSING);
+            resultsRecorded = true;
+            if (!retryScheduler.publishRetries(retrying)) {
+                retryScheduler.abandonRetries(retrying);
+                List<Message> expired = messageJdbcRepository.updateSendResults(retrying, MessageStatus.PENDING);
+                messageStatsService.recordTransitions(without(retrying, expired), MessageStatus.PENDING);
+            }
+
+            logger.info("Message batch processing completed: {} received, {} dispatched, {} retrying",
+                recordCount, claimed.size(), retrying.size());
+
+        } catch (Exception e) {
+            logger.error("Failed to process message batch of {} events", recordCount, e);
+            writeBackAfterFailure(claimed, e, resultsRecorded);
+        }
+        return claimRecorded;
+    }
+
+    /**
+     * Dispatch claimed messages asynchronously. Every lane (channel + Kafka key) has its
+     * own chain of sends, so unrelated messages are all in flight together while messages
+     * sharing a key go out one after another. ChannelAdapterService bounds the total
+     * number of outstanding sends and blocks this thread when the limit is reached.
+     */
+    private void dispatchBatch(List<Message> messages, Map<String, String> keysByRequestId, long started) {
+        Map<String, CompletableFuture<Void>> lanes = new LinkedHashMap<>();
+        for (Message message : messages) {
+            String lane = message.getChannel() + ":" + keysByRequestId.get(message.getRequestId());
+            CompletableFuture<Void> previous = lanes.get(lane);
+
+            CompletableFuture<ChannelAdapter.SendResult> send = previous == null
+                ? channelAdapterService.sendMessageAsync(message)
+                // Chain on a dispatch thread so a reactive adapter's event loop never waits for a permit
+                : previous.thenComposeAsync(v -> channelAdapterService.sendMessageAsync(message), dispatchExecutor);
+
+            lanes.put(lane, send.thenAccept(result -> {
+                applySendResult(message, result);
+                // Each message is timed from the start of its batch until its own result
+                umsMetrics.recordMessageProcessingTime(System.nanoTime() - started);
+            }));
+        }
+
+        CompletableFuture.allOf(lanes.values().toArray(new CompletableFuture[0])).join();
+    }
+
+    /**
+     * Persist whatever outcomes are known after a batch failure; messages that never
+     * got a result are marked FAILED. Nothing is written if the failure came after the
+     * results already were, and rows that expired in the meantime are left EXPIRED.
+     */
+    private void writeBackAfterFailure(List<Message> claimed, Exception cause, boolean resultsRecorded) {
+        if (claimed.isEmpty() || resultsRecorded) {
+            return;
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (Message message : claimed) {
+                if (message.getStatus() == MessageStatus.PROCESSING) {
+                    message.setStatus(MessageStatus.FAILED);
+                    message.setErrorCode("PROCESSING_ERROR");
+                    message.setErrorMessage(cause.getMessage());
+                    message.setFailedAt(now);
+                }
+            }
+            List<Message> expired = messageJdbcRepository.updateSendResults(claimed, MessageStatus.PROCESSING);
+            messageStatsService.recordTransitions(without(claimed, expired), MessageStatus.PROCESSING);
+        } catch (Exception updateError) {
+            logger.error("Failed to write back results for {} messages", claimed.size(), updateError);
+        }
+    }
+
     private void updateMessageWithResult(Message message, ChannelAdapter.SendResult result) {
+        applySendResult(message, result);
+        boolean retrying = retryScheduler.prepareRetry(message);
+        long mark = stageTimers.start();
+        messageRepository.save(message);
+        stageTimers.record(StageTimers.Stage.STATUS_WRITE, message.getTenantId(), message.getChannel(), mark);
+        messageStatsService.recordTransition(message, MessageStatus.PROCESSING);
+
+        if (retrying && !retryScheduler.publishRetries(List.of(message))) {
+            retryScheduler.abandonRetries(List.of(message));
+            messageRepository.save(message);
+            messageStatsService.recordTransition(message, MessageStatus.PENDING);
+        }
+    }
+
+    /**
+     * Record how long a first attempt waited between being accepted and being picked up.
+     * Retries wait out their backoff on purpose and are left out.
+     */
+    private void recordPickupDelay(Message message, LocalDateTime pickedUpAt) {
+        if (message.getCreatedAt() != null && (message.getRetries() == null || message.getRetries() == 0)) {
+            stageTimers.recordNanos(StageTimers.Stage.CONSUMER_PICKUP, message.getTenantId(), message.getChannel(),
+                Duration.between(message.getCreatedAt(), pickedUpAt).toNanos());
+        }
+    }
+
+    private void applySendResult(Message message, ChannelAdapter.SendResult result) {
         if (result.isSuccess()) {
             message.setStatus(MessageStatus.SENT);
             message.setProviderMessageId(result.getProviderMessageId());
@@ -124,8 +581,6 @@ public class MessageEventConsumer {
             logger.error("Message failed to send: {} -> {} ({})",
                 message.getRequestId(), result.getErrorCode(), result.getErrorMessage());
         }
-
-        messageRepository.save(message);
     }
 
     /**
@@ -133,12 +588,12 @@ public class MessageEventConsumer {
      */
     @KafkaListener(topics = "ums.message.delivery.v1", groupId = "ums-delivery-processor")
     @Transactional
-    public void handleDeliveryStatus(@Payload Map<String, Object> event,
+    public void handleDeliveryStatus(@Payload DeliveryStatusEvent event,
                                    @Header(KafkaHeaders.RECEIVED_KEY) String key,
                                    Acknowledgment acknowledgment) {
 
-        String providerMessageId = (String) event.get("providerMessageId");
-        String deliveryStatus = (String) event.get("status");
+        String providerMessageId = event.providerMessageId();
+        String deliveryStatus = event.status();
 
         logger.info("Processing delivery status event: {} -> {}", providerMessageId, deliveryStatus);
 
@@ -148,6 +603,7 @@ public class MessageEventConsumer {
                 .orElseThrow(() -> new RuntimeException("Message not found by provider ID: " + providerMessageId));
 
             // Update delivery status
+            MessageStatus previous = message.getStatus();
             switch (deliveryStatus.toUpperCase()) {
                 case "DELIVERED":
                     message.setStatus(MessageStatus.DELIVERED);
@@ -156,8 +612,8 @@ public class MessageEventConsumer {
 
                 case "FAILED":
                     message.setStatus(MessageStatus.FAILED);
-                    message.setErrorCode((String) event.get("errorCode"));
-                    message.setErrorMessage((String) event.get("errorMessage"));
+                    message.setErrorCode(event.errorCode());
+                    message.setErrorMessage(event.errorMessage());
                     message.setFailedAt(LocalDateTime.now());
                     break;
 
@@ -177,6 +633,7 @@ public class MessageEventConsumer {
             }
 
             messageRepository.save(message);
+            messageStatsService.recordTransition(message, previous);
 
             logger.info("Delivery status updated: {} -> {}", message.getRequestId(), deliveryStatus);
             acknowledgment.acknowledge();
@@ -186,4 +643,18 @@ public class MessageEventConsumer {
             acknowledgment.acknowledge();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Inclusive creation time range. Events carry milliseconds while created_at keeps
+     * microseconds, so the upper end covers the rest of the last millisecond.
+     */
+    private record CreatedRange(LocalDateTime from, LocalDateTime to) {
+        static CreatedRange of(long minMillis, long maxMillis) {
+            return new CreatedRange(toLocalDateTime(minMillis), toLocalDateTime(maxMillis).plusNanos(999_999));
+        }
+
+        private static LocalDateTime toLocalDateTime(long epochMillis) {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.mindshift.ums.service.kafka;
+
+import com.mindshift.ums.domain.enums.MessagePriority;
+
+/**
+ * Requested topics per message priority.
+ *
+ * Each priority has its own topic and listener container, so an URGENT message never
+ * waits behind a LOW priority campaign in the same partition. NORMAL keeps the original
+ * requested topic, so records published before lanes existed are still consumed.
+ */
+public final class PriorityLanes {
+
+    public static final String TOPIC_URGENT = "ums.message.requested.urgent.v1";
+    public static final String TOPIC_HIGH = "ums.message.requested.high.v1";
+    public static final String TOPIC_NORMAL = "ums.message.requested.v1";
+    public static final String TOPIC_LOW = "ums.message.requested.low.v1";
+
+    private PriorityLanes() {
+    }
+
+    /**
+     * Get the requested topic for a priority.
+     *
+     * @param priority Priority name; unknown or missing values go to the NORMAL lane
+     * @return Topic name
+     */
+    public static String topicFor(String priority) {
+        return topicFor(parse(priority));
+    }
+
+    /**
+     * Get the requested topic for a priority.
+     *
+     * @param priority Message priority
+     * @return Topic name
+     */
+    public static String topicFor(MessagePriority priority) {
+        return switch (priority) {
+            case URGENT -> TOPIC_URGENT;
+            case HIGH -> TOPIC_HIGH;
+            case LOW -> TOPIC_LOW;
+            default -> TOPIC_NORMAL;
+        };
+    }
+
+    /**
+     * Parse a priority name, falling back to NORMAL.
+     *
+     * @param priority Priority name
+     * @return Message priority
+     */
+    public static MessagePriority parse(String priority) {
+        if (priority == null) {
+            return MessagePriority.NORMAL;
+        }
+        try {
+            return MessagePriority.valueOf(priority);
+        } catch (IllegalArgumentException e) {
+            return MessagePriority.NORMAL;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.mindshift.ums.service.maintenance;
+
+import com.mindshift.ums.metrics.UmsMetrics;
+import com.mindshift.ums.repository.MessageJdbcRepository;
+import com.mindshift.ums.service.kafka.KafkaProducerService;
+import com.mindshift.ums.service.stats.MessageStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Expires PENDING/PROCESSING messages whose TTL has passed.
+ *
+ * Each sweep expires rows in bounded chunks, one short transaction per chunk, so a
+ * backlog of expired messages never turns into one long-running update. Chunks lock
+ * rows with {@code FOR UPDATE SKIP LOCKED}, which lets sweeps on several nodes run
+ * side by side. Status change events for a chunk are published together once the
+ * chunk has committed.
+ *
+ * The scan only looks at messages created within {@code ums.message.expiry.lookback-hours},
+ * which keeps it on recent partitions. The window is widened to at least
+ * {@code ums.message.max-ttl} plus an hour, so no message can still be unexpired when it
+ * leaves the window.
+ */
+@Service
+@ConditionalOnProperty(name = "ums.message.expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class MessageExpiryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageExpiryService.class);
+
+    private final MessageJdbcRepository messageJdbcRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final TransactionTemplate transactionTemplate;
+    private final UmsMetrics umsMetrics;
+    private final MessageStatsService messageStatsService;
+
+    private final int chunkSize;
+    private final int maxChunksPerSweep;
+    private final Duration lookback;
+
+    @Autowired
+    public MessageExpiryService(MessageJdbcRepository messageJdbcRepository,
+                                KafkaProducerService kafkaProducerService,
+                                PlatformTransactionManager transactionManager,
+                                UmsMetrics umsMetrics,
+                                MessageStatsService messageStatsService,
+                                @Value("${ums.message.expiry.chunk-size:1000}") int chunkSize,
+                                @Value("${ums.message.expiry.max-chunks-per-sweep:50}") int maxChunksPerSweep,
+                                @Value("${ums.message.expiry.lookback-hours:48}") long lookbackHours,
+                                @Value("${ums.message.max-ttl:86400}") long maxTtlSeconds) {
+        this.messageJdbcRepository = messageJdbcRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.umsMetrics = umsMetrics;
+        this.messageStatsService = messageStatsService;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerSweep = maxChunksPerSweep;
+        this.lookback = scanWindow(lookbackHours, maxTtlSeconds);
+    }
+
+    /**
+     * Expire messages chunk by chunk until none are left or the per-sweep limit is hit.
+     *
+     * @return Number of messages expired
+     */
+    @Scheduled(fixedDelayString = "${ums.message.expiry.interval-ms:5000}")
+    public int sweep() {
+        long start = System.nanoTime();
+        int total = 0;
+
+        try {
+            for (int chunk = 0; chunk < maxChunksPerSweep; chunk++) {
+                int expired = expireChunk();
+                total += expired;
+                if (expired < chunkSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Message expiry sweep failed after expiring {} messages", total, e);
+        }
+
+        umsMetrics.recordExpirySweep(System.nanoTime() - start);
+        if (total > 0) {
+            logger.info("Expired {} messages", total);
+        }
+        return total;
+    }
+
+    private int expireChunk() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime createdAfter = now.minus(lookback);
+
+        List<MessageJdbcRepository.StatusChange> changes = transactionTemplate.execute(status ->
+            messageJdbcRepository.expireChunk(now, createdAfter, chunkSize));
+
+        if (changes == null || changes.isEmpty()) {
+            return 0;
+        }
+
+        umsMetrics.incrementMessagesExpired(changes.size());
+        messageStatsService.recordStatusChanges(changes);
+        // The status is already committed; a failed publish is logged by the producer
+        kafkaProducerService.publishMessageStatusChangeBatch(changes);
+        return changes.size();
+    }
+
+    /**
+     * Creation time window a sweep must scan: the configured lookback, but never less than
+     * the longest TTL a message can have, plus an hour for sweeps that ran late.
+     *
+     * @param lookbackHours Configured lookback
+     * @param maxTtlSeconds {@code ums.message.max-ttl}
+     * @return Window to scan back from now
+     */
+    static Duration scanWindow(long lookbackHours, long maxTtlSeconds) {
+        Duration configured = Duration.ofHours(lookbackHours);
+        Duration minimum = Duration.ofSeconds(maxTtlSeconds).plusHours(1);
+        if (configured.compareTo(minimum) >= 0) {
+            return configured;
+        }
+        logger.warn("Lookback of {}h does not cover ums.message.max-ttl of {}s, scanning {}h instead",
+            lookbackHours, maxTtlSeconds, minimum.toHours());
+        return minimum;
+    }
+}
@@ -0,0 +1,187 @@
+package com.mindshift.ums.service.maintenance;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Maintains the monthly partitions of the messages and message_events tables.
+ *
+ * Partitions are created a few months ahead so inserts never fall into the default
+ * partition, and months older than the retention period are detached and then dropped
+ * or moved to the {@code ums_archive} schema. Each step runs in its own short
+ * transaction under a PostgreSQL advisory lock, so only one node does the work and
+ * inserts are blocked only for the duration of a single DDL statement.
+ */
+@Service
+public class PartitionMaintenanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    private static final String MESSAGES_TABLE = "messages";
+    private static final String EVENTS_TABLE = "message_events";
+    private static final String ARCHIVE_SCHEMA = "ums_archive";
+
+    private static final long ADVISORY_LOCK_KEY = 0x756d7370617274L; // "umspart"
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String LIST_PARTITIONS_SQL =
+        "SELECT c.relname FROM pg_inherits i " +
+        "JOIN pg_class c ON c.oid = i.inhrelid " +
+        "JOIN pg_class p ON p.oid = i.inhparent " +
+        "WHERE p.relname = ? AND c.relname LIKE ? " +
+        "ORDER BY c.relname";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int monthsAhead;
+    private final boolean retentionEnabled;
+    private final int messagesRetentionMonths;
+    private final int eventsRetentionMonths;
+    private final boolean archive;
+    private final String lockTimeout;
+
+    @Autowired
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${ums.partition.months-ahead:3}") int monthsAhead,
+                                       @Value("${ums.retention.enabled:true}") boolean retentionEnabled,
+                                       @Value("${ums.retention.messages-months:6}") int messagesRetentionMonths,
+                                       @Value("${ums.retention.events-months:6}") int eventsRetentionMonths,
+                                       @Value("${ums.retention.mode:drop}") String mode,
+                                       @Value("${ums.partition.lock-timeout:5s}") String lockTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.retentionEnabled = retentionEnabled;
+        this.messagesRetentionMonths = messagesRetentionMonths;
+        this.eventsRetentionMonths = eventsRetentionMonths;
+        this.archive = "archive".equalsIgnoreCase(mode);
+        this.lockTimeout = lockTimeout;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        runMaintenance();
+    }
+
+    /**
+     * Create upcoming partitions and apply retention to old ones.
+     */
+    @Scheduled(cron = "${ums.partition.maintenance-cron:0 15 3 * * *}", zone = "UTC")
+    public void runMaintenance() {
+        YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
+
+        try {
+            for (int i = 0; i <= monthsAhead; i++) {
+                YearMonth month = currentMonth.plusMonths(i);
+                ensurePartition(MESSAGES_TABLE, month);
+                ensurePartition(EVENTS_TABLE, month);
+            }
+
+            warnIfDefaultPartitionUsed(MESSAGES_TABLE);
+            warnIfDefaultPartitionUsed(EVENTS_TABLE);
+
+            if (retentionEnabled) {
+                applyRetention(MESSAGES_TABLE, currentMonth.minusMonths(messagesRetentionMonths));
+                applyRetention(EVENTS_TABLE, currentMonth.minusMonths(eventsRetentionMonths));
+            }
+        } catch (Exception e) {
+            logger.error("Partition maintenance failed", e);
+        }
+    }
+
+    /**
+     * Create the monthly partition of a table if it does not exist yet.
+     *
+     * @param table Partitioned table name
+     * @param month Month the partition covers (UTC)
+     */
+    public void ensurePartition(String table, YearMonth month) {
+        runLocked(() -> {
+            String partition = jdbcTemplate.queryForObject(
+                "SELECT ums_ensure_monthly_partition(?, ?)", String.class,
+                table, Date.valueOf(month.atDay(1)));
+            logger.debug("Partition ready: {}", partition);
+        });
+    }
+
+    /**
+     * Detach and drop (or archive) every monthly partition that ends on or before
+     * the start of the cutoff month.
+     *
+     * @param table       Partitioned table name
+     * @param cutoffMonth First month to keep
+     */
+    public void applyRetention(String table, YearMonth cutoffMonth) {
+        for (String partition : listMonthlyPartitions(table)) {
+            YearMonth month = parseMonth(table, partition);
+            if (month == null || !month.isBefore(cutoffMonth)) {
+                continue;
+            }
+
+            runLocked(() -> {
+                jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+                if (archive) {
+                    jdbcTemplate.execute("ALTER TABLE " + partition + " SET SCHEMA " + ARCHIVE_SCHEMA);
+                    logger.info("Archived partition {} to schema {}", partition, ARCHIVE_SCHEMA);
+                } else {
+                    jdbcTemplate.execute("DROP TABLE " + partition);
+                    logger.info("Dropped partition {}", partition);
+                }
+            });
+        }
+    }
+
+    private List<String> listMonthlyPartitions(String table) {
+        return jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class, table, table + "\\_______");
+    }
+
+    private YearMonth parseMonth(String table, String partition) {
+        try {
+            return YearMonth.parse(partition.substring(table.length() + 1), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private void warnIfDefaultPartitionUsed(String table) {
+        Boolean used = jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM " + table + "_default)", Boolean.class);
+        if (Boolean.TRUE.equals(used)) {
+            // Creating a partition whose range overlaps these rows will fail until they are moved
+            logger.warn("Default partition {}_default contains rows; partitions are not being created ahead",
+                table);
+        }
+    }
+
+    private void runLocked(Runnable action) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Boolean locked = jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY);
+            if (!Boolean.TRUE.equals(locked)) {
+                logger.debug("Partition maintenance is running on another node, skipping step");
+                return;
+            }
+            // Give up rather than queue behind long queries while holding up inserts
+            jdbcTemplate.execute("SET LOCAL lock_timeout = '" + lockTimeout + "'");
+            action.run();
+        });
+    }
+}
@@ -0,0 +1,120 @@
+package com.mindshift.ums.service.maintenance;
+
+import com.mindshift.ums.domain.entity.Message;
+import com.mindshift.ums.metrics.UmsMetrics;
+import com.mindshift.ums.repository.MessageJdbcRepository;
+import com.mindshift.ums.service.retry.RetryScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Publishes retries again for messages stuck in PENDING.
+ *
+ * A retry is committed as PENDING before its record goes to the tier topic. If the
+ * process dies in between, or the publish fails and marking the message FAILED fails
+ * too, nothing will ever pick the message up. A retry still PENDING longer than its
+ * tier delay plus {@code ums.retry.sweep.grace-ms} is taken to be lost and is
+ * published again, due at once. Duplicates are harmless: the consumer only claims
+ * PENDING messages.
+ *
+ * Each chunk is claimed and published in one transaction, so a failed publish rolls
+ * the claim back and the next sweep tries again.
+ */
+@Service
+@ConditionalOnProperty(name = "ums.retry.sweep.enabled", havingValue = "true", matchIfMissing = true)
+public class RetrySweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetrySweeper.class);
+
+    // Thresholds are passed for attempts 1, 2 and 3+, one per retry tier
+    private static final int TIERS = 3;
+
+    private final MessageJdbcRepository messageJdbcRepository;
+    private final RetryScheduler retryScheduler;
+    private final TransactionTemplate transactionTemplate;
+    private final UmsMetrics umsMetrics;
+
+    private final int chunkSize;
+    private final int maxChunksPerSweep;
+    private final Duration grace;
+    private final Duration lookback;
+
+    @Autowired
+    public RetrySweeper(MessageJdbcRepository messageJdbcRepository,
+                        RetryScheduler retryScheduler,
+                        PlatformTransactionManager transactionManager,
+                        UmsMetrics umsMetrics,
+                        @Value("${ums.retry.sweep.chunk-size:500}") int chunkSize,
+                        @Value("${ums.retry.sweep.max-chunks-per-sweep:20}") int maxChunksPerSweep,
+                        @Value("${ums.retry.sweep.grace-ms:300000}") long graceMs,
+                        @Value("${ums.retry.sweep.lookback-hours:48}") long lookbackHours,
+                        @Value("${ums.message.max-ttl:86400}") long maxTtlSeconds) {
+        this.messageJdbcRepository = messageJdbcRepository;
+        this.retryScheduler = retryScheduler;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.umsMetrics = umsMetrics;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerSweep = maxChunksPerSweep;
+        this.grace = Duration.ofMillis(graceMs);
+        this.lookback = MessageExpiryService.scanWindow(lookbackHours, maxTtlSeconds);
+    }
+
+    /**
+     * Publish stalled retries chunk by chunk until none are left or the per-sweep limit is hit.
+     *
+     * @return Number of retries published again
+     */
+    @Scheduled(fixedDelayString = "${ums.retry.sweep.interval-ms:60000}")
+    public int sweep() {
+        int total = 0;
+
+        try {
+            for (int chunk = 0; chunk < maxChunksPerSweep; chunk++) {
+                int recovered = recoverChunk();
+                total += recovered;
+                if (recovered < chunkSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Retry sweep failed after recovering {} retries", total, e);
+        }
+
+        if (total > 0) {
+            umsMetrics.incrementRetriesRecovered(total);
+            logger.warn("Published {} stalled retries again", total);
+        }
+        return total;
+    }
+
+    private int recoverChunk() {
+        LocalDateTime now = LocalDateTime.now();
+        List<LocalDateTime> stalledBefore = IntStream.rangeClosed(1, TIERS)
+            .mapToObj(attempt -> now.minus(RetryScheduler.tierDelay(attempt)).minus(grace))
+            .toList();
+        LocalDateTime createdAfter = now.minus(lookback);
+
+        Integer recovered = transactionTemplate.execute(status -> {
+            List<Message> stalled = messageJdbcRepository.claimStalledRetries(
+                stalledBefore, now, createdAfter, chunkSize);
+            if (!retryScheduler.republishRetries(stalled)) {
+                // Roll the claim back so the next sweep picks these up again
+                throw new IllegalStateException("Failed to publish " + stalled.size() + " stalled retries");
+            }
+            return stalled.size();
+        });
+        return recovered != null ? recovered : 0;
+    }
+}
@@ -0,0 +1,176 @@
+package com.mindshift.ums.service.outbox;
+
+import com.mindshift.ums.metrics.StageTimers;
+import com.mindshift.ums.metrics.UmsMetrics;
+import com.mindshift.ums.repository.OutboxRepository;
+import com.mindshift.ums.service.kafka.KafkaProducerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relays REQUESTED events from the message_events outbox to Kafka.
+ *
+ * Each worker repeatedly claims a batch of unpublished rows with
+ * {@code FOR UPDATE SKIP LOCKED}, publishes them in bulk, waits for the broker
+ * acknowledgements and marks the rows published in the same transaction. Workers on
+ * the same or other nodes skip each other's locked rows. A failed publish rolls the
+ * claim back so the rows are picked up again (at-least-once; the consumer skips
+ * messages that are no longer PENDING).
+ *
+ * Only events from the last {@code ums.outbox.relay.lookback-days} are claimed, so the
+ * claim never scans old partitions. An event left unpublished for longer than that is
+ * not relayed; set the lookback above the longest relay outage to be tolerated.
+ */
+@Component
+@ConditionalOnProperty(name = "ums.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxRepository outboxRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final TransactionTemplate transactionTemplate;
+    private final UmsMetrics umsMetrics;
+    private final StageTimers stageTimers;
+
+    private final int workers;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final long publishTimeoutMs;
+    private final int lookbackDays;
+
+    private volatile boolean running = false;
+    private ExecutorService executor;
+
+    @Autowired
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       KafkaProducerService kafkaProducerService,
+                       PlatformTransactionManager transactionManager,
+                       UmsMetrics umsMetrics,
+                       StageTimers stageTimers,
+                       @Value("${ums.outbox.relay.workers:2}") int workers,
+                       @Value("${ums.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${ums.outbox.relay.poll-interval-ms:100}") long pollIntervalMs,
+                       @Value("${ums.outbox.relay.publish-timeout-ms:10000}") long publishTimeoutMs,
+                       @Value("${ums.outbox.relay.lookback-days:7}") int lookbackDays) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.umsMetrics = umsMetrics;
+        this.stageTimers = stageTimers;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        this.publishTimeoutMs = publishTimeoutMs;
+        this.lookbackDays = lookbackDays;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        executor = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("UMS-Outbox-"));
+        for (int i = 0; i < workers; i++) {
+            executor.submit(this::runWorker);
+        }
+        logger.info("Outbox relay started with {} workers (batchSize={}, pollInterval={}ms)",
+            workers, batchSize, pollIntervalMs);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(publishTimeoutMs + pollIntervalMs, TimeUnit.MILLISECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        logger.info("Outbox relay stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Relay one batch of unpublished events.
+     *
+     * @return Number of events published
+     */
+    public int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxRepository.OutboxEvent> events = outboxRepository.claimUnpublished(
+                LocalDateTime.now().minusDays(lookbackDays), batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+
+            // One sample per batch: publish until the last broker acknowledgement
+            long mark = stageTimers.start();
+            try {
+                kafkaProducerService.publishMessageRequestedBatch(events)
+                    .get(publishTimeoutMs, TimeUnit.MILLISECONDS);
+                stageTimers.record(StageTimers.Stage.KAFKA_PUBLISH, null, null, mark);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while publishing outbox batch", e);
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to publish outbox batch of " + events.size() + " events", e);
+            }
+
+            outboxRepository.markPublished(events);
+            return events.size();
+        });
+
+        int count = relayed != null ? relayed : 0;
+        if (count > 0) {
+            umsMetrics.incrementOutboxRelayed(count);
+            logger.debug("Relayed {} outbox events", count);
+        }
+        return count;
+    }
+
+    private void runWorker() {
+        while (running) {
+            try {
+                int relayed = relayBatch();
+                if (relayed < batchSize) {
+                    // Outbox drained; wait before polling again
+                    Thread.sleep(pollIntervalMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                umsMetrics.incrementOutboxRelayFailures();
+                logger.error("Outbox relay batch failed, retrying after backoff", e);
+                try {
+                    Thread.sleep(Math.max(pollIntervalMs, 1000));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.mindshift.ums.service.retry;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.mindshift.ums.domain.entity.Message;
+import com.mindshift.ums.domain.entity.TenantConfig;
+import com.mindshift.ums.domain.enums.MessageStatus;
+import com.mindshift.ums.metrics.UmsMetrics;
+import com.mindshift.ums.repository.TenantConfigRepository;
+import com.mindshift.ums.service.kafka.KafkaProducerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules failed sends for another attempt through tiered retry topics.
+ *
+ * A failure whose error code is transient (network errors, provider outages) puts the
+ * message back to PENDING and publishes it to the retry topic for its attempt:
+ * 1 minute, 5 minutes, then 30 minutes for every later attempt. The retry topics have
+ * their own consumers, so waiting retries never hold up the requested topic. Permanent
+ * failures (invalid recipient, disabled provider) and messages that have used up their
+ * attempts stay FAILED. The attempt cap comes from the tenant's
+ * {@code max_retry_attempts} feature, falling back to {@code ums.retry.max-attempts}.
+ *
+ * A retry is committed as PENDING before it is published, so a crash in between (or a
+ * failed write-back after a failed publish) leaves it PENDING with nothing on the tier
+ * topics; {@link com.mindshift.ums.service.maintenance.RetrySweeper} publishes those again.
+ */
+@Component
+public class RetryScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryScheduler.class);
+
+    public static final String TOPIC_RETRY_1M = "ums.message.retry.1m";
+    public static final String TOPIC_RETRY_5M = "ums.message.retry.5m";
+    public static final String TOPIC_RETRY_30M = "ums.message.retry.30m";
+
+    private static final List<String> TIER_TOPICS = List.of(TOPIC_RETRY_1M, TOPIC_RETRY_5M, TOPIC_RETRY_30M);
+    private static final List<Duration> TIER_DELAYS =
+        List.of(Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofMinutes(30));
+
+    private final TenantConfigRepository tenantConfigRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final UmsMetrics umsMetrics;
+
+    private final int defaultMaxAttempts;
+    private final Set<String> retryableErrorCodes;
+    private final long publishTimeoutMs;
+
+    // Tenant attempt caps, refreshed every minute
+    private final Cache<String, Integer> maxAttemptsByTenant;
+
+    @Autowired
+    public RetryScheduler(TenantConfigRepository tenantConfigRepository,
+                          KafkaProducerService kafkaProducerService,
+                          UmsMetrics umsMetrics,
+                          @Value("${ums.retry.max-attempts:3}") int defaultMaxAttempts,
+                          @Value("${ums.retry.retryable-error-codes:SEND_FAILED,ADAPTER_ERROR,ALL_PROVIDERS_FAILED,NO_PROVIDER}")
+                          Set<String> retryableErrorCodes,
+                          @Value("${ums.retry.publish-timeout-ms:10000}") long publishTimeoutMs) {
+        this.tenantConfigRepository = tenantConfigRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.umsMetrics = umsMetrics;
+        this.defaultMaxAttempts = defaultMaxAttempts;
+        this.retryableErrorCodes = retryableErrorCodes;
+        this.publishTimeoutMs = publishTimeoutMs;
+        this.maxAttemptsByTenant = CacheBuilder.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .build();
+    }
+
+    /**
+     * Whether a failure with this error code may succeed on a later attempt.
+     *
+     * @param errorCode Error code from the send result
+     * @return true for transient failures
+     */
+    public boolean isRetryable(String errorCode) {
+        return errorCode != null && retryableErrorCodes.contains(errorCode);
+    }
+
+    /**
+     * Put every failed message that qualifies for another attempt back to PENDING and
+     * count the attempt. The caller persists the messages and then publishes the
+     * returned ones with {@link #publishRetries(List)}.
+     *
+     * @param messages Messages carrying their send outcome
+     * @return Messages scheduled for a retry
+     */
+    public List<Message> prepareRetries(List<Message> messages) {
+        List<Message> retrying = new ArrayList<>();
+        for (Message message : messages) {
+            if (prepareRetry(message)) {
+                retrying.add(message);
+            }
+        }
+        return retrying;
+    }
+
+    /**
+     * Put a failed message back to PENDING if it qualifies for another attempt.
+     *
+     * @param message Message carrying its send outcome
+     * @return true if a retry was scheduled
+     */
+    public boolean prepareRetry(Message message) {
+        if (message.getStatus() != MessageStatus.FAILED || !isRetryable(message.getErrorCode())) {
+            return false;
+        }
+
+        int attempts = message.getRetries() != null ? message.getRetries() : 0;
+        if (attempts >= maxAttempts(message.getTenantId())) {
+            logger.warn("Message {} failed after {} retries: {}", message.getRequestId(), attempts,
+                message.getErrorCode());
+            return false;
+        }
+
+        message.incrementRetry();
+        message.setStatus(MessageStatus.PENDING);
+        message.setFailedAt(null);
+        return true;
+    }
+
+    /**
+     * Publish prepared retries to their tier topics and wait for the broker.
+     *
+     * @param messages Messages returned by {@link #prepareRetries(List)}
+     * @return true if every retry was published
+     */
+    public boolean publishRetries(List<Message> messages) {
+        return publish(messages, false);
+    }
+
+    /**
+     * Publish retries again for messages left PENDING past their tier delay. Their
+     * backoff has already passed, so they are due at once.
+     *
+     * @param messages Stalled retries, carrying their attempt count
+     * @return true if every retry was published
+     */
+    public boolean republishRetries(List<Message> messages) {
+        return publish(messages, true);
+    }
+
+    /**
+     * How long a retry waits on its tier before it falls due.
+     *
+     * @param attempt Attempt number of the retry (1 for the first retry)
+     * @return Delay of the tier the attempt goes to
+     */
+    public static Duration tierDelay(int attempt) {
+        return TIER_DELAYS.get(Math.min(attempt, TIER_DELAYS.size()) - 1);
+    }
+
+    private boolean publish(List<Message> messages, boolean dueNow) {
+        if (messages.isEmpty()) {
+            return true;
+        }
+
+        long now = System.currentTimeMillis();
+        List<ScheduledRetry> retries = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            int tier = Math.min(message.getRetries(), TIER_TOPICS.size()) - 1;
+            retries.add(new ScheduledRetry(
+                TIER_TOPICS.get(tier),
+                message.getRequestId(),
+                message.getTenantId(),
+                message.getChannel().name(),
+                message.getRetries(),
+                dueNow ? now : now + TIER_DELAYS.get(tier).toMillis(),
+                message.getCreatedAt()
+            ));
+        }
+
+        try {
+            kafkaProducerService.publishMessageRetryBatch(retries).get(publishTimeoutMs, TimeUnit.MILLISECONDS);
+            umsMetrics.incrementRetriesScheduled(retries.size());
+            logger.info("Scheduled {} message retries", retries.size());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while scheduling {} message retries", retries.size(), e);
+            return false;
+        } catch (Exception e) {
+            logger.error("Failed to schedule {} message retries", retries.size(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Mark messages FAILED whose retry could not be published.
+     *
+     * @param messages Messages returned by {@link #prepareRetries(List)}
+     */
+    public void abandonRetries(List<Message> messages) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Message message : messages) {
+            message.setStatus(MessageStatus.FAILED);
+            message.setFailedAt(now);
+        }
+    }
+
+    private int maxAttempts(String tenantId) {
+        Integer cached = maxAttemptsByTenant.getIfPresent(tenantId);
+        if (cached != null) {
+            return cached;
+        }
+
+        int maxAttempts = defaultMaxAttempts;
+        try {
+            maxAttempts = tenantConfigRepository.findById(tenantId)
+                .map(TenantConfig::getMaxRetryAttempts)
+                .orElse(defaultMaxAttempts);
+        } catch (Exception e) {
+            logger.error("Failed to load retry limit for tenant: {}", tenantId, e);
+        }
+        maxAttemptsByTenant.put(tenantId, maxAttempts);
+        return maxAttempts;
+    }
+
+    /**
+     * A retry record: which tier topic it goes to and when it becomes due.
+     */
+    public static class ScheduledRetry {
+        private final String topic;
+        private final String requestId;
+        private final String tenantId;
+        private final String channel;
+        private final int attempt;
+        private final long dueAtMillis;
+        private final LocalDateTime createdAt;
+
+        public ScheduledRetry(String topic, String requestId, String tenantId, String channel,
+                              int attempt, long dueAtMillis, LocalDateTime createdAt) {
+            this.topic = topic;
+            this.requestId = requestId;
+            this.tenantId = tenantId;
+            this.channel = channel;
+            this.attempt = attempt;
+            this.dueAtMillis = dueAtMillis;
+            this.createdAt = createdAt;
+        }
+
+        public String getTopic() { return topic; }
+        public String getRequestId() { return requestId; }
+        public String getTenantId() { return tenantId; }
+        public String getChannel() { return channel; }
+        public int getAttempt() { return attempt; }
+        public long getDueAtMillis() { return dueAtMillis; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+    }
+}
@@ -0,0 +1,96 @@
+package com.mindshift.ums.service.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node-local share of a Redis token bucket.
+ *
+ * Tokens are leased from Redis in batches and handed out with a CAS loop, so the
+ * common path needs neither a lock nor a Redis round trip. Unused tokens are
+ * drained and returned to Redis by {@link RateLimitService#reconcileLocalBuckets()}.
+ */
+final class LocalTokenBucket {
+
+    private final AtomicLong tokens = new AtomicLong();
+    private final int capacity;
+
+    private volatile int remoteRemaining;
+    private volatile long leasedAtMillis;
+    private volatile long lastUsedMillis;
+
+    LocalTokenBucket(int capacity) {
+        this.capacity = capacity;
+        this.lastUsedMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Take tokens from the local lease if enough are available.
+     *
+     * @param requested Number of tokens
+     * @return true if the tokens were taken
+     */
+    boolean tryAcquire(int requested) {
+        lastUsedMillis = System.currentTimeMillis();
+        while (true) {
+            long current = tokens.get();
+            if (current < requested) {
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - requested)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Add tokens leased from Redis.
+     *
+     * @param leased          Tokens to add to the local share
+     * @param remoteRemaining Tokens left in Redis after the lease
+     */
+    void addLease(long leased, int remoteRemaining) {
+        if (leased > 0) {
+            tokens.addAndGet(leased);
+        }
+        this.remoteRemaining = remoteRemaining;
+        this.leasedAtMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Put back tokens taken by {@link #tryAcquire(int)} for a request that was
+     * rejected by another limit.
+     */
+    void release(int tokens) {
+        this.tokens.addAndGet(tokens);
+    }
+
+    /**
+     * Remove and return all locally held tokens.
+     */
+    long drain() {
+        return tokens.getAndSet(0);
+    }
+
+    long available() {
+        return tokens.get();
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Best local estimate of the tokens left across the cluster.
+     */
+    int estimatedRemaining() {
+        return (int) Math.min(capacity, remoteRemaining + tokens.get());
+    }
+
+    long getLeasedAtMillis() {
+        return leasedAtMillis;
+    }
+
+    long getLastUsedMillis() {
+        return lastUsedMillis;
+    }
+}
@@ -3,16 +3,39 @@ package com.mindshift.ums.service.security;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Rate limiting service using Redis and token bucket algorithm.
+ *
+ * High limits are served from a node-local lease: each node takes a batch of tokens
+ * from the Redis bucket and hands them out locally, going back to Redis only when the
+ * lease runs out. Leases are never larger than what Redis granted, so a limit cannot
+ * be exceeded; at worst tokens sit unused on another node until they are returned by
+ * {@link #reconcileLocalBuckets()}. Limit types without a configured lease size, and
+ * limits below {@code ums.rate-limit.local.min-limit}, always go straight to Redis.
+ *
+ * Scripts are registered once and run with EVALSHA. Several limits that apply to the
+ * same request (tenant, recipient, channel) are checked together by
+ * {@link #checkRateLimits(List)} in one all-or-nothing script call, and many such
+ * requests can be checked in one pipelined round trip with
+ * {@link #checkRateLimitsPipelined(List)}.
  */
 @Service
 public class RateLimitService {
@@ -21,13 +44,15 @@ public class RateLimitService {
 
     private final RedisTemplate<String, String> redisTemplate;
 
-    // Lua script for atomic token bucket operations
+    // Lua script for atomic token bucket operations.
+    // Grants between ARGV[4] (requested) and ARGV[5] (lease) tokens, or none.
     private static final String TOKEN_BUCKET_LUA_SCRIPT = """
         local key = KEYS[1]
         local capacity = tonumber(ARGV[1])
         local tokens = tonumber(ARGV[2])
         local interval = tonumber(ARGV[3])
         local requested = tonumber(ARGV[4])
+        local lease = tonumber(ARGV[5]) or requested
 
         local bucket = redis.call('HMGET', key, 'tokens', 'last_refill')
         local current_tokens = tonumber(bucket[1])
@@ -48,13 +73,14 @@ public class RateLimitService {
 
         -- Check if enough tokens available
         if current_tokens >= requested then
-            current_tokens = current_tokens - requested
+            local granted = math.min(current_tokens, math.max(requested, lease))
+            current_tokens = current_tokens - granted
 
             -- Update bucket
             redis.call('HMSET', key, 'tokens', current_tokens, 'last_refill', current_time)
             redis.call('EXPIRE', key, interval * 2)
 
-            return {1, current_tokens, capacity}
+            return {granted, current_tokens, capacity}
         else
             -- Update last refill time even if request is denied
             redis.call('HMSET', key, 'tokens', current_tokens, 'last_refill', current_time)
@@ -64,9 +90,109 @@ public class RateLimitService {
         end
         """;
 
+    // Give unused leased tokens back to the bucket, never above capacity
+    private static final String TOKEN_RETURN_LUA_SCRIPT = """
+        local key = KEYS[1]
+        local capacity = tonumber(ARGV[1])
+        local returned = tonumber(ARGV[2])
+
+        local current_tokens = tonumber(redis.call('HGET', key, 'tokens'))
+        if current_tokens == nil then
+            return 0
+        end
+
+        current_tokens = math.min(capacity, current_tokens + returned)
+        redis.call('HSET', key, 'tokens', current_tokens)
+        return current_tokens
+        """;
+
+    // Check several buckets atomically: tokens are taken from every bucket or from none.
+    // ARGV[1] is the interval, followed by (capacity, requested, lease) per key.
+    // Returns {allowed, denied_key_index (1-based, 0 if none), remaining_1, granted_1, ...}
+    private static final String MULTI_TOKEN_BUCKET_LUA_SCRIPT = """
+        local interval = tonumber(ARGV[1])
+        local now = redis.call('TIME')
+        local current_time = tonumber(now[1])
+
+        local current = {}
+        local denied = 0
+
+        for i = 1, #KEYS do
+            local capacity = tonumber(ARGV[(i - 1) * 3 + 2])
+            local requested = tonumber(ARGV[(i - 1) * 3 + 3])
+
+            local bucket = redis.call('HMGET', KEYS[i], 'tokens', 'last_refill')
+            local current_tokens = tonumber(bucket[1])
+            local last_refill = tonumber(bucket[2])
+
+            if current_tokens == nil then
+                current_tokens = capacity
+                last_refill = current_time
+            end
+
+            local time_passed = current_time - last_refill
+            local tokens_to_add = math.floor(time_passed / interval * capacity)
+            current[i] = math.min(capacity, current_tokens + tokens_to_add)
+
+            if denied == 0 and current[i] < requested then
+                denied = i
+            end
+        end
+
+        local result = {denied == 0 and 1 or 0, denied}
+
+        for i = 1, #KEYS do
+            local requested = tonumber(ARGV[(i - 1) * 3 + 3])
+            local lease = tonumber(ARGV[(i - 1) * 3 + 4])
+
+            local granted = 0
+            if denied == 0 then
+                granted = math.min(current[i], math.max(requested, lease))
+            end
+
+            redis.call('HMSET', KEYS[i], 'tokens', current[i] - granted, 'last_refill', current_time)
+            redis.call('EXPIRE', KEYS[i], interval * 2)
+
+            table.insert(result, current[i] - granted)
+            table.insert(result, granted)
+        end
+
+        return result
+        """;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final RedisScript<List<Long>> TOKEN_BUCKET_SCRIPT =
+        (RedisScript) RedisScript.of(TOKEN_BUCKET_LUA_SCRIPT, List.class);
+
+    private static final RedisScript<Long> TOKEN_RETURN_SCRIPT =
+        RedisScript.of(TOKEN_RETURN_LUA_SCRIPT, Long.class);
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final RedisScript<List<Long>> MULTI_TOKEN_BUCKET_SCRIPT =
+        (RedisScript) RedisScript.of(MULTI_TOKEN_BUCKET_LUA_SCRIPT, List.class);
+
+    private static final int INTERVAL_SECONDS = 3600; // 1 hour
+
+    private final boolean localEnabled;
+    private final int localMinLimit;
+    private final Map<String, Integer> localLeaseSizes;
+    private final long leaseTtlMs;
+
+    private final ConcurrentMap<String, LocalTokenBucket> localBuckets = new ConcurrentHashMap<>();
+
+    private volatile boolean multiScriptLoaded = false;
+
     @Autowired
-    public RateLimitService(RedisTemplate<String, String> redisTemplate) {
+    public RateLimitService(RedisTemplate<String, String> redisTemplate,
+                            @Value("${ums.rate-limit.local.enabled:true}") boolean localEnabled,
+                            @Value("${ums.rate-limit.local.min-limit:1000}") int localMinLimit,
+                            @Value("#{${ums.rate-limit.local.lease-sizes:{'messages': 50}}}") Map<String, Integer> localLeaseSizes,
+                            @Value("${ums.rate-limit.local.lease-ttl-ms:1000}") long leaseTtlMs) {
         this.redisTemplate = redisTemplate;
+        this.localEnabled = localEnabled;
+        this.localMinLimit = localMinLimit;
+        this.localLeaseSizes = localLeaseSizes;
+        this.leaseTtlMs = leaseTtlMs;
     }
 
     /**
@@ -82,32 +208,30 @@ public class RateLimitService {
         String key = buildRateLimitKey(tenantId, limitType);
 
         try {
-            // Token bucket parameters
-            int capacity = requestsPerHour;
-            int tokensPerHour = requestsPerHour;
-            int intervalSeconds = 3600; // 1 hour
-
-            RedisScript<Long> script = RedisScript.of(TOKEN_BUCKET_LUA_SCRIPT, Long.class);
-            Long result = redisTemplate.execute(script,
-                Collections.singletonList(key),
-                String.valueOf(capacity),
-                String.valueOf(tokensPerHour),
-                String.valueOf(intervalSeconds),
-                String.valueOf(tokensRequested));
-
-            // Parse result: [allowed (1/0), remaining_tokens, capacity]
-            boolean allowed = result != null && result == 1;
-
-            // Get remaining tokens for rate limit headers
-            String[] bucketInfo = redisTemplate.opsForHash().multiGet(key,
-                java.util.List.of("tokens", "last_refill")).toArray(new String[0]);
+            int leaseSize = leaseSizeFor(limitType, requestsPerHour);
+            if (leaseSize <= tokensRequested) {
+                return checkRemote(key, requestsPerHour, tokensRequested);
+            }
 
-            int remainingTokens = bucketInfo[0] != null ? Integer.parseInt(bucketInfo[0]) : capacity;
+            LocalTokenBucket bucket = localBuckets.computeIfAbsent(key, k -> new LocalTokenBucket(requestsPerHour));
+            if (bucket.tryAcquire(tokensRequested)) {
+                return new RateLimitResult(true, bucket.estimatedRemaining(), requestsPerHour,
+                    calculateResetTime(INTERVAL_SECONDS));
+            }
 
-            logger.debug("Rate limit check for {}: allowed={}, remaining={}, capacity={}",
-                key, allowed, remainingTokens, capacity);
+            // Local share exhausted: take this request plus a new lease in one round trip
+            List<Long> result = executeBucketScript(key, requestsPerHour, tokensRequested, leaseSize);
+            long granted = result.get(0);
+            int remainingTokens = result.get(1).intValue();
 
-            return new RateLimitResult(allowed, remainingTokens, capacity, calculateResetTime(intervalSeconds));
+            boolean allowed = granted >= tokensRequested;
+            bucket.addLease(allowed ? granted - tokensRequested : 0, remainingTokens);
+
+            logger.debug("Rate limit lease for {}: allowed={}, leased={}, remaining={}, capacity={}",
+                key, allowed, granted, remainingTokens, requestsPerHour);
+
+            return new RateLimitResult(allowed, bucket.estimatedRemaining(), requestsPerHour,
+                calculateResetTime(INTERVAL_SECONDS));
 
         } catch (Exception e) {
             logger.error("Error checking rate limit for key: {}", key, e);
@@ -116,6 +240,242 @@ public class RateLimitService {
         }
     }
 
+    private RateLimitResult checkRemote(String key, int requestsPerHour, int tokensRequested) {
+        // Parse result: [granted, remaining_tokens, capacity]
+        List<Long> result = executeBucketScript(key, requestsPerHour, tokensRequested, tokensRequested);
+        boolean allowed = result.get(0) >= tokensRequested;
+        int remainingTokens = result.get(1).intValue();
+
+        logger.debug("Rate limit check for {}: allowed={}, remaining={}, capacity={}",
+            key, allowed, remainingTokens, requestsPerHour);
+
+        return new RateLimitResult(allowed, remainingTokens, requestsPerHour, calculateResetTime(INTERVAL_SECONDS));
+    }
+
+    private List<Long> executeBucketScript(String key, int capacity, int requested, int lease) {
+        List<Long> result = redisTemplate.execute(TOKEN_BUCKET_SCRIPT,
+            Collections.singletonList(key),
+            String.valueOf(capacity),
+            String.valueOf(capacity),
+            String.valueOf(INTERVAL_SECONDS),
+            String.valueOf(requested),
+            String.valueOf(lease));
+
+        if (result == null || result.size() < 3) {
+            throw new IllegalStateException("Unexpected token bucket script result: " + result);
+        }
+        return result;
+    }
+
+    /**
+     * Lease size for a limit, or 0 when the limit should be checked in Redis every time.
+     * A single lease is capped at a tenth of the limit so one node cannot starve the others.
+     */
+    private int leaseSizeFor(String limitType, int requestsPerHour) {
+        if (!localEnabled || requestsPerHour < localMinLimit) {
+            return 0;
+        }
+        Integer configured = localLeaseSizes.get(limitType);
+        if (configured == null || configured <= 1) {
+            return 0;
+        }
+        return Math.min(configured, requestsPerHour / 10);
+    }
+
+    /**
+     * Check several limits that apply to the same request in one script call.
+     * Tokens are taken from every bucket or, if any limit is exceeded, from none.
+     *
+     * @param checks Limits to check together
+     * @return Combined result; {@link MultiRateLimitResult#getDenied()} names the exceeded limit
+     */
+    public MultiRateLimitResult checkRateLimits(List<RateLimitCheck> checks) {
+        return checkRateLimitsPipelined(List.of(checks)).get(0);
+    }
+
+    /**
+     * Check many independent groups of limits in a single pipelined round trip.
+     * Each group is evaluated atomically on its own, as in {@link #checkRateLimits(List)}.
+     *
+     * @param groups Groups of limits, typically one group per message
+     * @return One result per group, in order
+     */
+    public List<MultiRateLimitResult> checkRateLimitsPipelined(List<List<RateLimitCheck>> groups) {
+        List<PendingGroup> pending = new ArrayList<>(groups.size());
+        List<PendingGroup> remote = new ArrayList<>();
+
+        // Serve what we can from local leases; the rest goes to Redis
+        for (List<RateLimitCheck> checks : groups) {
+            PendingGroup group = new PendingGroup(checks);
+            for (int i = 0; i < checks.size(); i++) {
+                RateLimitCheck check = checks.get(i);
+                String key = buildRateLimitKey(check.getSubjectId(), check.getLimitType());
+                int leaseSize = leaseSizeFor(check.getLimitType(), check.getRequestsPerHour());
+
+                if (leaseSize > check.getTokensRequested()) {
+                    LocalTokenBucket bucket = localBuckets.computeIfAbsent(key,
+                        k -> new LocalTokenBucket(check.getRequestsPerHour()));
+                    group.buckets[i] = bucket;
+                    if (bucket.tryAcquire(check.getTokensRequested())) {
+                        group.localAcquired[i] = true;
+                        continue;
+                    }
+                }
+                group.remoteIndexes.add(i);
+                group.remoteKeys.add(key);
+                group.remoteLeases.add(Math.max(leaseSize, check.getTokensRequested()));
+            }
+            pending.add(group);
+            if (!group.remoteIndexes.isEmpty()) {
+                remote.add(group);
+            }
+        }
+
+        try {
+            List<Object> responses = remote.isEmpty() ? List.of() : executeMultiScriptPipelined(remote);
+            for (int g = 0; g < remote.size(); g++) {
+                applyRemoteResponse(remote.get(g), responses.get(g));
+            }
+        } catch (Exception e) {
+            logger.error("Error checking rate limits for {} groups", groups.size(), e);
+            // Fail open - allow request if rate limiting fails
+            for (PendingGroup group : remote) {
+                group.failOpen();
+            }
+        }
+
+        List<MultiRateLimitResult> results = new ArrayList<>(pending.size());
+        for (PendingGroup group : pending) {
+            results.add(group.toResult(calculateResetTime(INTERVAL_SECONDS)));
+        }
+        return results;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void applyRemoteResponse(PendingGroup group, Object response) {
+        if (!(response instanceof List<?> values) || values.size() < 2 + group.remoteIndexes.size() * 2) {
+            throw new IllegalStateException("Unexpected multi token bucket script result: " + response);
+        }
+
+        boolean allowed = ((Number) values.get(0)).intValue() == 1;
+        int deniedRemote = ((Number) values.get(1)).intValue() - 1;
+
+        for (int r = 0; r < group.remoteIndexes.size(); r++) {
+            int i = group.remoteIndexes.get(r);
+            int remaining = ((Number) values.get(2 + r * 2)).intValue();
+            long granted = ((Number) values.get(3 + r * 2)).longValue();
+            RateLimitCheck check = group.checks.get(i);
+
+            group.remaining[i] = remaining;
+            if (group.buckets[i] != null) {
+                group.buckets[i].addLease(allowed ? granted - check.getTokensRequested() : 0, remaining);
+                group.remaining[i] = group.buckets[i].estimatedRemaining();
+            }
+        }
+
+        if (!allowed) {
+            group.deniedIndex = group.remoteIndexes.get(deniedRemote);
+            group.releaseLocal();
+        }
+    }
+
+    /**
+     * Run the multi-key script once per group with EVALSHA in a single pipeline.
+     * The script is loaded up front, and reloaded once if Redis has lost it.
+     */
+    private List<Object> executeMultiScriptPipelined(List<PendingGroup> groups) {
+        ensureMultiScriptLoaded(false);
+        try {
+            return pipelineMultiScript(groups);
+        } catch (Exception e) {
+            if (!isNoScriptError(e)) {
+                throw e;
+            }
+            logger.warn("Rate limit script missing from Redis, reloading");
+            ensureMultiScriptLoaded(true);
+            return pipelineMultiScript(groups);
+        }
+    }
+
+    private List<Object> pipelineMultiScript(List<PendingGroup> groups) {
+        byte[] sha = MULTI_TOKEN_BUCKET_SCRIPT.getSha1().getBytes(StandardCharsets.UTF_8);
+
+        return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (PendingGroup group : groups) {
+                int keyCount = group.remoteKeys.size();
+                byte[][] keysAndArgs = new byte[keyCount + 1 + keyCount * 3][];
+
+                for (int r = 0; r < keyCount; r++) {
+                    keysAndArgs[r] = group.remoteKeys.get(r).getBytes(StandardCharsets.UTF_8);
+                }
+                keysAndArgs[keyCount] = bytes(INTERVAL_SECONDS);
+                for (int r = 0; r < keyCount; r++) {
+                    RateLimitCheck check = group.checks.get(group.remoteIndexes.get(r));
+                    keysAndArgs[keyCount + 1 + r * 3] = bytes(check.getRequestsPerHour());
+                    keysAndArgs[keyCount + 2 + r * 3] = bytes(check.getTokensRequested());
+                    keysAndArgs[keyCount + 3 + r * 3] = bytes(group.remoteLeases.get(r));
+                }
+
+                connection.scriptingCommands().evalSha(sha, ReturnType.MULTI, keyCount, keysAndArgs);
+            }
+            return null;
+        });
+    }
+
+    private void ensureMultiScriptLoaded(boolean force) {
+        if (multiScriptLoaded && !force) {
+            return;
+        }
+        redisTemplate.execute((RedisCallback<String>) connection -> connection.scriptingCommands()
+            .scriptLoad(MULTI_TOKEN_BUCKET_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8)));
+        multiScriptLoaded = true;
+    }
+
+    private boolean isNoScriptError(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] bytes(int value) {
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Return tokens that have been held locally longer than the lease TTL to Redis,
+     * and drop buckets that have gone idle.
+     */
+    @Scheduled(fixedDelayString = "${ums.rate-limit.local.reconcile-interval-ms:1000}")
+    public void reconcileLocalBuckets() {
+        long now = System.currentTimeMillis();
+
+        localBuckets.forEach((key, bucket) -> {
+            if (now - bucket.getLeasedAtMillis() < leaseTtlMs) {
+                return;
+            }
+
+            long unused = bucket.drain();
+            if (unused > 0) {
+                try {
+                    redisTemplate.execute(TOKEN_RETURN_SCRIPT,
+                        Collections.singletonList(key),
+                        String.valueOf(bucket.getCapacity()),
+                        String.valueOf(unused));
+                } catch (Exception e) {
+                    // Tokens are lost until the bucket refills; errs on the side of limiting
+                    logger.warn("Failed to return {} leased tokens for key: {}", unused, key, e);
+                }
+            }
+
+            if (now - bucket.getLastUsedMillis() > leaseTtlMs && bucket.available() == 0) {
+                localBuckets.remove(key, bucket);
+            }
+        });
+    }
+
     /**
      * Check rate limit with default 1 token request.
      */
@@ -131,6 +491,7 @@ public class RateLimitService {
      */
     public void resetRateLimit(String tenantId, String limitType) {
         String key = buildRateLimitKey(tenantId, limitType);
+        localBuckets.remove(key);
         redisTemplate.delete(key);
         logger.info("Rate limit reset for key: {}", key);
     }
@@ -217,4 +578,99 @@ public class RateLimitService {
         public int getRequestsRemaining() { return requestsRemaining; }
         public long getLastUpdateMillis() { return lastUpdateMillis; }
     }
+
+    /**
+     * One limit to check as part of a multi-key rate limit check.
+     */
+    public static class RateLimitCheck {
+        private final String subjectId;
+        private final String limitType;
+        private final int requestsPerHour;
+        private final int tokensRequested;
+
+        public RateLimitCheck(String subjectId, String limitType, int requestsPerHour, int tokensRequested) {
+            this.subjectId = subjectId;
+            this.limitType = limitType;
+            this.requestsPerHour = requestsPerHour;
+            this.tokensRequested = tokensRequested;
+        }
+
+        public String getSubjectId() { return subjectId; }
+        public String getLimitType() { return limitType; }
+        public int getRequestsPerHour() { return requestsPerHour; }
+        public int getTokensRequested() { return tokensRequested; }
+    }
+
+    /**
+     * Result of a multi-key rate limit check.
+     */
+    public static class MultiRateLimitResult {
+        private final boolean allowed;
+        private final List<RateLimitCheck> checks;
+        private final List<RateLimitResult> results;
+        private final int deniedIndex;
+
+        public MultiRateLimitResult(boolean allowed, List<RateLimitCheck> checks,
+                                    List<RateLimitResult> results, int deniedIndex) {
+            this.allowed = allowed;
+            this.checks = checks;
+            this.results = results;
+            this.deniedIndex = deniedIndex;
+        }
+
+        public boolean isAllowed() { return allowed; }
+        public List<RateLimitCheck> getChecks() { return checks; }
+        public List<RateLimitResult> getResults() { return results; }
+        public int getDeniedIndex() { return deniedIndex; }
+
+        public RateLimitCheck getDeniedCheck() { return allowed ? null : checks.get(deniedIndex); }
+        public RateLimitResult getDenied() { return allowed ? null : results.get(deniedIndex); }
+    }
+
+    /**
+     * Working state for one group of checks while a multi-key check is in progress.
+     */
+    private static class PendingGroup {
+        private final List<RateLimitCheck> checks;
+        private final LocalTokenBucket[] buckets;
+        private final boolean[] localAcquired;
+        private final int[] remaining;
+        private final List<Integer> remoteIndexes = new ArrayList<>();
+        private final List<String> remoteKeys = new ArrayList<>();
+        private final List<Integer> remoteLeases = new ArrayList<>();
+        private int deniedIndex = -1;
+
+        PendingGroup(List<RateLimitCheck> checks) {
+            this.checks = checks;
+            this.buckets = new LocalTokenBucket[checks.size()];
+            this.localAcquired = new boolean[checks.size()];
+            this.remaining = new int[checks.size()];
+            for (int i = 0; i < checks.size(); i++) {
+                remaining[i] = checks.get(i).getRequestsPerHour();
+            }
+        }
+
+        void releaseLocal() {
+            for (int i = 0; i < checks.size(); i++) {
+                if (localAcquired[i]) {
+                    buckets[i].release(checks.get(i).getTokensRequested());
+                    localAcquired[i] = false;
+                }
+            }
+        }
+
+        void failOpen() {
+            deniedIndex = -1;
+        }
+
+        MultiRateLimitResult toResult(long resetTimeMillis) {
+            List<RateLimitResult> results = new ArrayList<>(checks.size());
+            for (int i = 0; i < checks.size(); i++) {
+                int remainingTokens = localAcquired[i] ? buckets[i].estimatedRemaining() : remaining[i];
+                results.add(new RateLimitResult(deniedIndex != i, remainingTokens,
+                    checks.get(i).getRequestsPerHour(), resetTimeMillis));
+            }
+            return new MultiRateLimitResult(deniedIndex < 0, checks, results, deniedIndex);
+        }
+    }
 }
\ No newline at end of file
@@ -1,32 +1,80 @@
 package com.mindshift.ums.service.security;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.mindshift.ums.api.dto.SendMessageDto;
 import com.mindshift.ums.domain.entity.RecipientPref;
 import com.mindshift.ums.domain.enums.ChannelType;
 import com.mindshift.ums.domain.enums.RecipientType;
+import com.mindshift.ums.repository.RecipientPrefJdbcRepository;
 import com.mindshift.ums.repository.RecipientPrefRepository;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for managing recipient policies and preferences.
+ *
+ * Policy checks first ask the {@link RecipientPrefScreen} whether the recipient has
+ * stored preferences at all; most do not, and those never reach the database. Known
+ * preferences are served from a short-lived local cache that is dropped whenever the
+ * preference changes on any node. Last-message times are not written on the accept
+ * path: they are coalesced per recipient and flushed in JDBC batches.
  */
 @Service
 public class RecipientPolicyService {
 
     private static final Logger logger = LoggerFactory.getLogger(RecipientPolicyService.class);
 
+    /** Opt-out reason recorded for push tokens FCM no longer accepts */
+    public static final String REASON_PUSH_TOKEN_UNREGISTERED = "PUSH_TOKEN_UNREGISTERED";
+
     private final RecipientPrefRepository recipientPrefRepository;
+    private final RecipientPrefJdbcRepository prefJdbcRepository;
+    private final RecipientPrefScreen prefScreen;
+    private final int maxPendingWrites;
+
+    // Known preferences, and known absences that got past the screen as false positives
+    private final Cache<String, Optional<RecipientPref>> prefCache;
+
+    // Tokens found dead since they were accepted, so queued messages skip them without a lookup
+    private final Cache<String, Boolean> unregisteredPushTokens;
+
+    // Write-behind: latest send time per recipient, flushed by flushLastMessageAt()
+    private volatile ConcurrentHashMap<RecipientPrefJdbcRepository.PrefKey, LocalDateTime> pendingLastMessageAt =
+        new ConcurrentHashMap<>();
 
     @Autowired
-    public RecipientPolicyService(RecipientPrefRepository recipientPrefRepository) {
+    public RecipientPolicyService(RecipientPrefRepository recipientPrefRepository,
+                                  RecipientPrefJdbcRepository prefJdbcRepository,
+                                  RecipientPrefScreen prefScreen,
+                                  @Value("${ums.recipient-policy.cache.max-size:100000}") long cacheMaxSize,
+                                  @Value("${ums.recipient-policy.cache.ttl-seconds:60}") long cacheTtlSeconds,
+                                  @Value("${ums.recipient-policy.write-behind.max-pending:100000}") int maxPendingWrites) {
         this.recipientPrefRepository = recipientPrefRepository;
+        this.prefJdbcRepository = prefJdbcRepository;
+        this.prefScreen = prefScreen;
+        this.maxPendingWrites = maxPendingWrites;
+        this.prefCache = CacheBuilder.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .expireAfterWrite(cacheTtlSeconds, TimeUnit.SECONDS)
+            .build();
+        this.unregisteredPushTokens = CacheBuilder.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(1, TimeUnit.DAYS)
+            .build();
     }
 
     /**
@@ -49,8 +97,7 @@ public class RecipientPolicyService {
 
             // Find recipient preferences - use recipientKey and recipientType
             RecipientType recipientType = getRecipientType(channel);
-            Optional<RecipientPref> prefOpt = recipientPrefRepository
-                .findByTenantAndRecipient(tenantId, recipientId, recipientType);
+            Optional<RecipientPref> prefOpt = findPrefs(tenantId, recipientId, recipientType);
 
             if (prefOpt.isEmpty()) {
                 // No preferences found - allow by default
@@ -93,6 +140,8 @@ public class RecipientPolicyService {
 
     /**
      * Register that a message was sent to a recipient for frequency tracking.
+     * Only recipients with stored preferences are tracked, and the time is written
+     * behind by {@link #flushLastMessageAt()}.
      *
      * @param tenantId  Tenant ID
      * @param recipient Recipient information
@@ -101,32 +150,76 @@ public class RecipientPolicyService {
     public void recordMessageSent(String tenantId, SendMessageDto.RecipientDto recipient, ChannelType channel) {
         try {
             String recipientId = getRecipientIdentifier(recipient, channel);
-            if (recipientId == null) {
+            if (recipientId == null || !prefScreen.mightHavePrefs(tenantId, recipientId)) {
                 return;
             }
 
-            // Find or create recipient preference
-            RecipientType recipientType = getRecipientType(channel);
-            RecipientPref pref = recipientPrefRepository
-                .findByTenantAndRecipient(tenantId, recipientId, recipientType)
-                .orElseGet(() -> {
-                    RecipientPref newPref = new RecipientPref();
-                    newPref.setTenantId(tenantId);
-                    newPref.setRecipientKey(recipientId);
-                    newPref.setRecipientId(recipientId);
-                    newPref.setRecipientType(recipientType);
-                    newPref.setOptedOut(false);
-                    return newPref;
-                });
-
-            pref.setLastMessageAt(LocalDateTime.now());
-            recipientPrefRepository.save(pref);
+            ConcurrentHashMap<RecipientPrefJdbcRepository.PrefKey, LocalDateTime> pending = pendingLastMessageAt;
+            if (pending.size() >= maxPendingWrites) {
+                // Advisory data; never let the queue grow without bound
+                logger.debug("Last-message write-behind queue full, dropping update for tenant {}", tenantId);
+                return;
+            }
+            pending.merge(new RecipientPrefJdbcRepository.PrefKey(tenantId, recipientId), LocalDateTime.now(),
+                (queued, sent) -> sent.isAfter(queued) ? sent : queued);
 
         } catch (Exception e) {
             logger.error("Error recording message sent", e);
         }
     }
 
+    /**
+     * Write queued last-message times, one batched update per flush however many
+     * messages each recipient received in between.
+     */
+    @Scheduled(fixedDelayString = "${ums.recipient-policy.write-behind.flush-interval-ms:1000}")
+    public void flushLastMessageAt() {
+        if (pendingLastMessageAt.isEmpty()) {
+            return;
+        }
+
+        ConcurrentHashMap<RecipientPrefJdbcRepository.PrefKey, LocalDateTime> flushing = pendingLastMessageAt;
+        pendingLastMessageAt = new ConcurrentHashMap<>();
+
+        try {
+            prefJdbcRepository.updateLastMessageAt(flushing);
+        } catch (Exception e) {
+            logger.error("Failed to write last message time for {} recipients", flushing.size(), e);
+        }
+    }
+
+    /**
+     * Pick up preferences changed on any node since the last sync.
+     */
+    @Scheduled(fixedDelayString = "${ums.recipient-policy.screen.sync-interval-ms:5000}")
+    public void syncRecipientPrefs() {
+        try {
+            List<RecipientPrefJdbcRepository.PrefKey> changed = prefScreen.syncChanges();
+            changed.forEach(key -> evictPrefs(key.getTenantId(), key.getRecipientKey()));
+        } catch (Exception e) {
+            logger.error("Failed to sync recipient preference changes", e);
+        }
+    }
+
+    /**
+     * Rebuild the recipient screen from the preferences table, on startup and periodically.
+     */
+    @Scheduled(fixedDelayString = "${ums.recipient-policy.screen.rebuild-interval-ms:3600000}")
+    public void rebuildRecipientPrefScreen() {
+        try {
+            prefScreen.rebuild();
+            syncRecipientPrefs();
+        } catch (Exception e) {
+            // Lookups keep going to the database until a rebuild succeeds
+            logger.error("Failed to rebuild recipient preference screen", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushLastMessageAt();
+    }
+
     /**
      * Opt out a recipient from a specific channel.
      *
@@ -150,6 +243,7 @@ public class RecipientPolicyService {
         pref.setOptedOut(true);
         pref.setOptedOutAt(LocalDateTime.now());
         recipientPrefRepository.save(pref);
+        prefSaved(tenantId, recipientId);
 
         logger.info("Recipient {} opted out from channel {} for tenant {}", recipientId, channel, tenantId);
     }
@@ -171,11 +265,81 @@ public class RecipientPolicyService {
             pref.setOptedOut(false);
             pref.setOptedOutAt(null);
             recipientPrefRepository.save(pref);
+            prefSaved(tenantId, recipientId);
 
             logger.info("Recipient {} opted in to channel {} for tenant {}", recipientId, channel, tenantId);
         }
     }
 
+    /**
+     * Opt out a push token that FCM reports as no longer registered, so later requests
+     * to it are rejected by the policy check and queued messages skip it.
+     *
+     * @param tenantId  Tenant ID
+     * @param pushToken Device token
+     */
+    public void markPushTokenUnregistered(String tenantId, String pushToken) {
+        unregisteredPushTokens.put(tenantId + ":" + pushToken, Boolean.TRUE);
+
+        try {
+            RecipientPref pref = recipientPrefRepository
+                .findByTenantAndRecipient(tenantId, pushToken, RecipientType.PUSH_TOKEN)
+                .orElseGet(() -> {
+                    RecipientPref newPref = new RecipientPref(tenantId, pushToken, RecipientType.PUSH_TOKEN);
+                    newPref.setRecipientId(pushToken);
+                    return newPref;
+                });
+
+            if (!pref.isOptedOut()) {
+                pref.optOut(REASON_PUSH_TOKEN_UNREGISTERED);
+                recipientPrefRepository.save(pref);
+                prefSaved(tenantId, pushToken);
+                logger.info("Push token opted out as unregistered for tenant {}", tenantId);
+            }
+        } catch (Exception e) {
+            // The in-memory mark still covers this instance
+            logger.error("Error marking push token unregistered for tenant {}", tenantId, e);
+        }
+    }
+
+    /**
+     * Whether a push token was found unregistered by this instance.
+     *
+     * @param tenantId  Tenant ID
+     * @param pushToken Device token
+     * @return true if sends to the token should be skipped
+     */
+    public boolean isPushTokenUnregistered(String tenantId, String pushToken) {
+        return unregisteredPushTokens.getIfPresent(tenantId + ":" + pushToken) != null;
+    }
+
+    private Optional<RecipientPref> findPrefs(String tenantId, String recipientKey, RecipientType recipientType) {
+        if (!prefScreen.mightHavePrefs(tenantId, recipientKey)) {
+            return Optional.empty();
+        }
+        try {
+            return prefCache.get(cacheKey(tenantId, recipientKey, recipientType),
+                () -> recipientPrefRepository.findByTenantAndRecipient(tenantId, recipientKey, recipientType));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to load recipient preferences", e.getCause());
+        }
+    }
+
+    private void prefSaved(String tenantId, String recipientKey) {
+        prefScreen.add(tenantId, recipientKey);
+        evictPrefs(tenantId, recipientKey);
+    }
+
+    private void evictPrefs(String tenantId, String recipientKey) {
+        for (RecipientType recipientType : RecipientType.values()) {
+            prefCache.invalidate(cacheKey(tenantId, recipientKey, recipientType));
+        }
+    }
+
+    private String cacheKey(String tenantId, String recipientKey, RecipientType recipientType) {
+        return tenantId + ":" + recipientType + ":" + recipientKey;
+    }
+
     private String getRecipientIdentifier(SendMessageDto.RecipientDto recipient, ChannelType channel) {
         switch (channel) {
             case SMS:
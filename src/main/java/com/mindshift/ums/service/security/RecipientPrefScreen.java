@@ -0,0 +1,145 @@
+package com.mindshift.ums.service.security;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.mindshift.ums.repository.RecipientPrefJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-tenant Bloom filters of the recipients that have stored preferences.
+ *
+ * Most recipients never set preferences, so a negative answer from the filter lets the
+ * policy check skip the database. False positives only cost a lookup. A preference is
+ * added to the filter when it is saved on this node, and preferences saved on other
+ * nodes are picked up by {@link #syncChanges()}, which polls for rows changed since the
+ * last poll. Filters are rebuilt from the table by {@link #rebuild()}, which also sizes
+ * them to the current row counts and drops deleted preferences. Until the first build
+ * completes every recipient is treated as possibly having preferences.
+ */
+@Component
+public class RecipientPrefScreen {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipientPrefScreen.class);
+
+    // Polls overlap by this much so rows stamped with a slightly skewed node clock are not missed
+    private static final long SYNC_OVERLAP_SECONDS = 5;
+
+    private final RecipientPrefJdbcRepository prefJdbcRepository;
+    private final Supplier<LocalDateTime> clock;
+    private final long minExpectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile Map<String, BloomFilter<CharSequence>> filters;
+    private volatile LocalDateTime syncedUntil;
+
+    @Autowired
+    public RecipientPrefScreen(RecipientPrefJdbcRepository prefJdbcRepository,
+                               @Value("${ums.recipient-policy.screen.min-expected-insertions:10000}") long minExpectedInsertions,
+                               @Value("${ums.recipient-policy.screen.false-positive-rate:0.01}") double falsePositiveRate) {
+        this(prefJdbcRepository, LocalDateTime::now, minExpectedInsertions, falsePositiveRate);
+    }
+
+    public RecipientPrefScreen(RecipientPrefJdbcRepository prefJdbcRepository, Supplier<LocalDateTime> clock,
+                               long minExpectedInsertions, double falsePositiveRate) {
+        this.prefJdbcRepository = prefJdbcRepository;
+        this.clock = clock;
+        this.minExpectedInsertions = minExpectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Whether the recipient may have stored preferences.
+     *
+     * @param tenantId     Tenant ID
+     * @param recipientKey Recipient key
+     * @return false only if the recipient certainly has none
+     */
+    public boolean mightHavePrefs(String tenantId, String recipientKey) {
+        Map<String, BloomFilter<CharSequence>> current = filters;
+        if (current == null) {
+            return true;
+        }
+        BloomFilter<CharSequence> filter = current.get(tenantId);
+        return filter != null && filter.mightContain(recipientKey);
+    }
+
+    /**
+     * Record that a recipient now has stored preferences.
+     *
+     * @param tenantId     Tenant ID
+     * @param recipientKey Recipient key
+     */
+    public void add(String tenantId, String recipientKey) {
+        Map<String, BloomFilter<CharSequence>> current = filters;
+        if (current != null) {
+            current.computeIfAbsent(tenantId, tenant -> newFilter(0)).put(recipientKey);
+        }
+    }
+
+    /**
+     * Whether the filters have been built.
+     *
+     * @return false while every recipient is still looked up
+     */
+    public boolean isReady() {
+        return filters != null;
+    }
+
+    /**
+     * Rebuild every tenant's filter from the preferences table.
+     */
+    public void rebuild() {
+        LocalDateTime startedAt = clock.get();
+        Map<String, Long> counts = prefJdbcRepository.countByTenant();
+
+        Map<String, BloomFilter<CharSequence>> rebuilt = new ConcurrentHashMap<>();
+        counts.forEach((tenantId, count) -> rebuilt.put(tenantId, newFilter(count)));
+        long[] scanned = new long[1];
+        prefJdbcRepository.forEachKey((tenantId, recipientKey) -> {
+            rebuilt.computeIfAbsent(tenantId, tenant -> newFilter(0)).put(recipientKey);
+            scanned[0]++;
+        });
+
+        filters = rebuilt;
+        // Preferences saved while the table was being scanned come in with the next sync
+        syncedUntil = startedAt;
+        logger.info("Recipient preference screen rebuilt: {} preferences across {} tenants",
+            scanned[0], rebuilt.size());
+    }
+
+    /**
+     * Add preferences saved since the last sync, including those saved on other nodes.
+     *
+     * @return Keys of the changed preferences, so cached copies can be dropped
+     */
+    public List<RecipientPrefJdbcRepository.PrefKey> syncChanges() {
+        LocalDateTime since = syncedUntil;
+        if (since == null) {
+            return List.of();
+        }
+
+        LocalDateTime now = clock.get();
+        List<RecipientPrefJdbcRepository.PrefKey> changed =
+            prefJdbcRepository.findKeysUpdatedSince(since.minusSeconds(SYNC_OVERLAP_SECONDS));
+        changed.forEach(key -> add(key.getTenantId(), key.getRecipientKey()));
+        syncedUntil = now;
+        return changed;
+    }
+
+    private BloomFilter<CharSequence> newFilter(long count) {
+        // Headroom for preferences added before the next rebuild
+        long expected = Math.max(minExpectedInsertions, count * 2);
+        return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expected, falsePositiveRate);
+    }
+}
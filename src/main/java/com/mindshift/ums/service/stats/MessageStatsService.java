@@ -0,0 +1,460 @@
+package com.mindshift.ums.service.stats;
+
+import com.mindshift.ums.domain.entity.Message;
+import com.mindshift.ums.domain.enums.ChannelType;
+import com.mindshift.ums.domain.enums.MessageStatus;
+import com.mindshift.ums.repository.MessageJdbcRepository;
+import com.mindshift.ums.repository.MessageStatsJdbcRepository;
+import com.mindshift.ums.repository.MessageStatsJdbcRepository.StatsKey;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Pre-aggregated message counts for the monitoring endpoints.
+ *
+ * Status transitions are counted in memory with {@link LongAdder}s, so recording one
+ * stays cheap however many consumer threads do it at once. Every
+ * {@code ums.stats.flush-interval-ms} the counts are added to the rollup tables in one
+ * transaction: status entries per tenant, channel and minute, and running totals of
+ * the messages in each status. The totals are also added to a Redis hash, which gives
+ * every node the same cross-node figures without reading the table. Counts that fail
+ * to flush are kept for the next flush. Counting is best effort: a transition recorded
+ * in the instant its minute is drained may be lost.
+ *
+ * Monitoring reads a {@link Snapshot} rebuilt every {@code ums.stats.refresh-interval-ms}.
+ * Totals come from the Redis hash, which is rebuilt from the table whenever it has been
+ * lost. The 24-hour and one-hour windows are summed from per-minute counts kept in
+ * memory, of which only the last few minutes are re-read on each refresh. No read
+ * scans the messages table.
+ */
+@Service
+public class MessageStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageStatsService.class);
+
+    /** Pseudo-status counting new messages, whatever status they are in now. */
+    public static final String ACCEPTED = "ACCEPTED";
+
+    private static final String TOTALS_KEY = "ums:stats:totals";
+    // Set when the hash is built from the table; a hash without it was recreated by HINCRBY
+    private static final String SEEDED_FIELD = "seeded";
+    private static final String FIELD_SEPARATOR = ":";
+
+    private static final long WINDOW_MINUTES = 24 * 60;
+    // Other nodes may still be flushing into this many recent minutes, so they are re-read
+    private static final long SETTLE_MINUTES = 5;
+
+    private final MessageStatsJdbcRepository statsJdbcRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Supplier<LocalDateTime> clock;
+    private final int minuteRetentionDays;
+
+    private final ConcurrentMap<MinuteKey, LongAdder> minuteCounts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<StatsKey, LongAdder> totalDeltas = new ConcurrentHashMap<>();
+
+    // Cluster-wide accepted/failed sums per minute for the last 24 hours, guarded by this
+    private final NavigableMap<LocalDateTime, Map<String, Long>> recentMinutes = new TreeMap<>();
+    private LocalDateTime loadedThrough;
+    private volatile boolean redisStale;
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public MessageStatsService(MessageStatsJdbcRepository statsJdbcRepository,
+                               RedisTemplate<String, String> redisTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${ums.stats.minute-retention-days:7}") int minuteRetentionDays) {
+        this(statsJdbcRepository, redisTemplate, transactionManager, LocalDateTime::now, minuteRetentionDays);
+    }
+
+    public MessageStatsService(MessageStatsJdbcRepository statsJdbcRepository,
+                               RedisTemplate<String, String> redisTemplate,
+                               PlatformTransactionManager transactionManager,
+                               Supplier<LocalDateTime> clock,
+                               int minuteRetentionDays) {
+        this.statsJdbcRepository = statsJdbcRepository;
+        this.redisTemplate = redisTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.minuteRetentionDays = minuteRetentionDays;
+    }
+
+    /**
+     * Count a newly created message once the current transaction commits, so a
+     * rolled back acceptance is never counted. Without an active transaction the
+     * message is counted immediately.
+     *
+     * @param message Message as persisted
+     */
+    public void recordAccepted(Message message) {
+        recordAccepted(List.of(message));
+    }
+
+    /**
+     * Count newly created messages once the current transaction commits.
+     *
+     * @param messages Messages as persisted
+     */
+    public void recordAccepted(List<Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        // Read the keys now: the entities may change before the transaction commits
+        List<StatsKey> accepted = messages.stream()
+            .map(message -> new StatsKey(message.getTenantId(), message.getChannel().name(),
+                message.getStatus().name()))
+            .toList();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            countAccepted(accepted);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                countAccepted(accepted);
+            }
+        });
+    }
+
+    private void countAccepted(List<StatsKey> accepted) {
+        LocalDateTime minute = currentMinute();
+        for (StatsKey key : accepted) {
+            increment(minute, key.getTenantId(), key.getChannel(), ACCEPTED);
+            increment(minute, key.getTenantId(), key.getChannel(), key.getStatus());
+            addTotal(key.getTenantId(), key.getChannel(), ACCEPTED, 1);
+            addTotal(key.getTenantId(), key.getChannel(), key.getStatus(), 1);
+        }
+    }
+
+    /**
+     * Count a message moving from a status to the one it has now.
+     *
+     * @param message Message carrying its new status
+     * @param from    Status it left
+     */
+    public void recordTransition(Message message, MessageStatus from) {
+        record(message.getTenantId(), message.getChannel().name(), from.name(), message.getStatus().name());
+    }
+
+    /**
+     * Count messages moving from a status to the ones they have now.
+     *
+     * @param messages Messages carrying their new status
+     * @param from     Status they left
+     */
+    public void recordTransitions(List<Message> messages, MessageStatus from) {
+        for (Message message : messages) {
+            recordTransition(message, from);
+        }
+    }
+
+    /**
+     * Count status changes made in bulk by SQL.
+     *
+     * @param changes Changes as returned by the update
+     */
+    public void recordStatusChanges(List<MessageJdbcRepository.StatusChange> changes) {
+        for (MessageJdbcRepository.StatusChange change : changes) {
+            record(change.getTenantId(), change.getChannel(), change.getOldStatus(), change.getNewStatus());
+        }
+    }
+
+    private void record(String tenantId, String channel, String from, String to) {
+        if (Objects.equals(from, to)) {
+            return;
+        }
+        increment(currentMinute(), tenantId, channel, to);
+        addTotal(tenantId, channel, from, -1);
+        addTotal(tenantId, channel, to, 1);
+    }
+
+    private void increment(LocalDateTime minute, String tenantId, String channel, String status) {
+        minuteCounts.computeIfAbsent(new MinuteKey(minute, new StatsKey(tenantId, channel, status)),
+            key -> new LongAdder()).increment();
+    }
+
+    private void addTotal(String tenantId, String channel, String status, long delta) {
+        totalDeltas.computeIfAbsent(new StatsKey(tenantId, channel, status), key -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * Add the counts recorded since the last flush to the rollup tables and the Redis totals.
+     */
+    @Scheduled(fixedDelayString = "${ums.stats.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        LocalDateTime currentMinute = currentMinute();
+
+        Map<LocalDateTime, Map<StatsKey, Long>> minutes = new HashMap<>();
+        for (Map.Entry<MinuteKey, LongAdder> entry : minuteCounts.entrySet()) {
+            MinuteKey key = entry.getKey();
+            long count = entry.getValue().sumThenReset();
+            if (count != 0) {
+                minutes.computeIfAbsent(key.bucketStart(), bucket -> new HashMap<>()).put(key.stats(), count);
+            }
+            // Past minutes get no new counts, so their adders are dropped once drained
+            if (key.bucketStart().isBefore(currentMinute)) {
+                minuteCounts.remove(key, entry.getValue());
+            }
+        }
+
+        Map<StatsKey, Long> totals = new HashMap<>();
+        totalDeltas.forEach((key, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                totals.put(key, delta);
+            }
+        });
+
+        if (minutes.isEmpty() && totals.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                minutes.forEach(statsJdbcRepository::addMinuteCounts);
+                statsJdbcRepository.addTotals(totals);
+            });
+        } catch (Exception e) {
+            logger.warn("Failed to flush message stats, keeping them for the next flush: {}", e.getMessage());
+            minutes.forEach((bucket, counts) -> counts.forEach((key, count) ->
+                minuteCounts.computeIfAbsent(new MinuteKey(bucket, key), k -> new LongAdder()).add(count)));
+            totals.forEach((key, delta) -> totalDeltas.computeIfAbsent(key, k -> new LongAdder()).add(delta));
+            return;
+        }
+
+        addRedisTotals(totals);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void addRedisTotals(Map<StatsKey, Long> totals) {
+        Map<String, Long> byField = new HashMap<>();
+        totals.forEach((key, delta) -> byField.merge(field(key.getStatus(), key.getChannel()), delta, Long::sum));
+
+        try {
+            if (redisStale) {
+                // A lost increment can't be replayed safely; drop the hash so it is rebuilt from the table
+                redisTemplate.delete(TOTALS_KEY);
+                redisStale = false;
+                return;
+            }
+            byte[] key = TOTALS_KEY.getBytes(StandardCharsets.UTF_8);
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                byField.forEach((field, delta) ->
+                    connection.hashCommands().hIncrBy(key, field.getBytes(StandardCharsets.UTF_8), delta));
+                return null;
+            });
+        } catch (Exception e) {
+            logger.warn("Failed to add message stats to Redis: {}", e.getMessage());
+            redisStale = true;
+        }
+    }
+
+    /**
+     * Delete minute counts older than {@code ums.stats.minute-retention-days}.
+     */
+    @Scheduled(fixedDelayString = "${ums.stats.prune-interval-ms:3600000}")
+    public void pruneMinuteCounts() {
+        try {
+            int deleted = statsJdbcRepository.deleteMinutesBefore(currentMinute().minusDays(minuteRetentionDays));
+            if (deleted > 0) {
+                logger.info("Pruned {} minute stats rows", deleted);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to prune minute stats: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Latest monitoring figures. Built on first use, then refreshed in the background.
+     *
+     * @return Snapshot of the cluster-wide counts
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            refreshSnapshot();
+            current = snapshot;
+        }
+        return current != null ? current : Snapshot.EMPTY;
+    }
+
+    /**
+     * Rebuild the snapshot from the Redis totals and the minute counts.
+     */
+    @Scheduled(fixedDelayString = "${ums.stats.refresh-interval-ms:10000}")
+    public synchronized void refreshSnapshot() {
+        try {
+            Map<String, Long> totals = loadTotals();
+            LocalDateTime currentMinute = currentMinute();
+            loadRecentMinutes(currentMinute);
+
+            Map<String, Long> statusCounts = new HashMap<>();
+            Map<String, Long> acceptedByChannel = new HashMap<>();
+            totals.forEach((field, count) -> {
+                int separator = field.indexOf(FIELD_SEPARATOR);
+                if (separator < 0) {
+                    return;
+                }
+                String status = field.substring(0, separator);
+                if (ACCEPTED.equals(status)) {
+                    acceptedByChannel.merge(field.substring(separator + 1), count, Long::sum);
+                } else {
+                    statusCounts.merge(status, count, Long::sum);
+                }
+            });
+
+            LocalDateTime lastHour = currentMinute.minusMinutes(59);
+            snapshot = new Snapshot(
+                statusCounts,
+                acceptedByChannel,
+                sum(recentMinutes, ACCEPTED),
+                sum(recentMinutes.tailMap(lastHour, true), ACCEPTED),
+                sum(recentMinutes.tailMap(lastHour, true), MessageStatus.FAILED.name()),
+                clock.get());
+        } catch (Exception e) {
+            logger.warn("Failed to refresh message stats snapshot: {}", e.getMessage());
+        }
+    }
+
+    private Map<String, Long> loadTotals() {
+        try {
+            Map<Object, Object> hash = redisTemplate.opsForHash().entries(TOTALS_KEY);
+            if (hash.containsKey(SEEDED_FIELD)) {
+                Map<String, Long> totals = new HashMap<>();
+                hash.forEach((field, value) -> totals.put((String) field, Long.parseLong((String) value)));
+                return totals;
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to read message stats from Redis, using the table: {}", e.getMessage());
+            return tableTotals();
+        }
+
+        // Missing, or recreated by an increment after being lost: the table has every flushed delta
+        Map<String, Long> totals = tableTotals();
+        try {
+            Map<String, String> hash = new HashMap<>();
+            totals.forEach((field, count) -> hash.put(field, String.valueOf(count)));
+            hash.put(SEEDED_FIELD, "1");
+            redisTemplate.opsForHash().putAll(TOTALS_KEY, hash);
+            logger.info("Rebuilt message stats totals in Redis from {} fields", totals.size());
+        } catch (Exception e) {
+            logger.warn("Failed to rebuild message stats totals in Redis: {}", e.getMessage());
+        }
+        return totals;
+    }
+
+    private Map<String, Long> tableTotals() {
+        Map<String, Long> totals = new HashMap<>();
+        statsJdbcRepository.findTotals().forEach((key, count) ->
+            totals.merge(field(key.getStatus(), key.getChannel()), count, Long::sum));
+        return totals;
+    }
+
+    private void loadRecentMinutes(LocalDateTime currentMinute) {
+        LocalDateTime windowStart = currentMinute.minusMinutes(WINDOW_MINUTES - 1);
+        LocalDateTime reloadFrom = windowStart;
+        if (loadedThrough != null && loadedThrough.minusMinutes(SETTLE_MINUTES).isAfter(windowStart)) {
+            reloadFrom = loadedThrough.minusMinutes(SETTLE_MINUTES);
+        }
+
+        Map<LocalDateTime, Map<String, Long>> reloaded = statsJdbcRepository.sumMinutesSince(reloadFrom);
+        recentMinutes.tailMap(reloadFrom, true).clear();
+        recentMinutes.putAll(reloaded);
+        recentMinutes.headMap(windowStart, false).clear();
+        loadedThrough = currentMinute;
+    }
+
+    private static long sum(Map<LocalDateTime, Map<String, Long>> minutes, String status) {
+        long total = 0;
+        for (Map<String, Long> counts : minutes.values()) {
+            total += counts.getOrDefault(status, 0L);
+        }
+        return total;
+    }
+
+    private static String field(String status, String channel) {
+        return status + FIELD_SEPARATOR + channel;
+    }
+
+    private LocalDateTime currentMinute() {
+        return clock.get().truncatedTo(ChronoUnit.MINUTES);
+    }
+
+    private record MinuteKey(LocalDateTime bucketStart, StatsKey stats) {}
+
+    /**
+     * Cluster-wide message counts at one point in time.
+     */
+    public static class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), 0, 0, 0, null);
+
+        private final Map<String, Long> statusCounts;
+        private final Map<String, Long> acceptedByChannel;
+        private final long acceptedLast24h;
+        private final long acceptedLastHour;
+        private final long failedLastHour;
+        private final LocalDateTime refreshedAt;
+
+        public Snapshot(Map<String, Long> statusCounts, Map<String, Long> acceptedByChannel,
+                        long acceptedLast24h, long acceptedLastHour, long failedLastHour,
+                        LocalDateTime refreshedAt) {
+            this.statusCounts = Collections.unmodifiableMap(statusCounts);
+            this.acceptedByChannel = Collections.unmodifiableMap(acceptedByChannel);
+            this.acceptedLast24h = acceptedLast24h;
+            this.acceptedLastHour = acceptedLastHour;
+            this.failedLastHour = failedLastHour;
+            this.refreshedAt = refreshedAt;
+        }
+
+        /** Messages currently in the status. */
+        public long getStatusCount(MessageStatus status) {
+            return statusCounts.getOrDefault(status.name(), 0L);
+        }
+
+        /** Messages ever accepted on the channel. */
+        public long getAcceptedCount(ChannelType channel) {
+            return acceptedByChannel.getOrDefault(channel.name(), 0L);
+        }
+
+        public long getTotalAccepted() {
+            return acceptedByChannel.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public long getAcceptedLast24h() { return acceptedLast24h; }
+        public long getAcceptedLastHour() { return acceptedLastHour; }
+        public long getFailedLastHour() { return failedLastHour; }
+        public LocalDateTime getRefreshedAt() { return refreshedAt; }
+    }
+}
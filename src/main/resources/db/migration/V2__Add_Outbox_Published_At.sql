@@ -0,0 +1,11 @@
+-- Outbox relay: REQUESTED events are published to Kafka by the relay after commit
+-- instead of inside the accepting transaction.
+
+ALTER TABLE message_events ADD COLUMN published_at TIMESTAMPTZ;
+
+-- Events written before the relay existed were already published in-transaction
+UPDATE message_events SET published_at = occurred_at WHERE type = 'REQUESTED';
+
+-- Relay claim query: unpublished REQUESTED events in id order
+CREATE INDEX idx_events_unpublished ON message_events(id)
+    WHERE published_at IS NULL AND type = 'REQUESTED';
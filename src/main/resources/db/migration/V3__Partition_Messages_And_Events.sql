@@ -0,0 +1,183 @@
+-- Range-partition messages by created_at and message_events by occurred_at (monthly).
+-- Old months are detached and dropped or archived by PartitionMaintenanceService
+-- instead of being deleted row by row, and the status/type indexes stay per month.
+--
+-- PostgreSQL requires primary keys and unique constraints on a partitioned table to
+-- include the partition key, so:
+--   * the primary keys become (id, created_at) / (id, occurred_at); ids still come
+--     from the existing sequences and remain unique on their own,
+--   * request_id keeps a plain index (request ids are generated server-side),
+--   * the foreign keys to messages(id) are dropped.
+
+-- Monthly partition helper, also called by the application to create partitions ahead
+CREATE OR REPLACE FUNCTION ums_ensure_monthly_partition(parent_table TEXT, month_start DATE)
+RETURNS TEXT AS $$
+DECLARE
+    range_start DATE := date_trunc('month', month_start)::date;
+    range_end DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::date;
+    partition_name TEXT := parent_table || '_' || to_char(range_start, 'YYYYMM');
+BEGIN
+    IF to_regclass(partition_name) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, parent_table,
+                       range_start::timestamp AT TIME ZONE 'UTC',
+                       range_end::timestamp AT TIME ZONE 'UTC');
+    END IF;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detached partitions are moved here when retention runs in archive mode
+CREATE SCHEMA IF NOT EXISTS ums_archive;
+
+-- Move the existing tables aside
+ALTER TABLE provider_callbacks DROP CONSTRAINT IF EXISTS provider_callbacks_message_id_fkey;
+ALTER TABLE message_events DROP CONSTRAINT IF EXISTS message_events_message_id_fkey;
+
+DROP INDEX IF EXISTS idx_messages_request_id;
+DROP INDEX IF EXISTS idx_messages_tenant_id;
+DROP INDEX IF EXISTS idx_messages_status_created;
+DROP INDEX IF EXISTS idx_messages_idempotency;
+DROP INDEX IF EXISTS idx_messages_phone;
+DROP INDEX IF EXISTS idx_messages_email;
+DROP INDEX IF EXISTS idx_messages_ttl;
+DROP INDEX IF EXISTS idx_events_message_id;
+DROP INDEX IF EXISTS idx_events_request_id;
+DROP INDEX IF EXISTS idx_events_type_occurred;
+DROP INDEX IF EXISTS idx_events_unpublished;
+
+ALTER TABLE messages RENAME TO messages_legacy;
+ALTER TABLE messages_legacy RENAME CONSTRAINT messages_pkey TO messages_legacy_pkey;
+ALTER TABLE messages_legacy RENAME CONSTRAINT messages_request_id_key TO messages_legacy_request_id_key;
+ALTER TABLE message_events RENAME TO message_events_legacy;
+ALTER TABLE message_events_legacy RENAME CONSTRAINT message_events_pkey TO message_events_legacy_pkey;
+
+-- Keep the sequences (MessageJdbcRepository allocates ids from messages_id_seq)
+ALTER SEQUENCE messages_id_seq OWNED BY NONE;
+ALTER SEQUENCE message_events_id_seq OWNED BY NONE;
+
+-- Messages table (Outbox Pattern), partitioned by created_at
+CREATE TABLE messages (
+    id BIGINT NOT NULL DEFAULT nextval('messages_id_seq'),
+    request_id VARCHAR(50) NOT NULL,
+    tenant_id VARCHAR(50) NOT NULL,
+
+    -- Template & Channel
+    template_id BIGINT REFERENCES templates(id),
+    template_code VARCHAR(100) NOT NULL,
+    channel channel_type NOT NULL,
+    locale VARCHAR(10) NOT NULL DEFAULT 'ko-KR',
+
+    -- Recipient
+    to_json JSONB NOT NULL,
+
+    -- Rendered content
+    rendered_title TEXT,
+    rendered_body TEXT NOT NULL,
+    rendered_buttons JSONB,
+
+    -- Routing & Policy
+    routing JSONB,
+    ttl_expires_at TIMESTAMPTZ,
+    priority message_priority NOT NULL DEFAULT 'NORMAL',
+
+    -- Status tracking
+    status message_status NOT NULL DEFAULT 'PENDING',
+    provider_message_id VARCHAR(255),
+    provider_status_code VARCHAR(50),
+    retries INTEGER NOT NULL DEFAULT 0,
+    last_retry_at TIMESTAMPTZ,
+
+    -- Error handling
+    error_code VARCHAR(50),
+    error_message TEXT,
+    error_details JSONB,
+
+    -- Attachments
+    attachments JSONB,
+
+    -- Metadata
+    meta JSONB,
+    idempotency_key VARCHAR(100),
+    correlation_id VARCHAR(100),
+
+    -- Timestamps
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    sent_at TIMESTAMPTZ,
+    delivered_at TIMESTAMPTZ,
+    failed_at TIMESTAMPTZ,
+
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Message Events table, partitioned by occurred_at
+CREATE TABLE message_events (
+    id BIGINT NOT NULL DEFAULT nextval('message_events_id_seq'),
+    message_id BIGINT NOT NULL,
+    request_id VARCHAR(50) NOT NULL,
+
+    type event_type NOT NULL,
+    channel channel_type,
+    provider VARCHAR(50),
+
+    payload JSONB,
+    error_code VARCHAR(50),
+    error_message TEXT,
+
+    occurred_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    published_at TIMESTAMPTZ,
+
+    PRIMARY KEY (id, occurred_at)
+) PARTITION BY RANGE (occurred_at);
+
+ALTER SEQUENCE messages_id_seq OWNED BY messages.id;
+ALTER SEQUENCE message_events_id_seq OWNED BY message_events.id;
+
+-- Rows outside every monthly range land here; the maintenance job creates months
+-- ahead so this stays empty
+CREATE TABLE messages_default PARTITION OF messages DEFAULT;
+CREATE TABLE message_events_default PARTITION OF message_events DEFAULT;
+
+-- Monthly partitions covering the existing data and the next three months
+DO $$
+DECLARE
+    first_month DATE;
+    current_month DATE;
+BEGIN
+    SELECT date_trunc('month', LEAST(
+               COALESCE((SELECT MIN(created_at) FROM messages_legacy), NOW()),
+               COALESCE((SELECT MIN(occurred_at) FROM message_events_legacy), NOW())
+           ) AT TIME ZONE 'UTC')::date
+      INTO first_month;
+
+    current_month := first_month;
+    WHILE current_month <= (date_trunc('month', NOW() AT TIME ZONE 'UTC') + INTERVAL '3 months')::date LOOP
+        PERFORM ums_ensure_monthly_partition('messages', current_month);
+        PERFORM ums_ensure_monthly_partition('message_events', current_month);
+        current_month := (current_month + INTERVAL '1 month')::date;
+    END LOOP;
+END;
+$$;
+
+-- Copy existing rows (column order matches V1 + V2)
+INSERT INTO messages SELECT * FROM messages_legacy;
+INSERT INTO message_events SELECT * FROM message_events_legacy;
+
+DROP TABLE message_events_legacy;
+DROP TABLE messages_legacy;
+
+-- Indexes (created on every partition, present and future)
+CREATE INDEX idx_messages_request_id ON messages(request_id);
+CREATE INDEX idx_messages_tenant_id ON messages(tenant_id, created_at);
+CREATE INDEX idx_messages_status_created ON messages(status, created_at);
+CREATE INDEX idx_messages_idempotency ON messages(idempotency_key) WHERE idempotency_key IS NOT NULL;
+CREATE INDEX idx_messages_phone ON messages((to_json->>'phone')) WHERE to_json->>'phone' IS NOT NULL;
+CREATE INDEX idx_messages_email ON messages((to_json->>'email')) WHERE to_json->>'email' IS NOT NULL;
+CREATE INDEX idx_messages_ttl ON messages(ttl_expires_at) WHERE status IN ('PENDING', 'PROCESSING');
+
+CREATE INDEX idx_events_message_id ON message_events(message_id);
+CREATE INDEX idx_events_request_id ON message_events(request_id);
+CREATE INDEX idx_events_type_occurred ON message_events(type, occurred_at);
+CREATE INDEX idx_events_unpublished ON message_events(id)
+    WHERE published_at IS NULL AND type = 'REQUESTED';
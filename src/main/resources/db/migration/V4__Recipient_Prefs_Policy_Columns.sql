@@ -0,0 +1,13 @@
+-- Columns the recipient policy already maps but V1 never created, and the recipient
+-- types used for push tokens and Kakao users.
+
+ALTER TABLE recipient_prefs ADD COLUMN IF NOT EXISTS last_message_at TIMESTAMPTZ;
+ALTER TABLE recipient_prefs ADD COLUMN IF NOT EXISTS max_daily_messages INTEGER;
+ALTER TABLE recipient_prefs ADD COLUMN IF NOT EXISTS recipient_id VARCHAR(255);
+
+ALTER TABLE recipient_prefs DROP CONSTRAINT IF EXISTS chk_recipient_type;
+ALTER TABLE recipient_prefs ADD CONSTRAINT chk_recipient_type
+    CHECK (recipient_type IN ('PHONE', 'EMAIL', 'USER_ID', 'PUSH_TOKEN', 'KAKAO', 'OTHER'));
+
+-- Policy cache sync: preferences changed since the last poll
+CREATE INDEX idx_prefs_updated_at ON recipient_prefs(updated_at);
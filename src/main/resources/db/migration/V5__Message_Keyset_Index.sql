@@ -0,0 +1,9 @@
+-- Keyset listing (GET /v1/messages/scroll): newest first per tenant, with id breaking
+-- ties between messages created in the same instant, so a page is one index range scan
+-- however deep the cursor is.
+
+CREATE INDEX idx_messages_tenant_created_id ON messages(tenant_id, created_at DESC, id DESC);
+CREATE INDEX idx_messages_tenant_status_created_id ON messages(tenant_id, status, created_at DESC, id DESC);
+
+-- Covered by idx_messages_tenant_created_id
+DROP INDEX IF EXISTS idx_messages_tenant_id;
@@ -0,0 +1,45 @@
+-- Pre-aggregated message counts for the monitoring endpoints. Each node counts status
+-- transitions in memory and adds them here every few seconds, so monitoring reads these
+-- small tables instead of running COUNT(*) over messages.
+
+-- Messages that reached each status in each minute. 'ACCEPTED' counts new messages.
+CREATE TABLE message_stats_minute (
+    bucket_start TIMESTAMP NOT NULL,
+    tenant_id VARCHAR(50) NOT NULL,
+    channel VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket_start, tenant_id, channel, status)
+);
+
+-- Messages currently in each status, and 'ACCEPTED' since the beginning
+CREATE TABLE message_stats_totals (
+    tenant_id VARCHAR(50) NOT NULL,
+    channel VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (tenant_id, channel, status)
+);
+
+-- Seed from the existing rows; from here on the counts are maintained incrementally
+INSERT INTO message_stats_totals (tenant_id, channel, status, count)
+SELECT tenant_id, channel::text, status::text, COUNT(*)
+FROM messages
+GROUP BY tenant_id, channel, status;
+
+INSERT INTO message_stats_totals (tenant_id, channel, status, count)
+SELECT tenant_id, channel::text, 'ACCEPTED', COUNT(*)
+FROM messages
+GROUP BY tenant_id, channel;
+
+INSERT INTO message_stats_minute (bucket_start, tenant_id, channel, status, count)
+SELECT date_trunc('minute', created_at), tenant_id, channel::text, 'ACCEPTED', COUNT(*)
+FROM messages
+WHERE created_at >= NOW() - INTERVAL '24 hours'
+GROUP BY 1, 2, 3;
+
+INSERT INTO message_stats_minute (bucket_start, tenant_id, channel, status, count)
+SELECT date_trunc('minute', failed_at), tenant_id, channel::text, 'FAILED', COUNT(*)
+FROM messages
+WHERE status = 'FAILED' AND failed_at >= NOW() - INTERVAL '24 hours'
+GROUP BY 1, 2, 3;
@@ -0,0 +1,7 @@
+-- Unregistered FCM tokens are opted out as PUSH_TOKEN recipients, which the V1
+-- check rejected. V4 already widened the check together with the policy columns;
+-- it is restated here so the push-token opt-out does not depend on that migration.
+
+ALTER TABLE recipient_prefs DROP CONSTRAINT IF EXISTS chk_recipient_type;
+ALTER TABLE recipient_prefs ADD CONSTRAINT chk_recipient_type
+    CHECK (recipient_type IN ('PHONE', 'EMAIL', 'USER_ID', 'PUSH_TOKEN', 'KAKAO', 'OTHER'));
@@ -7,6 +7,7 @@ import com.mindshift.ums.api.exception.RateLimitExceededException;
 import com.mindshift.ums.api.exception.ValidationException;
 import com.mindshift.ums.domain.enums.ChannelType;
 import com.mindshift.ums.domain.enums.MessagePriority;
+import com.mindshift.ums.service.MessageExportService;
 import com.mindshift.ums.service.MessageService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -32,6 +33,9 @@ class MessageControllerTest {
     @MockBean
     private MessageService messageService;
 
+    @MockBean
+    private MessageExportService messageExportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -179,7 +183,7 @@ class MessageControllerTest {
             )
         );
 
-        when(messageService.listMessages(anyString(), anyInt(), anyInt(), any()))
+        when(messageService.listMessages(anyString(), anyInt(), anyInt(), any(), any()))
             .thenReturn(response);
 
         // When & Then
@@ -193,7 +197,7 @@ class MessageControllerTest {
                 .andExpected(jsonPath("$.pagination.page").value(0))
                 .andExpected(jsonPath("$.pagination.size").value(20));
 
-        verify(messageService).listMessages("Bearer test-api-key", 0, 20, null);
+        verify(messageService).listMessages("Bearer test-api-key", 0, 20, null, null);
     }
 
     @Test
@@ -211,7 +215,7 @@ class MessageControllerTest {
             )
         );
 
-        when(messageService.listMessages(anyString(), anyInt(), anyInt(), eq("SENT")))
+        when(messageService.listMessages(anyString(), anyInt(), anyInt(), eq("SENT"), any()))
             .thenReturn(response);
 
         // When & Then
@@ -222,6 +226,27 @@ class MessageControllerTest {
                 .param("status", "SENT"))
                 .andExpected(status().isOk());
 
-        verify(messageService).listMessages("Bearer test-api-key", 0, 20, "SENT");
+        verify(messageService).listMessages("Bearer test-api-key", 0, 20, "SENT", null);
+    }
+
+    @Test
+    void scrollMessages_PassesCursor() throws Exception {
+        // Given
+        SendMessageDto.MessageScrollResponse response =
+            new SendMessageDto.MessageScrollResponse(java.util.List.of(), "next-cursor", true, null);
+
+        when(messageService.scrollMessages(anyString(), eq("cursor"), anyInt(), any(), anyBoolean()))
+            .thenReturn(response);
+
+        // When & Then
+        mockMvc.perform(get("/v1/messages/scroll")
+                .header("Authorization", "Bearer test-api-key")
+                .param("after", "cursor")
+                .param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+
+        verify(messageService).scrollMessages("Bearer test-api-key", "cursor", 50, null, false);
     }
-}
\ No newline at end of file
+}
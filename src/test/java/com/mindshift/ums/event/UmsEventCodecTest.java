@@ -0,0 +1,146 @@
+package com.mindshift.ums.event;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UmsEventCodecTest {
+
+    private static final long TIMESTAMP = 1735732800123L;
+    private static final long CREATED_AT = TIMESTAMP - 5_000;
+
+    @Test
+    void encode_RoundTripsEveryEventType() {
+        // Given
+        List<UmsEvent> events = List.of(
+            new MessageRequestedEvent("req_1", "tenant1", "SMS", "order_shipped", "URGENT", CREATED_AT, TIMESTAMP),
+            new MessageStatusChangeEvent("req_1", "PENDING", "EXPIRED", "tenant1", TIMESTAMP),
+            new MessageRetryEvent("req_1", "tenant1", "FCM_PUSH", 3, TIMESTAMP + 60_000, CREATED_AT, TIMESTAMP),
+            new DeliveryStatusEvent("prov_1", "FAILED", "E42", "수신 거부", TIMESTAMP),
+            new TenantActivityEvent("tenant1", "LOGIN", Map.of("ip", "10.0.0.1"), TIMESTAMP));
+
+        for (UmsEvent event : events) {
+            // When
+            byte[] encoded = UmsEventCodec.encode(event);
+
+            // Then
+            assertEquals(UmsEventCodec.MAGIC, encoded[0]);
+            assertEquals(event, UmsEventCodec.decode(encoded));
+        }
+    }
+
+    @Test
+    void encode_KeepsNullsAndNamesOutsideTheTable() {
+        // Given
+        MessageRequestedEvent event = new MessageRequestedEvent("req_1", "tenant1", "WEBHOOK", null, null, 0L, TIMESTAMP);
+
+        // When
+        UmsEvent decoded = UmsEventCodec.decode(UmsEventCodec.encode(event));
+
+        // Then
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    void encode_IsSmallerThanTheLegacyJson() {
+        // Given
+        MessageRequestedEvent event = new MessageRequestedEvent(
+            "req_0123456789abcdef", "tenant1", "SMS", "order_shipped", "NORMAL", CREATED_AT, TIMESTAMP);
+
+        // When
+        int binary = UmsEventCodec.encode(event).length;
+        int json = UmsEventCodec.encodeJson(event).length;
+
+        // Then
+        assertTrue(binary * 3 < json, binary + " vs " + json);
+    }
+
+    @Test
+    void decode_ReadsLegacyJsonMaps() {
+        // Given
+        byte[] legacy = ("{\"type\":\"MESSAGE_RETRY\",\"requestId\":\"req_1\",\"tenantId\":\"tenant1\"," +
+            "\"channel\":\"SMS\",\"attempt\":2,\"dueAt\":1735732860000,\"timestamp\":\"2025-01-01T12:00:00\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+        // When
+        UmsEvent event = new UmsEventDeserializer().deserialize("ums.message.retry.1m.v1", legacy);
+
+        // Then
+        MessageRetryEvent retry = assertInstanceOf(MessageRetryEvent.class, event);
+        assertEquals("req_1", retry.requestId());
+        assertEquals(2, retry.attempt());
+        assertEquals(1735732860000L, retry.dueAt());
+        assertEquals(0L, retry.createdAt());
+    }
+
+    @Test
+    void decode_DefaultsCreatedAtInVersion1Events() {
+        // Given: a version 1 event is a version 2 one without the trailing creation time
+        byte[] encoded = UmsEventCodec.encode(
+            new MessageRequestedEvent("req_1", "tenant1", "SMS", "order_shipped", "LOW", CREATED_AT, TIMESTAMP));
+        byte[] version1 = Arrays.copyOf(encoded, encoded.length - 8);
+        version1[1] = 1;
+
+        // When
+        UmsEvent event = UmsEventCodec.decode(version1);
+
+        // Then
+        assertEquals(new MessageRequestedEvent("req_1", "tenant1", "SMS", "order_shipped", "LOW", 0L, TIMESTAMP),
+            event);
+    }
+
+    @Test
+    void encodeJson_RoundTripsCreatedAt() {
+        // Given
+        MessageRetryEvent event = new MessageRetryEvent("req_1", "tenant1", "SMS", 1, TIMESTAMP, CREATED_AT, TIMESTAMP);
+
+        // When
+        UmsEvent decoded = UmsEventCodec.decode(UmsEventCodec.encodeJson(event));
+
+        // Then
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    void serialize_WritesLegacyJsonWhenConfigured() {
+        // Given
+        UmsEventSerializer serializer = new UmsEventSerializer();
+        serializer.configure(Map.of(UmsEventSerializer.FORMAT_CONFIG, "json"), false);
+        DeliveryStatusEvent event = new DeliveryStatusEvent("prov_1", "DELIVERED", null, null, TIMESTAMP);
+
+        // When
+        byte[] serialized = serializer.serialize("ums.message.delivery.v1", event);
+
+        // Then
+        assertEquals('{', serialized[0]);
+        assertEquals(event, UmsEventCodec.decode(serialized));
+    }
+
+    @Test
+    void decode_RejectsNewerSchemaVersions() {
+        // Given
+        byte[] encoded = UmsEventCodec.encode(
+            new MessageStatusChangeEvent("req_1", "SENT", "DELIVERED", "tenant1", TIMESTAMP));
+        encoded[1] = (byte) (UmsEventCodec.VERSION + 1);
+
+        // When / Then
+        assertThrows(SerializationException.class, () -> UmsEventCodec.decode(encoded));
+    }
+
+    @Test
+    void decode_RejectsTruncatedEvents() {
+        // Given
+        byte[] encoded = UmsEventCodec.encode(
+            new MessageRequestedEvent("req_1", "tenant1", "SMS", "order_shipped", "HIGH", CREATED_AT, TIMESTAMP));
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 3);
+
+        // When / Then
+        assertThrows(SerializationException.class, () -> UmsEventCodec.decode(truncated));
+    }
+}
@@ -0,0 +1,110 @@
+package com.mindshift.ums.metrics;
+
+import com.mindshift.ums.domain.enums.ChannelType;
+import com.mindshift.ums.metrics.StageTimers.Stage;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StageTimersTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void record_ChainsStagesOfOneRequest() {
+        // Given
+        StageTimers stageTimers = new StageTimers(meterRegistry, true, 1.0, true, 100, false);
+
+        // When
+        long mark = stageTimers.start();
+        mark = stageTimers.record(Stage.AUTH, "tenant1", ChannelType.SMS, mark);
+        stageTimers.record(Stage.VALIDATION, "tenant1", ChannelType.SMS, mark);
+
+        // Then
+        assertEquals(1, timer("auth", "SMS", "tenant1", "none").count());
+        assertEquals(1, timer("validation", "SMS", "tenant1", "none").count());
+    }
+
+    @Test
+    void record_SharesOneTagBeyondTenantLimit() {
+        // Given
+        StageTimers stageTimers = new StageTimers(meterRegistry, true, 1.0, true, 1, false);
+
+        // When
+        stageTimers.record(Stage.POLICY, "tenant1", ChannelType.EMAIL, stageTimers.start());
+        stageTimers.record(Stage.POLICY, "tenant2", ChannelType.EMAIL, stageTimers.start());
+        stageTimers.record(Stage.POLICY, "tenant3", ChannelType.EMAIL, stageTimers.start());
+
+        // Then
+        assertEquals(1, timer("policy", "EMAIL", "tenant1", "none").count());
+        assertEquals(2, timer("policy", "EMAIL", "other", "none").count());
+    }
+
+    @Test
+    void recordBatch_SplitsStageOverTheBatch() {
+        // Given
+        StageTimers stageTimers = new StageTimers(meterRegistry, true, 1.0, false, 100, false);
+        long mark = System.nanoTime() - 4_000_000;
+
+        // When
+        long next = stageTimers.recordBatch(Stage.RATE_LIMIT, "tenant1", ChannelType.SMS, mark, 4);
+
+        // Then
+        Timer timer = timer("rate_limit", "SMS", "all", "none");
+        assertEquals(4, timer.count());
+        assertTrue(timer.totalTime(TimeUnit.MILLISECONDS) >= 4.0);
+        assertTrue(timer.max(TimeUnit.MILLISECONDS) < (next - mark) / 1_000_000.0);
+    }
+
+    @Test
+    void record_NothingWhenNotSampled() {
+        // Given
+        StageTimers stageTimers = new StageTimers(meterRegistry, true, 0.0, false, 100, false);
+
+        // When
+        long mark = stageTimers.start();
+        stageTimers.record(Stage.DB_SAVE, "tenant1", ChannelType.SMS, mark);
+        stageTimers.recordProviderCall(ChannelType.SMS, "TWILIO", 1_000_000);
+
+        // Then
+        assertEquals(StageTimers.NOT_SAMPLED, mark);
+        // Pre-registered without tenant tags, but never recorded
+        assertEquals(0, timer("db_save", "SMS", "all", "none").count());
+        assertNull(meterRegistry.find("ums.stage.latency").tag("provider", "TWILIO").timer());
+    }
+
+    @Test
+    void recordProviderCall_TagsProviderInsteadOfTenant() {
+        // Given
+        StageTimers stageTimers = new StageTimers(meterRegistry, true, 1.0, true, 100, false);
+
+        // When
+        stageTimers.recordProviderCall(ChannelType.SMS, "SOLAPI", 2_000_000);
+
+        // Then
+        Timer timer = timer("provider_call", "SMS", "all", "SOLAPI");
+        assertEquals(1, timer.count());
+        assertEquals(2.0, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    private Timer timer(String stage, String channel, String tenant, String provider) {
+        Timer timer = meterRegistry.find("ums.stage.latency")
+            .tag("stage", stage)
+            .tag("channel", channel)
+            .tag("tenant", tenant)
+            .tag("provider", provider)
+            .timer();
+        assertNotNull(timer, stage + "/" + channel + "/" + tenant + "/" + provider);
+        return timer;
+    }
+}
@@ -0,0 +1,113 @@
+package com.mindshift.ums.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindshift.ums.api.exception.ValidationException;
+import com.mindshift.ums.domain.entity.TenantConfig;
+import com.mindshift.ums.domain.enums.ChannelType;
+import com.mindshift.ums.domain.enums.MessagePriority;
+import com.mindshift.ums.domain.enums.MessageStatus;
+import com.mindshift.ums.repository.MessageJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessageExportServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2025, 1, 2, 0, 0);
+
+    @Mock
+    private AuthenticationService authenticationService;
+
+    @Mock
+    private MessageJdbcRepository messageJdbcRepository;
+
+    private MessageExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new MessageExportService(authenticationService, messageJdbcRepository,
+            new ObjectMapper(), 2, 92, 30);
+        when(authenticationService.authenticateTenant("Bearer key"))
+            .thenReturn(new TenantConfig("tenant", "Tenant", "key", "secret"));
+    }
+
+    @Test
+    void writeTo_WalksChunksWithKeysetCursor() throws Exception {
+        // Given
+        LocalDateTime t1 = FROM.plusMinutes(1);
+        LocalDateTime t2 = FROM.plusMinutes(2);
+        when(messageJdbcRepository.findSummariesChunk(eq("tenant"), any(), any(), eq(FROM), eq(TO), isNull(), isNull(), eq(2)))
+            .thenReturn(List.of(row(1, "req-1", t1), row(2, "req-2", t2)));
+        when(messageJdbcRepository.findSummariesChunk(eq("tenant"), any(), any(), eq(FROM), eq(TO), eq(t2), eq(2L), eq(2)))
+            .thenReturn(List.of(row(3, "req-3", t2)));
+
+        MessageExportService.Export export =
+            exportService.prepareExport("Bearer key", "ndjson", null, null, FROM, TO);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        export.writeTo(out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("{\"requestId\":\"req-1\""));
+        assertTrue(lines[2].contains("\"status\":\"SENT\""));
+        verify(messageJdbcRepository, times(2)).findSummariesChunk(any(), any(), any(), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void writeTo_WritesCsvWithHeaderAndEscaping() throws Exception {
+        // Given
+        when(messageJdbcRepository.findSummariesChunk(any(), eq(MessageStatus.SENT), eq(ChannelType.SMS),
+                any(), any(), any(), any(), anyInt()))
+            .thenReturn(List.of(row(1, "req,1", FROM.plusMinutes(1))));
+
+        MessageExportService.Export export =
+            exportService.prepareExport("Bearer key", "csv", "sent", ChannelType.SMS, FROM, TO);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        export.writeTo(out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("requestId,status,channel"));
+        assertTrue(lines[1].startsWith("\"req,1\",SENT,SMS,"));
+    }
+
+    @Test
+    void prepareExport_RejectsRangeOverLimit() {
+        // When / Then
+        assertThrows(ValidationException.class,
+            () -> exportService.prepareExport("Bearer key", "ndjson", null, null, FROM, FROM.plusDays(100)));
+        verifyNoInteractions(messageJdbcRepository);
+    }
+
+    @Test
+    void prepareExport_RejectsUnknownStatus() {
+        // When / Then
+        assertThrows(ValidationException.class,
+            () -> exportService.prepareExport("Bearer key", "ndjson", "DELIVERD", null, FROM, FROM.plusDays(1)));
+        verifyNoInteractions(messageJdbcRepository);
+    }
+
+    private MessageJdbcRepository.MessageSummary row(long id, String requestId, LocalDateTime createdAt) {
+        return new MessageJdbcRepository.MessageSummary(id, requestId, MessageStatus.SENT, ChannelType.SMS,
+            "WELCOME", MessagePriority.NORMAL, 0, null, "provider-" + id, createdAt, createdAt, null, null);
+    }
+}
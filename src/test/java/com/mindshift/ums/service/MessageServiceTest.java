@@ -2,6 +2,7 @@ package com.mindshift.ums.service;
 
 import com.mindshift.ums.api.dto.SendMessageDto;
 import com.mindshift.ums.api.exception.MessageNotFoundException;
+import com.mindshift.ums.api.exception.ValidationException;
 import com.mindshift.ums.domain.entity.Message;
 import com.mindshift.ums.domain.entity.MessageEvent;
 import com.mindshift.ums.domain.entity.Template;
@@ -9,12 +10,14 @@ import com.mindshift.ums.domain.entity.TenantConfig;
 import com.mindshift.ums.domain.enums.ChannelType;
 import com.mindshift.ums.domain.enums.MessagePriority;
 import com.mindshift.ums.domain.enums.MessageStatus;
+import com.mindshift.ums.metrics.StageTimers;
 import com.mindshift.ums.repository.MessageEventRepository;
+import com.mindshift.ums.repository.MessageJdbcRepository;
 import com.mindshift.ums.repository.MessageRepository;
 import com.mindshift.ums.repository.TenantConfigRepository;
-import com.mindshift.ums.service.kafka.KafkaProducerService;
 import com.mindshift.ums.service.security.RateLimitService;
 import com.mindshift.ums.service.security.RecipientPolicyService;
+import com.mindshift.ums.service.stats.MessageStatsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,6 +25,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -57,7 +62,13 @@ class MessageServiceTest {
     private RecipientPolicyService recipientPolicyService;
 
     @Mock
-    private KafkaProducerService kafkaProducerService;
+    private MessageJdbcRepository messageJdbcRepository;
+
+    @Mock
+    private MessageStatsService messageStatsService;
+
+    @Mock
+    private StageTimers stageTimers;
 
     @InjectMocks
     private MessageService messageService;
@@ -115,8 +126,8 @@ class MessageServiceTest {
         when(validationService.checkIdempotency(idempotencyKey, testTenant.getTenantId()))
             .thenReturn(Optional.empty());
 
-        when(rateLimitService.checkRateLimit(anyString(), anyString(), anyInt(), anyInt()))
-            .thenReturn(new RateLimitService.RateLimitResult(true, 999, 1000, System.currentTimeMillis() + 3600000));
+        when(rateLimitService.checkRateLimits(anyList()))
+            .thenAnswer(invocation -> allowed(invocation.getArgument(0)));
 
         when(templateService.loadTemplate(testTenant, "welcome_sms", ChannelType.SMS, "ko"))
             .thenReturn(testTemplate);
@@ -145,8 +156,7 @@ class MessageServiceTest {
         verify(templateService).renderTemplate(testTemplate, testRequest.getTemplateData());
         verify(messageRepository).save(any(Message.class));
         verify(messageEventRepository).save(any(MessageEvent.class));
-        verify(kafkaProducerService).publishMessageRequested(anyString(), anyString(), anyString(), anyString(), anyString());
-        verify(validationService).releaseIdempotencyLock(idempotencyKey);
+        verify(validationService).completeIdempotency(idempotencyKey, testTenant.getTenantId(), result);
     }
 
     @Test
@@ -157,7 +167,7 @@ class MessageServiceTest {
 
         when(authenticationService.authenticateTenant(authorization)).thenReturn(testTenant);
         when(validationService.checkIdempotency(idempotencyKey, testTenant.getTenantId()))
-            .thenReturn(Optional.of(testMessage));
+            .thenReturn(Optional.of(testMessage.getRequestId()));
 
         // When
         String result = messageService.acceptMessage(testRequest, idempotencyKey, authorization);
@@ -168,7 +178,132 @@ class MessageServiceTest {
         verify(authenticationService).authenticateTenant(authorization);
         verify(validationService).checkIdempotency(idempotencyKey, testTenant.getTenantId());
         verify(messageRepository, never()).save(any());
-        verify(kafkaProducerService, never()).publishMessageRequested(anyString(), anyString(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void acceptBatch_Success() {
+        // Given
+        String idempotencyKey = "batch-idempotency-key";
+        String authorization = "Bearer test-api-key";
+
+        SendMessageDto.BatchSendRequest batchRequest = new SendMessageDto.BatchSendRequest();
+        batchRequest.setChannel(ChannelType.SMS);
+        batchRequest.setTemplateCode("welcome_sms");
+        batchRequest.setLocale("ko");
+        batchRequest.setVariables(Map.of("username", "고객"));
+        SendMessageDto.BatchRecipientDto first = batchRecipient("+821011111111");
+        SendMessageDto.BatchRecipientDto second = batchRecipient("+821022222222");
+        SendMessageDto.BatchRecipientDto invalid = batchRecipient("invalid");
+        batchRequest.setRecipients(List.of(first, second, invalid));
+
+        when(authenticationService.authenticateTenant(authorization)).thenReturn(testTenant);
+        when(validationService.checkBatchIdempotency(eq(idempotencyKey), anyList(), eq(testTenant.getTenantId())))
+            .thenReturn(Optional.empty());
+        doThrow(new ValidationException("Recipient validation failed"))
+            .when(validationService).validateRecipient(same(invalid.getTo()), eq(ChannelType.SMS));
+
+        when(templateService.loadTemplate(testTenant, "welcome_sms", ChannelType.SMS, "ko"))
+            .thenReturn(testTemplate);
+        when(templateService.renderTemplate(eq(testTemplate), anyMap()))
+            .thenReturn(Map.of("body", "고객님, 가입을 환영합니다!"));
+        when(recipientPolicyService.checkRecipientPolicy(eq(testTenant.getTenantId()), any(), eq(ChannelType.SMS)))
+            .thenReturn(RecipientPolicyService.PolicyCheckResult.success());
+        when(rateLimitService.checkRateLimits(anyList()))
+            .thenAnswer(invocation -> allowed(invocation.getArgument(0)));
+        when(rateLimitService.checkRateLimitsPipelined(anyList()))
+            .thenAnswer(invocation -> invocation.<List<List<RateLimitService.RateLimitCheck>>>getArgument(0).stream()
+                .map(checks -> allowed(checks))
+                .toList());
+        when(messageJdbcRepository.allocateMessageIds(2)).thenReturn(List.of(10L, 11L));
+
+        // When
+        SendMessageDto.BatchAcceptResponse result =
+            messageService.acceptBatch(batchRequest, idempotencyKey, authorization);
+
+        // Then
+        assertEquals(2, result.getAccepted());
+        assertEquals(1, result.getRejected());
+        assertTrue(result.getResults().get(0).getRequestId().startsWith("req_"));
+        assertEquals("REJECTED", result.getResults().get(2).getStatus());
+
+        verify(authenticationService, times(1)).authenticateTenant(authorization);
+        verify(templateService, times(1)).loadTemplate(testTenant, "welcome_sms", ChannelType.SMS, "ko");
+        verify(rateLimitService).checkRateLimits(argThat(checks ->
+            checks.size() == 1 && checks.get(0).getTokensRequested() == 2));
+        verify(rateLimitService).checkRateLimitsPipelined(argThat(groups -> groups.size() == 2));
+        verify(messageJdbcRepository).insertMessages(argThat(messages -> messages.size() == 2));
+        verify(messageJdbcRepository).insertEvents(argThat(events -> events.size() == 2));
+        verify(messageRepository, never()).save(any());
+        verify(validationService).completeIdempotency(idempotencyKey, testTenant.getTenantId(), result.getBatchId());
+    }
+
+    @Test
+    void acceptBatch_ChargesTenantOnlyForRecipientsWithinTheirLimit() {
+        // Given
+        String idempotencyKey = "batch-idempotency-key";
+        String authorization = "Bearer test-api-key";
+
+        SendMessageDto.BatchSendRequest batchRequest = new SendMessageDto.BatchSendRequest();
+        batchRequest.setChannel(ChannelType.SMS);
+        batchRequest.setTemplateCode("welcome_sms");
+        batchRequest.setRecipients(List.of(batchRecipient("+821011111111"), batchRecipient("+821022222222")));
+
+        when(authenticationService.authenticateTenant(authorization)).thenReturn(testTenant);
+        when(validationService.checkBatchIdempotency(eq(idempotencyKey), anyList(), eq(testTenant.getTenantId())))
+            .thenReturn(Optional.empty());
+        when(templateService.loadTemplate(eq(testTenant), eq("welcome_sms"), eq(ChannelType.SMS), any()))
+            .thenReturn(testTemplate);
+        when(templateService.renderTemplate(eq(testTemplate), any()))
+            .thenReturn(Map.of("body", "가입을 환영합니다!"));
+        when(recipientPolicyService.checkRecipientPolicy(eq(testTenant.getTenantId()), any(), eq(ChannelType.SMS)))
+            .thenReturn(RecipientPolicyService.PolicyCheckResult.success());
+        // The first recipient is over its limit
+        when(rateLimitService.checkRateLimitsPipelined(anyList()))
+            .thenAnswer(invocation -> {
+                List<List<RateLimitService.RateLimitCheck>> groups = invocation.getArgument(0);
+                return List.of(denied(groups.get(0)), allowed(groups.get(1)));
+            });
+        when(rateLimitService.checkRateLimits(anyList()))
+            .thenAnswer(invocation -> allowed(invocation.getArgument(0)));
+        when(messageJdbcRepository.allocateMessageIds(1)).thenReturn(List.of(10L));
+
+        // When
+        SendMessageDto.BatchAcceptResponse result =
+            messageService.acceptBatch(batchRequest, idempotencyKey, authorization);
+
+        // Then
+        assertEquals(1, result.getAccepted());
+        assertEquals("REJECTED", result.getResults().get(0).getStatus());
+        verify(rateLimitService).checkRateLimits(argThat(checks ->
+            checks.size() == 1 && checks.get(0).getTokensRequested() == 1));
+    }
+
+    @Test
+    void acceptBatch_ReplaysCompletedBatchWithoutAcceptedItems() {
+        // Given
+        String idempotencyKey = "batch-idempotency-key";
+        String authorization = "Bearer test-api-key";
+
+        SendMessageDto.BatchSendRequest batchRequest = new SendMessageDto.BatchSendRequest();
+        batchRequest.setChannel(ChannelType.SMS);
+        batchRequest.setTemplateCode("welcome_sms");
+        batchRequest.setRecipients(List.of(batchRecipient("+821011111111")));
+
+        when(authenticationService.authenticateTenant(authorization)).thenReturn(testTenant);
+        when(validationService.checkBatchIdempotency(eq(idempotencyKey), anyList(), eq(testTenant.getTenantId())))
+            .thenReturn(Optional.of(new ValidationService.BatchReplay("batch_123", List.of())));
+
+        // When
+        SendMessageDto.BatchAcceptResponse result =
+            messageService.acceptBatch(batchRequest, idempotencyKey, authorization);
+
+        // Then
+        assertEquals("batch_123", result.getBatchId());
+        assertEquals(0, result.getAccepted());
+        assertEquals("REJECTED", result.getResults().get(0).getStatus());
+        verifyNoInteractions(templateService, rateLimitService);
+        verify(messageJdbcRepository, never()).insertMessages(anyList());
+        verify(validationService, never()).completeIdempotency(any(), any(), any());
     }
 
     @Test
@@ -220,7 +355,7 @@ class MessageServiceTest {
             .thenReturn(mockPage);
 
         // When
-        Map<String, Object> result = messageService.listMessages(authorization, 0, 20, null);
+        Map<String, Object> result = messageService.listMessages(authorization, 0, 20, null, null);
 
         // Then
         assertNotNull(result);
@@ -235,4 +370,48 @@ class MessageServiceTest {
         verify(authenticationService).authenticateTenant(authorization);
         verify(messageRepository).findAllByTenantId(eq(testTenant.getTenantId()), any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void listMessages_BoundsTheScanWhenCreatedAfterIsGiven() {
+        // Given
+        String authorization = "Bearer test-api-key";
+        LocalDateTime createdAfter = LocalDateTime.now().minusDays(7);
+        testMessage.setCreatedAt(LocalDateTime.now());
+        when(authenticationService.authenticateTenant(authorization)).thenReturn(testTenant);
+        when(messageRepository.findAllByTenantIdAndStatusAndCreatedAtAfter(
+                eq(testTenant.getTenantId()), eq(MessageStatus.SENT), eq(createdAfter), any()))
+            .thenReturn(new org.springframework.data.domain.PageImpl<>(List.of(testMessage)));
+
+        // When
+        Map<String, Object> result = messageService.listMessages(authorization, 0, 20, "sent", createdAfter);
+
+        // Then
+        assertEquals(1, ((List<?>) result.get("messages")).size());
+        verify(messageRepository, never()).findAllByTenantIdAndStatus(any(), any(), any());
+    }
+
+    private RateLimitService.MultiRateLimitResult allowed(List<RateLimitService.RateLimitCheck> checks) {
+        List<RateLimitService.RateLimitResult> results = checks.stream()
+            .map(check -> new RateLimitService.RateLimitResult(true, check.getRequestsPerHour() - 1,
+                check.getRequestsPerHour(), System.currentTimeMillis() + 3600000))
+            .toList();
+        return new RateLimitService.MultiRateLimitResult(true, checks, results, -1);
+    }
+
+    private RateLimitService.MultiRateLimitResult denied(List<RateLimitService.RateLimitCheck> checks) {
+        List<RateLimitService.RateLimitResult> results = checks.stream()
+            .map(check -> new RateLimitService.RateLimitResult(false, 0,
+                check.getRequestsPerHour(), System.currentTimeMillis() + 3600000))
+            .toList();
+        return new RateLimitService.MultiRateLimitResult(false, checks, results, 0);
+    }
+
+    private SendMessageDto.BatchRecipientDto batchRecipient(String phone) {
+        SendMessageDto.RecipientDto to = new SendMessageDto.RecipientDto();
+        to.setPhone(phone);
+
+        SendMessageDto.BatchRecipientDto recipient = new SendMessageDto.BatchRecipientDto();
+        recipient.setTo(to);
+        return recipient;
+    }
+}
@@ -0,0 +1,75 @@
+package com.mindshift.ums.service;
+
+import com.mindshift.ums.api.exception.ValidationException;
+import com.mindshift.ums.domain.entity.Template;
+import com.mindshift.ums.domain.enums.ChannelType;
+import com.mindshift.ums.repository.TemplateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class TemplateServiceTest {
+
+    @Mock
+    private TemplateRepository templateRepository;
+
+    private TemplateService templateService;
+
+    private Template testTemplate;
+
+    @BeforeEach
+    void setUp() {
+        templateService = new TemplateService(templateRepository, 100);
+
+        testTemplate = new Template("welcome_sms", ChannelType.SMS, "ko", "환영합니다!", "{{username}}님, 가입을 환영합니다!");
+        testTemplate.setId(1L);
+        testTemplate.setVersion(1);
+        testTemplate.setUpdatedAt(LocalDateTime.of(2025, 9, 23, 6, 0));
+    }
+
+    @Test
+    void renderTemplate_RepeatedRenders() {
+        // When
+        Map<String, String> first = templateService.renderTemplate(testTemplate, Map.of("username", "김철수"));
+        Map<String, String> second = templateService.renderTemplate(testTemplate, Map.of("username", "이영희"));
+
+        // Then
+        assertEquals("환영합니다!", first.get("title"));
+        assertEquals("김철수님, 가입을 환영합니다!", first.get("body"));
+        assertEquals("이영희님, 가입을 환영합니다!", second.get("body"));
+    }
+
+    @Test
+    void renderTemplate_PicksUpNewRevision() {
+        // Given
+        templateService.renderTemplate(testTemplate, Map.of("username", "김철수"));
+
+        testTemplate.setBody("{{username}}님, 다시 오신 것을 환영합니다!");
+        testTemplate.setVersion(2);
+
+        // When
+        Map<String, String> rendered = templateService.renderTemplate(testTemplate, Map.of("username", "김철수"));
+
+        // Then
+        assertEquals("김철수님, 다시 오신 것을 환영합니다!", rendered.get("body"));
+    }
+
+    @Test
+    void validateTemplate_MissingVariable() {
+        // Given
+        templateService.validateTemplate(testTemplate, Map.of("username", "김철수"));
+
+        // When & Then
+        assertThrows(ValidationException.class, () -> {
+            templateService.validateTemplate(testTemplate, Map.of());
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package com.mindshift.ums.service.adapter;
+
+import com.mindshift.ums.domain.enums.MessagePriority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkDispatchStageTest {
+
+    private final List<List<String>> sentBatches = new ArrayList<>();
+
+    private BulkDispatchStage bulkDispatchStage;
+
+    @BeforeEach
+    void setUp() {
+        bulkDispatchStage = new BulkDispatchStage(Runnable::run, true, 50, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkDispatchStage.shutdown();
+    }
+
+    @Test
+    void submit_SendsFullBatchImmediately() throws Exception {
+        // When
+        CompletableFuture<String> first = bulkDispatchStage.submit("SMS:otp", "a", this::send);
+        CompletableFuture<String> second = bulkDispatchStage.submit("SMS:otp", "b", this::send);
+        CompletableFuture<String> third = bulkDispatchStage.submit("SMS:otp", "c", this::send);
+
+        // Then
+        assertTrue(third.isDone());
+        assertEquals(List.of(List.of("a", "b", "c")), sentBatches);
+        assertEquals("sent:a", first.get());
+        assertEquals("sent:b", second.get());
+        assertEquals("sent:c", third.get());
+    }
+
+    @Test
+    void submit_SendsPartialBatchAfterLinger() throws Exception {
+        // When
+        CompletableFuture<String> otp = bulkDispatchStage.submit("SMS:otp", "a", this::send);
+        CompletableFuture<String> welcome = bulkDispatchStage.submit("EMAIL:welcome", "b", this::send);
+
+        // Then
+        assertEquals("sent:a", otp.get(1, TimeUnit.SECONDS));
+        assertEquals("sent:b", welcome.get(1, TimeUnit.SECONDS));
+        assertEquals(2, sentBatches.size());
+    }
+
+    @Test
+    void submit_FailsEveryRequestWhenSenderThrows() {
+        // When
+        CompletableFuture<String> first = bulkDispatchStage.submit("SMS:otp", "a", this::fail);
+        CompletableFuture<String> second = bulkDispatchStage.submit("SMS:otp", "b", this::fail);
+
+        // Then
+        assertThrows(ExecutionException.class, () -> first.get(1, TimeUnit.SECONDS));
+        assertThrows(ExecutionException.class, () -> second.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void isEnabledFor_BypassesUrgentAndHighPriorities() {
+        // When / Then
+        assertTrue(bulkDispatchStage.isEnabledFor(MessagePriority.LOW));
+        assertTrue(bulkDispatchStage.isEnabledFor(MessagePriority.NORMAL));
+        assertFalse(bulkDispatchStage.isEnabledFor(MessagePriority.HIGH));
+        assertFalse(bulkDispatchStage.isEnabledFor(MessagePriority.URGENT));
+    }
+
+    private synchronized List<String> send(List<String> requests) {
+        sentBatches.add(List.copyOf(requests));
+        return requests.stream().map(request -> "sent:" + request).toList();
+    }
+
+    private List<String> fail(List<String> requests) {
+        throw new RuntimeException("provider down");
+    }
+}
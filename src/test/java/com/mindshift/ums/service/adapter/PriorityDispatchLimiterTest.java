@@ -0,0 +1,77 @@
+package com.mindshift.ums.service.adapter;
+
+import com.mindshift.ums.domain.enums.MessagePriority;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriorityDispatchLimiterTest {
+
+    private PriorityDispatchLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new PriorityDispatchLimiter(4, Map.of(MessagePriority.LOW, 50));
+    }
+
+    @Test
+    void lowPriorityLeavesSlotsForUrgent() throws Exception {
+        // Given
+        limiter.acquire(MessagePriority.LOW);
+        limiter.acquire(MessagePriority.LOW);
+
+        // When
+        CompletableFuture<Void> thirdLow = CompletableFuture.runAsync(() -> acquireQuietly(MessagePriority.LOW));
+
+        // Then
+        assertThrows(Exception.class, () -> thirdLow.get(100, TimeUnit.MILLISECONDS));
+        limiter.acquire(MessagePriority.URGENT);
+        limiter.acquire(MessagePriority.URGENT);
+        assertEquals(4, limiter.getInFlight());
+
+        limiter.release(MessagePriority.LOW);
+        thirdLow.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void nullPriorityCountsAsNormal() throws Exception {
+        // When
+        limiter.acquire(null);
+
+        // Then
+        assertEquals(1, limiter.getInFlight());
+        limiter.release(null);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void interruptedAcquireHoldsNoSlot() throws Exception {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire(MessagePriority.URGENT);
+        }
+        Thread waiter = new Thread(() -> acquireQuietly(MessagePriority.URGENT));
+        waiter.start();
+
+        // When
+        waiter.interrupt();
+        waiter.join(1000);
+        limiter.release(MessagePriority.URGENT);
+
+        // Then
+        assertEquals(3, limiter.getInFlight());
+    }
+
+    private void acquireQuietly(MessagePriority priority) {
+        try {
+            limiter.acquire(priority);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.mindshift.ums.service.adapter.impl;
+
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.SendResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class FcmMulticastSenderTest {
+
+    private FirebaseMessaging messaging;
+    private FcmMulticastSender sender;
+
+    @BeforeEach
+    void setUp() {
+        messaging = mock(FirebaseMessaging.class);
+        sender = new FcmMulticastSender(messaging, 2);
+    }
+
+    @Test
+    void send_SplitsIntoBatchesAndKeepsOrder() throws Exception {
+        // Given
+        when(messaging.sendEach(anyList()))
+            .thenReturn(batch(success("m1"), success("m2")))
+            .thenReturn(batch(success("m3")));
+
+        // When
+        List<FcmMulticastSender.PushResult> results = sender.send(pushes(3));
+
+        // Then
+        verify(messaging, times(2)).sendEach(anyList());
+        assertEquals(3, results.size());
+        assertEquals("m1", results.get(0).getMessageId());
+        assertEquals("m3", results.get(2).getMessageId());
+    }
+
+    @Test
+    void send_FlagsUnregisteredToken() throws Exception {
+        // Given
+        when(messaging.sendEach(anyList()))
+            .thenReturn(batch(success("m1"), failure(MessagingErrorCode.UNREGISTERED)));
+
+        // When
+        List<FcmMulticastSender.PushResult> results = sender.send(pushes(2));
+
+        // Then
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("UNREGISTERED_TOKEN", results.get(1).getErrorCode());
+        assertTrue(results.get(1).isTokenUnregistered());
+    }
+
+    @Test
+    void send_TransientErrorIsRetryableAndKeepsToken() throws Exception {
+        // Given
+        when(messaging.sendEach(anyList()))
+            .thenReturn(batch(failure(MessagingErrorCode.UNAVAILABLE)));
+
+        // When
+        List<FcmMulticastSender.PushResult> results = sender.send(pushes(1));
+
+        // Then
+        assertEquals("SEND_FAILED", results.get(0).getErrorCode());
+        assertFalse(results.get(0).isTokenUnregistered());
+    }
+
+    @Test
+    void send_BatchCallFailureFailsEveryPush() throws Exception {
+        // Given
+        FirebaseMessagingException error = mock(FirebaseMessagingException.class);
+        when(messaging.sendEach(anyList())).thenThrow(error);
+
+        // When
+        List<FcmMulticastSender.PushResult> results = sender.send(pushes(2));
+
+        // Then
+        assertEquals(2, results.size());
+        assertTrue(results.stream().allMatch(result -> "SEND_FAILED".equals(result.getErrorCode())));
+    }
+
+    private List<FcmMulticastSender.Push> pushes(int count) {
+        List<FcmMulticastSender.Push> pushes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            pushes.add(new FcmMulticastSender.Push("token-" + i, "Title", "Body",
+                Map.of("ums_request_id", "req-" + i), null, null, null, false, null));
+        }
+        return pushes;
+    }
+
+    private BatchResponse batch(SendResponse... responses) {
+        BatchResponse batch = mock(BatchResponse.class);
+        when(batch.getResponses()).thenReturn(List.of(responses));
+        return batch;
+    }
+
+    private SendResponse success(String messageId) {
+        SendResponse response = mock(SendResponse.class);
+        when(response.isSuccessful()).thenReturn(true);
+        when(response.getMessageId()).thenReturn(messageId);
+        return response;
+    }
+
+    private SendResponse failure(MessagingErrorCode errorCode) {
+        FirebaseMessagingException error = mock(FirebaseMessagingException.class);
+        when(error.getMessagingErrorCode()).thenReturn(errorCode);
+        SendResponse response = mock(SendResponse.class);
+        when(response.isSuccessful()).thenReturn(false);
+        when(response.getException()).thenReturn(error);
+        return response;
+    }
+}
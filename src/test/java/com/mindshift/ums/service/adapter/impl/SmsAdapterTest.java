@@ -0,0 +1,95 @@
+package com.mindshift.ums.service.adapter.impl;
+
+import com.mindshift.ums.domain.entity.Message;
+import com.mindshift.ums.domain.enums.ChannelType;
+import com.mindshift.ums.metrics.StageTimers;
+import com.mindshift.ums.service.adapter.BulkDispatchStage;
+import com.mindshift.ums.service.adapter.ChannelAdapter;
+import com.mindshift.ums.service.adapter.provider.ProviderHealthRegistry;
+import com.mindshift.ums.service.adapter.provider.ProviderManager;
+import com.mindshift.ums.service.adapter.provider.SmsProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SmsAdapterTest {
+
+    @Mock
+    private SmsProvider twilio;
+
+    @Mock
+    private SmsProvider solapi;
+
+    @Mock
+    private ProviderHealthRegistry providerHealth;
+
+    @Mock
+    private StageTimers stageTimers;
+
+    @Mock
+    private BulkDispatchStage bulkDispatchStage;
+
+    private ProviderManager providerManager;
+
+    @BeforeEach
+    void setUp() {
+        when(twilio.getProviderName()).thenReturn("TWILIO");
+        when(twilio.isEnabled()).thenReturn(true);
+        providerManager = new ProviderManager(List.of(twilio, solapi), List.of(), providerHealth, stageTimers);
+    }
+
+    @Test
+    void send_DoesNotCallPreferredProviderWithOpenCircuit() {
+        // Given
+        when(providerHealth.tryAcquire("TWILIO")).thenReturn(false);
+        SmsAdapter adapter = new SmsAdapter(providerManager, bulkDispatchStage, "TWILIO", false);
+
+        // When
+        ChannelAdapter.SendResult result = adapter.send(message());
+
+        // Then
+        assertFalse(result.isSuccess());
+        assertEquals("NO_PROVIDER", result.getErrorCode());
+        verify(twilio, never()).sendSms(any(), any(), any(), any());
+        verify(providerHealth, never()).record(anyString(), anyBoolean(), anyLong());
+    }
+
+    @Test
+    void send_FallsBackWhenPreferredProviderCircuitIsOpen() {
+        // Given
+        when(solapi.getProviderName()).thenReturn("SOLAPI");
+        when(solapi.isEnabled()).thenReturn(true);
+        when(providerHealth.tryAcquire("TWILIO")).thenReturn(false);
+        when(providerHealth.tryAcquire("SOLAPI")).thenReturn(true);
+        when(providerHealth.selectionOrder(anyList(), any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(solapi.sendSms(anyString(), anyString(), anyMap())).thenReturn(SmsProvider.SmsResult.success("s1", null));
+        SmsAdapter adapter = new SmsAdapter(providerManager, bulkDispatchStage, "TWILIO", true);
+
+        // When
+        ChannelAdapter.SendResult result = adapter.send(message());
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals("s1", result.getProviderMessageId());
+        verify(twilio, never()).sendSms(any(), any(), any(), any());
+        verify(twilio, never()).sendSms(any(), any(), any());
+        verify(providerHealth).record(eq("SOLAPI"), eq(true), anyLong());
+    }
+
+    private Message message() {
+        Message message = new Message("req_1", "tenant1", ChannelType.SMS, "WELCOME_01");
+        message.setToJson(Map.of("phone", "+821012345678"));
+        message.setRenderedBody("Welcome");
+        return message;
+    }
+}
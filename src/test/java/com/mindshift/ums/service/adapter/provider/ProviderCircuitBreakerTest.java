@@ -0,0 +1,133 @@
+package com.mindshift.ums.service.adapter.provider;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderCircuitBreakerTest {
+
+    private static final long FAST = 10_000_000L;     // 10 ms
+    private static final long SLOW = 5_000_000_000L;  // 5 s
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+
+    private ProviderCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        breaker = new ProviderCircuitBreaker("twilio", 10, 4, 50, 80, 3000, 30_000, 2, clock::get);
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        // Given
+        record(true, FAST);
+        record(true, FAST);
+        record(false, FAST);
+
+        // When
+        boolean changed = breaker.onResult(false, FAST);
+
+        // Then
+        assertTrue(changed);
+        assertEquals(ProviderCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertFalse(breaker.isCallPermitted());
+    }
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        // When
+        record(false, FAST);
+        record(false, FAST);
+        record(false, FAST);
+
+        // Then
+        assertEquals(ProviderCircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void opensWhenCallsAreSlow() {
+        // When
+        for (int i = 0; i < 4; i++) {
+            record(true, SLOW);
+        }
+
+        // Then
+        assertEquals(ProviderCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void closesAfterSuccessfulProbes() {
+        // Given
+        tripOpen();
+        clock.addAndGet(30_000);
+
+        // When
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.onResult(true, FAST);
+        breaker.onResult(true, FAST);
+
+        // Then
+        assertEquals(ProviderCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void reopensWhenProbeFails() {
+        // Given
+        tripOpen();
+        clock.addAndGet(30_000);
+
+        // When
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(false, FAST);
+
+        // Then
+        assertEquals(ProviderCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(clock.get() + 30_000, breaker.getOpenUntil());
+    }
+
+    @Test
+    void openUntil_AppliesStateSharedByAnotherNode() {
+        // When
+        boolean changed = breaker.openUntil(clock.get() + 10_000);
+
+        // Then
+        assertTrue(changed);
+        assertFalse(breaker.tryAcquire());
+        assertFalse(breaker.openUntil(clock.get() - 1));
+    }
+
+    @Test
+    void errorCodeOf_SeparatesRejectionsFromProviderFaults() {
+        // When / Then
+        assertEquals(ProviderStatusException.REJECTED,
+            ProviderStatusException.errorCodeOf(new ProviderStatusException(400, "invalid number")));
+        assertEquals(ProviderStatusException.REJECTED,
+            ProviderStatusException.errorCodeOf(new ProviderStatusException(404, "unknown recipient")));
+        assertEquals("SEND_FAILED",
+            ProviderStatusException.errorCodeOf(new ProviderStatusException(429, "rate limited")));
+        assertEquals("SEND_FAILED",
+            ProviderStatusException.errorCodeOf(new ProviderStatusException(503, "unavailable")));
+        assertEquals("SEND_FAILED",
+            ProviderStatusException.errorCodeOf(new java.util.concurrent.TimeoutException("timed out")));
+    }
+
+    private void tripOpen() {
+        for (int i = 0; i < 4; i++) {
+            record(false, FAST);
+        }
+        assertEquals(ProviderCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private void record(boolean success, long durationNanos) {
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(success, durationNanos);
+    }
+}
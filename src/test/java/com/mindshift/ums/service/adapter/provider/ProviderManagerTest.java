@@ -0,0 +1,85 @@
+package com.mindshift.ums.service.adapter.provider;
+
+import com.mindshift.ums.metrics.StageTimers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProviderManagerTest {
+
+    @Mock
+    private SmsProvider twilio;
+
+    @Mock
+    private SmsProvider solapi;
+
+    @Mock
+    private ProviderHealthRegistry providerHealth;
+
+    @Mock
+    private StageTimers stageTimers;
+
+    private ProviderManager providerManager;
+
+    @BeforeEach
+    void setUp() {
+        when(twilio.getProviderName()).thenReturn("TWILIO");
+        when(twilio.isEnabled()).thenReturn(true);
+        when(solapi.getProviderName()).thenReturn("SOLAPI");
+        when(solapi.isEnabled()).thenReturn(true);
+        providerManager = new ProviderManager(List.of(twilio, solapi), List.of(), providerHealth, stageTimers);
+    }
+
+    @Test
+    void sendSmsBatch_RetriesOnlyFailedMessagesThroughFallback() {
+        // Given
+        List<SmsProvider.SmsRequest> requests = List.of(request("+821011111111"), request("+821022222222"));
+        when(providerHealth.tryAcquire(anyString())).thenReturn(true);
+        when(providerHealth.selectionOrder(anyList(), any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(twilio.sendSmsBatch(requests)).thenReturn(List.of(
+            SmsProvider.SmsResult.success("t1", null),
+            SmsProvider.SmsResult.failure("SEND_FAILED", "timeout")));
+        when(twilio.sendSmsBatch(List.of(requests.get(1))))
+            .thenReturn(List.of(SmsProvider.SmsResult.failure("SEND_FAILED", "timeout")));
+        when(solapi.sendSmsBatch(List.of(requests.get(1))))
+            .thenReturn(List.of(SmsProvider.SmsResult.success("s2", null)));
+
+        // When
+        List<SmsProvider.SmsResult> results = providerManager.sendSmsBatch(requests, "TWILIO", true);
+
+        // Then
+        assertEquals("t1", results.get(0).getMessageId());
+        assertEquals("s2", results.get(1).getMessageId());
+        verify(solapi, never()).sendSmsBatch(requests);
+    }
+
+    @Test
+    void sendSmsBatch_WithoutFallbackKeepsPreferredProviderFailures() {
+        // Given
+        List<SmsProvider.SmsRequest> requests = List.of(request("+821011111111"));
+        when(providerHealth.tryAcquire("TWILIO")).thenReturn(true);
+        when(twilio.sendSmsBatch(requests))
+            .thenReturn(List.of(SmsProvider.SmsResult.failure("SEND_FAILED", "timeout")));
+
+        // When
+        List<SmsProvider.SmsResult> results = providerManager.sendSmsBatch(requests, "TWILIO", false);
+
+        // Then
+        assertEquals("SEND_FAILED", results.get(0).getErrorCode());
+        verify(solapi, never()).sendSmsBatch(anyList());
+        verify(providerHealth).record(eq("TWILIO"), eq(false), anyLong());
+    }
+
+    private SmsProvider.SmsRequest request(String phoneNumber) {
+        return new SmsProvider.SmsRequest(phoneNumber, null, "Welcome", null);
+    }
+}
@@ -0,0 +1,132 @@
+package com.mindshift.ums.service.adapter.provider.impl;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SmtpTransportPoolTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+    private final List<Transport> opened = new ArrayList<>();
+
+    private SmtpTransportPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new SmtpTransportPool(this::connect, 2, 3, 300_000, 10_000, 60_000, 100, clock::get);
+    }
+
+    @Test
+    void borrow_ReusesReleasedConnection() throws Exception {
+        // Given
+        SmtpTransportPool.PooledTransport first = pool.borrow();
+        pool.release(first, false);
+
+        // When
+        SmtpTransportPool.PooledTransport second = pool.borrow();
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, pool.getCreated());
+        assertEquals(1, pool.getActive());
+    }
+
+    @Test
+    void release_RotatesConnectionAfterMaxMessages() throws Exception {
+        // Given
+        SmtpTransportPool.PooledTransport transport = pool.borrow();
+        for (int i = 0; i < 3; i++) {
+            transport.send(message());
+        }
+
+        // When
+        pool.release(transport, false);
+
+        // Then
+        assertFalse(transport.hasCapacity());
+        assertEquals(0, pool.getIdle());
+        assertEquals(1, pool.getClosed());
+        verify(opened.get(0)).close();
+    }
+
+    @Test
+    void release_DiscardsBrokenConnection() throws Exception {
+        // Given
+        SmtpTransportPool.PooledTransport transport = pool.borrow();
+
+        // When
+        pool.release(transport, true);
+        SmtpTransportPool.PooledTransport next = pool.borrow();
+
+        // Then
+        assertNotSame(transport, next);
+        assertEquals(2, pool.getCreated());
+    }
+
+    @Test
+    void borrow_ReplacesConnectionThatFailsHealthCheck() throws Exception {
+        // Given
+        SmtpTransportPool.PooledTransport transport = pool.borrow();
+        pool.release(transport, false);
+        when(opened.get(0).isConnected()).thenReturn(false);
+        clock.addAndGet(20_000);
+
+        // When
+        SmtpTransportPool.PooledTransport next = pool.borrow();
+
+        // Then
+        assertNotSame(transport, next);
+        assertEquals(1, pool.getClosed());
+    }
+
+    @Test
+    void borrow_FailsWhenPoolExhausted() throws Exception {
+        // Given
+        pool.borrow();
+        pool.borrow();
+
+        // When / Then
+        assertThrows(MessagingException.class, () -> pool.borrow());
+        assertEquals(2, pool.getActive());
+    }
+
+    @Test
+    void evictIdle_ClosesStaleConnections() throws Exception {
+        // Given
+        SmtpTransportPool.PooledTransport transport = pool.borrow();
+        pool.release(transport, false);
+        clock.addAndGet(60_000);
+
+        // When
+        pool.evictIdle();
+
+        // Then
+        assertEquals(0, pool.getIdle());
+        verify(opened.get(0)).close();
+    }
+
+    private Transport connect() {
+        Transport transport = mock(Transport.class);
+        opened.add(transport);
+        return transport;
+    }
+
+    private MimeMessage message() throws MessagingException {
+        MimeMessage message = new MimeMessage(Session.getInstance(new Properties()));
+        message.setRecipients(jakarta.mail.Message.RecipientType.TO, "user@example.com");
+        message.setText("hello");
+        return message;
+    }
+}
@@ -0,0 +1,101 @@
+package com.mindshift.ums.service.kafka;
+
+import com.mindshift.ums.domain.entity.Message;
+import com.mindshift.ums.domain.enums.ChannelType;
+import com.mindshift.ums.event.MessageRequestedEvent;
+import com.mindshift.ums.event.UmsEvent;
+import com.mindshift.ums.metrics.StageTimers;
+import com.mindshift.ums.metrics.UmsMetrics;
+import com.mindshift.ums.repository.MessageJdbcRepository;
+import com.mindshift.ums.repository.MessageRepository;
+import com.mindshift.ums.service.adapter.ChannelAdapterService;
+import com.mindshift.ums.service.retry.RetryScheduler;
+import com.mindshift.ums.service.stats.MessageStatsService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessageEventConsumerTest {
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private MessageJdbcRepository messageJdbcRepository;
+
+    @Mock
+    private ChannelAdapterService channelAdapterService;
+
+    @Mock
+    private UmsMetrics umsMetrics;
+
+    @Mock
+    private RetryScheduler retryScheduler;
+
+    @Mock
+    private MessageStatsService messageStatsService;
+
+    @Mock
+    private StageTimers stageTimers;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    private MessageEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new MessageEventConsumer(messageRepository, messageJdbcRepository, channelAdapterService,
+            Runnable::run, umsMetrics, retryScheduler, messageStatsService, stageTimers, 60_000, 1_000);
+    }
+
+    @Test
+    void handleMessageRequestedBatch_RedeliversWhenTheClaimFails() {
+        // Given
+        Message message = new Message("req_1", "tenant1", ChannelType.SMS, "WELCOME_01");
+        message.setId(1L);
+        when(messageRepository.findAllByRequestIdIn(anySet())).thenReturn(List.of(message));
+        when(messageJdbcRepository.claimForProcessing(anyList()))
+            .thenThrow(new DataAccessResourceFailureException("down"));
+
+        // When
+        consumer.handleMessageRequestedBatch(List.of(record("req_1")), acknowledgment);
+
+        // Then
+        verify(acknowledgment, never()).acknowledge();
+        verify(acknowledgment).nack(0, Duration.ofMillis(1_000));
+        verifyNoInteractions(channelAdapterService);
+    }
+
+    @Test
+    void handleMessageRequestedBatch_AcknowledgesWhenNothingIsPending() {
+        // Given
+        when(messageRepository.findAllByRequestIdIn(anySet())).thenReturn(List.of());
+        when(messageJdbcRepository.claimForProcessing(anyList())).thenReturn(List.of());
+
+        // When
+        consumer.handleMessageRequestedBatch(List.of(record("req_1")), acknowledgment);
+
+        // Then
+        verify(acknowledgment).acknowledge();
+        verify(acknowledgment, never()).nack(anyInt(), any(Duration.class));
+    }
+
+    private ConsumerRecord<String, UmsEvent> record(String requestId) {
+        UmsEvent event = new MessageRequestedEvent(requestId, "tenant1", "SMS", "WELCOME_01", "NORMAL",
+            0L, System.currentTimeMillis());
+        return new ConsumerRecord<>(PriorityLanes.TOPIC_NORMAL, 0, 0L, requestId, event);
+    }
+}
@@ -0,0 +1,104 @@
+package com.mindshift.ums.service.maintenance;
+
+import com.mindshift.ums.metrics.UmsMetrics;
+import com.mindshift.ums.repository.MessageJdbcRepository;
+import com.mindshift.ums.service.kafka.KafkaProducerService;
+import com.mindshift.ums.service.stats.MessageStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessageExpiryServiceTest {
+
+    @Mock
+    private MessageJdbcRepository messageJdbcRepository;
+
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private UmsMetrics umsMetrics;
+
+    @Mock
+    private MessageStatsService messageStatsService;
+
+    private MessageExpiryService messageExpiryService;
+
+    @BeforeEach
+    void setUp() {
+        messageExpiryService = new MessageExpiryService(messageJdbcRepository, kafkaProducerService,
+            transactionManager, umsMetrics, messageStatsService, 2, 10, 48, 86400);
+    }
+
+    @Test
+    void sweep_ExpiresInChunksUntilPartialChunk() {
+        // Given
+        when(messageJdbcRepository.expireChunk(any(), any(), eq(2)))
+            .thenReturn(changes(2), changes(1));
+        when(kafkaProducerService.publishMessageStatusChangeBatch(anyList()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        int expired = messageExpiryService.sweep();
+
+        // Then
+        assertEquals(3, expired);
+        verify(messageJdbcRepository, times(2)).expireChunk(any(), any(), eq(2));
+        verify(kafkaProducerService, times(2)).publishMessageStatusChangeBatch(anyList());
+        verify(messageStatsService, times(2)).recordStatusChanges(anyList());
+        verify(umsMetrics).incrementMessagesExpired(2);
+        verify(umsMetrics).incrementMessagesExpired(1);
+    }
+
+    @Test
+    void sweep_NothingExpired() {
+        // Given
+        when(messageJdbcRepository.expireChunk(any(), any(), eq(2))).thenReturn(List.of());
+
+        // When
+        int expired = messageExpiryService.sweep();
+
+        // Then
+        assertEquals(0, expired);
+        verifyNoInteractions(kafkaProducerService);
+        verify(umsMetrics, never()).incrementMessagesExpired(anyInt());
+    }
+
+    @Test
+    void sweep_StopsOnFailure() {
+        // Given
+        when(messageJdbcRepository.expireChunk(any(), any(), eq(2)))
+            .thenReturn(changes(2))
+            .thenThrow(new RuntimeException("lock timeout"));
+        when(kafkaProducerService.publishMessageStatusChangeBatch(anyList()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        int expired = messageExpiryService.sweep();
+
+        // Then
+        assertEquals(2, expired);
+        verify(umsMetrics).recordExpirySweep(anyLong());
+    }
+
+    private List<MessageJdbcRepository.StatusChange> changes(int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> new MessageJdbcRepository.StatusChange("req_" + i, "tenant1", "SMS", "PENDING", "EXPIRED"))
+            .toList();
+    }
+}
@@ -0,0 +1,108 @@
+package com.mindshift.ums.service.maintenance;
+
+import com.mindshift.ums.domain.entity.Message;
+import com.mindshift.ums.domain.enums.ChannelType;
+import com.mindshift.ums.metrics.UmsMetrics;
+import com.mindshift.ums.repository.MessageJdbcRepository;
+import com.mindshift.ums.service.retry.RetryScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RetrySweeperTest {
+
+    @Mock
+    private MessageJdbcRepository messageJdbcRepository;
+
+    @Mock
+    private RetryScheduler retryScheduler;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private UmsMetrics umsMetrics;
+
+    private RetrySweeper retrySweeper;
+
+    @BeforeEach
+    void setUp() {
+        retrySweeper = new RetrySweeper(messageJdbcRepository, retryScheduler, transactionManager, umsMetrics,
+            2, 10, 300_000, 48, 86400);
+    }
+
+    @Test
+    void sweep_RepublishesStalledRetriesInChunks() {
+        // Given
+        when(messageJdbcRepository.claimStalledRetries(anyList(), any(), any(), eq(2)))
+            .thenReturn(stalled(2), stalled(1));
+        when(retryScheduler.republishRetries(anyList())).thenReturn(true);
+
+        // When
+        int recovered = retrySweeper.sweep();
+
+        // Then
+        assertEquals(3, recovered);
+        verify(retryScheduler, times(2)).republishRetries(anyList());
+        verify(umsMetrics).incrementRetriesRecovered(3);
+    }
+
+    @Test
+    void sweep_WaitsOutEachTierDelayPlusGrace() {
+        // Given
+        when(messageJdbcRepository.claimStalledRetries(anyList(), any(), any(), eq(2))).thenReturn(List.of());
+        when(retryScheduler.republishRetries(anyList())).thenReturn(true);
+
+        // When
+        retrySweeper.sweep();
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LocalDateTime>> stalledBefore = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(messageJdbcRepository).claimStalledRetries(stalledBefore.capture(), now.capture(), any(), eq(2));
+        assertEquals(List.of(now.getValue().minusMinutes(6), now.getValue().minusMinutes(10),
+            now.getValue().minusMinutes(35)), stalledBefore.getValue());
+        verify(umsMetrics, never()).incrementRetriesRecovered(anyInt());
+    }
+
+    @Test
+    void sweep_StopsWhenPublishFails() {
+        // Given
+        when(messageJdbcRepository.claimStalledRetries(anyList(), any(), any(), eq(2))).thenReturn(stalled(2));
+        when(retryScheduler.republishRetries(anyList())).thenReturn(false);
+
+        // When
+        int recovered = retrySweeper.sweep();
+
+        // Then
+        assertEquals(0, recovered);
+        verify(messageJdbcRepository, times(1)).claimStalledRetries(anyList(), any(), any(), eq(2));
+        verify(transactionManager).rollback(any());
+        verify(umsMetrics, never()).incrementRetriesRecovered(anyInt());
+    }
+
+    private List<Message> stalled(int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> {
+                Message message = new Message("req_" + i, "tenant1", ChannelType.SMS, null);
+                message.setId((long) i);
+                message.setRetries(1);
+                return message;
+            })
+            .toList();
+    }
+}
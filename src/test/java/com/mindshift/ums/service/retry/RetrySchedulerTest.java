@@ -0,0 +1,136 @@
+package com.mindshift.ums.service.retry;
+
+import com.mindshift.ums.domain.entity.Message;
+import com.mindshift.ums.domain.entity.TenantConfig;
+import com.mindshift.ums.domain.enums.ChannelType;
+import com.mindshift.ums.domain.enums.MessageStatus;
+import com.mindshift.ums.metrics.UmsMetrics;
+import com.mindshift.ums.repository.TenantConfigRepository;
+import com.mindshift.ums.service.kafka.KafkaProducerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RetrySchedulerTest {
+
+    @Mock
+    private TenantConfigRepository tenantConfigRepository;
+
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+
+    @Mock
+    private UmsMetrics umsMetrics;
+
+    private RetryScheduler retryScheduler;
+
+    @BeforeEach
+    void setUp() {
+        retryScheduler = new RetryScheduler(tenantConfigRepository, kafkaProducerService, umsMetrics,
+            3, Set.of("SEND_FAILED", "ADAPTER_ERROR"), 1000);
+    }
+
+    @Test
+    void prepareRetry_TransientFailure() {
+        // Given
+        when(tenantConfigRepository.findById("tenant1")).thenReturn(Optional.empty());
+        Message message = failedMessage("SEND_FAILED", 0);
+
+        // When
+        boolean retrying = retryScheduler.prepareRetry(message);
+
+        // Then
+        assertTrue(retrying);
+        assertEquals(MessageStatus.PENDING, message.getStatus());
+        assertEquals(1, message.getRetries());
+        assertNotNull(message.getLastRetryAt());
+    }
+
+    @Test
+    void prepareRetry_PermanentFailure() {
+        // Given
+        Message message = failedMessage("INVALID_PHONE", 0);
+
+        // When
+        boolean retrying = retryScheduler.prepareRetry(message);
+
+        // Then
+        assertFalse(retrying);
+        assertEquals(MessageStatus.FAILED, message.getStatus());
+        verifyNoInteractions(tenantConfigRepository);
+    }
+
+    @Test
+    void prepareRetry_TenantAttemptCap() {
+        // Given
+        TenantConfig tenant = new TenantConfig("tenant1", "Test Tenant", "test-api-key", "test-secret");
+        tenant.setFeatures(Map.of("max_retry_attempts", 1));
+        when(tenantConfigRepository.findById("tenant1")).thenReturn(Optional.of(tenant));
+
+        // When
+        boolean first = retryScheduler.prepareRetry(failedMessage("SEND_FAILED", 0));
+        boolean second = retryScheduler.prepareRetry(failedMessage("SEND_FAILED", 1));
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        verify(tenantConfigRepository, times(1)).findById("tenant1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishRetries_UsesTierForAttempt() {
+        // Given
+        when(kafkaProducerService.publishMessageRetryBatch(anyList()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        Message firstRetry = failedMessage("SEND_FAILED", 1);
+        Message thirdRetry = failedMessage("SEND_FAILED", 3);
+
+        // When
+        boolean published = retryScheduler.publishRetries(List.of(firstRetry, thirdRetry));
+
+        // Then
+        assertTrue(published);
+        ArgumentCaptor<List<RetryScheduler.ScheduledRetry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(kafkaProducerService).publishMessageRetryBatch(captor.capture());
+        assertEquals(RetryScheduler.TOPIC_RETRY_1M, captor.getValue().get(0).getTopic());
+        assertEquals(RetryScheduler.TOPIC_RETRY_30M, captor.getValue().get(1).getTopic());
+        verify(umsMetrics).incrementRetriesScheduled(2);
+    }
+
+    @Test
+    void publishRetries_PublishFailure() {
+        // Given
+        when(kafkaProducerService.publishMessageRetryBatch(anyList()))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+
+        // When
+        boolean published = retryScheduler.publishRetries(List.of(failedMessage("SEND_FAILED", 1)));
+
+        // Then
+        assertFalse(published);
+        verify(umsMetrics, never()).incrementRetriesScheduled(anyInt());
+    }
+
+    private Message failedMessage(String errorCode, int retries) {
+        Message message = new Message("req_" + retries, "tenant1", ChannelType.SMS, "WELCOME_01");
+        message.setStatus(MessageStatus.FAILED);
+        message.setErrorCode(errorCode);
+        message.setRetries(retries);
+        return message;
+    }
+}
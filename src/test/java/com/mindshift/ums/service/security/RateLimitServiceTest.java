@@ -0,0 +1,67 @@
+package com.mindshift.ums.service.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitServiceTest {
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    private RateLimitService rateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitService = new RateLimitService(redisTemplate, true, 1000, Map.of("messages", 50), 1000);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void checkRateLimit_ServedFromLocalLease() {
+        // Given
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+            .thenReturn(List.of(50L, 9950L, 10000L));
+
+        // When
+        for (int i = 0; i < 50; i++) {
+            assertTrue(rateLimitService.checkRateLimit("tenant1", "messages", 10000, 1).isAllowed());
+        }
+
+        // Then
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        verify(redisTemplate, never()).opsForHash();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void checkRateLimit_LowLimitGoesToRedis() {
+        // Given
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+            .thenReturn(List.of(1L, 9L, 10L), List.of(0L, 0L, 10L));
+
+        // When
+        RateLimitService.RateLimitResult first = rateLimitService.checkRateLimit("recipient1", "messages", 10, 1);
+        RateLimitService.RateLimitResult second = rateLimitService.checkRateLimit("recipient1", "messages", 10, 1);
+
+        // Then
+        assertTrue(first.isAllowed());
+        assertEquals(9, first.getRemainingTokens());
+        assertFalse(second.isAllowed());
+        assertEquals(0, second.getRemainingTokens());
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        verify(redisTemplate, never()).opsForHash();
+    }
+}
@@ -0,0 +1,95 @@
+package com.mindshift.ums.service.security;
+
+import com.mindshift.ums.repository.RecipientPrefJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecipientPrefScreenTest {
+
+    @Mock
+    private RecipientPrefJdbcRepository prefJdbcRepository;
+
+    private LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+    private RecipientPrefScreen screen;
+
+    @BeforeEach
+    void setUp() {
+        screen = new RecipientPrefScreen(prefJdbcRepository, () -> now, 1000, 0.01);
+    }
+
+    @Test
+    void mightHavePrefs_AllowsEveryoneUntilBuilt() {
+        // When / Then
+        assertFalse(screen.isReady());
+        assertTrue(screen.mightHavePrefs("tenant", "+821012345678"));
+    }
+
+    @Test
+    void rebuild_ScreensOutUnknownRecipients() {
+        // Given
+        givenPrefs("tenant", "+821012345678");
+
+        // When
+        screen.rebuild();
+
+        // Then
+        assertTrue(screen.isReady());
+        assertTrue(screen.mightHavePrefs("tenant", "+821012345678"));
+        assertFalse(screen.mightHavePrefs("tenant", "+821099999999"));
+        assertFalse(screen.mightHavePrefs("other-tenant", "+821012345678"));
+    }
+
+    @Test
+    void add_MakesNewPreferenceVisible() {
+        // Given
+        givenPrefs("tenant", "+821012345678");
+        screen.rebuild();
+
+        // When
+        screen.add("new-tenant", "user@example.com");
+
+        // Then
+        assertTrue(screen.mightHavePrefs("new-tenant", "user@example.com"));
+    }
+
+    @Test
+    void syncChanges_PicksUpPreferencesSavedElsewhere() {
+        // Given
+        givenPrefs("tenant", "+821012345678");
+        screen.rebuild();
+        now = now.plusSeconds(10);
+        when(prefJdbcRepository.findKeysUpdatedSince(any()))
+            .thenReturn(List.of(new RecipientPrefJdbcRepository.PrefKey("tenant", "+821055555555")));
+
+        // When
+        List<RecipientPrefJdbcRepository.PrefKey> changed = screen.syncChanges();
+
+        // Then
+        assertEquals(1, changed.size());
+        assertTrue(screen.mightHavePrefs("tenant", "+821055555555"));
+        // Polls from the rebuild start, with overlap for clock skew
+        verify(prefJdbcRepository).findKeysUpdatedSince(LocalDateTime.of(2025, 1, 1, 11, 59, 55));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenPrefs(String tenantId, String recipientKey) {
+        when(prefJdbcRepository.countByTenant()).thenReturn(Map.of(tenantId, 1L));
+        doAnswer(invocation -> {
+            ((BiConsumer<String, String>) invocation.getArgument(0)).accept(tenantId, recipientKey);
+            return null;
+        }).when(prefJdbcRepository).forEachKey(any());
+    }
+}
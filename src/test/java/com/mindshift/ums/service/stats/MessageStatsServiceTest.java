@@ -0,0 +1,172 @@
+package com.mindshift.ums.service.stats;
+
+import com.mindshift.ums.domain.entity.Message;
+import com.mindshift.ums.domain.enums.ChannelType;
+import com.mindshift.ums.domain.enums.MessageStatus;
+import com.mindshift.ums.repository.MessageStatsJdbcRepository;
+import com.mindshift.ums.repository.MessageStatsJdbcRepository.StatsKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessageStatsServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0, 30);
+    private static final LocalDateTime MINUTE = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Mock
+    private MessageStatsJdbcRepository statsJdbcRepository;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MessageStatsService statsService;
+
+    @BeforeEach
+    void setUp() {
+        statsService = new MessageStatsService(statsJdbcRepository, redisTemplate, transactionManager, () -> NOW, 7);
+    }
+
+    @Test
+    void flush_AddsMinuteCountsAndNetTotals() {
+        // Given
+        Message message = message(MessageStatus.PENDING);
+        statsService.recordAccepted(message);
+        message.setStatus(MessageStatus.PROCESSING);
+        statsService.recordTransition(message, MessageStatus.PENDING);
+
+        // When
+        statsService.flush();
+
+        // Then
+        verify(statsJdbcRepository).addMinuteCounts(MINUTE, Map.of(
+            key("ACCEPTED"), 1L,
+            key("PENDING"), 1L,
+            key("PROCESSING"), 1L));
+        // Entered and left PENDING: no net change
+        verify(statsJdbcRepository).addTotals(Map.of(
+            key("ACCEPTED"), 1L,
+            key("PROCESSING"), 1L));
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void flush_KeepsCountsWhenTheTableWriteFails() {
+        // Given
+        statsService.recordAccepted(message(MessageStatus.PENDING));
+        doThrow(new DataAccessResourceFailureException("down"))
+            .doNothing()
+            .when(statsJdbcRepository).addTotals(anyMap());
+
+        // When
+        statsService.flush();
+        statsService.flush();
+
+        // Then
+        verify(statsJdbcRepository, times(2)).addTotals(Map.of(key("ACCEPTED"), 1L, key("PENDING"), 1L));
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void recordAccepted_CountsOnlyOnceTheTransactionCommits() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            statsService.recordAccepted(List.of(message(MessageStatus.PENDING), message(MessageStatus.PENDING)));
+            statsService.flush();
+            verifyNoInteractions(statsJdbcRepository);
+
+            // When
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        statsService.flush();
+
+        // Then
+        verify(statsJdbcRepository).addTotals(Map.of(key("ACCEPTED"), 2L, key("PENDING"), 2L));
+    }
+
+    @Test
+    void refreshSnapshot_ReadsRedisTotalsAndMinuteWindows() {
+        // Given
+        doReturn(hashOperations).when(redisTemplate).opsForHash();
+        when(hashOperations.entries("ums:stats:totals")).thenReturn(Map.of(
+            "seeded", "1",
+            "ACCEPTED:SMS", "120",
+            "ACCEPTED:EMAIL", "30",
+            "PENDING:SMS", "7",
+            "PENDING:EMAIL", "3",
+            "FAILED:SMS", "2"));
+        when(statsJdbcRepository.sumMinutesSince(MINUTE.minusMinutes(24 * 60 - 1))).thenReturn(Map.of(
+            MINUTE.minusHours(5), Map.of("ACCEPTED", 100L),
+            MINUTE.minusMinutes(10), Map.of("ACCEPTED", 40L, "FAILED", 2L)));
+
+        // When
+        MessageStatsService.Snapshot snapshot = statsService.getSnapshot();
+
+        // Then
+        assertEquals(150, snapshot.getTotalAccepted());
+        assertEquals(120, snapshot.getAcceptedCount(ChannelType.SMS));
+        assertEquals(10, snapshot.getStatusCount(MessageStatus.PENDING));
+        assertEquals(2, snapshot.getStatusCount(MessageStatus.FAILED));
+        assertEquals(140, snapshot.getAcceptedLast24h());
+        assertEquals(40, snapshot.getAcceptedLastHour());
+        assertEquals(2, snapshot.getFailedLastHour());
+        verify(statsJdbcRepository, never()).findTotals();
+    }
+
+    @Test
+    void refreshSnapshot_RebuildsRedisTotalsFromTheTable() {
+        // Given: the hash was lost and recreated by an increment
+        doReturn(hashOperations).when(redisTemplate).opsForHash();
+        when(hashOperations.entries("ums:stats:totals")).thenReturn(Map.of("ACCEPTED:SMS", "1"));
+        when(statsJdbcRepository.findTotals()).thenReturn(Map.of(
+            new StatsKey("tenant1", "SMS", "ACCEPTED"), 50L,
+            new StatsKey("tenant2", "SMS", "ACCEPTED"), 25L));
+        when(statsJdbcRepository.sumMinutesSince(any())).thenReturn(Map.of());
+
+        // When
+        statsService.refreshSnapshot();
+
+        // Then
+        assertEquals(75, statsService.getSnapshot().getAcceptedCount(ChannelType.SMS));
+        verify(hashOperations).putAll("ums:stats:totals", Map.of("ACCEPTED:SMS", "75", "seeded", "1"));
+    }
+
+    private Message message(MessageStatus status) {
+        Message message = new Message();
+        message.setTenantId("tenant1");
+        message.setChannel(ChannelType.SMS);
+        message.setStatus(status);
+        return message;
+    }
+
+    private StatsKey key(String status) {
+        return new StatsKey("tenant1", "SMS", status);
+    }
+}